@@ -3,7 +3,10 @@ package es.mde.entidades;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.ArmaListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,12 +17,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa un Arma (se tiene en cuenta en las Zonas de Caída)
  * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
  *
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "ARMAS")
 @EntityListeners(ArmaListener.class)
 public class Arma {
@@ -28,7 +36,6 @@ public class Arma {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique = true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	private String tipoTiro;
 	@OneToMany(cascade = CascadeType.ALL, targetEntity = SolicitudArma.class, mappedBy = "arma")
@@ -61,16 +68,9 @@ public class Arma {
 	 * Devuelve el id de un arma
 	 * @return Devuelve el id de un arma
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id de un arma
-	 * @param idString Guarda el id de un arma
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
@@ -13,6 +13,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import es.mde.repositorios.CartografiaListener;
 
@@ -30,7 +31,6 @@ public class Cartografia {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique = true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	private String nombreArchivo;
 	@ManyToOne(fetch = FetchType.LAZY)
@@ -73,16 +73,9 @@ public class Cartografia {
 	 * Devuelve el id de un conjunto cartografico
 	 * @return Devuelve el id de un conjunto cartografico
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id de un conjunto cartografico
-	 * @param idString Guarda el id de un conjunto cartografico
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
@@ -3,7 +3,11 @@ package es.mde.entidades;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.CategoriaListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -12,10 +16,15 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Categoría va a representar la jerarquía de los recursos de un CENAD/CMT
@@ -23,14 +32,17 @@ import jakarta.persistence.Table;
  *
  */
 @Entity
-@Table(name="CATEGORIAS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name="CATEGORIAS", indexes = { @Index(name = "IDX_CATEGORIAS_RUTA", columnList = "ruta"),
+		@Index(name = "IDX_CATEGORIAS_CENAD", columnList = "CENAD"),
+		@Index(name = "IDX_CATEGORIAS_CATEGORIA_PADRE", columnList = "CATEGORIA_PADRE") })
 @EntityListeners(CategoriaListener.class)
 public class Categoria {
 	@Id
 	@GeneratedValue(strategy=GenerationType.IDENTITY)
 	@Column(unique=true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	private String descripcion;
 	@OneToMany(cascade = CascadeType.ALL, targetEntity = Recurso.class, mappedBy = "categoria")
@@ -43,6 +55,12 @@ public class Categoria {
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "CATEGORIA_PADRE")
 	private Categoria categoriaPadre;
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private String ruta; // ids de sus ancestros: /idRaiz/.../idPadre/ ("/" en las categorias raiz)
+	/** Id del CENAD que tenia la categoria al leerla de la BD, para descartar tambien su arbol si cambia de CENAD */
+	@Transient
+	@JsonIgnore
+	private Long idCenadLeido;
 	
 	/**
 	 * Crea una categoría
@@ -69,17 +87,11 @@ public class Categoria {
 	 * Devuelve el id de una categoría
 	 * @return Devuelve el id de una categoría
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
+		return id == null ? null : id.toString();
 	}
 	
-	/**
-	 * Guarda el id de una categoría
-	 * @param idString Guarda el id de una categoría
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
-	}
 	
 	/**
 	 * Devuelve el nombre de una categoría
@@ -161,6 +173,40 @@ public class Categoria {
 		this.categoriaPadre = categoriaPadre;
 	}
 	
+	/**
+	 * Devuelve la ruta de ids desde la categoría raiz hasta su categoría Padre (/idRaiz/.../idPadre/). No incluye
+	 * su propio id para poder escribirla en el INSERT aunque el id lo asigne la BD
+	 * @return Devuelve la ruta de la categoría
+	 */
+	public String getRuta() {
+		return ruta;
+	}
+	
+	/**
+	 * Guarda la ruta de ids desde la categoría raiz hasta su categoría Padre
+	 * @param ruta Ruta de la categoría
+	 */
+	public void setRuta(String ruta) {
+		this.ruta = ruta;
+	}
+	
+	/**
+	 * Calcula la ruta que le corresponde a la categoría según su categoría Padre
+	 * @return Devuelve la ruta que le corresponde a la categoría
+	 */
+	public String calcularRuta() {
+		return getCategoriaPadre() == null ? "/" : getCategoriaPadre().getRutaSubcategorias();
+	}
+
+	/**
+	 * Devuelve el comienzo de la ruta de todas sus subcategorías anidadas (/idRaiz/.../id/)
+	 * @return Devuelve la ruta de la categoría seguida de su id
+	 */
+	@JsonIgnore
+	public String getRutaSubcategorias() {
+		return getRuta() + getId() + "/";
+	}
+	
 	/**
 	 * Devuelve el CENAD/CMT de una categoría
 	 * @return Devuelve el CENAD/CMT de la categoría
@@ -176,6 +222,22 @@ public class Categoria {
 	public void setCenad(Cenad cenad) {
 		this.cenad = cenad;
 	}
+	
+	/**
+	 * Devuelve el id del CENAD/CMT que tenia la categoría al leerla de la BD
+	 * @return Devuelve el id del CENAD/CMT leido de la BD
+	 */
+	public Long getIdCenadLeido() {
+		return idCenadLeido;
+	}
+	
+	/**
+	 * Guarda el id del CENAD/CMT que tenia la categoría al leerla de la BD
+	 * @param idCenadLeido Id del CENAD/CMT leido de la BD
+	 */
+	public void setIdCenadLeido(Long idCenadLeido) {
+		this.idCenadLeido = idCenadLeido;
+	}
 	/**
 	 * Añade la subcategoría a la categoría. Establece la relacion en los dos sentidos
 	 * @param categoria Subcategoría añadida a la categoría
@@ -3,7 +3,10 @@ package es.mde.entidades;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.CategoriaFicheroListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -15,12 +18,17 @@ import jakarta.persistence.Lob;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * CategoríaFichero va a representar los diferentes tipos de fichero que considera la aplicación.
  * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
  *
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "CATEGORIAS_FICHERO")
 @EntityListeners(CategoriaFicheroListener.class)
 public class CategoriaFichero {
@@ -28,7 +36,6 @@ public class CategoriaFichero {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique = true)
 	private Long id;
-	private String idString;
 	private String nombre; //Imagen, normativa, instrucciones, se definiran muchas en el front.
 	private String descripcion;
 	private int tipo; //0 para imagenes y 1 para otros archivos
@@ -62,16 +69,9 @@ public class CategoriaFichero {
 	 * Devuelve el id de una categoría de fichero
 	 * @return Devuelve el id una categoría de fichero
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id una categoría de fichero
-	 * @param idString Guarda el id una categoría de fichero
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
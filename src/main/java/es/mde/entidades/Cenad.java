@@ -3,13 +3,19 @@ package es.mde.entidades;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.CenadListener;
 import es.mde.security.usuarios.UsuarioAdministrador;
 import es.mde.security.usuarios.UsuarioGestor;
+import jakarta.persistence.Basic;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -18,12 +24,17 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa un Centro de Adiestramiento/Campo de Maniobras y Tiro
  * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
  *
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name="CENADS")
 @EntityListeners(CenadListener.class)
 public class Cenad {
@@ -31,10 +42,10 @@ public class Cenad {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique=true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	private int provincia;
 	@Lob
+	@Basic(fetch = FetchType.LAZY)
 	@Column(columnDefinition = "TEXT")
 	private String descripcion;
 	private String direccion;
@@ -42,6 +53,9 @@ public class Cenad {
 	private String email;
 	private String escudo;
 	private String infoCenad;
+	@JsonIgnore
+	@Column(length = 64)
+	private String tokenCalendario;
 	@OneToMany(cascade = CascadeType.ALL, targetEntity = Categoria.class, mappedBy = "cenad")
 	private Collection<Categoria> categorias = new ArrayList<>();
 	@OneToMany(cascade = CascadeType.ALL, targetEntity = Cartografia.class, mappedBy = "cenad")
@@ -80,16 +94,9 @@ public class Cenad {
 	 * Devuelve el id de un CENAD
 	 * @return Devuelve el id de un CENAD
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id de un CENAD
-	 * @param idString Guarda el id de un CENAD
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
@@ -219,6 +226,22 @@ public class Cenad {
 	public void setInfoCenad(String infoCenad) {
 		this.infoCenad = infoCenad;
 	}
+
+	/**
+	 * Devuelve el token para suscribirse al calendario ICS del CENAD
+	 * @return Devuelve el token del calendario ICS del CENAD
+	 */
+	public String getTokenCalendario() {
+		return tokenCalendario;
+	}
+
+	/**
+	 * Guarda el token para suscribirse al calendario ICS del CENAD
+	 * @param tokenCalendario Token del calendario ICS del CENAD
+	 */
+	public void setTokenCalendario(String tokenCalendario) {
+		this.tokenCalendario = tokenCalendario;
+	}
 	
 	/**
 	 * Devuelve las categorias del CENAD
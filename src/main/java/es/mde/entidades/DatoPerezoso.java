@@ -0,0 +1,25 @@
+package es.mde.entidades;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca los getters del JSON que leen un atributo LAZY de la entidad. Si el atributo no se ha cargado, como en los
+ * listados, la propiedad no se escribe en el JSON en lugar de lanzar una consulta por cada fila
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DatoPerezoso {
+
+	/**
+	 * Nombre del atributo LAZY del que depende la propiedad
+	 *
+	 * @return Devuelve el nombre del atributo
+	 */
+	String value();
+}
@@ -0,0 +1,762 @@
+package es.mde.entidades;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Representa los datos de una solicitud que dependen del formulario de su recurso. Estan en su propia tabla, con
+ * el mismo id que la solicitud, para que los listados, el calendario y las notificaciones no los lean. En el JSON
+ * van en el objeto datosEspecificos de la solicitud, sin id ni enlace propio, y solo se crean si se envia
+ * 
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Entity
+@Table(name = "SOLICITUDES_DATOS_ESPECIFICOS")
+public class DatosEspecificosSolicitud {
+
+	@Id
+	private Long id;
+	@MapsId
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "SOLICITUD")
+	private SolicitudRecurso solicitud;
+
+	// ZONA DE CAIDA DE PROYECTILES/EXPLOSIVOS
+
+	private Boolean conMunTrazadoraIluminanteFumigena;
+
+	// CAMPO DE TIRO DE CARROS, VCI/C, PRECISICION
+
+	private String tipoEjercicio;
+	private String armaPral;
+	private int armaPrpalNumDisparosPrev;
+	private String armaSecund;
+	private int armaSecundNumDisparosPrev;
+
+	// CAMPO DE TIRO LASER (se han creado hasta 5 tipos de blancos para hacerlo
+	// compatible con cualquier CENAD/CMT)
+
+	private int numBlancosFijosA;
+	private int numBlancosFijosB;
+	private int numBlancosFijosC;
+	private int numBlancosFijosD;
+	private int numBlancosFijosE;
+	private int numBlancosMovilesA;
+	private int numBlancosMovilesB;
+	private int numBlancosMovilesC;
+	private int numBlancosMovilesD;
+	private int numBlancosMovilesE;
+
+	// CAMPO DE TIRO
+
+	private String arma1CT;
+	private int arma1CTlongitud;
+	private String arma2CT;
+	private int arma2CTlongitud;
+
+	// CAMPO EXPLOSIVOS
+
+	private String explosivo;
+
+	// POLIGONO DE COMBATE EN ZONAS URBANAS
+	// no tiene atributos específicos
+
+	// COMBATE URBANO
+	// no tiene atributos específicos
+
+	// TORRE MULTIUSOS
+	// no tiene atributos específicos
+
+	// CASA 3 ALTURAS
+	// no tiene atributos específicos
+
+	// PISTA DE CONDUCCION TT/OBSTACULOS
+	// no tiene atributos específicos
+
+	// EJERCICIOS ZONA RESTRINGIDA
+
+	private String actividad;
+
+	// LOGISTICA
+	// ACANTONAMIENTO/VIVAC
+
+	private String vivac;
+
+	// ZONA DE VIDA DE BATALLON
+
+	private Boolean conUsoCocina;
+	private int numPersonasZVB;
+
+	// ZONA DE ESPERA
+
+	private int numPersonasZE;
+
+	// LAVADEROS
+
+	private int numVehCadenas;
+	private int numVehRuedas;
+
+	// SIMULACION REAL LASER
+
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+	private Date fechaHoraMontaje;
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+	private Date fechaHoraDesmontaje;
+	private int numSimuladores;
+	private String usoEstacionSeg;
+
+	// OTROS RECURSOS
+	// no contiene atributos específicos
+	private String otrosDatosEspecificos;
+
+	/**
+	 * Crea los datos especificos de una solicitud
+	 */
+	public DatosEspecificosSolicitud() {
+		super();
+	}
+
+	/**
+	 * Devuelve el id de los datos especificos, que es el de su solicitud
+	 * 
+	 * @return Devuelve el id de los datos especificos
+	 */
+	@JsonIgnore
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Guarda el id de los datos especificos
+	 * 
+	 * @param id Id de los datos especificos
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Devuelve la solicitud
+	 * 
+	 * @return Devuelve la solicitud a la que pertenecen los datos
+	 */
+	@JsonIgnore
+	public SolicitudRecurso getSolicitud() {
+		return solicitud;
+	}
+
+	/**
+	 * Guarda la solicitud
+	 * 
+	 * @param solicitud Solicitud a la que pertenecen los datos
+	 */
+	public void setSolicitud(SolicitudRecurso solicitud) {
+		this.solicitud = solicitud;
+	}
+
+	/**
+	 * Devuelve el tipo de Ejercicio
+	 * 
+	 * @return tipoEjericio
+	 */
+	public String getTipoEjercicio() {
+		return tipoEjercicio;
+	}
+
+	/**
+	 * Guarda el tipo de Ejercicio
+	 * 
+	 * @param tipoEjercicio
+	 */
+	public void setTipoEjercicio(String tipoEjercicio) {
+		this.tipoEjercicio = tipoEjercicio;
+	}
+
+	/**
+	 * Devuelve el arma principal
+	 * 
+	 * @return el arma principal
+	 */
+	public String getArmaPral() {
+		return armaPral;
+	}
+
+	/**
+	 * Guarda el arma principal
+	 * 
+	 * @param armaPral
+	 */
+	public void setArmaPral(String armaPral) {
+		this.armaPral = armaPral;
+	}
+
+	/**
+	 * Devuelve el numero de disparos previstos del arma principal
+	 * 
+	 * @return numero de disparos previstos del arma principal
+	 */
+	public int getArmaPrpalNumDisparosPrev() {
+		return armaPrpalNumDisparosPrev;
+	}
+
+	/**
+	 * Guarda el numero de disparos previstos del arma principal
+	 * 
+	 * @param armaPrpalNumDisparosPrev
+	 */
+	public void setArmaPrpalNumDisparosPrev(int armaPrpalNumDisparosPrev) {
+		this.armaPrpalNumDisparosPrev = armaPrpalNumDisparosPrev;
+	}
+
+	/**
+	 * Devuelve el arma sencuandaria
+	 * 
+	 * @return el arma secundaria
+	 */
+	public String getArmaSecund() {
+		return armaSecund;
+	}
+
+	/**
+	 * Guarda el arma secuandaria
+	 * 
+	 * @param armaSecund
+	 */
+	public void setArmaSecund(String armaSecund) {
+		this.armaSecund = armaSecund;
+	}
+
+	/**
+	 * Devuelve el numero de disparos previsto del arma secundaria
+	 * 
+	 * @return numero de disparos previstos del arma secuandaria
+	 */	
+	public int getArmaSecundNumDisparosPrev() {
+		return armaSecundNumDisparosPrev;
+	}
+
+	/**
+	 * Guarda el numero de disparos previstos del arma secundaria
+	 * 
+	 * @param armaSecundNumDisparosPrev
+	 */	
+	public void setArmaSecundNumDisparosPrev(int armaSecundNumDisparosPrev) {
+		this.armaSecundNumDisparosPrev = armaSecundNumDisparosPrev;
+	}
+
+	/**
+	 * Devuelve el numero de blancos fijos A
+	 * 
+	 * @return umero de blancos fijos A
+	 */
+	public int getNumBlancosFijosA() {
+		return numBlancosFijosA;
+	}
+
+	/**
+	 * Guarda el numero de blancos fijos A
+	 * 
+	 * @param numBlancosFijosA
+	 */
+	public void setNumBlancosFijosA(int numBlancosFijosA) {
+		this.numBlancosFijosA = numBlancosFijosA;
+	}
+
+	/**
+	 * Devuelve el numero de blancos fijos B
+	 * 
+	 * @return numero de blancos fijos B
+	 */
+	public int getNumBlancosFijosB() {
+		return numBlancosFijosB;
+	}
+
+	/**
+	 * Guarda numero de blancos fijos B
+	 * 
+	 * @param numBlancosFijosB
+	 */
+	public void setNumBlancosFijosB(int numBlancosFijosB) {
+		this.numBlancosFijosB = numBlancosFijosB;
+	}
+
+	/**
+	 * Devuelve numero de blancos fijos C
+	 * 
+	 * @return numero de blancos fijos C
+	 */
+	public int getNumBlancosFijosC() {
+		return numBlancosFijosC;
+	}
+
+	/**
+	 * Guarda el numero de blancos fijos C
+	 * 
+	 * @param numBlancosFijosC
+	 */
+	public void setNumBlancosFijosC(int numBlancosFijosC) {
+		this.numBlancosFijosC = numBlancosFijosC;
+	}
+
+	/**
+	 * Devuelve el numero de blancos fijos D
+	 * 
+	 * @return numero de blancos fijos D
+	 */
+	public int getNumBlancosFijosD() {
+		return numBlancosFijosD;
+	}
+
+	/**
+	 * Guarda el numero de blancos fijos D
+	 * 
+	 * @param numBlancosFijosD
+	 */
+	public void setNumBlancosFijosD(int numBlancosFijosD) {
+		this.numBlancosFijosD = numBlancosFijosD;
+	}
+
+	/**
+	 * Devuelve el numero de blancos fijos E
+	 * 
+	 * @return el numero de blancos fijos E
+	 */
+	public int getNumBlancosFijosE() {
+		return numBlancosFijosE;
+	}
+
+	/**
+	 * Guarda el numero de blancos fijos E
+	 * 
+	 * @param numBlancosFijosE
+	 */
+	public void setNumBlancosFijosE(int numBlancosFijosE) {
+		this.numBlancosFijosE = numBlancosFijosE;
+	}
+
+	/**
+	 * Devuelve el numero de blancos moviles A
+	 * 
+	 * @return el numero de blancos moviles A
+	 */
+	public int getNumBlancosMovilesA() {
+		return numBlancosMovilesA;
+	}
+
+	/**
+	 * Guarda el numero de blancos moviles A
+	 * 
+	 * @param numBlancosMovilesA
+	 */
+	public void setNumBlancosMovilesA(int numBlancosMovilesA) {
+		this.numBlancosMovilesA = numBlancosMovilesA;
+	}
+
+	/**
+	 * Devuelve el numero de blancos moviles B
+	 * 
+	 * @return el numero de blancos moviles B
+	 */
+	public int getNumBlancosMovilesB() {
+		return numBlancosMovilesB;
+	}
+
+	/**
+	 * Guarda el numero de blancos moviles B
+	 * 
+	 * @param numBlancosMovilesB
+	 */
+	public void setNumBlancosMovilesB(int numBlancosMovilesB) {
+		this.numBlancosMovilesB = numBlancosMovilesB;
+	}
+
+	/**
+	 * Devuelve el numero de blancos moviles C
+	 * 
+	 * @return el numero de blancos moviles C
+	 */
+	public int getNumBlancosMovilesC() {
+		return numBlancosMovilesC;
+	}
+
+	/**
+	 * Guarda el numero de blancos moviles C
+	 * 
+	 * @param numBlancosMovilesC
+	 */
+	public void setNumBlancosMovilesC(int numBlancosMovilesC) {
+		this.numBlancosMovilesC = numBlancosMovilesC;
+	}
+
+	/**
+	 * Devuelve el numero de blancos moviles D
+	 * 
+	 * @return el numero de blancos moviles D
+	 */
+	public int getNumBlancosMovilesD() {
+		return numBlancosMovilesD;
+	}
+
+	/**
+	 * Guarda el numero de blancos moviles D
+	 * 
+	 * @param numBlancosMovilesD
+	 */
+	public void setNumBlancosMovilesD(int numBlancosMovilesD) {
+		this.numBlancosMovilesD = numBlancosMovilesD;
+	}
+
+	/**
+	 * Devuelve el numero de blancos moviles E
+	 * 
+	 * @return el numero de blancos moviles E
+	 */
+	public int getNumBlancosMovilesE() {
+		return numBlancosMovilesE;
+	}
+
+	/**
+	 * Guarda el numero de blancos moviles E
+	 * 
+	 * @param numBlancosMovilesE
+	 */
+	public void setNumBlancosMovilesE(int numBlancosMovilesE) {
+		this.numBlancosMovilesE = numBlancosMovilesE;
+	}
+
+	/**
+	 * Devuelve el arma1 del Campo de Tiro
+	 * 
+	 * @return el arma1 del Campo de Tiro
+	 */
+	public String getArma1CT() {
+		return arma1CT;
+	}
+
+	/**
+	 * Guarda el arma1 del Campo de Tiro
+	 * 
+	 * @param arma1ct
+	 */
+	public void setArma1CT(String arma1ct) {
+		arma1CT = arma1ct;
+	}
+
+	/**
+	 * Devuelve la longitud del arma1 del Campo de Tiro
+	 * 
+	 * @return la longitud del arma1 del Campo de Tiro
+	 */
+	public int getArma1CTlongitud() {
+		return arma1CTlongitud;
+	}
+
+	/**
+	 * Guarda la longitud del arma1 del Campo de Tiro
+	 * 
+	 * @param arma1cTlongitud
+	 */
+	public void setArma1CTlongitud(int arma1cTlongitud) {
+		arma1CTlongitud = arma1cTlongitud;
+	}
+
+	/**
+	 * Devuelve el arma2 del Campo de Tiro
+	 * 
+	 * @return el arma2 del Campo de Tiro
+	 */
+	public String getArma2CT() {
+		return arma2CT;
+	}
+
+	/**
+	 * Guarda el arma2 del Campo de Tiro
+	 * 
+	 * @param arma2ct
+	 */
+	public void setArma2CT(String arma2ct) {
+		arma2CT = arma2ct;
+	}
+
+	/**
+	 * Devuelve la longitud del arma2 del Campo de Tiro
+	 * 
+	 * @return la longitud del arma2 del Campo de Tiro
+	 */
+	public int getArma2CTlongitud() {
+		return arma2CTlongitud;
+	}
+
+	/**
+	 * Guarda la longitud del arma2 del Campo de Tiro
+	 * 
+	 * @param arma2cTlongitud
+	 */
+	public void setArma2CTlongitud(int arma2cTlongitud) {
+		arma2CTlongitud = arma2cTlongitud;
+	}
+
+	/**
+	 * Devuelve el explosivo utilizado en el Campo de Tiro
+	 * 
+	 * @return el explosivo utilizado en el Campo de Tiro
+	 */
+	public String getExplosivo() {
+		return explosivo;
+	}
+
+	/**
+	 * Guarda el explosivo utilizado en el Campo de Tiro
+	 * 
+	 * @param explosivo
+	 */
+	public void setExplosivo(String explosivo) {
+		this.explosivo = explosivo;
+	}
+
+	/**
+	 * Devuelve la actividad a realizar en la zona restringida
+	 * 
+	 * @return la actividad a realizar en la zona restringida
+	 */
+	public String getActividad() {
+		return actividad;
+	}
+
+	/**
+	 * Guarda la actividad a realizar en la zona restringida
+	 * 
+	 * @param actividad
+	 */
+	public void setActividad(String actividad) {
+		this.actividad = actividad;
+	}
+
+	/**
+	 * Devuelve las observaciones al vivac
+	 * 
+	 * @return las observaciones al vivac
+	 */
+	public String getVivac() {
+		return vivac;
+	}
+
+	/**
+	 * Guarda las observaciones al vivac
+	 * 
+	 * @param vivac
+	 */
+	public void setVivac(String vivac) {
+		this.vivac = vivac;
+	}
+
+	/**
+	 * Devuelve el numero de vehiculos de cadenas en el Lavadero
+	 * 
+	 * @return el numero de vehiculos de cadenas en el Lavadero
+	 */
+	public int getNumVehCadenas() {
+		return numVehCadenas;
+	}
+
+	/**
+	 * Guarda el numero de vehiculos de cadenas en el Lavadero
+	 * 
+	 * @param numVehCadenas
+	 */
+	public void setNumVehCadenas(int numVehCadenas) {
+		this.numVehCadenas = numVehCadenas;
+	}
+
+	/**
+	 * Devuelve el numero de vehiculos de ruedas en el Lavadero
+	 * 
+	 * @return el numero de vehiculos de ruedas en el Lavadero
+	 */
+	public int getNumVehRuedas() {
+		return numVehRuedas;
+	}
+
+	/**
+	 * Guarda el numero de vehiculos de ruedas en el Lavadero
+	 * 
+	 * @param numVehRuedas
+	 */
+	public void setNumVehRuedas(int numVehRuedas) {
+		this.numVehRuedas = numVehRuedas;
+	}
+
+	/**
+	 * Devuelve la fecha de montaje de los simuladores
+	 * 
+	 * @return la fecha de montaje de los simuladores
+	 */
+	public Date getFechaHoraMontaje() {
+		return fechaHoraMontaje;
+	}
+
+	/**
+	 * Guarda la fecha de montaje de los simuladores
+	 * 
+	 * @param fechaHoraMontaje
+	 */
+	public void setFechaHoraMontaje(Date fechaHoraMontaje) {
+		this.fechaHoraMontaje = fechaHoraMontaje;
+	}
+
+	/**
+	 * Devuelve la fecha de desmontaje de los simuladores
+	 * 
+	 * @return la fecha de desmontaje de los simuladores
+	 */
+	public Date getFechaHoraDesmontaje() {
+		return fechaHoraDesmontaje;
+	}
+
+	/**
+	 * Guarda la fecha de desmontaje de los simuladores
+	 * 
+	 * @param fechaHoraDesmontaje
+	 */
+	public void setFechaHoraDesmontaje(Date fechaHoraDesmontaje) {
+		this.fechaHoraDesmontaje = fechaHoraDesmontaje;
+	}
+
+	/**
+	 * Devuelve el numero de simuladores (simulacion real laser)
+	 * 
+	 * @return el numero de simuladores (simulacion real laser)
+	 */
+	public int getNumSimuladores() {
+		return numSimuladores;
+	}
+
+	/**
+	 * Guarda el numero de simuladores (simulacion real laser)
+	 * 
+	 * @param numSimuladores
+	 */
+	public void setNumSimuladores(int numSimuladores) {
+		this.numSimuladores = numSimuladores;
+	}
+
+	/**
+	 * Devuelve el uso que se le va a dar a la estacion seguimiento (simulacion real laser)
+	 * 
+	 * @return el uso que se le va a dar a la estacion seguimiento (simulacion real laser)
+	 */
+	public String getUsoEstacionSeg() {
+		return usoEstacionSeg;
+	}
+
+	/**
+	 * Guarda el uso que se le va a dar a la estacion seguimiento (simulacion real laser)
+	 * 
+	 * @param usoEstacionSeg
+	 */
+	public void setUsoEstacionSeg(String usoEstacionSeg) {
+		this.usoEstacionSeg = usoEstacionSeg;
+	}
+
+	/**
+	 * Devuelve si se va utilizar municion Trazadora/Iluminante/Fumigena en la Zona Caida Proyectiles
+	 * 
+	 * @return si se va utilizar municion Trazadora/Iluminante/Fumigena en la Zona Caida Proyectiles
+	 */
+	public Boolean isConMunTrazadoraIluminanteFumigena() {
+		return conMunTrazadoraIluminanteFumigena;
+	}
+
+	/**
+	 * Guarda si se va utilizar municion Trazadora/Iluminante/Fumigena en la Zona Caida Proyectiles
+	 * 
+	 * @param isConMunTrazadoraIluminanteFumigena
+	 */
+	public void setConMunTrazadoraIluminanteFumigena(Boolean conMunTrazadoraIluminanteFumigena) {
+		this.conMunTrazadoraIluminanteFumigena = conMunTrazadoraIluminanteFumigena;
+	}
+
+	/**
+	 * Devuelve si en la Zona Vida Bon se va a solicitar apoyo cocina
+	 * 
+	 * @return si en la Zona Vida Bon se va a solicitar apoyo cocina
+	 */
+	public Boolean isConUsoCocina() {
+		return conUsoCocina;
+	}
+
+	/**
+	 * Guarda si en la Zona Vida Bon se va a solicitar apoyo cocina
+	 * 
+	 * @param isConUsoCocina
+	 */
+	public void setconUsoCocina(Boolean conUsoCocina) {
+		this.conUsoCocina = conUsoCocina;
+	}
+
+	/**
+	 * Devuelve el numero de personas de la Zona Vida Bon
+	 * 
+	 * @return el numero de personas de la Zona Vida Bon
+	 */
+	public int getNumPersonasZVB() {
+		return numPersonasZVB;
+	}
+
+	/**
+	 * Guarda el numero de personas de la Zona Vida Bon
+	 * 
+	 * @param numPersonasZVB
+	 */
+	public void setNumPersonasZVB(int numPersonasZVB) {
+		this.numPersonasZVB = numPersonasZVB;
+	}
+
+	/**
+	 * Devuelve el numero de personas de la Zona de Espera
+	 * 
+	 * @return el numero de personas de la Zona de Espera
+	 */
+	public int getNumPersonasZE() {
+		return numPersonasZE;
+	}
+
+	/**
+	 * Guarda el numero de personas de la Zona de Espera
+	 * 
+	 * @param numPersonasZE
+	 */
+	public void setNumPersonasZE(int numPersonasZE) {
+		this.numPersonasZE = numPersonasZE;
+	}
+
+	/**
+	 * Devuelve otros datos especificos de la solicitud
+	 * 
+	 * @return Devuelve otros datos especificos de la solicitud
+	 */
+
+	public String getOtrosDatosEspecificos() {
+		return otrosDatosEspecificos;
+	}
+
+	/**
+	 * Guarda otros datos especificos de la solicitud
+	 * 
+	 * @param otrosDatosEspecificos Otros datos especificos de la solicitud
+	 */
+	public void setOtrosDatosEspecificos(String otrosDatosEspecificos) {
+		this.otrosDatosEspecificos = otrosDatosEspecificos;
+	}
+}
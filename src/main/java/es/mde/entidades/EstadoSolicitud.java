@@ -0,0 +1,43 @@
+package es.mde.entidades;
+
+import java.util.List;
+
+/**
+ * Representa los estados por los que pasa una solicitud de recurso
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public enum EstadoSolicitud {
+
+	Borrador,
+	Solicitada,
+	Rechazada,
+	Validada,
+	Cancelada;
+
+	/** Estados de las solicitudes que dejan libre el recurso, para compararlos en las consultas sin funciones */
+	public static final List<String> LIBRES = List.of(Cancelada.name(), Rechazada.name());
+
+	/**
+	 * Devuelve el estado escrito tal y como se guarda en BD, sin distinguir mayusculas y minusculas
+	 * @param estado Estado de la solicitud
+	 * @return Devuelve el estado normalizado, o el mismo texto si no es un estado conocido
+	 */
+	public static String normalizar(String estado) {
+		for (EstadoSolicitud e : values()) {
+			if (e.name().equalsIgnoreCase(estado)) {
+				return e.name();
+			}
+		}
+		return estado;
+	}
+
+	/**
+	 * Indica si una solicitud en ese estado ocupa el recurso (las canceladas y rechazadas lo dejan libre)
+	 * @param estado Estado de la solicitud
+	 * @return Devuelve true si la solicitud ocupa el recurso en sus fechas
+	 */
+	public static boolean ocupaRecurso(String estado) {
+		return estado == null || !LIBRES.contains(normalizar(estado));
+	}
+}
@@ -1,6 +1,9 @@
 package es.mde.entidades;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.FicheroListener;
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -27,10 +30,10 @@ public class Fichero {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique = true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	private String nombreArchivo;
 	@Lob
+	@Basic(fetch = FetchType.LAZY)
 	@Column(columnDefinition = "TEXT")
 	private String descripcion;
 	private String imagen; // campo no usado
@@ -78,16 +81,9 @@ public class Fichero {
 	 * Devuelve el id de un fichero
 	 * @return Devuelve el id de un fichero
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id de un fichero
-	 * @param idString Guarda el id de un fichero
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
@@ -0,0 +1,38 @@
+package es.mde.entidades;
+
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * Proyeccion con los datos de un fichero que se muestran en los listados, sin su descripcion. Se pide con
+ * ?projection=resumen
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Projection(name = "resumen", types = Fichero.class)
+public interface FicheroResumen {
+
+	/**
+	 * Devuelve el id del fichero
+	 * @return Devuelve el id del fichero
+	 */
+	Long getId();
+
+	/**
+	 * Devuelve el id del fichero como texto
+	 * @return Devuelve el id del fichero como texto
+	 */
+	String getIdString();
+
+	/**
+	 * Devuelve el nombre del fichero
+	 * @return Devuelve el nombre del fichero
+	 */
+	String getNombre();
+
+	/**
+	 * Devuelve el nombre del archivo
+	 * @return Devuelve el nombre del archivo
+	 */
+	String getNombreArchivo();
+}
@@ -3,8 +3,12 @@ package es.mde.entidades;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.RecursoListener;
 import es.mde.security.usuarios.UsuarioGestor;
+import jakarta.persistence.Basic;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,6 +17,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
@@ -25,19 +30,21 @@ import jakarta.persistence.Table;
  *
  */
 @Entity
-@Table(name = "RECURSOS")
+@Table(name = "RECURSOS", indexes = { @Index(name = "IDX_RECURSOS_CATEGORIA", columnList = "CATEGORIA"),
+		@Index(name = "IDX_RECURSOS_CENAD", columnList = "CENAD") })
 @EntityListeners(RecursoListener.class)
 public class Recurso {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique = true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	@Lob
+	@Basic(fetch = FetchType.LAZY)
 	@Column(columnDefinition = "TEXT")
 	private String descripcion;
 	@Lob
+	@Basic(fetch = FetchType.LAZY)
 	@Column(columnDefinition = "TEXT")
 	private String otros;
 	@OneToMany(cascade = CascadeType.ALL, targetEntity = Fichero.class, mappedBy = "recurso")
@@ -48,6 +55,10 @@ public class Recurso {
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "CATEGORIA", nullable = false)
 	private Categoria categoria;
+	// copia del CENAD de la categoria, que mantiene RecursoListener, para filtrar por CENAD sin recorrer categorias
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "CENAD")
+	private Cenad cenad;
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "TIPO_FORMULARIO", nullable = false)
 	private TipoFormulario tipoFormulario;
@@ -57,6 +68,9 @@ public class Recurso {
 //	@Lob	
 	private String datosEspecificosSolicitud = "Ejemplo: \nHorario: 08:00h a 21:00h \nMedios CIS: medios propios de la UCO  \nSIMACET: se solicita el nodo del CENAD "
 			+ "\nPOC CIS: CAP. XXX \nObservaciones Particulares:";
+	@JsonIgnore
+	@Column(length = 64)
+	private String tokenCalendario;
 
 	/**
 	 * Crea un recurso
@@ -84,16 +98,9 @@ public class Recurso {
 	 * Devuelve el id de un recurso
 	 * @return Devuelve el id de un recurso
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id de un recurso
-	 * @param idString Guarda el id de un recurso
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
@@ -192,6 +199,22 @@ public class Recurso {
 		this.categoria = categoria;
 	}
 
+	/**
+	 * Devuelve el CENAD/CMT del recurso, que es el de su categoria
+	 * @return Devuelve el CENAD/CMT del recurso
+	 */
+	public Cenad getCenad() {
+		return cenad;
+	}
+
+	/**
+	 * Guarda el CENAD/CMT del recurso. Se asigna al guardarlo a partir de su categoria
+	 * @param cenad CENAD/CMT del recurso
+	 */
+	public void setCenad(Cenad cenad) {
+		this.cenad = cenad;
+	}
+
 	/**
 	 * Devuelve el tipo de formulario al que pertenece el recurso
 	 * @return Devuelve el tipo de formulario al que pertenece el recurso
@@ -256,6 +279,22 @@ public class Recurso {
 		this.datosEspecificosSolicitud = datosEspecificosSolicitud;
 	}
 
+	/**
+	 * Devuelve el token para suscribirse al calendario ICS del recurso
+	 * @return Devuelve el token del calendario ICS del recurso
+	 */
+	public String getTokenCalendario() {
+		return tokenCalendario;
+	}
+
+	/**
+	 * Guarda el token para suscribirse al calendario ICS del recurso
+	 * @param tokenCalendario Token del calendario ICS del recurso
+	 */
+	public void setTokenCalendario(String tokenCalendario) {
+		this.tokenCalendario = tokenCalendario;
+	}
+
 	// Establece la relacion en los dos sentidos
 	/**
 	 * Agrega el fichero al recurso
@@ -0,0 +1,38 @@
+package es.mde.entidades;
+
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * Proyeccion con los datos de un recurso que se muestran en los listados, sin sus textos largos. Se pide con
+ * ?projection=resumen
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Projection(name = "resumen", types = Recurso.class)
+public interface RecursoResumen {
+
+	/**
+	 * Devuelve el id del recurso
+	 * @return Devuelve el id del recurso
+	 */
+	Long getId();
+
+	/**
+	 * Devuelve el id del recurso como texto
+	 * @return Devuelve el id del recurso como texto
+	 */
+	String getIdString();
+
+	/**
+	 * Devuelve el nombre del recurso
+	 * @return Devuelve el nombre del recurso
+	 */
+	String getNombre();
+
+	/**
+	 * Devuelve si el recurso tiene datos especificos de solicitud
+	 * @return Devuelve si el recurso tiene datos especificos de solicitud
+	 */
+	boolean isConDatosEspecificosSolicitud();
+}
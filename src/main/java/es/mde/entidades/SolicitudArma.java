@@ -1,5 +1,7 @@
 package es.mde.entidades;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.SolicitudArmaListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -26,7 +28,6 @@ public class SolicitudArma {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique = true)
 	private Long id;
-	private String idString;
 	private int coordXAsentamiento;
 	private int coordYAsentamiento;
 	private int coordXPuntoCaida;
@@ -67,16 +68,9 @@ public class SolicitudArma {
 	 * Devuelve el id del "par" SOLICITUD-ARMA
 	 * @return Devuelve el id del "par" SOLICITUD-ARMA
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id del "par" SOLICITUD-ARMA
-	 * @param idString Guarda el id del "par" SOLICITUD-ARMA
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
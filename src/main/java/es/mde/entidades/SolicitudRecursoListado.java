@@ -0,0 +1,43 @@
+package es.mde.entidades;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.rest.core.config.Projection;
+
+import es.mde.security.usuarios.UsuarioResumen;
+
+/**
+ * Proyeccion con los datos del resumen de una solicitud junto con su recurso, su categoria y el usuario que la ha
+ * hecho, para mostrar los listados sin pedir cada uno aparte. Se pide con ?projection=listado. Los listados de
+ * solicitudes cargan el recurso, la categoria y el usuario en la misma consulta (SolicitudRecurso.GRAFO_LISTADO)
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Projection(name = "listado", types = SolicitudRecurso.class)
+public interface SolicitudRecursoListado extends SolicitudRecursoResumen {
+
+	/**
+	 * Devuelve el recurso de la solicitud
+	 * @return Devuelve el recurso de la solicitud
+	 */
+	RecursoListado getRecurso();
+
+	/**
+	 * Devuelve el usuario normal que ha hecho la solicitud
+	 * @return Devuelve el usuario normal que ha hecho la solicitud
+	 */
+	UsuarioResumen getUsuarioNormal();
+
+	/**
+	 * Datos del recurso que se muestran en el listado de solicitudes
+	 */
+	interface RecursoListado extends RecursoResumen {
+
+		/**
+		 * Devuelve el nombre de la categoria del recurso
+		 * @return Devuelve el nombre de la categoria del recurso
+		 */
+		@Value("#{target.categoria?.nombre}")
+		String getNombreCategoria();
+	}
+}
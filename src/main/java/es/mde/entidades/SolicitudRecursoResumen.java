@@ -0,0 +1,77 @@
+package es.mde.entidades;
+
+import java.util.Date;
+
+import org.springframework.data.rest.core.config.Projection;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * Proyeccion con los datos de una solicitud que se muestran en los listados, sin sus textos largos. Se pide con
+ * ?projection=resumen. No se registra como excerpt porque Spring Data REST incrustaria la solicitud en cada recurso,
+ * usuario y fichero que la referencia, con una consulta por cada uno
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Projection(name = "resumen", types = SolicitudRecurso.class)
+public interface SolicitudRecursoResumen {
+
+	/**
+	 * Devuelve el id de la solicitud
+	 * @return Devuelve el id de la solicitud
+	 */
+	Long getId();
+
+	/**
+	 * Devuelve el id de la solicitud como texto
+	 * @return Devuelve el id de la solicitud como texto
+	 */
+	String getIdString();
+
+	/**
+	 * Devuelve el estado de la solicitud
+	 * @return Devuelve el estado de la solicitud
+	 */
+	String getEstado();
+
+	/**
+	 * Devuelve la etiqueta de la solicitud
+	 * @return Devuelve la etiqueta de la solicitud
+	 */
+	String getEtiqueta();
+
+	/**
+	 * Devuelve la unidad usuaria de la solicitud
+	 * @return Devuelve la unidad usuaria de la solicitud
+	 */
+	String getUnidadUsuaria();
+
+	/**
+	 * Devuelve la fecha de la solicitud
+	 * @return Devuelve la fecha de la solicitud
+	 */
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+	Date getFechaSolicitud();
+
+	/**
+	 * Devuelve la fecha de la ultima modificacion de la solicitud
+	 * @return Devuelve la fecha de la ultima modificacion de la solicitud
+	 */
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+	Date getFechaUltModSolicitud();
+
+	/**
+	 * Devuelve la fecha y hora de inicio del recurso
+	 * @return Devuelve la fecha y hora de inicio del recurso
+	 */
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+	Date getFechaHoraInicioRecurso();
+
+	/**
+	 * Devuelve la fecha y hora de fin del recurso
+	 * @return Devuelve la fecha y hora de fin del recurso
+	 */
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+	Date getFechaHoraFinRecurso();
+}
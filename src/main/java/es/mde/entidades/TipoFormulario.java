@@ -3,7 +3,10 @@ package es.mde.entidades;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.TipoFormularioListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,12 +17,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa los distintos tipos de formularios, que generaran distintos campos en las solicitudes
  * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
  *
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name="TIPOS_FORMULARIO")
 @EntityListeners(TipoFormularioListener.class)
 public class TipoFormulario {
@@ -27,7 +35,6 @@ public class TipoFormulario {
 	@GeneratedValue(strategy=GenerationType.IDENTITY)
 	@Column(unique=true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	private String descripcion;
 	private int codTipo;//no se usa
@@ -59,16 +66,9 @@ public class TipoFormulario {
 	 * Devuelve el id de un tipo de formulario
 	 * @return Devuelve el id de un tipo de formulario
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id de un tipo de formulario
-	 * @param idString Guarda el id de un tipo de formulario
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
@@ -3,8 +3,11 @@ package es.mde.entidades;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import es.mde.repositorios.UnidadListener;
 import es.mde.security.usuarios.UsuarioNormal;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -15,12 +18,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa las unidades que utilizarán los recursos de los CENADS
  * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
  *
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name="UNIDADES")
 @EntityListeners(UnidadListener.class)
 public class Unidad {
@@ -28,7 +36,6 @@ public class Unidad {
 	@GeneratedValue(strategy=GenerationType.IDENTITY)
 	@Column(unique=true)
 	private Long id;
-	private String idString;
 	private String nombre;
 	private String descripcion;
 	private String email;
@@ -65,16 +72,9 @@ public class Unidad {
 	 * Devuelve el id de la unidad
 	 * @return Devuelve el id de la unidad
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
-	}
-	
-	/**
-	 * Guarda el id de la unidad
-	 * @param idString Guarda el id de la unidad
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
+		return id == null ? null : id.toString();
 	}
 
 	/**
@@ -0,0 +1,113 @@
+package es.mde.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CalendarioCenad representará las solicitudes de un CENAD en un periodo en forma de columnas: la posicion i de
+ * cada lista corresponde a la misma solicitud. Solo lleva lo necesario para dibujar el calendario de ocupacion
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class CalendarioCenad {
+	private long desde;
+	private long hasta;
+	private List<Long> id = new ArrayList<>();
+	private List<Long> recursoId = new ArrayList<>();
+	private List<Long> inicio = new ArrayList<>();
+	private List<Long> fin = new ArrayList<>();
+	private List<String> estado = new ArrayList<>();
+	private List<String> unidadUsuaria = new ArrayList<>();
+
+	/**
+	 * Crea un calendario vacio
+	 * @param desde Inicio del periodo en milisegundos
+	 * @param hasta Fin del periodo en milisegundos
+	 */
+	public CalendarioCenad(long desde, long hasta) {
+		this.desde = desde;
+		this.hasta = hasta;
+	}
+
+	/**
+	 * Anade una solicitud al calendario
+	 * @param id Id de la solicitud
+	 * @param recursoId Id del recurso solicitado
+	 * @param inicio Inicio de la actividad en milisegundos
+	 * @param fin Fin de la actividad en milisegundos, o null si no tiene
+	 * @param estado Estado de la solicitud
+	 * @param unidadUsuaria Unidad usuaria del recurso
+	 */
+	public void anadir(Long id, Long recursoId, Long inicio, Long fin, String estado, String unidadUsuaria) {
+		this.id.add(id);
+		this.recursoId.add(recursoId);
+		this.inicio.add(inicio);
+		this.fin.add(fin);
+		this.estado.add(estado);
+		this.unidadUsuaria.add(unidadUsuaria);
+	}
+
+	/**
+	 * Devuelve el inicio del periodo
+	 * @return Devuelve el inicio del periodo en milisegundos
+	 */
+	public long getDesde() {
+		return desde;
+	}
+
+	/**
+	 * Devuelve el fin del periodo
+	 * @return Devuelve el fin del periodo en milisegundos
+	 */
+	public long getHasta() {
+		return hasta;
+	}
+
+	/**
+	 * Devuelve los ids de las solicitudes
+	 * @return Devuelve los ids de las solicitudes
+	 */
+	public List<Long> getId() {
+		return id;
+	}
+
+	/**
+	 * Devuelve los ids de los recursos solicitados
+	 * @return Devuelve los ids de los recursos solicitados
+	 */
+	public List<Long> getRecursoId() {
+		return recursoId;
+	}
+
+	/**
+	 * Devuelve el inicio de cada actividad
+	 * @return Devuelve el inicio de cada actividad en milisegundos
+	 */
+	public List<Long> getInicio() {
+		return inicio;
+	}
+
+	/**
+	 * Devuelve el fin de cada actividad
+	 * @return Devuelve el fin de cada actividad en milisegundos
+	 */
+	public List<Long> getFin() {
+		return fin;
+	}
+
+	/**
+	 * Devuelve el estado de cada solicitud
+	 * @return Devuelve el estado de cada solicitud
+	 */
+	public List<String> getEstado() {
+		return estado;
+	}
+
+	/**
+	 * Devuelve la unidad usuaria de cada solicitud
+	 * @return Devuelve la unidad usuaria de cada solicitud
+	 */
+	public List<String> getUnidadUsuaria() {
+		return unidadUsuaria;
+	}
+}
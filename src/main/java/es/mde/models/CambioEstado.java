@@ -0,0 +1,81 @@
+package es.mde.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CambioEstado representará la peticion de pasar varias solicitudes a un mismo estado
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class CambioEstado {
+	private List<Long> ids = new ArrayList<>();
+	private String estado;
+	private String estadoActual;
+
+	/**
+	 * Crea una peticion vacia
+	 */
+	public CambioEstado() {
+	}
+
+	/**
+	 * Crea una peticion de cambio de estado
+	 * @param ids Ids de las solicitudes
+	 * @param estado Estado al que pasan
+	 * @param estadoActual Estado en el que tienen que estar para cambiarlas, o null para cualquiera
+	 */
+	public CambioEstado(List<Long> ids, String estado, String estadoActual) {
+		this.ids = ids;
+		this.estado = estado;
+		this.estadoActual = estadoActual;
+	}
+
+	/**
+	 * Devuelve los ids
+	 * @return Devuelve los ids de las solicitudes
+	 */
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	/**
+	 * Asigna los ids
+	 * @param ids Ids de las solicitudes
+	 */
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	/**
+	 * Devuelve el estado
+	 * @return Devuelve el estado al que pasan las solicitudes
+	 */
+	public String getEstado() {
+		return estado;
+	}
+
+	/**
+	 * Asigna el estado
+	 * @param estado Estado al que pasan las solicitudes
+	 */
+	public void setEstado(String estado) {
+		this.estado = estado;
+	}
+
+	/**
+	 * Devuelve el estado actual
+	 * @return Devuelve el estado en el que tienen que estar las solicitudes para cambiarlas, o null para cualquiera
+	 */
+	public String getEstadoActual() {
+		return estadoActual;
+	}
+
+	/**
+	 * Asigna el estado actual
+	 * @param estadoActual Estado en el que tienen que estar las solicitudes para cambiarlas, o null para cualquiera
+	 */
+	public void setEstadoActual(String estadoActual) {
+		this.estadoActual = estadoActual;
+	}
+}
@@ -0,0 +1,84 @@
+package es.mde.models;
+
+import java.util.List;
+
+/**
+ * Disponibilidad representará el resultado de buscar recursos libres en un periodo
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class Disponibilidad {
+	private long desde;
+	private long hasta;
+	private List<Long> recursosLibres;
+	private List<Ventana> ventanasTodosLibres;
+	private List<Ventana> ventanasAlgunoLibre;
+	private List<DisponibilidadRecurso> recursos;
+
+	/**
+	 * Crea el resultado de una busqueda de disponibilidad
+	 * @param desde Inicio del periodo buscado en milisegundos
+	 * @param hasta Fin (excluido) del periodo buscado en milisegundos
+	 * @param recursosLibres Ids de los recursos libres todos los dias del periodo
+	 * @param ventanasTodosLibres Periodos en los que estan libres todos los recursos
+	 * @param ventanasAlgunoLibre Periodos en los que esta libre al menos un recurso
+	 * @param recursos Disponibilidad de cada recurso
+	 */
+	public Disponibilidad(long desde, long hasta, List<Long> recursosLibres, List<Ventana> ventanasTodosLibres,
+			List<Ventana> ventanasAlgunoLibre, List<DisponibilidadRecurso> recursos) {
+		this.desde = desde;
+		this.hasta = hasta;
+		this.recursosLibres = recursosLibres;
+		this.ventanasTodosLibres = ventanasTodosLibres;
+		this.ventanasAlgunoLibre = ventanasAlgunoLibre;
+		this.recursos = recursos;
+	}
+
+	/**
+	 * Devuelve el inicio del periodo buscado
+	 * @return Devuelve el inicio del periodo en milisegundos
+	 */
+	public long getDesde() {
+		return desde;
+	}
+
+	/**
+	 * Devuelve el fin del periodo buscado
+	 * @return Devuelve el fin (excluido) del periodo en milisegundos
+	 */
+	public long getHasta() {
+		return hasta;
+	}
+
+	/**
+	 * Devuelve los recursos libres todos los dias del periodo
+	 * @return Devuelve los ids de los recursos libres
+	 */
+	public List<Long> getRecursosLibres() {
+		return recursosLibres;
+	}
+
+	/**
+	 * Devuelve los periodos en los que estan libres todos los recursos
+	 * @return Devuelve los periodos en los que estan libres todos los recursos
+	 */
+	public List<Ventana> getVentanasTodosLibres() {
+		return ventanasTodosLibres;
+	}
+
+	/**
+	 * Devuelve los periodos en los que esta libre al menos un recurso
+	 * @return Devuelve los periodos en los que esta libre al menos un recurso
+	 */
+	public List<Ventana> getVentanasAlgunoLibre() {
+		return ventanasAlgunoLibre;
+	}
+
+	/**
+	 * Devuelve la disponibilidad de cada recurso
+	 * @return Devuelve la disponibilidad de cada recurso
+	 */
+	public List<DisponibilidadRecurso> getRecursos() {
+		return recursos;
+	}
+}
@@ -0,0 +1,61 @@
+package es.mde.models;
+
+import java.util.List;
+
+/**
+ * DisponibilidadRecurso representará los periodos libres de un recurso dentro de una busqueda de disponibilidad
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class DisponibilidadRecurso {
+	private Long id;
+	private String nombre;
+	private boolean libre;
+	private List<Ventana> ventanasLibres;
+
+	/**
+	 * Crea la disponibilidad de un recurso
+	 * @param id Id del recurso
+	 * @param nombre Nombre del recurso
+	 * @param libre Si el recurso esta libre todos los dias del periodo
+	 * @param ventanasLibres Periodos en los que el recurso esta libre
+	 */
+	public DisponibilidadRecurso(Long id, String nombre, boolean libre, List<Ventana> ventanasLibres) {
+		this.id = id;
+		this.nombre = nombre;
+		this.libre = libre;
+		this.ventanasLibres = ventanasLibres;
+	}
+
+	/**
+	 * Devuelve el id del recurso
+	 * @return Devuelve el id del recurso
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Devuelve el nombre del recurso
+	 * @return Devuelve el nombre del recurso
+	 */
+	public String getNombre() {
+		return nombre;
+	}
+
+	/**
+	 * Indica si el recurso esta libre todos los dias del periodo
+	 * @return Devuelve true si el recurso esta libre todo el periodo
+	 */
+	public boolean isLibre() {
+		return libre;
+	}
+
+	/**
+	 * Devuelve los periodos en los que el recurso esta libre
+	 * @return Devuelve los periodos libres del recurso
+	 */
+	public List<Ventana> getVentanasLibres() {
+		return ventanasLibres;
+	}
+}
@@ -0,0 +1,97 @@
+package es.mde.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Estadistica representará un acumulado de solicitudes de un mes. Segun la estadistica se agrupa por recurso y
+ * estado, por recurso, por unidad o por gestor, y el resto de campos de agrupacion quedan vacios
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Estadistica {
+	private String mes;
+	private Long idRecurso;
+	private Long idUnidad;
+	private Long idUsuarioGestor;
+	private String estado;
+	private long numero;
+	private Double horas;
+
+	/**
+	 * Crea una estadistica
+	 * @param mes Mes con formato yyyy-MM, o null para las solicitudes sin fechas
+	 * @param idRecurso Id del recurso, si se agrupa por recurso
+	 * @param idUnidad Id de la unidad, si se agrupa por unidad
+	 * @param idUsuarioGestor Id del gestor, si se agrupa por gestor
+	 * @param estado Estado de las solicitudes, si se agrupa por estado
+	 * @param numero Numero de solicitudes acumuladas
+	 * @param horas Horas acumuladas (o la media, en el tiempo de decision), si la estadistica las tiene
+	 */
+	public Estadistica(String mes, Long idRecurso, Long idUnidad, Long idUsuarioGestor, String estado, long numero,
+			Double horas) {
+		this.mes = mes;
+		this.idRecurso = idRecurso;
+		this.idUnidad = idUnidad;
+		this.idUsuarioGestor = idUsuarioGestor;
+		this.estado = estado;
+		this.numero = numero;
+		this.horas = horas;
+	}
+
+	/**
+	 * Devuelve el mes
+	 * @return Devuelve el mes con formato yyyy-MM
+	 */
+	public String getMes() {
+		return mes;
+	}
+
+	/**
+	 * Devuelve el id del recurso
+	 * @return Devuelve el id del recurso
+	 */
+	public Long getIdRecurso() {
+		return idRecurso;
+	}
+
+	/**
+	 * Devuelve el id de la unidad
+	 * @return Devuelve el id de la unidad
+	 */
+	public Long getIdUnidad() {
+		return idUnidad;
+	}
+
+	/**
+	 * Devuelve el id del gestor
+	 * @return Devuelve el id del gestor
+	 */
+	public Long getIdUsuarioGestor() {
+		return idUsuarioGestor;
+	}
+
+	/**
+	 * Devuelve el estado
+	 * @return Devuelve el estado de las solicitudes
+	 */
+	public String getEstado() {
+		return estado;
+	}
+
+	/**
+	 * Devuelve el numero de solicitudes
+	 * @return Devuelve el numero de solicitudes acumuladas
+	 */
+	public long getNumero() {
+		return numero;
+	}
+
+	/**
+	 * Devuelve las horas
+	 * @return Devuelve las horas acumuladas, o la media en el tiempo de decision
+	 */
+	public Double getHoras() {
+		return horas;
+	}
+}
@@ -0,0 +1,88 @@
+package es.mde.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * FilaImportacion representará el resultado de importar una fila: el id creado o los errores encontrados
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class FilaImportacion {
+	private String tipo;
+	private int fila;
+	private String clave;
+	private Long id;
+	private List<String> errores = new ArrayList<>();
+
+	/**
+	 * Crea el resultado de una fila
+	 * @param tipo Tipo de las filas (categorias, recursos, ficheros o solicitudes)
+	 * @param fila Numero de la fila dentro de su tipo, empezando en 1
+	 * @param clave Clave con la que otras filas hacen referencia a esta, si la tiene
+	 */
+	public FilaImportacion(String tipo, int fila, String clave) {
+		this.tipo = tipo;
+		this.fila = fila;
+		this.clave = clave;
+	}
+
+	/**
+	 * Devuelve el tipo
+	 * @return Devuelve el tipo de la fila
+	 */
+	public String getTipo() {
+		return tipo;
+	}
+
+	/**
+	 * Devuelve el numero de fila
+	 * @return Devuelve el numero de la fila dentro de su tipo, empezando en 1
+	 */
+	public int getFila() {
+		return fila;
+	}
+
+	/**
+	 * Devuelve la clave
+	 * @return Devuelve la clave de la fila
+	 */
+	public String getClave() {
+		return clave;
+	}
+
+	/**
+	 * Devuelve el id creado
+	 * @return Devuelve el id de la entidad creada, o null si no se ha creado
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Asigna el id creado
+	 * @param id Id de la entidad creada
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Devuelve los errores
+	 * @return Devuelve los errores de la fila
+	 */
+	public List<String> getErrores() {
+		return errores;
+	}
+
+	/**
+	 * Anade un error
+	 * @param error Descripcion del error
+	 */
+	public void addError(String error) {
+		errores.add(error);
+	}
+}
@@ -0,0 +1,73 @@
+package es.mde.models;
+
+import java.util.Date;
+
+/**
+ * FiltroSolicitudes representará los criterios opcionales con los que se seleccionan solicitudes: los que son null
+ * no filtran
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class FiltroSolicitudes {
+	private Long idCenad;
+	private Long idRecurso;
+	private String estado;
+	private Date desde;
+	private Date hasta;
+
+	/**
+	 * Crea un filtro de solicitudes
+	 * @param idCenad Id del CENAD de los recursos
+	 * @param idRecurso Id del recurso
+	 * @param estado Estado de la solicitud, sin distinguir mayusculas y minusculas
+	 * @param desde Fecha minima de inicio del recurso (incluida)
+	 * @param hasta Fecha maxima de inicio del recurso (excluida)
+	 */
+	public FiltroSolicitudes(Long idCenad, Long idRecurso, String estado, Date desde, Date hasta) {
+		this.idCenad = idCenad;
+		this.idRecurso = idRecurso;
+		this.estado = estado;
+		this.desde = desde;
+		this.hasta = hasta;
+	}
+
+	/**
+	 * Devuelve el id del CENAD
+	 * @return Devuelve el id del CENAD
+	 */
+	public Long getIdCenad() {
+		return idCenad;
+	}
+
+	/**
+	 * Devuelve el id del recurso
+	 * @return Devuelve el id del recurso
+	 */
+	public Long getIdRecurso() {
+		return idRecurso;
+	}
+
+	/**
+	 * Devuelve el estado
+	 * @return Devuelve el estado de la solicitud
+	 */
+	public String getEstado() {
+		return estado;
+	}
+
+	/**
+	 * Devuelve la fecha minima de inicio
+	 * @return Devuelve la fecha minima de inicio del recurso (incluida)
+	 */
+	public Date getDesde() {
+		return desde;
+	}
+
+	/**
+	 * Devuelve la fecha maxima de inicio
+	 * @return Devuelve la fecha maxima de inicio del recurso (excluida)
+	 */
+	public Date getHasta() {
+		return hasta;
+	}
+}
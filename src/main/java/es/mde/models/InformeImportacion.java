@@ -0,0 +1,67 @@
+package es.mde.models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InformeImportacion representará el resultado de una importacion masiva, con el numero de entidades creadas de
+ * cada tipo y el resultado de cada fila
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class InformeImportacion {
+	private boolean completa;
+	private boolean validada;
+	private Map<String, Integer> creadas = new LinkedHashMap<>();
+	private List<FilaImportacion> filas = new ArrayList<>();
+
+	/**
+	 * Indica si se han importado todas las filas
+	 * @return Devuelve true si se han creado todas las filas, false si alguna tenia errores y no se ha creado
+	 */
+	public boolean isCompleta() {
+		return completa;
+	}
+
+	/**
+	 * Indica si se han importado todas las filas
+	 * @param completa true si se han creado todas las filas
+	 */
+	public void setCompleta(boolean completa) {
+		this.completa = completa;
+	}
+
+	/**
+	 * Indica si todas las filas han pasado la validacion
+	 * @return Devuelve true si ninguna fila tenia errores de validacion, aunque despues haya fallado al guardarlas
+	 */
+	public boolean isValidada() {
+		return validada;
+	}
+
+	/**
+	 * Indica si todas las filas han pasado la validacion
+	 * @param validada true si ninguna fila tenia errores de validacion
+	 */
+	public void setValidada(boolean validada) {
+		this.validada = validada;
+	}
+
+	/**
+	 * Devuelve el numero de entidades creadas de cada tipo
+	 * @return Devuelve un mapa con el numero de entidades creadas de cada tipo
+	 */
+	public Map<String, Integer> getCreadas() {
+		return creadas;
+	}
+
+	/**
+	 * Devuelve el resultado de cada fila
+	 * @return Devuelve el resultado de cada fila
+	 */
+	public List<FilaImportacion> getFilas() {
+		return filas;
+	}
+}
@@ -0,0 +1,166 @@
+package es.mde.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * NodoCategoria representará una categoría dentro del árbol de categorías de un CENAD
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NodoCategoria {
+	private Long id;
+	private String idString;
+	private String nombre;
+	private String descripcion;
+	private Long idCategoriaPadre;
+	private Long numRecursos;
+	private List<NodoCategoria> subcategorias = new ArrayList<>();
+
+	/**
+	 * Crea un nodo sin número de recursos
+	 * @param id Id de la categoría
+	 * @param idString Id de la categoría como texto
+	 * @param nombre Nombre de la categoría
+	 * @param descripcion Descripción de la categoría
+	 * @param idCategoriaPadre Id de la categoría Padre, null si es categoría raiz
+	 */
+	public NodoCategoria(Long id, String idString, String nombre, String descripcion, Long idCategoriaPadre) {
+		this(id, idString, nombre, descripcion, idCategoriaPadre, null);
+	}
+
+	/**
+	 * Crea un nodo con el número de recursos de la categoría
+	 * @param id Id de la categoría
+	 * @param idString Id de la categoría como texto
+	 * @param nombre Nombre de la categoría
+	 * @param descripcion Descripción de la categoría
+	 * @param idCategoriaPadre Id de la categoría Padre, null si es categoría raiz
+	 * @param numRecursos Número de recursos que cuelgan directamente de la categoría
+	 */
+	public NodoCategoria(Long id, String idString, String nombre, String descripcion, Long idCategoriaPadre,
+			Long numRecursos) {
+		super();
+		this.id = id;
+		this.idString = idString;
+		this.nombre = nombre;
+		this.descripcion = descripcion;
+		this.idCategoriaPadre = idCategoriaPadre;
+		this.numRecursos = numRecursos;
+	}
+
+	/**
+	 * Devuelve el Id de la categoría
+	 * @return Devuelve el Id de la categoría
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Guarda el Id de la categoría
+	 * @param id Id de la categoría
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Devuelve el id de la categoría como texto
+	 * @return Devuelve el id de la categoría como texto
+	 */
+	public String getIdString() {
+		return idString;
+	}
+
+	/**
+	 * Guarda el id de la categoría como texto
+	 * @param idString Id de la categoría como texto
+	 */
+	public void setIdString(String idString) {
+		this.idString = idString;
+	}
+
+	/**
+	 * Devuelve el nombre de la categoría
+	 * @return Devuelve el nombre de la categoría
+	 */
+	public String getNombre() {
+		return nombre;
+	}
+
+	/**
+	 * Guarda el nombre de la categoría
+	 * @param nombre Nombre de la categoría
+	 */
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	/**
+	 * Devuelve la descripción de la categoría
+	 * @return Devuelve la descripción de la categoría
+	 */
+	public String getDescripcion() {
+		return descripcion;
+	}
+
+	/**
+	 * Guarda la descripción de la categoría
+	 * @param descripcion Descripción de la categoría
+	 */
+	public void setDescripcion(String descripcion) {
+		this.descripcion = descripcion;
+	}
+
+	/**
+	 * Devuelve el Id de la categoría Padre
+	 * @return Devuelve el Id de la categoría Padre, null si es categoría raiz
+	 */
+	public Long getIdCategoriaPadre() {
+		return idCategoriaPadre;
+	}
+
+	/**
+	 * Guarda el Id de la categoría Padre
+	 * @param idCategoriaPadre Id de la categoría Padre
+	 */
+	public void setIdCategoriaPadre(Long idCategoriaPadre) {
+		this.idCategoriaPadre = idCategoriaPadre;
+	}
+
+	/**
+	 * Devuelve el número de recursos que cuelgan directamente de la categoría
+	 * @return Devuelve el número de recursos, null si no se ha pedido
+	 */
+	public Long getNumRecursos() {
+		return numRecursos;
+	}
+
+	/**
+	 * Guarda el número de recursos que cuelgan directamente de la categoría
+	 * @param numRecursos Número de recursos de la categoría
+	 */
+	public void setNumRecursos(Long numRecursos) {
+		this.numRecursos = numRecursos;
+	}
+
+	/**
+	 * Devuelve las subcategorías del nodo
+	 * @return Devuelve las subcategorías del nodo
+	 */
+	public List<NodoCategoria> getSubcategorias() {
+		return subcategorias;
+	}
+
+	/**
+	 * Guarda las subcategorías del nodo
+	 * @param subcategorias Subcategorías del nodo
+	 */
+	public void setSubcategorias(List<NodoCategoria> subcategorias) {
+		this.subcategorias = subcategorias;
+	}
+}
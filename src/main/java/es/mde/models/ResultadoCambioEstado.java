@@ -0,0 +1,67 @@
+package es.mde.models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultadoCambioEstado representará el resumen de un cambio de estado de varias solicitudes: las que han
+ * cambiado, las que no y por que, y cuantos correos se han puesto en cola
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class ResultadoCambioEstado {
+	private String estado;
+	private List<Long> cambiadas = new ArrayList<>();
+	private Map<Long, String> errores = new LinkedHashMap<>();
+	private int notificaciones;
+
+	/**
+	 * Crea el resultado de un cambio de estado
+	 * @param estado Estado al que pasan las solicitudes
+	 */
+	public ResultadoCambioEstado(String estado) {
+		this.estado = estado;
+	}
+
+	/**
+	 * Devuelve el estado
+	 * @return Devuelve el estado al que han pasado las solicitudes
+	 */
+	public String getEstado() {
+		return estado;
+	}
+
+	/**
+	 * Devuelve las solicitudes cambiadas
+	 * @return Devuelve los ids de las solicitudes que han cambiado de estado
+	 */
+	public List<Long> getCambiadas() {
+		return cambiadas;
+	}
+
+	/**
+	 * Devuelve las solicitudes no cambiadas
+	 * @return Devuelve el motivo por el que no ha cambiado cada solicitud, por su id
+	 */
+	public Map<Long, String> getErrores() {
+		return errores;
+	}
+
+	/**
+	 * Devuelve el numero de notificaciones
+	 * @return Devuelve el numero de correos puestos en cola, uno por destinatario
+	 */
+	public int getNotificaciones() {
+		return notificaciones;
+	}
+
+	/**
+	 * Asigna el numero de notificaciones
+	 * @param notificaciones Numero de correos puestos en cola
+	 */
+	public void setNotificaciones(int notificaciones) {
+		this.notificaciones = notificaciones;
+	}
+}
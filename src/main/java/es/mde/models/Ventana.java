@@ -0,0 +1,37 @@
+package es.mde.models;
+
+/**
+ * Ventana representará un periodo de tiempo [inicio, fin) en milisegundos
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class Ventana {
+	private long inicio;
+	private long fin;
+
+	/**
+	 * Crea una ventana
+	 * @param inicio Inicio de la ventana en milisegundos
+	 * @param fin Fin (excluido) de la ventana en milisegundos
+	 */
+	public Ventana(long inicio, long fin) {
+		this.inicio = inicio;
+		this.fin = fin;
+	}
+
+	/**
+	 * Devuelve el inicio de la ventana
+	 * @return Devuelve el inicio de la ventana en milisegundos
+	 */
+	public long getInicio() {
+		return inicio;
+	}
+
+	/**
+	 * Devuelve el fin de la ventana
+	 * @return Devuelve el fin (excluido) de la ventana en milisegundos
+	 */
+	public long getFin() {
+		return fin;
+	}
+}
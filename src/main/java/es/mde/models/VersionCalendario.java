@@ -0,0 +1,48 @@
+package es.mde.models;
+
+import java.util.Date;
+
+/**
+ * VersionCalendario representará la version de un calendario ICS: cuantos eventos tiene y cuando se modifico por
+ * ultima vez la mas reciente de sus solicitudes. Cambia al crear, modificar o borrar una solicitud del calendario
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class VersionCalendario {
+	private long eventos;
+	private Date ultimaModificacion;
+
+	/**
+	 * Crea la version de un calendario
+	 * @param eventos Numero de eventos del calendario
+	 * @param ultimaModificacion Ultima modificacion de sus solicitudes, o null si no tiene ninguna con fecha
+	 */
+	public VersionCalendario(long eventos, Date ultimaModificacion) {
+		this.eventos = eventos;
+		this.ultimaModificacion = ultimaModificacion;
+	}
+
+	/**
+	 * Devuelve el numero de eventos del calendario
+	 * @return Devuelve el numero de eventos del calendario
+	 */
+	public long getEventos() {
+		return eventos;
+	}
+
+	/**
+	 * Devuelve la ultima modificacion de las solicitudes del calendario
+	 * @return Devuelve la ultima modificacion en milisegundos, o -1 si no se conoce
+	 */
+	public long getUltimaModificacion() {
+		return ultimaModificacion == null ? -1 : ultimaModificacion.getTime();
+	}
+
+	/**
+	 * Devuelve la ETag debil del calendario, que cambia con el numero de eventos y con la ultima modificacion
+	 * @return Devuelve la ETag del calendario
+	 */
+	public String getEtag() {
+		return "W/\"" + eventos + "-" + getUltimaModificacion() + "\"";
+	}
+}
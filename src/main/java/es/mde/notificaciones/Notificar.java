@@ -1,5 +1,13 @@
 package es.mde.notificaciones;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import es.mde.entidades.SolicitudRecurso;
@@ -16,6 +24,7 @@ public class Notificar {
 
 	private static SolicitudRecursoDAO solicitudRecursoDAO;
 	private static MailService mail;
+	private static Logger log = LoggerFactory.getLogger(Notificar.class);
 
 	/**
 	 * Metodo que inicia la clase
@@ -35,7 +44,7 @@ public class Notificar {
 	 */
 	public static SolicitudDTO enviarNotificacion(Long id) {
 
-		SolicitudRecurso solicitudRecurso = solicitudRecursoDAO.findById(id).get();
+		SolicitudRecurso solicitudRecurso = solicitudRecursoDAO.findParaNotificarById(id).get();
 		SolicitudDTO solicitudDTO = new SolicitudDTO(solicitudRecurso);
 		try {
 			if (solicitudDTO.notificarAdministrador) {
@@ -64,4 +73,59 @@ public class Notificar {
 		}
 		return solicitudDTO;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Agrupa las notificaciones de varias solicitudes por destinatario, para enviar un solo correo a cada uno
+	 * @param solicitudes DTOs de las solicitudes que han cambiado de estado
+	 * @return Devuelve las solicitudes que hay que notificar a cada email, en el orden recibido
+	 */
+	public static Map<String, List<SolicitudDTO>> agruparPorDestinatario(Collection<SolicitudDTO> solicitudes) {
+		Map<String, List<SolicitudDTO>> porDestinatario = new LinkedHashMap<>();
+		for (SolicitudDTO solicitudDTO : solicitudes) {
+			if (solicitudDTO.notificarAdministrador) {
+				anadir(porDestinatario, solicitudDTO.administrador, solicitudDTO);
+			}
+			if (solicitudDTO.notificarGestor) {
+				anadir(porDestinatario, solicitudDTO.gestor, solicitudDTO);
+			}
+			if (solicitudDTO.notificarNormal) {
+				anadir(porDestinatario, solicitudDTO.normal, solicitudDTO);
+			}
+		}
+		return porDestinatario;
+	}
+
+	/**
+	 * Envia un correo a cada destinatario con el nuevo estado de todas sus solicitudes
+	 * @param porDestinatario Solicitudes que hay que notificar a cada email
+	 */
+	public static void enviarNotificaciones(Map<String, List<SolicitudDTO>> porDestinatario) {
+		porDestinatario.forEach((destinatario, solicitudes) -> {
+			String subject = solicitudes.size() == 1 ? solicitudes.get(0).subject
+					: "Cambio de estado de " + solicitudes.size() + " solicitudes";
+			StringBuilder body = new StringBuilder("Buenos días,<br><br> Ha cambiado el estado de las siguientes solicitudes:<ul>");
+			for (SolicitudDTO solicitudDTO : solicitudes) {
+				body.append("<li>Unidad ").append(solicitudDTO.unidad).append(", recurso ").append(solicitudDTO.recurso)
+						.append(" del CENAD/CMT ").append(solicitudDTO.cenad).append(" (").append(solicitudDTO.periodo)
+						.append("): <b>").append(solicitudDTO.estado.toUpperCase()).append("</b></li>");
+			}
+			body.append("</ul>");
+			try {
+				log.info(mail.enviarNotificacion(destinatario, subject, body.toString()));
+			} catch (Exception e) {
+				log.error("No se ha podido notificar a " + destinatario, e);
+			}
+		});
+	}
+
+	private static void anadir(Map<String, List<SolicitudDTO>> porDestinatario, String email, SolicitudDTO solicitudDTO) {
+		if (email == null || email.isBlank()) {
+			return;
+		}
+		List<SolicitudDTO> solicitudes = porDestinatario.computeIfAbsent(email, e -> new ArrayList<>());
+		// el administrador puede ser tambien el gestor del recurso
+		if (!solicitudes.contains(solicitudDTO)) {
+			solicitudes.add(solicitudDTO);
+		}
+	}
+}
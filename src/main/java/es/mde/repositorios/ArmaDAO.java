@@ -2,11 +2,14 @@ package es.mde.repositorios;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
 
+import jakarta.persistence.QueryHint;
 import es.mde.entidades.Arma;
 
 
@@ -24,6 +27,8 @@ public interface ArmaDAO extends JpaRepository<Arma, Long> {
 	 * @return Devuelve una lista de armas que contiene ese texto en su Tipo de Tiro
 	 */
 	@RestResource(path="tipo")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "busquedas") })
 	List<Arma> findBytipoTiroIgnoreCaseContaining(@Param("tipo") String txt);
 
 }
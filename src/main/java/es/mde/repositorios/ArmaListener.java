@@ -15,8 +15,7 @@ public class ArmaListener {
 	
 	@PostPersist
 	public void postGuardar(Arma arma) {
-		arma.setIdString(arma.getId().toString());
-		System.err.println("Se ha guardado el arma: " + arma.getNombre() + " con Id " + arma.getIdString());
+		log.debug("Se ha guardado el arma: {} con Id {}", arma.getNombre(), arma.getId());
 	}
 	
 }
\ No newline at end of file
@@ -15,8 +15,7 @@ public class CartografiaListener {
 	
 	@PostPersist
 	public void postGuardar(Cartografia cartografia) {
-		cartografia.setIdString(cartografia.getId().toString());
-		System.err.println("Se ha guardado la cartografia: " + cartografia.getNombre() + " con Id " + cartografia.getIdString());
+		log.debug("Se ha guardado la cartografia: {} con Id {}", cartografia.getNombre(), cartografia.getId());
 	}
 	
 }
\ No newline at end of file
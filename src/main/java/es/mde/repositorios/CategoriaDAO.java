@@ -1,11 +1,19 @@
 package es.mde.repositorios;
 
+import java.util.Collection;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
 import es.mde.entidades.Categoria;
+import es.mde.models.NodoCategoria;
 
 /**
  * Representa la interfaz que expone para la API las categorias 
@@ -15,11 +23,108 @@ import es.mde.entidades.Categoria;
 @RepositoryRestResource(path="categorias", collectionResourceRel="categorias", itemResourceRel="categoria") 
 public interface CategoriaDAO extends JpaRepository<Categoria, Long>, CategoriaDAOCustom {
 	
+	/**
+	 * Guarda una categoria con la ruta de su categoria Padre y mueve sus subcategorias anidadas si ha cambiado de
+	 * categoria Padre. Lo implementa CategoriaDAOImpl en lugar del save de Spring Data
+	 * @param <S> Tipo de la categoria
+	 * @param categoria Categoria a guardar
+	 * @return Devuelve la categoria guardada
+	 */
+	@Override
+	<S extends Categoria> S save(S categoria);
+	
 	/**
 	 * Devuelve una lista de categorias que contiene ese texto en su nombre
 	 * @param txt Texto que esta incluido en el nombre de las categorias buscadas
 	 * @return Devuelve una lista de categorias que contiene ese texto en su nombre
 	 */
 	@RestResource(path="nombre")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "busquedas") })
 	List<Categoria> findByNombreIgnoreCaseContaining(@Param("nombre") String txt);
-}
\ No newline at end of file
+	
+	/**
+	 * Devuelve en una sola consulta las categorias con esos ids
+	 * @param ids Ids de las categorias
+	 * @return Devuelve una lista de las categorias que existen
+	 */
+	@RestResource(exported = false)
+	List<Categoria> findByIdIn(Collection<Long> ids);
+	
+	/**
+	 * Devuelve la ruta de una categoria
+	 * @param id Id de la categoria
+	 * @return Devuelve la ruta de la categoria
+	 */
+	@RestResource(exported = false)
+	@Query("select c.ruta from Categoria c where c.id = :id")
+	String findRutaById(@Param("id") Long id);
+	
+	/**
+	 * Devuelve los ids de las categorias de un CENAD, sin cargar las categorias
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve una lista de los ids de las categorias de un CENAD
+	 */
+	@RestResource(exported = false)
+	@Query("select c.id from Categoria c where c.cenad.id = :idCenad")
+	List<Long> findIdsByCenad(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Devuelve las categorias cuya ruta empieza por la indicada, en orden de arbol
+	 * @param ruta Ruta de las subcategorias de la categoria de la que se buscan los descendientes
+	 * @return Devuelve una lista de las subcategorias anidadas
+	 */
+	@RestResource(exported = false)
+	@Query("select c from Categoria c where c.ruta like concat(:ruta, '%') order by concat(c.ruta, cast(c.id as String), '/')")
+	List<Categoria> findDescendientes(@Param("ruta") String ruta);
+	
+	/**
+	 * Sustituye el comienzo de la ruta de los descendientes de una categoria cuando cambia su categoria Padre
+	 * @param rutaAnterior Ruta que tenian las subcategorias de la categoria movida
+	 * @param rutaNueva Ruta que pasan a tener las subcategorias de la categoria movida
+	 * @param inicio Posicion (empezando en 1) de la ruta a partir de la cual se conserva
+	 * @return Devuelve el numero de categorias actualizadas
+	 */
+	@RestResource(exported = false)
+	@Modifying
+	@Transactional
+	@Query("update Categoria c set c.ruta = concat(:rutaNueva, substring(c.ruta, :inicio)) where c.ruta like concat(:rutaAnterior, '%')")
+	int actualizarRutas(@Param("rutaAnterior") String rutaAnterior, @Param("rutaNueva") String rutaNueva, @Param("inicio") int inicio);
+	
+	/**
+	 * Devuelve todas las categorias de un CENAD, sin enlazar entre ellas, para construir su arbol
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve una lista de nodos con las categorias del CENAD
+	 */
+	@RestResource(exported = false)
+	@Query("select new es.mde.models.NodoCategoria(c.id, cast(c.id as String), c.nombre, c.descripcion, p.id) "
+			+ "from Categoria c left join c.categoriaPadre p where c.cenad.id = :idCenad "
+			+ "order by concat(c.ruta, cast(c.id as String), '/')")
+	List<NodoCategoria> findNodosCenad(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Devuelve todas las categorias de un CENAD con su numero de recursos, sin enlazar entre ellas, para construir su arbol
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve una lista de nodos con las categorias del CENAD y su numero de recursos
+	 */
+	@RestResource(exported = false)
+	@Query("select new es.mde.models.NodoCategoria(c.id, cast(c.id as String), c.nombre, c.descripcion, p.id, count(r)) "
+			+ "from Categoria c left join c.categoriaPadre p left join c.recursos r where c.cenad.id = :idCenad "
+			+ "group by c.id, c.nombre, c.descripcion, p.id, c.ruta order by concat(c.ruta, cast(c.id as String), '/')")
+	List<NodoCategoria> findNodosCenadConRecursos(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Devuelve las categorias que no tienen categoria Padre
+	 * @return Devuelve una lista de las categorias raiz de todos los CENAD,s
+	 */
+	@RestResource(exported = false)
+	List<Categoria> findByCategoriaPadreIsNull();
+	
+	/**
+	 * Devuelve las categorias de un CENAD que no tienen categoria Padre
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve una lista de las categorias raiz del CENAD
+	 */
+	@RestResource(exported = false)
+	List<Categoria> findByCenadIdAndCategoriaPadreIsNull(Long idCenad);
+}
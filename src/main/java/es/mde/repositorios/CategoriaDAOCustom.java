@@ -1,6 +1,10 @@
 package es.mde.repositorios;
 
 import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import es.mde.entidades.Categoria;
 import es.mde.entidades.Recurso;
 
@@ -27,4 +31,24 @@ public interface CategoriaDAOCustom {
 	 * @return Devuelve una lista de recursos de las subcategorias anidadas de una categoria
 	 */
 	List<Recurso> getRecursosDeSubcategorias(Long id);
-}
\ No newline at end of file
+	/**
+	 * Devuelve una pagina de recursos de las subcategorias anidadas de una categoria
+	 * @param id Id de la categoria
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de recursos de las subcategorias anidadas de una categoria
+	 */
+	Page<Recurso> getRecursosDeSubcategorias(Long id, Pageable pageable);
+	/**
+	 * Guarda una categoria con la ruta de su categoria Padre, y recalcula la de sus subcategorias anidadas si ha
+	 * cambiado de categoria Padre
+	 * @param <S> Tipo de la categoria
+	 * @param categoria Categoria a guardar
+	 * @return Devuelve la categoria guardada
+	 * @throws IllegalArgumentException si la categoria Padre es ella misma o una de sus subcategorias anidadas
+	 */
+	<S extends Categoria> S save(S categoria);
+	/**
+	 * Recalcula la ruta de todas las categorias que no la tengan o la tengan desactualizada
+	 */
+	void reconstruirRutas();
+}
@@ -1,11 +1,16 @@
 package es.mde.repositorios;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import es.mde.entidades.Categoria;
 import es.mde.entidades.Recurso;
@@ -20,6 +25,9 @@ public class CategoriaDAOImpl implements CategoriaDAOCustom {
 	@Autowired
 	CategoriaDAO categoriaDAO;
 
+	@Autowired
+	RecursoDAO recursoDAO;
+
 	@PersistenceContext
 	EntityManager entityManager;
 	
@@ -29,9 +37,7 @@ public class CategoriaDAOImpl implements CategoriaDAOCustom {
 	 */
 	@Override 
 	public List<Categoria> getCategoriasPadre() {
-		List<Categoria> categorias = categoriaDAO.findAll().stream()
-				.filter(j -> j.getCategoriaPadre() == null).collect(Collectors.toList());
-		return categorias;
+		return categoriaDAO.findByCategoriaPadreIsNull();
 	}
 
 	/**
@@ -41,11 +47,26 @@ public class CategoriaDAOImpl implements CategoriaDAOCustom {
 	 */
 	@Override 
 	public List<Recurso> getRecursosDeSubcategorias(Long id) {
-		List<Recurso> recursosTotales = new ArrayList<Recurso>();
-		Categoria categoria = categoriaDAO.findById(id).get();
-		getSubcategoriasAnidadas(id).forEach(c -> recursosTotales.addAll(c.getRecursos()));
-		recursosTotales.addAll(categoria.getRecursos());		
-		return recursosTotales;
+		String ruta = categoriaDAO.findRutaById(id);
+		if (ruta == null) {
+			return new ArrayList<Recurso>();
+		}
+		return recursoDAO.findByRutaCategoria(id, ruta + id + "/");
+	}
+
+	/**
+	 * Devuelve una pagina de recursos de las subcategorias anidadas de una categoria
+	 * @param id Id de la categoria
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de recursos de las subcategorias anidadas de una categoria
+	 */
+	@Override 
+	public Page<Recurso> getRecursosDeSubcategorias(Long id, Pageable pageable) {
+		String ruta = categoriaDAO.findRutaById(id);
+		if (ruta == null) {
+			return Page.empty(pageable);
+		}
+		return recursoDAO.findByRutaCategoria(id, ruta + id + "/", pageable);
 	}
 
 	/**
@@ -55,14 +76,93 @@ public class CategoriaDAOImpl implements CategoriaDAOCustom {
 	 */
 	@Override 
 	public List<Categoria> getSubcategoriasAnidadas(Long id) {
-		List<Categoria> categorias = categoriaDAO.findById(id).get().getSubcategorias().stream().collect(Collectors.toList());
-		List<Categoria> categoriasAnidadas = new ArrayList<Categoria>();
-		categoriasAnidadas.addAll(categorias);
-		categorias.forEach(c -> { 
-			if (c.getSubcategorias().size() != 0) {
-				categoriasAnidadas.addAll(getSubcategoriasAnidadas(c.getId()));
+		String ruta = categoriaDAO.findRutaById(id);
+		if (ruta == null) {
+			return new ArrayList<Categoria>();
+		}
+		return categoriaDAO.findDescendientes(ruta + id + "/");
+	}
+
+	/**
+	 * Guarda una categoria asignandole la ruta de su categoria Padre. Si ya existia y ha cambiado de categoria Padre
+	 * recalcula tambien la de sus subcategorias anidadas. Sustituye al save de Spring Data para que la API, el
+	 * importador y el resto de servicios mantengan la ruta igual
+	 * @param categoria Categoria a guardar, con la ruta que tenia guardada
+	 * @return Devuelve la categoria guardada
+	 */
+	@Override
+	@Transactional
+	public <S extends Categoria> S save(S categoria) {
+		String rutaAnterior = categoria.getRuta();
+		String rutaNueva = categoria.calcularRuta();
+		if (categoria.getId() == null) {
+			// la ruta no depende del propio id, asi que va en el INSERT aunque el id lo asigne la BD
+			categoria.setRuta(rutaNueva);
+			entityManager.persist(categoria);
+			return categoria;
+		}
+		if (!rutaNueva.equals(rutaAnterior)) {
+			categoria.setRuta(rutaNueva);
+			if (rutaAnterior != null) {
+				String subcategoriasAnterior = rutaAnterior + categoria.getId() + "/";
+				if (rutaNueva.startsWith(subcategoriasAnterior)) {
+					throw new IllegalArgumentException("Una categoria no puede ser subcategoria de si misma ni de sus subcategorias");
+				}
+				categoriaDAO.actualizarRutas(subcategoriasAnterior, categoria.getRutaSubcategorias(),
+						subcategoriasAnterior.length() + 1);
+			}
+		}
+		return entityManager.merge(categoria);
+	}
+
+	/**
+	 * Recalcula la ruta de todas las categorias que no la tengan o la tengan desactualizada
+	 */
+	@Override
+	@Transactional
+	public void reconstruirRutas() {
+		Map<Long, Long> padres = new HashMap<Long, Long>();
+		Map<Long, String> rutasGuardadas = new HashMap<Long, String>();
+		entityManager.createQuery("select c.id, p.id, c.ruta from Categoria c left join c.categoriaPadre p", Object[].class)
+				.getResultList().forEach(fila -> {
+					padres.put((Long) fila[0], (Long) fila[1]);
+					rutasGuardadas.put((Long) fila[0], (String) fila[2]);
+				});
+		Map<Long, String> rutas = new HashMap<Long, String>();
+		padres.keySet().forEach(id -> calcularRuta(id, padres, rutas, new HashSet<Long>()));
+		// la ruta guardada es la de la categoria Padre; las que forman parte de un ciclo no estan en rutas
+		rutas.keySet().forEach(id -> {
+			String ruta = padres.get(id) == null ? "/" : rutas.get(padres.get(id));
+			if (!ruta.equals(rutasGuardadas.get(id))) {
+				entityManager.createQuery("update Categoria c set c.ruta = :ruta where c.id = :id")
+						.setParameter("ruta", ruta).setParameter("id", id).executeUpdate();
 			}
 		});
-		return categoriasAnidadas;
+	}
+
+	/**
+	 * Calcula la ruta de una categoria seguida de su id a partir de la de su categoria Padre, reutilizando las ya
+	 * calculadas
+	 * @param id Id de la categoria
+	 * @param padres Id de la categoria Padre de cada categoria
+	 * @param rutas Rutas ya calculadas
+	 * @param visitadas Categorias recorridas en esta rama, para no entrar en ciclos
+	 * @return Devuelve la ruta de la categoria seguida de su id, o null si forma parte de un ciclo
+	 */
+	private String calcularRuta(Long id, Map<Long, Long> padres, Map<Long, String> rutas, Set<Long> visitadas) {
+		if (rutas.containsKey(id)) {
+			return rutas.get(id);
+		}
+		if (!visitadas.add(id)) {
+			return null;
+		}
+		Long idPadre = padres.get(id);
+		String rutaPadre = idPadre == null ? "/" : calcularRuta(idPadre, padres, rutas, visitadas);
+		if (rutaPadre == null) {
+			return null;
+		}
+		String ruta = rutaPadre + id + "/";
+		rutas.put(id, ruta);
+		return ruta;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package es.mde.repositorios;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkSave;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.HandleBeforeLinkSave;
+import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+import es.mde.entidades.Categoria;
+import es.mde.servicios.MantenimientoCategoriasService;
+
+/**
+ * Comprueba la categoria Padre de las categorias modificadas a traves de la API, para responder con un 400 antes de
+ * guardarlas, y mantiene el CENAD de sus recursos y solicitudes cuando cambia su CENAD
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Component
+@RepositoryEventHandler
+public class CategoriaEventHandler {
+
+	private Logger log = LoggerFactory.getLogger(CategoriaEventHandler.class);
+
+	private CategoriaDAO categoriaDAO;
+	private MantenimientoCategoriasService mantenimientoCategoriasService;
+
+	/**
+	 * Crea el manejador de eventos de las categorias
+	 * @param categoriaDAO DAO de categoria
+	 * @param mantenimientoCategoriasService Servicio que comprueba la categoria Padre y mantiene el CENAD de sus
+	 * recursos
+	 */
+	public CategoriaEventHandler(CategoriaDAO categoriaDAO,
+			MantenimientoCategoriasService mantenimientoCategoriasService) {
+		this.categoriaDAO = categoriaDAO;
+		this.mantenimientoCategoriasService = mantenimientoCategoriasService;
+	}
+
+	/**
+	 * Completa las rutas de las categorias que existian antes de guardarse la ruta o que la tienen con el formato
+	 * anterior, que incluia su propio id. Se lanza la primera, antes de
+	 * rellenar el CENAD de los recursos y de calcular las estadisticas
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(1)
+	public void inicializarRutas() {
+		categoriaDAO.reconstruirRutas();
+		log.info("Rutas de las categorias actualizadas");
+	}
+
+	/**
+	 * Comprueba la nueva categoria Padre antes de guardar una categoria modificada
+	 * @param categoria Categoria modificada
+	 */
+	@HandleBeforeSave
+	public void antesDeGuardar(Categoria categoria) {
+		mantenimientoCategoriasService.comprobarCategoria(categoria);
+	}
+
+	/**
+	 * Comprueba la nueva categoria Padre antes de guardar un cambio en las asociaciones de una categoria
+	 * @param categoria Categoria modificada
+	 * @param enlazado Entidad asociada
+	 */
+	@HandleBeforeLinkSave
+	public void antesDeGuardarEnlace(Categoria categoria, Object enlazado) {
+		mantenimientoCategoriasService.comprobarCategoria(categoria);
+	}
+
+	/**
+	 * Recalcula el CENAD de los recursos de la categoria despues de guardar una categoria modificada
+	 * @param categoria Categoria guardada
+	 */
+	@HandleAfterSave
+	public void despuesDeGuardar(Categoria categoria) {
+		mantenimientoCategoriasService.actualizarCategoria(categoria);
+	}
+
+	/**
+	 * Recalcula el CENAD de los recursos de la categoria despues de guardar un cambio en las asociaciones de una
+	 * categoria
+	 * @param categoria Categoria guardada
+	 * @param enlazado Entidad asociada
+	 */
+	@HandleAfterLinkSave
+	public void despuesDeGuardarEnlace(Categoria categoria, Object enlazado) {
+		mantenimientoCategoriasService.actualizarCategoria(categoria);
+	}
+}
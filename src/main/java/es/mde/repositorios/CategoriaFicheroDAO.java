@@ -1,7 +1,11 @@
 package es.mde.repositorios;
 
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import es.mde.entidades.CategoriaFichero;
 
 /**
@@ -10,4 +14,14 @@ import es.mde.entidades.CategoriaFichero;
  *
  */
 @RepositoryRestResource(path="categorias_fichero", collectionResourceRel="categorias_fichero", itemResourceRel="categoria_fichero") 
-public interface CategoriaFicheroDAO extends JpaRepository<CategoriaFichero, Long> {}
\ No newline at end of file
+public interface CategoriaFicheroDAO extends JpaRepository<CategoriaFichero, Long> {
+	
+	/**
+	 * Devuelve las categorias de fichero que tienen los ficheros de un recurso, sin repetir
+	 * @param idRecurso Id del recurso
+	 * @return Devuelve una lista de las categorias de fichero de los ficheros del recurso
+	 */
+	@RestResource(exported = false)
+	@Query("select distinct cf from Fichero f join f.categoriaFichero cf where f.recurso.id = :idRecurso")
+	List<CategoriaFichero> findByRecurso(@Param("idRecurso") Long idRecurso);
+}
\ No newline at end of file
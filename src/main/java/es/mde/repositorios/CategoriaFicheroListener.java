@@ -15,8 +15,7 @@ public class CategoriaFicheroListener {
 	
 	@PostPersist
 	public void postGuardar(CategoriaFichero categoriaFichero) {
-		categoriaFichero.setIdString(categoriaFichero.getId().toString());
-		System.err.println("Se ha guardado la categoriaFichero: " + categoriaFichero.getNombre() + " con Id " + categoriaFichero.getIdString());
+		log.debug("Se ha guardado la categoriaFichero: {} con Id {}", categoriaFichero.getNombre(), categoriaFichero.getId());
 	}
 	
 }
\ No newline at end of file
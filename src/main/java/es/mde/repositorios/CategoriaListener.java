@@ -1,22 +1,67 @@
 package es.mde.repositorios;
 
+import java.util.Objects;
+
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import es.mde.entidades.Categoria;
+import es.mde.servicios.ArbolCategoriasService;
 
 @Component
 public class CategoriaListener {
 
 	private Logger log = LoggerFactory.getLogger(CategoriaListener.class);
 	
+	private static ArbolCategoriasService arbolCategoriasService;
+	
+	/**
+	 * Metodo que inicia la clase
+	 * @param arbolCategoriasService Servicio estatico que guarda el arbol de categorias de cada CENAD
+	 */
+	@Autowired
+	public void init(ArbolCategoriasService arbolCategoriasService) {
+		CategoriaListener.arbolCategoriasService = arbolCategoriasService;
+	}
+	
 	@PostPersist
 	public void postGuardar(Categoria categoria) {
-		categoria.setIdString(categoria.getId().toString());
-		System.err.println("Se ha guardado la categoria: " + categoria.getNombre() + " con Id " + categoria.getIdString());
+		categoria.setIdCenadLeido(idCenad(categoria));
+		invalidarArbol(categoria);
+		log.debug("Se ha guardado la categoria: {} con Id {}", categoria.getNombre(), categoria.getId());
+	}
+	
+	@PostLoad
+	public void postLeer(Categoria categoria) {
+		categoria.setIdCenadLeido(idCenad(categoria));
 	}
 	
+	@PostUpdate
+	@PostRemove
+	public void postModificar(Categoria categoria) {
+		invalidarArbol(categoria);
+		// si ha cambiado de CENAD tambien hay que descartar el arbol del CENAD anterior
+		Long idCenadLeido = categoria.getIdCenadLeido();
+		if (arbolCategoriasService != null && idCenadLeido != null && !Objects.equals(idCenadLeido, idCenad(categoria))) {
+			arbolCategoriasService.invalidarCenad(idCenadLeido);
+		}
+		categoria.setIdCenadLeido(idCenad(categoria));
+	}
+	
+	private void invalidarArbol(Categoria categoria) {
+		if (arbolCategoriasService != null) {
+			arbolCategoriasService.invalidarCenad(idCenad(categoria));
+		}
+	}
+	
+	private Long idCenad(Categoria categoria) {
+		return categoria.getCenad() == null ? null : categoria.getCenad().getId();
+	}
 }
\ No newline at end of file
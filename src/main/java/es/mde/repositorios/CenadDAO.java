@@ -1,10 +1,18 @@
 package es.mde.repositorios;
 
 import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
 import es.mde.entidades.Cenad;
 
 /**
@@ -15,11 +23,52 @@ import es.mde.entidades.Cenad;
 @RepositoryRestResource(path="cenads", collectionResourceRel="cenads", itemResourceRel="cenad") 
 public interface CenadDAO extends JpaRepository<Cenad, Long>, CenadDAOCustom {
 	
+	/**
+	 * Devuelve un CENAD cargando en la misma consulta su descripcion, que es LAZY y solo se devuelve en el JSON del
+	 * detalle. Los listados no la cargan ni la devuelven
+	 * @param id Id del CENAD
+	 * @return Devuelve el CENAD
+	 */
+	@Override
+	@EntityGraph(attributePaths = { "descripcion" })
+	Optional<Cenad> findById(Long id);
+	
 	/**
 	 * Devuelve una lista de CENADS que contiene ese texto en su nombre
 	 * @param txt Texto que esta incluido en el nombre de los CENADS buscados
 	 * @return Devuelve una lista de CENADS que contiene ese texto en su nombre
 	 */
 	@RestResource(path="nombre")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "busquedas") })
 	List<Cenad> findByNombreIgnoreCaseContaining(@Param("nombre") String txt);
-}
\ No newline at end of file
+	
+	/**
+	 * Devuelve los CENAD,s que no tienen ningun administrador asignado
+	 * @return Devuelve una lista de CENAD,s sin administrador
+	 */
+	@RestResource(exported = false)
+	@Query("select c from Cenad c where not exists (select u.id from UsuarioAdministrador u where u.cenad = c)")
+	List<Cenad> findSinAdministrador();
+	
+	/**
+	 * Devuelve el token con el que se suscriben los clientes de calendario al calendario ICS de un CENAD
+	 * @param id Id del CENAD
+	 * @return Devuelve el token, o vacio si aun no tiene
+	 */
+	@RestResource(exported = false)
+	@Query("select c.tokenCalendario from Cenad c where c.id = :id")
+	Optional<String> findTokenCalendario(@Param("id") Long id);
+	
+	/**
+	 * Guarda el token del calendario ICS de un CENAD, que sustituye al anterior
+	 * @param id Id del CENAD
+	 * @param token Token nuevo
+	 * @return Devuelve el numero de filas actualizadas
+	 */
+	@RestResource(exported = false)
+	@Modifying
+	@Transactional
+	@Query("update Cenad c set c.tokenCalendario = :token where c.id = :id")
+	int actualizarTokenCalendario(@Param("id") Long id, @Param("token") String token);
+}
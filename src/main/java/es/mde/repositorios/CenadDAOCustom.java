@@ -1,10 +1,14 @@
 package es.mde.repositorios;
 
+import java.util.Date;
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import es.mde.entidades.Categoria;
 import es.mde.entidades.Cenad;
 import es.mde.entidades.Recurso;
 import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.CalendarioCenad;
 
 /**
  * Representa la interfaz con los metodos personalizados de CENAD,s
@@ -24,12 +28,26 @@ public interface CenadDAOCustom {
 	 * @return Devuelve una lista de los recursos de un CENAD
 	 */
 	List<Recurso> getRecursosCenad(Long id);
+	/**
+	 * Devuelve una pagina de los recursos de un CENAD
+	 * @param id Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de los recursos de un CENAD
+	 */
+	Page<Recurso> getRecursosCenad(Long id, Pageable pageable);
 	/**
 	 * Devuelve una lista de las solicitudes de un CENAD
 	 * @param id Id del CENAD
 	 * @return Devuelve una lista de las solicitudes de un CENAD
 	 */
 	List<SolicitudRecurso> getSolicitudesCenad(Long id);
+	/**
+	 * Devuelve una pagina de las solicitudes de un CENAD
+	 * @param id Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un CENAD
+	 */
+	Page<SolicitudRecurso> getSolicitudesCenad(Long id, Pageable pageable);
 	/**
 	 * Devuelve una lista de las solicitudes de un Cenad que tienen ese estado
 	 * @param id Id del Cenad
@@ -37,9 +55,36 @@ public interface CenadDAOCustom {
 	 * @return Devuelve una lista de las solicitudes de un Cenad que tienen ese estado
 	 */
 	List<SolicitudRecurso> getSolicitudesCenadEstado(Long id, String estado);
+	/**
+	 * Devuelve una pagina de las solicitudes de un Cenad que tienen ese estado
+	 * @param id Id del Cenad
+	 * @param estado Estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un Cenad que tienen ese estado
+	 */
+	Page<SolicitudRecurso> getSolicitudesCenadEstado(Long id, String estado, Pageable pageable);
+	/**
+	 * Devuelve las solicitudes de un CENAD siguientes a una dada, ordenadas por fecha de inicio del recurso e id
+	 * @param id Id del CENAD
+	 * @param estado Estado de la solicitud; null para todas
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida; null si no tiene o es la primera pagina
+	 * @param despuesDeId Id de la ultima solicitud leida; null en la primera pagina
+	 * @param tamano Numero maximo de solicitudes
+	 * @return Devuelve la lista de solicitudes siguientes del CENAD
+	 */
+	List<SolicitudRecurso> getSolicitudesCenadSiguientes(Long id, String estado, Date despuesDeFecha, Long despuesDeId,
+			int tamano);
 	/**
 	 * Devuelve una lista de los CENAD sin administrador
 	 * @return Devuelve una lista de los CENAD sin administrador
 	 */
 	List<Cenad> getCenadsSinAdmin();
+	/**
+	 * Devuelve en columnas las solicitudes de un CENAD que ocupan algun momento del periodo
+	 * @param id Id del CENAD
+	 * @param desde Inicio del periodo
+	 * @param hasta Fin del periodo
+	 * @return Devuelve el calendario de ocupacion del CENAD en el periodo
+	 */
+	CalendarioCenad getCalendarioCenad(Long id, Date desde, Date hasta);
 }
\ No newline at end of file
@@ -1,17 +1,21 @@
 package es.mde.repositorios;
 
-import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import es.mde.entidades.Categoria;
 import es.mde.entidades.Cenad;
+import es.mde.entidades.EstadoSolicitud;
 import es.mde.entidades.Recurso;
 import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.CalendarioCenad;
+import es.mde.models.FiltroSolicitudes;
 
 /**
  * Representa la clase implementada con los metodos personalizados de los CENAD,s 
@@ -22,6 +26,15 @@ import es.mde.entidades.SolicitudRecurso;
 public class CenadDAOImpl implements CenadDAOCustom {
 	@Autowired
 	CenadDAO cenadDAO;
+	
+	@Autowired
+	CategoriaDAO categoriaDAO;
+	
+	@Autowired
+	RecursoDAO recursoDAO;
+	
+	@Autowired
+	SolicitudRecursoDAO solicitudRecursoDAO;
 
 	@PersistenceContext
 	EntityManager entityManager;
@@ -33,8 +46,7 @@ public class CenadDAOImpl implements CenadDAOCustom {
 	 */
 	@Override 
 	public List<Categoria> getCategoriasPadreCenad(Long id) {
-		List<Categoria> categorias = cenadDAO.findById(id).get().getCategorias().stream().filter(c -> c.getCategoriaPadre() == null).collect(Collectors.toList());
-		return categorias;
+		return categoriaDAO.findByCenadIdAndCategoriaPadreIsNull(id);
 	}
 
 	/**
@@ -44,10 +56,18 @@ public class CenadDAOImpl implements CenadDAOCustom {
 	 */
 	@Override 
 	public List<Recurso> getRecursosCenad(Long id) {
-		List<Recurso> recursos = new ArrayList<Recurso>();
-		List<Categoria> categorias = cenadDAO.findById(id).get().getCategorias().stream().collect(Collectors.toList());
-		categorias.forEach(c -> recursos.addAll(c.getRecursos()));
-		return recursos;
+		return recursoDAO.findByCenad(id);
+	}
+
+	/**
+	 * Devuelve una pagina de los recursos de un CENAD
+	 * @param id Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de los recursos de un CENAD
+	 */
+	@Override 
+	public Page<Recurso> getRecursosCenad(Long id, Pageable pageable) {
+		return recursoDAO.findByCenad(id, pageable);
 	}
 
 	/**
@@ -57,10 +77,18 @@ public class CenadDAOImpl implements CenadDAOCustom {
 	 */
 	@Override 
 	public List<SolicitudRecurso> getSolicitudesCenad(Long id) {
-		List<SolicitudRecurso> solicitudes = new ArrayList<SolicitudRecurso>();
-		List<Recurso> recursos = this.getRecursosCenad(id);
-		recursos.forEach(r -> solicitudes.addAll(r.getSolicitudes()));
-		return solicitudes;
+		return solicitudRecursoDAO.findByCenad(id);
+	}
+
+	/**
+	 * Devuelve una pagina de las solicitudes de un CENAD
+	 * @param id Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un CENAD
+	 */
+	@Override 
+	public Page<SolicitudRecurso> getSolicitudesCenad(Long id, Pageable pageable) {
+		return solicitudRecursoDAO.findByCenad(id, pageable);
 	}	
 	
 	/**
@@ -69,9 +97,7 @@ public class CenadDAOImpl implements CenadDAOCustom {
 	 */
 	@Override 
 	public List<Cenad> getCenadsSinAdmin() {
-		List<Cenad> cenads = cenadDAO.findAll().stream()
-				.filter(j -> j.getUsuarioAdministrador() == null).collect(Collectors.toList());
-		return cenads;
+		return cenadDAO.findSinAdministrador();
 	}
 	
 	/**
@@ -81,8 +107,55 @@ public class CenadDAOImpl implements CenadDAOCustom {
 	 */
 	@Override
 	public List<SolicitudRecurso> getSolicitudesCenadEstado(Long id, String estado) {
-		List<SolicitudRecurso> solicitudes = new ArrayList<SolicitudRecurso>();
-		solicitudes = this.getSolicitudesCenad(id).stream().filter(s -> s.getEstado().equalsIgnoreCase(estado)).collect(Collectors.toList());		
-		return solicitudes;
-	}	
-}
\ No newline at end of file
+		return this.getSolicitudesCenadEstado(id, estado, Pageable.unpaged()).getContent();
+	}
+	
+	/**
+	 * Devuelve una pagina de las solicitudes de un Cenad que tienen ese estado
+	 * @param id Id del Cenad
+	 * @param estado Estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un Cenad que tienen ese estado
+	 */
+	@Override
+	public Page<SolicitudRecurso> getSolicitudesCenadEstado(Long id, String estado, Pageable pageable) {
+		return solicitudRecursoDAO.findByCenadAndEstado(id, EstadoSolicitud.normalizar(estado), pageable);
+	}
+
+	/**
+	 * Devuelve las solicitudes de un CENAD siguientes a una dada, ordenadas por fecha de inicio del recurso e id
+	 * @param id Id del CENAD
+	 * @param estado Estado de la solicitud; null para todas
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida; null si no tiene o es la primera pagina
+	 * @param despuesDeId Id de la ultima solicitud leida; null en la primera pagina
+	 * @param tamano Numero maximo de solicitudes
+	 * @return Devuelve la lista de solicitudes siguientes del CENAD
+	 */
+	@Override
+	public List<SolicitudRecurso> getSolicitudesCenadSiguientes(Long id, String estado, Date despuesDeFecha,
+			Long despuesDeId, int tamano) {
+		FiltroSolicitudes filtro = new FiltroSolicitudes(id, null,
+				estado == null ? null : EstadoSolicitud.normalizar(estado), null, null);
+		return solicitudRecursoDAO.getSolicitudesSiguientes(filtro, despuesDeFecha, despuesDeId, tamano);
+	}
+
+	/**
+	 * Devuelve en columnas las solicitudes de un CENAD que ocupan algun momento del periodo
+	 * @param id Id del CENAD
+	 * @param desde Inicio del periodo
+	 * @param hasta Fin del periodo
+	 * @return Devuelve el calendario de ocupacion del CENAD en el periodo
+	 */
+	@Override
+	public CalendarioCenad getCalendarioCenad(Long id, Date desde, Date hasta) {
+		if (desde == null || hasta == null || hasta.before(desde)) {
+			throw new IllegalArgumentException("La fecha desde no puede ser posterior a la fecha hasta");
+		}
+		CalendarioCenad calendario = new CalendarioCenad(desde.getTime(), hasta.getTime());
+		for (Object[] fila : solicitudRecursoDAO.findCalendarioCenad(id, desde, hasta)) {
+			calendario.anadir((Long) fila[0], (Long) fila[1], ((Date) fila[2]).getTime(),
+					fila[3] == null ? null : ((Date) fila[3]).getTime(), (String) fila[4], (String) fila[5]);
+		}
+		return calendario;
+	}
+}
@@ -15,8 +15,7 @@ public class CenadListener {
 	
 	@PostPersist
 	public void postGuardar(Cenad cenad) {
-		cenad.setIdString(cenad.getId().toString());
-		System.err.println("Se ha guardado el cenad: " + cenad.getNombre() + " con Id " + cenad.getIdString());
+		log.debug("Se ha guardado el cenad: {} con Id {}", cenad.getNombre(), cenad.getId());
 	}
 	
 }
\ No newline at end of file
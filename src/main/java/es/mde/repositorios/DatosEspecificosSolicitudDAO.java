@@ -0,0 +1,17 @@
+package es.mde.repositorios;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import es.mde.entidades.DatosEspecificosSolicitud;
+
+/**
+ * Representa la interfaz de los datos especificos de las solicitudes. No se exponen en la API: se leen y se
+ * escriben en el objeto datosEspecificos del JSON de su solicitud
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@RepositoryRestResource(exported = false)
+public interface DatosEspecificosSolicitudDAO extends JpaRepository<DatosEspecificosSolicitud, Long> {
+
+}
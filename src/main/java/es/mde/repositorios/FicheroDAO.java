@@ -1,7 +1,13 @@
 package es.mde.repositorios;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import es.mde.entidades.Fichero;
 
 /**
@@ -10,4 +16,23 @@ import es.mde.entidades.Fichero;
  *
  */
 @RepositoryRestResource(path="ficheros", collectionResourceRel="ficheros", itemResourceRel="fichero") 
-public interface FicheroDAO extends JpaRepository<Fichero, Long> {}
\ No newline at end of file
+public interface FicheroDAO extends JpaRepository<Fichero, Long> {
+	
+	/**
+	 * Devuelve un fichero cargando en la misma consulta su descripcion, que es LAZY y solo se devuelve en el JSON
+	 * del detalle. Los listados no la cargan ni la devuelven
+	 * @param id Id del fichero
+	 * @return Devuelve el fichero
+	 */
+	@Override
+	@EntityGraph(attributePaths = { "descripcion" })
+	Optional<Fichero> findById(Long id);
+	
+	/**
+	 * Devuelve en una sola consulta los ficheros con esos ids, sin su descripcion, como los listados
+	 * @param ids Ids de los ficheros
+	 * @return Devuelve una lista de los ficheros que existen
+	 */
+	@RestResource(exported = false)
+	List<Fichero> findByIdIn(Collection<Long> ids);
+}
@@ -15,8 +15,7 @@ public class FicheroListener {
 	
 	@PostPersist
 	public void postGuardar(Fichero fichero) {
-		fichero.setIdString(fichero.getId().toString());
-		System.err.println("Se ha guardado el fichero: " + fichero.getNombre() + " con Id " + fichero.getIdString());
+		log.debug("Se ha guardado el fichero: {} con Id {}", fichero.getNombre(), fichero.getId());
 	}
 	
 }
\ No newline at end of file
@@ -1,10 +1,23 @@
 package es.mde.repositorios;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import es.mde.entidades.Recurso;
 
 /**
@@ -15,11 +28,125 @@ import es.mde.entidades.Recurso;
 @RepositoryRestResource(path="recursos", collectionResourceRel="recursos", itemResourceRel="recurso")
 public interface RecursoDAO extends JpaRepository<Recurso, Long>, RecursoDAOCustom {
 	
+	/**
+	 * Guarda un recurso con el CENAD de su categoria y mueve sus solicitudes si cambia de CENAD. Lo implementa
+	 * RecursoDAOImpl en lugar del save de Spring Data
+	 * @param <S> Tipo del recurso
+	 * @param recurso Recurso a guardar
+	 * @return Devuelve el recurso guardado
+	 */
+	@Override
+	<S extends Recurso> S save(S recurso);
+	
+	/**
+	 * Devuelve un recurso cargando en la misma consulta sus textos largos, que son LAZY y solo se devuelven en el
+	 * JSON del detalle. Los listados no los cargan ni los devuelven
+	 * @param id Id del recurso
+	 * @return Devuelve el recurso
+	 */
+	@Override
+	@EntityGraph(attributePaths = { "descripcion", "otros" })
+	Optional<Recurso> findById(Long id);
+	
+	/**
+	 * Devuelve en una sola consulta los recursos con esos ids, sin sus textos largos, como los listados
+	 * @param ids Ids de los recursos
+	 * @return Devuelve una lista de los recursos que existen
+	 */
+	@RestResource(exported = false)
+	List<Recurso> findByIdIn(Collection<Long> ids);
+	
+	/**
+	 * Devuelve varios recursos bloqueandolos hasta el final de la transaccion, para que nadie les asigne otra
+	 * solicitud mientras se comprueba si estan libres. Se bloquean siempre en orden de id para no provocar esperas
+	 * cruzadas
+	 * @param ids Ids de los recursos
+	 * @return Devuelve los recursos que existen
+	 */
+	@RestResource(exported = false)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from Recurso r where r.id in :ids order by r.id")
+	List<Recurso> findParaReservarByIds(@Param("ids") Collection<Long> ids);
+	
 	/**
 	 * Devuelve una lista de recursos que contiene ese texto en su nombre
 	 * @param txt Texto que esta incluido en el nombre de los recursos buscados
 	 * @return Devuelve una lista de recursos que contiene ese texto en su nombre
 	 */
 	@RestResource(path="nombre")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "busquedas") })
 	List<Recurso> findByNombreIgnoreCaseContaining(@Param("nombre") String txt);
-}
\ No newline at end of file
+	
+	/**
+	 * Devuelve una lista de los recursos de un CENAD en una sola consulta
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve una lista de los recursos de un CENAD
+	 */
+	@RestResource(exported = false)
+	@Query("select r from Recurso r where r.cenad.id = :idCenad")
+	List<Recurso> findByCenad(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Devuelve los ids de los recursos de un CENAD, sin cargar los recursos
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve una lista de los ids de los recursos de un CENAD
+	 */
+	@RestResource(exported = false)
+	@Query("select r.id from Recurso r where r.cenad.id = :idCenad")
+	List<Long> findIdsByCenad(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Devuelve una pagina de los recursos de un CENAD en una sola consulta
+	 * @param idCenad Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de los recursos de un CENAD
+	 */
+	@RestResource(exported = false)
+	@Query(value = "select r from Recurso r where r.cenad.id = :idCenad",
+			countQuery = "select count(r) from Recurso r where r.cenad.id = :idCenad")
+	Page<Recurso> findByCenad(@Param("idCenad") Long idCenad, Pageable pageable);
+	
+	/**
+	 * Devuelve una lista de los recursos de una categoria y de las categorias cuya ruta empieza por la indicada
+	 * @param id Id de la categoria raiz del subarbol
+	 * @param ruta Ruta de las subcategorias de la categoria raiz del subarbol
+	 * @return Devuelve una lista de los recursos de la categoria y de sus subcategorias anidadas
+	 */
+	@RestResource(exported = false)
+	@Query("select r from Recurso r join r.categoria c where c.id = :id or c.ruta like concat(:ruta, '%')")
+	List<Recurso> findByRutaCategoria(@Param("id") Long id, @Param("ruta") String ruta);
+	
+	/**
+	 * Devuelve una pagina de los recursos de una categoria y de las categorias cuya ruta empieza por la indicada
+	 * @param id Id de la categoria raiz del subarbol
+	 * @param ruta Ruta de las subcategorias de la categoria raiz del subarbol
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de los recursos de la categoria y de sus subcategorias anidadas
+	 */
+	@RestResource(exported = false)
+	@Query(value = "select r from Recurso r join r.categoria c where c.id = :id or c.ruta like concat(:ruta, '%')",
+			countQuery = "select count(r) from Recurso r join r.categoria c where c.id = :id or c.ruta like concat(:ruta, '%')")
+	Page<Recurso> findByRutaCategoria(@Param("id") Long id, @Param("ruta") String ruta, Pageable pageable);
+	
+	/**
+	 * Devuelve el token con el que se suscriben los clientes de calendario al calendario ICS de un recurso
+	 * @param id Id del recurso
+	 * @return Devuelve el token, o vacio si aun no tiene
+	 */
+	@RestResource(exported = false)
+	@Query("select r.tokenCalendario from Recurso r where r.id = :id")
+	Optional<String> findTokenCalendario(@Param("id") Long id);
+	
+	/**
+	 * Guarda el token del calendario ICS de un recurso, que sustituye al anterior
+	 * @param id Id del recurso
+	 * @param token Token nuevo
+	 * @return Devuelve el numero de filas actualizadas
+	 */
+	@RestResource(exported = false)
+	@Modifying
+	@Transactional
+	@Query("update Recurso r set r.tokenCalendario = :token where r.id = :id")
+	int actualizarTokenCalendario(@Param("id") Long id, @Param("token") String token);
+}
@@ -1,7 +1,12 @@
 package es.mde.repositorios;
 
+import java.util.Date;
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import es.mde.entidades.Categoria;
 import es.mde.entidades.CategoriaFichero;
+import es.mde.entidades.Recurso;
 import es.mde.entidades.SolicitudRecurso;
 
 /**
@@ -29,4 +34,51 @@ public interface RecursoDAOCustom {
 	 * @return Devuelve una lista de las solicitudes de un recurso que tienen ese estado
 	 */
 	List<SolicitudRecurso> getSolicitudesDeRecursoPorEstado(Long id, String estado);
+
+	/**
+	 * Devuelve una pagina de las solicitudes de un recurso que tienen ese estado
+	 * 
+	 * @param id Id del recurso
+	 * @param estado Estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un recurso que tienen ese estado
+	 */
+	Page<SolicitudRecurso> getSolicitudesDeRecursoPorEstado(Long id, String estado, Pageable pageable);
+
+	/**
+	 * Devuelve las solicitudes de un recurso que tienen ese estado siguientes a una dada, ordenadas por fecha de
+	 * inicio del recurso e id
+	 * 
+	 * @param id Id del recurso
+	 * @param estado Estado de la solicitud
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida; null si no tiene o es la primera pagina
+	 * @param despuesDeId Id de la ultima solicitud leida; null en la primera pagina
+	 * @param tamano Numero maximo de solicitudes
+	 * @return Devuelve la lista de solicitudes siguientes del recurso
+	 */
+	List<SolicitudRecurso> getSolicitudesDeRecursoPorEstadoSiguientes(Long id, String estado, Date despuesDeFecha,
+			Long despuesDeId, int tamano);
+
+	/**
+	 * Guarda un recurso con el CENAD de su categoria y, si ha cambiado de CENAD, mueve tambien sus solicitudes
+	 * 
+	 * @param <S> Tipo del recurso
+	 * @param recurso Recurso a guardar
+	 * @return Devuelve el recurso guardado
+	 */
+	<S extends Recurso> S save(S recurso);
+
+	/**
+	 * Copia en los recursos de una categoria y en sus solicitudes el CENAD de la categoria, cuando cambia de CENAD
+	 * 
+	 * @param categoria Categoria modificada
+	 */
+	void actualizarCenad(Categoria categoria);
+
+	/**
+	 * Rellena el CENAD de los recursos y solicitudes que no lo tengan o lo tengan desactualizado
+	 * 
+	 * @return Devuelve el numero de recursos y solicitudes actualizados
+	 */
+	int reconstruirCenads();
 }
\ No newline at end of file
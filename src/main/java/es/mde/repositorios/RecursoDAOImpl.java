@@ -1,15 +1,25 @@
 package es.mde.repositorios;
 
-import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import es.mde.entidades.Categoria;
 import es.mde.entidades.CategoriaFichero;
-import es.mde.entidades.Fichero;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.entidades.Recurso;
 import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.FiltroSolicitudes;
+import es.mde.servicios.ArbolCategoriasService;
+import es.mde.servicios.EstadisticasService;
 
 /**
  * Representa la clase implementada con los metodos personalizados de los
@@ -23,41 +33,189 @@ public class RecursoDAOImpl implements RecursoDAOCustom {
 	@Autowired
 	RecursoDAO recursoDAO;
 
+	@Autowired
+	SolicitudRecursoDAO solicitudRecursoDAO;
+
+	@Autowired
+	CategoriaFicheroDAO categoriaFicheroDAO;
+
+	@Autowired
+	EstadisticasService estadisticasService;
+
+	@Autowired
+	ArbolCategoriasService arbolCategoriasService;
+
 	@PersistenceContext
 	EntityManager entityManager;
 
-	@Override
 	/**
 	 * Devuelve una lista de las categorias de ficheros que tienen los ficheros de
 	 * un recurso
 	 * 
 	 * @param id Id del recurso
 	 */
+	@Override
 	public List<CategoriaFichero> getCategoriasFicheroDeRecurso(Long id) {
 
-		List<CategoriaFichero> categoriasFichero = new ArrayList<CategoriaFichero>();
+		return categoriaFicheroDAO.findByRecurso(id);
+	}
 
-		List<Fichero> ficheros = recursoDAO.findById(id).get().getFicheros().stream().collect(Collectors.toList());
+	/**
+	 * Devuelve una lista de las solicitudes de un recurso y un estado
+	 * 
+	 * @param id Id del recurso
+	 * @param estado Estado de la solicitud
+	 */
+	@Override
+	public List<SolicitudRecurso> getSolicitudesDeRecursoPorEstado(Long id, String estado) {
 
-		for (Fichero fichero : ficheros) {
-			if (!categoriasFichero.contains(fichero.getCategoriaFichero())) {
-				categoriasFichero.add(fichero.getCategoriaFichero());
-			}
-		}
-		return categoriasFichero;
+		return this.getSolicitudesDeRecursoPorEstado(id, estado, Pageable.unpaged()).getContent();
 	}
 
+	/**
+	 * Devuelve una pagina de las solicitudes de un recurso y un estado
+	 * 
+	 * @param id Id del recurso
+	 * @param estado Estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas
+	 */
 	@Override
+	public Page<SolicitudRecurso> getSolicitudesDeRecursoPorEstado(Long id, String estado, Pageable pageable) {
+
+		return solicitudRecursoDAO.findByRecursoIdAndEstado(id, EstadoSolicitud.normalizar(estado), pageable);
+	}
+
 	/**
-	 * Devuelve una lista de las solcitudes de un recurso y un estado
+	 * Devuelve las solicitudes de un recurso y un estado siguientes a una dada, ordenadas por fecha de inicio del
+	 * recurso e id
 	 * 
 	 * @param id Id del recurso
 	 * @param estado Estado de la solicitud
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida; null si no tiene o es la primera pagina
+	 * @param despuesDeId Id de la ultima solicitud leida; null en la primera pagina
+	 * @param tamano Numero maximo de solicitudes
 	 */
-	public List<SolicitudRecurso> getSolicitudesDeRecursoPorEstado(Long id, String estado) {
+	@Override
+	public List<SolicitudRecurso> getSolicitudesDeRecursoPorEstadoSiguientes(Long id, String estado,
+			Date despuesDeFecha, Long despuesDeId, int tamano) {
+
+		FiltroSolicitudes filtro = new FiltroSolicitudes(null, id, EstadoSolicitud.normalizar(estado), null, null);
+		return solicitudRecursoDAO.getSolicitudesSiguientes(filtro, despuesDeFecha, despuesDeId, tamano);
+	}
+
+	/**
+	 * Guarda un recurso copiando en el y en sus solicitudes el CENAD de su categoria. Sustituye al save de Spring
+	 * Data para que la API, el importador y el resto de servicios mantengan el CENAD igual, sin consultas en los
+	 * listeners
+	 * 
+	 * @param recurso Recurso a guardar
+	 * @return Devuelve el recurso guardado
+	 */
+	@Override
+	@Transactional
+	public <S extends Recurso> S save(S recurso) {
+		if (recurso.getCategoria() != null && !Hibernate.isInitialized(recurso.getCategoria())) {
+			// referencia sin cargar, que puede venir de otra sesion ya cerrada
+			recurso.setCategoria(entityManager.find(Categoria.class, recurso.getCategoria().getId()));
+		}
+		actualizarCenad(recurso);
+		if (recurso.getId() == null) {
+			entityManager.persist(recurso);
+			return recurso;
+		}
+		return entityManager.merge(recurso);
+	}
+
+	/**
+	 * Copia en el recurso y en sus solicitudes el CENAD de la categoria del recurso, cuando cambia de categoria.
+	 * Si cambia de CENAD descarta el arbol del CENAD anterior, y si mueve solicitudes anota el recurso en las
+	 * estadisticas
+	 */
+	private void actualizarCenad(Recurso recurso) {
+		Cenad cenad = recurso.getCategoria() == null ? null : recurso.getCategoria().getCenad();
+		Cenad anterior = recurso.getCenad();
+		recurso.setCenad(cenad);
+		if (anterior != null && (cenad == null || !anterior.getId().equals(cenad.getId()))) {
+			arbolCategoriasService.invalidarCenad(anterior.getId());
+		}
+		if (recurso.getId() == null || cenad == null) {
+			return;
+		}
+		List<Long> cenadsAnteriores = entityManager.createQuery("select distinct c.id from SolicitudRecurso s"
+				+ " left join s.cenad c where s.recurso.id = :idRecurso and (c is null or c <> :cenad)", Long.class)
+				.setParameter("cenad", cenad).setParameter("idRecurso", recurso.getId()).getResultList();
+		if (cenadsAnteriores.isEmpty()) {
+			return;
+		}
+		entityManager.createQuery("update SolicitudRecurso s set s.cenad = :cenad"
+				+ " where s.recurso.id = :idRecurso and (s.cenad is null or s.cenad <> :cenad)")
+				.setParameter("cenad", cenad).setParameter("idRecurso", recurso.getId()).executeUpdate();
+		estadisticasService.registrarCambioRecurso(recurso.getId());
+		cenadsAnteriores.stream().filter(id -> id != null).forEach(arbolCategoriasService::invalidarCenad);
+	}
 
-		List<SolicitudRecurso> solicitudes = new ArrayList<SolicitudRecurso>();
-		solicitudes = this.recursoDAO.findById(id).get().getSolicitudes().stream().filter(s -> s.getEstado().equalsIgnoreCase(estado)).collect(Collectors.toList());
-		return solicitudes;
+	/**
+	 * Copia en los recursos de una categoria y en sus solicitudes el CENAD de la categoria, cuando cambia de CENAD.
+	 * Como las actualizaciones masivas no pasan por los listeners, anota los recursos movidos en las estadisticas y
+	 * descarta el arbol de su CENAD anterior y del nuevo. Los periodos ocupados y los dias ocupados se guardan por
+	 * recurso y no dependen del CENAD, y la version de los calendarios ICS se calcula en cada peticion
+	 * 
+	 * @param categoria Categoria modificada
+	 */
+	@Override
+	@Transactional
+	public void actualizarCenad(Categoria categoria) {
+		Cenad cenad = categoria.getCenad();
+		if (categoria.getId() == null || cenad == null) {
+			return;
+		}
+		List<Object[]> movidos = entityManager.createQuery("select r.id, c.id from Recurso r left join r.cenad c"
+				+ " where r.categoria.id = :idCategoria and (c is null or c <> :cenad)", Object[].class)
+				.setParameter("cenad", cenad).setParameter("idCategoria", categoria.getId()).getResultList();
+		List<Long> conSolicitudesMovidas = entityManager.createQuery("select distinct s.recurso.id from SolicitudRecurso s"
+				+ " where s.recurso.categoria.id = :idCategoria and (s.cenad is null or s.cenad <> :cenad)", Long.class)
+				.setParameter("cenad", cenad).setParameter("idCategoria", categoria.getId()).getResultList();
+		if (movidos.isEmpty() && conSolicitudesMovidas.isEmpty()) {
+			return;
+		}
+		entityManager.createQuery("update Recurso r set r.cenad = :cenad"
+				+ " where r.categoria.id = :idCategoria and (r.cenad is null or r.cenad <> :cenad)")
+				.setParameter("cenad", cenad).setParameter("idCategoria", categoria.getId()).executeUpdate();
+		entityManager.createQuery("update SolicitudRecurso s set s.cenad = :cenad where s.recurso.id in"
+				+ " (select r.id from Recurso r where r.categoria.id = :idCategoria) and (s.cenad is null or s.cenad <> :cenad)")
+				.setParameter("cenad", cenad).setParameter("idCategoria", categoria.getId()).executeUpdate();
+
+		Set<Long> cenads = new HashSet<>();
+		cenads.add(cenad.getId());
+		Set<Long> recursos = new HashSet<>(conSolicitudesMovidas);
+		for (Object[] movido : movidos) {
+			recursos.add((Long) movido[0]);
+			if (movido[1] != null) {
+				cenads.add((Long) movido[1]);
+			}
+		}
+		recursos.forEach(estadisticasService::registrarCambioRecurso);
+		cenads.forEach(arbolCategoriasService::invalidarCenad);
+	}
+
+	/**
+	 * Rellena el CENAD de los recursos y solicitudes que no lo tengan o lo tengan desactualizado. Primero los
+	 * recursos, a partir de su categoria, y despues las solicitudes, a partir de su recurso
+	 * 
+	 * @return Devuelve el numero de recursos y solicitudes actualizados
+	 */
+	@Override
+	@Transactional
+	public int reconstruirCenads() {
+		int recursos = entityManager.createQuery("update Recurso r"
+				+ " set r.cenad = (select c.cenad from Categoria c where c.id = r.categoria.id)"
+				+ " where r.cenad is null or r.cenad.id <> (select c.cenad.id from Categoria c where c.id = r.categoria.id)")
+				.executeUpdate();
+		int solicitudes = entityManager.createQuery("update SolicitudRecurso s"
+				+ " set s.cenad = (select r.cenad from Recurso r where r.id = s.recurso.id)"
+				+ " where s.recurso is not null"
+				+ " and (s.cenad is null or s.cenad.id <> (select r.cenad.id from Recurso r where r.id = s.recurso.id))")
+				.executeUpdate();
+		return recursos + solicitudes;
 	}
 }
\ No newline at end of file
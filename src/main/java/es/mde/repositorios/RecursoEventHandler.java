@@ -0,0 +1,41 @@
+package es.mde.repositorios;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rellena al arrancar el CENAD de los recursos y de sus solicitudes que no lo tienen. Al guardar un recurso lo
+ * mantiene RecursoDAO.save
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Component
+public class RecursoEventHandler {
+
+	private Logger log = LoggerFactory.getLogger(RecursoEventHandler.class);
+
+	private RecursoDAO recursoDAO;
+
+	/**
+	 * Crea el manejador de eventos de los recursos
+	 * @param recursoDAO DAO de recurso
+	 */
+	public RecursoEventHandler(RecursoDAO recursoDAO) {
+		this.recursoDAO = recursoDAO;
+	}
+
+	/**
+	 * Rellena el CENAD de los recursos y solicitudes que existian antes de guardarse el CENAD. Se lanza despues de
+	 * completar las rutas y antes de calcular las estadisticas, que agrupan las solicitudes por su CENAD
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(2)
+	public void inicializarCenads() {
+		int actualizados = recursoDAO.reconstruirCenads();
+		log.info("CENAD de los recursos y solicitudes actualizado ({} filas)", actualizados);
+	}
+}
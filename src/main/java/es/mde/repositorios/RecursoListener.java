@@ -1,22 +1,57 @@
 package es.mde.repositorios;
 
 import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import es.mde.entidades.Recurso;
+import es.mde.servicios.ArbolCategoriasService;
+import es.mde.servicios.EstadisticasService;
 
 @Component
 public class RecursoListener {
 
 	private Logger log = LoggerFactory.getLogger(RecursoListener.class);
 	
+	private static ArbolCategoriasService arbolCategoriasService;
+	private static EstadisticasService estadisticasService;
+	
+	/**
+	 * Metodo que inicia la clase
+	 * @param arbolCategoriasService Servicio estatico que guarda el arbol de categorias de cada CENAD
+	 * @param estadisticasService Servicio estatico que guarda los acumulados de las estadisticas
+	 */
+	@Autowired
+	public void init(ArbolCategoriasService arbolCategoriasService, EstadisticasService estadisticasService) {
+		RecursoListener.arbolCategoriasService = arbolCategoriasService;
+		RecursoListener.estadisticasService = estadisticasService;
+	}
+	
 	@PostPersist
 	public void postGuardar(Recurso recurso) {
-		recurso.setIdString(recurso.getId().toString());
-		System.err.println("Se ha guardado el recurso: " + recurso.getNombre() + " con Id " + recurso.getIdString());
+		invalidarArbol(recurso);
+		log.debug("Se ha guardado el recurso: {} con Id {}", recurso.getNombre(), recurso.getId());
 	}
 	
+	@PostUpdate
+	@PostRemove
+	public void postModificar(Recurso recurso) {
+		invalidarArbol(recurso);
+		// las estadisticas de sus solicitudes dependen de su categoria (CENAD) y de su gestor
+		if (estadisticasService != null) {
+			estadisticasService.registrarCambioRecurso(recurso.getId());
+		}
+	}
+	
+	private void invalidarArbol(Recurso recurso) {
+		if (arbolCategoriasService != null) {
+			arbolCategoriasService.invalidarCenad(recurso.getCategoria() == null || recurso.getCategoria().getCenad() == null ? null
+				: recurso.getCategoria().getCenad().getId());
+		}
+	}
 }
\ No newline at end of file
@@ -15,8 +15,7 @@ public class SolicitudArmaListener {
 	
 	@PostPersist
 	public void postGuardar(SolicitudArma solicitudArma) {
-		solicitudArma.setIdString(solicitudArma.getId().toString());
-		System.err.println("Se ha guardado la solicitudArma con Id " + solicitudArma.getIdString());
+		log.debug("Se ha guardado la solicitudArma con Id {}", solicitudArma.getId());
 	}
 	
 }
\ No newline at end of file
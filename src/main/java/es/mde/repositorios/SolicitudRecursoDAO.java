@@ -1,14 +1,27 @@
 package es.mde.repositorios;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
 
 import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.VersionCalendario;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 /**
  * Representa la interfaz que expone para la API las solicitudes 
@@ -16,7 +29,42 @@ import es.mde.entidades.SolicitudRecurso;
  *
  */
 @RepositoryRestResource(path="solicitudes", collectionResourceRel="solicitudes", itemResourceRel="solicitud") 
-public interface SolicitudRecursoDAO extends JpaRepository<SolicitudRecurso, Long> {
+public interface SolicitudRecursoDAO extends JpaRepository<SolicitudRecurso, Long>, SolicitudRecursoDAOCustom {
+	
+	/**
+	 * Guarda una solicitud bloqueando antes su recurso y comprobando que esta libre en sus fechas. Lo implementa
+	 * SolicitudRecursoDAOImpl en lugar del save de Spring Data
+	 * @param <S> Tipo de la solicitud
+	 * @param solicitud Solicitud a guardar
+	 * @return Devuelve la solicitud guardada
+	 */
+	@Override
+	<S extends SolicitudRecurso> S save(S solicitud);
+	
+	/**
+	 * Devuelve una solicitud cargando en la misma consulta sus textos largos y sus datos especificos, que son LAZY
+	 * y solo se devuelven en el JSON del detalle. Los listados no los cargan ni los devuelven
+	 * @param id Id de la solicitud
+	 * @return Devuelve la solicitud
+	 */
+	@Override
+	@EntityGraph(attributePaths = { "observaciones", "observacionesCenad", "datosEspecificos" })
+	Optional<SolicitudRecurso> findById(Long id);
+	
+	/**
+	 * Devuelve una pagina de solicitudes cargando en la misma consulta su recurso con la categoria y su usuario
+	 * normal, que muestra la proyeccion listado
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de solicitudes
+	 */
+	@Override
+	@EntityGraph(SolicitudRecurso.GRAFO_LISTADO)
+	Page<SolicitudRecurso> findAll(Pageable pageable);
+	
+	/** Datos de cada solicitud que se acumulan en las estadisticas */
+	String CONSULTA_ESTADISTICAS = "select s.id, s.estado, s.fechaSolicitud, s.fechaUltModSolicitud, s.fechaHoraInicioRecurso,"
+			+ " s.fechaHoraFinRecurso, r.id, s.cenad.id, g.id, u.id from SolicitudRecurso s join s.recurso r"
+			+ " left join r.usuarioGestor g left join s.usuarioNormal n left join n.unidad u";
 	
 	/**
 	 * Devuelve una lista de solicitudes cuya fecha de inicio es posterior a la seleccionada
@@ -51,4 +99,221 @@ public interface SolicitudRecursoDAO extends JpaRepository<SolicitudRecurso, Lon
 	 */
 	@RestResource(path="fechaInicioRecursoEntreDosFechas")
 	List<SolicitudRecurso> findAllByfechaHoraInicioRecursoBetween(@Param("fechaInicio") Date fechaInicioRecursoDesde, @Param("fechaFin") Date fechaInicioRecursoHasta);	
+	
+	/**
+	 * Devuelve una lista de las solicitudes de un CENAD en una sola consulta (Solicitud-Recurso-Categoria-CENAD),
+	 * con su recurso, su categoria y su usuario normal
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve una lista de las solicitudes de un CENAD
+	 */
+	@RestResource(exported = false)
+	@EntityGraph(SolicitudRecurso.GRAFO_LISTADO)
+	@Query("select s from SolicitudRecurso s where s.cenad.id = :idCenad")
+	List<SolicitudRecurso> findByCenad(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Devuelve una pagina de las solicitudes de un CENAD en una sola consulta (Solicitud-Recurso-Categoria-CENAD),
+	 * con su recurso, su categoria y su usuario normal
+	 * @param idCenad Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un CENAD
+	 */
+	@RestResource(exported = false)
+	@EntityGraph(SolicitudRecurso.GRAFO_LISTADO)
+	@Query(value = "select s from SolicitudRecurso s where s.cenad.id = :idCenad",
+			countQuery = "select count(s) from SolicitudRecurso s where s.cenad.id = :idCenad")
+	Page<SolicitudRecurso> findByCenad(@Param("idCenad") Long idCenad, Pageable pageable);
+	
+	/**
+	 * Devuelve una pagina de las solicitudes de un CENAD que tienen ese estado, con su recurso, su categoria y su
+	 * usuario normal
+	 * @param idCenad Id del CENAD
+	 * @param estado Estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un CENAD que tienen ese estado
+	 */
+	@RestResource(exported = false)
+	@EntityGraph(SolicitudRecurso.GRAFO_LISTADO)
+	@Query(value = "select s from SolicitudRecurso s where s.cenad.id = :idCenad and s.estado = :estado",
+			countQuery = "select count(s) from SolicitudRecurso s where s.cenad.id = :idCenad and s.estado = :estado")
+	Page<SolicitudRecurso> findByCenadAndEstado(@Param("idCenad") Long idCenad, @Param("estado") String estado, Pageable pageable);
+	
+	/**
+	 * Devuelve una pagina de las solicitudes de un recurso que tienen ese estado, con su recurso, su categoria y su
+	 * usuario normal
+	 * @param idRecurso Id del recurso
+	 * @param estado Estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas
+	 * @return Devuelve una pagina de las solicitudes de un recurso que tienen ese estado
+	 */
+	@RestResource(exported = false)
+	@EntityGraph(SolicitudRecurso.GRAFO_LISTADO)
+	Page<SolicitudRecurso> findByRecursoIdAndEstado(Long idRecurso, String estado, Pageable pageable);
+	
+	/**
+	 * Devuelve una solicitud junto con el recurso, la categoria, el CENAD y los usuarios a los que se notifica,
+	 * en una sola consulta
+	 * @param id Id de la solicitud
+	 * @return Devuelve la solicitud con los datos necesarios para notificar un cambio de estado
+	 */
+	@RestResource(exported = false)
+	@EntityGraph(attributePaths = { "recurso.categoria.cenad.usuarioAdministrador", "recurso.usuarioGestor",
+			"usuarioNormal.unidad" })
+	Optional<SolicitudRecurso> findParaNotificarById(Long id);
+	
+	/**
+	 * Devuelve varias solicitudes junto con el recurso, la categoria, el CENAD y los usuarios a los que se
+	 * notifica, en una sola consulta
+	 * @param ids Ids de las solicitudes
+	 * @return Devuelve las solicitudes con los datos necesarios para notificar un cambio de estado
+	 */
+	@RestResource(exported = false)
+	@EntityGraph(attributePaths = { "recurso.categoria.cenad.usuarioAdministrador", "recurso.usuarioGestor",
+			"usuarioNormal.unidad" })
+	List<SolicitudRecurso> findParaNotificarByIdIn(Collection<Long> ids);
+	
+	/**
+	 * Devuelve los ids de los recursos de varias solicitudes, para bloquearlos antes que las solicitudes
+	 * @param ids Ids de las solicitudes
+	 * @return Devuelve los ids de sus recursos, sin repetir
+	 */
+	@RestResource(exported = false)
+	@Query("select distinct s.recurso.id from SolicitudRecurso s where s.id in :ids")
+	List<Long> findIdsRecursoByIds(@Param("ids") Collection<Long> ids);
+	
+	/**
+	 * Devuelve varias solicitudes bloqueandolas hasta el final de la transaccion, para que nadie cambie su estado
+	 * mientras se comprueba y se modifica
+	 * @param ids Ids de las solicitudes
+	 * @return Devuelve las solicitudes que existen
+	 */
+	@RestResource(exported = false)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from SolicitudRecurso s where s.id in :ids")
+	List<SolicitudRecurso> findParaCambiarEstadoByIds(@Param("ids") Collection<Long> ids);
+	
+	/**
+	 * Devuelve el id y las fechas de inicio y fin de las solicitudes de un recurso que lo ocupan
+	 * (ni canceladas ni rechazadas)
+	 * @param idRecurso Id del recurso
+	 * @return Devuelve una lista de [id, fechaHoraInicioRecurso, fechaHoraFinRecurso]
+	 */
+	@RestResource(exported = false)
+	@Query("select s.id, s.fechaHoraInicioRecurso, s.fechaHoraFinRecurso from SolicitudRecurso s where s.recurso.id = :idRecurso"
+			+ " and s.fechaHoraInicioRecurso is not null and (s.estado is null or s.estado not in :#{T(es.mde.entidades.EstadoSolicitud).LIBRES})")
+	List<Object[]> findIntervalosRecurso(@Param("idRecurso") Long idRecurso);
+	
+	/**
+	 * Devuelve el id del recurso, el id y las fechas de inicio y fin de las solicitudes de varios recursos que los
+	 * ocupan (ni canceladas ni rechazadas)
+	 * @param idsRecursos Ids de los recursos
+	 * @return Devuelve una lista de [idRecurso, id, fechaHoraInicioRecurso, fechaHoraFinRecurso]
+	 */
+	@RestResource(exported = false)
+	@Query("select s.recurso.id, s.id, s.fechaHoraInicioRecurso, s.fechaHoraFinRecurso from SolicitudRecurso s"
+			+ " where s.recurso.id in :idsRecursos and s.fechaHoraInicioRecurso is not null"
+			+ " and (s.estado is null or s.estado not in :#{T(es.mde.entidades.EstadoSolicitud).LIBRES})")
+	List<Object[]> findIntervalosRecursos(@Param("idsRecursos") Collection<Long> idsRecursos);
+	
+	/**
+	 * Devuelve solo los datos que necesita el calendario de las solicitudes de un CENAD que ocupan algun momento
+	 * del periodo, ordenadas por fecha de inicio. Las fechas se comparan sin funciones para que se usen los indices
+	 * (CENAD, fechaHoraFinRecurso) y (CENAD, fechaHoraInicioRecurso)
+	 * @param idCenad Id del CENAD
+	 * @param desde Inicio del periodo
+	 * @param hasta Fin del periodo
+	 * @return Devuelve una lista de [id, idRecurso, fechaHoraInicioRecurso, fechaHoraFinRecurso, estado, unidadUsuaria]
+	 */
+	@RestResource(exported = false)
+	@Query("select s.id, s.recurso.id, s.fechaHoraInicioRecurso, s.fechaHoraFinRecurso, s.estado, s.unidadUsuaria"
+			+ " from SolicitudRecurso s where s.cenad.id = :idCenad"
+			+ " and s.fechaHoraInicioRecurso <= :hasta and (s.fechaHoraFinRecurso >= :desde"
+			+ " or (s.fechaHoraFinRecurso is null and s.fechaHoraInicioRecurso >= :desde))"
+			+ " order by s.fechaHoraInicioRecurso, s.id")
+	List<Object[]> findCalendarioCenad(@Param("idCenad") Long idCenad, @Param("desde") Date desde, @Param("hasta") Date hasta);
+	
+	/**
+	 * Recorre con un cursor los datos de los eventos del calendario de un CENAD (solicitudes que ocupan sus
+	 * recursos), ordenados por fecha de inicio. Hay que consumirlo dentro de una transaccion y cerrarlo
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve un stream de [id, fechaHoraInicioRecurso, fechaHoraFinRecurso, estado, unidadUsuaria,
+	 *         nombre del recurso, fechaUltModSolicitud]
+	 */
+	@RestResource(exported = false)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("select s.id, s.fechaHoraInicioRecurso, s.fechaHoraFinRecurso, s.estado, s.unidadUsuaria, r.nombre, s.fechaUltModSolicitud"
+			+ " from SolicitudRecurso s join s.recurso r where s.cenad.id = :idCenad"
+			+ " and s.fechaHoraInicioRecurso is not null and (s.estado is null or s.estado not in :#{T(es.mde.entidades.EstadoSolicitud).LIBRES})"
+			+ " order by s.fechaHoraInicioRecurso, s.id")
+	Stream<Object[]> streamEventosCenad(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Recorre con un cursor los datos de los eventos del calendario de un recurso (solicitudes que lo ocupan),
+	 * ordenados por fecha de inicio. Hay que consumirlo dentro de una transaccion y cerrarlo
+	 * @param idRecurso Id del recurso
+	 * @return Devuelve un stream de [id, fechaHoraInicioRecurso, fechaHoraFinRecurso, estado, unidadUsuaria,
+	 *         nombre del recurso, fechaUltModSolicitud]
+	 */
+	@RestResource(exported = false)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("select s.id, s.fechaHoraInicioRecurso, s.fechaHoraFinRecurso, s.estado, s.unidadUsuaria, r.nombre, s.fechaUltModSolicitud"
+			+ " from SolicitudRecurso s join s.recurso r where r.id = :idRecurso"
+			+ " and s.fechaHoraInicioRecurso is not null and (s.estado is null or s.estado not in :#{T(es.mde.entidades.EstadoSolicitud).LIBRES})"
+			+ " order by s.fechaHoraInicioRecurso, s.id")
+	Stream<Object[]> streamEventosRecurso(@Param("idRecurso") Long idRecurso);
+	
+	/**
+	 * Devuelve la version del calendario de un CENAD: el numero de sus eventos y la ultima modificacion de sus
+	 * solicitudes, para responder sin cambios a los clientes que ya lo tienen
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve la version del calendario del CENAD
+	 */
+	@RestResource(exported = false)
+	@Query("select new es.mde.models.VersionCalendario(count(s), max(s.fechaUltModSolicitud))"
+			+ " from SolicitudRecurso s where s.cenad.id = :idCenad"
+			+ " and s.fechaHoraInicioRecurso is not null and (s.estado is null or s.estado not in :#{T(es.mde.entidades.EstadoSolicitud).LIBRES})")
+	VersionCalendario getVersionCalendarioCenad(@Param("idCenad") Long idCenad);
+	
+	/**
+	 * Devuelve la version del calendario de un recurso: el numero de sus eventos y la ultima modificacion de sus
+	 * solicitudes, para responder sin cambios a los clientes que ya lo tienen
+	 * @param idRecurso Id del recurso
+	 * @return Devuelve la version del calendario del recurso
+	 */
+	@RestResource(exported = false)
+	@Query("select new es.mde.models.VersionCalendario(count(s), max(s.fechaUltModSolicitud))"
+			+ " from SolicitudRecurso s where s.recurso.id = :idRecurso"
+			+ " and s.fechaHoraInicioRecurso is not null and (s.estado is null or s.estado not in :#{T(es.mde.entidades.EstadoSolicitud).LIBRES})")
+	VersionCalendario getVersionCalendarioRecurso(@Param("idRecurso") Long idRecurso);
+	
+	/**
+	 * Recorre con un cursor los datos que necesitan las estadisticas de todas las solicitudes. Hay que consumirlo
+	 * dentro de una transaccion y cerrarlo
+	 * @return Devuelve un stream de [id, estado, fechaSolicitud, fechaUltModSolicitud, fechaHoraInicioRecurso,
+	 *         fechaHoraFinRecurso, idRecurso, idCenad, idUsuarioGestor, idUnidad]
+	 */
+	@RestResource(exported = false)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query(CONSULTA_ESTADISTICAS)
+	Stream<Object[]> streamEstadisticas();
+	
+	/**
+	 * Devuelve los datos que necesitan las estadisticas de varias solicitudes
+	 * @param ids Ids de las solicitudes
+	 * @return Devuelve una lista de [id, estado, fechaSolicitud, fechaUltModSolicitud, fechaHoraInicioRecurso,
+	 *         fechaHoraFinRecurso, idRecurso, idCenad, idUsuarioGestor, idUnidad]
+	 */
+	@RestResource(exported = false)
+	@Query(CONSULTA_ESTADISTICAS + " where s.id in :ids")
+	List<Object[]> findEstadisticasByIds(@Param("ids") Collection<Long> ids);
+	
+	/**
+	 * Devuelve los datos que necesitan las estadisticas de las solicitudes de varios recursos
+	 * @param idsRecursos Ids de los recursos
+	 * @return Devuelve una lista de [id, estado, fechaSolicitud, fechaUltModSolicitud, fechaHoraInicioRecurso,
+	 *         fechaHoraFinRecurso, idRecurso, idCenad, idUsuarioGestor, idUnidad]
+	 */
+	@RestResource(exported = false)
+	@Query(CONSULTA_ESTADISTICAS + " where r.id in :idsRecursos")
+	List<Object[]> findEstadisticasByRecursos(@Param("idsRecursos") Collection<Long> idsRecursos);
 }
@@ -0,0 +1,54 @@
+package es.mde.repositorios;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.FiltroSolicitudes;
+
+/**
+ * Representa la interfaz con los metodos personalizados de solicitudes
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface SolicitudRecursoDAOCustom {
+	/**
+	 * Guarda una solicitud. Si ocupa su recurso, antes lo bloquea hasta el final de la transaccion y comprueba que
+	 * no se solapa con otra solicitud, para que dos peticiones a la vez no reserven las mismas fechas
+	 * @param <S> Tipo de la solicitud
+	 * @param solicitud Solicitud a guardar
+	 * @return Devuelve la solicitud guardada
+	 * @throws es.mde.servicios.ConflictoRecursoException si el recurso ya esta ocupado en esas fechas
+	 */
+	<S extends SolicitudRecurso> S save(S solicitud);
+	/**
+	 * Devuelve los nombres de las columnas de las solicitudes que se pueden exportar: los campos simples y, para
+	 * el recurso y el usuario, su id. Incluyen los datos especificos del formulario
+	 * @return Devuelve los nombres de las columnas en el orden en que estan declarados
+	 */
+	List<String> getColumnasExportables();
+	/**
+	 * Recorre con un cursor solo las columnas pedidas de las solicitudes que cumplen el filtro, ordenadas por id.
+	 * No se cargan entidades en la sesion, por lo que la memoria no crece con el numero de filas. Hay que
+	 * consumirlo dentro de una transaccion y cerrarlo
+	 * @param columnas Columnas a leer, de entre las exportables
+	 * @param filtro Filtro de las solicitudes
+	 * @return Devuelve un stream con un array de valores por solicitud, en el orden de las columnas
+	 */
+	Stream<Object[]> streamColumnas(List<String> columnas, FiltroSolicitudes filtro);
+	/**
+	 * Devuelve las solicitudes que cumplen el filtro siguientes a una dada, ordenadas por fecha de inicio del
+	 * recurso e id, y al final las que no tienen fecha, por id. Se busca a partir de la ultima solicitud de la pagina
+	 * anterior en lugar de saltar filas, por lo que cualquier pagina cuesta lo mismo que la primera
+	 * @param filtro Filtro de las solicitudes
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida; null si no tiene o es la primera pagina
+	 * @param despuesDeId Id de la ultima solicitud leida; null en la primera pagina. Solo con la fecha se empieza
+	 *                    en las solicitudes que comienzan en esa fecha
+	 * @param tamano Numero maximo de solicitudes
+	 * @return Devuelve la lista de solicitudes siguientes
+	 * @throws IllegalArgumentException si el tamano no es valido
+	 */
+	List<SolicitudRecurso> getSolicitudesSiguientes(FiltroSolicitudes filtro, Date despuesDeFecha, Long despuesDeId,
+			int tamano);
+}
@@ -0,0 +1,228 @@
+package es.mde.repositorios;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.mde.entidades.DatosEspecificosSolicitud;
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.FiltroSolicitudes;
+import es.mde.servicios.ConflictosRecursoService;
+
+/**
+ * Representa la clase implementada con los metodos personalizados de las solicitudes
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Transactional(readOnly = true)
+public class SolicitudRecursoDAOImpl implements SolicitudRecursoDAOCustom {
+
+	private static final int FILAS_POR_LECTURA = 500;
+	private static final String ALIAS_DATOS_ESPECIFICOS = "d";
+	private static final int MAX_SIGUIENTES = 1000;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Autowired
+	ConflictosRecursoService conflictosRecursoService;
+
+	/** Expresion JPQL de cada columna exportable, en el orden de los campos de la entidad */
+	private volatile Map<String, String> expresiones;
+
+	/**
+	 * Guarda una solicitud en la misma transaccion en la que se bloquea su recurso, de modo que el bloqueo dura hasta
+	 * que se confirma, y le copia el CENAD de su recurso. Sustituye al save de Spring Data, asi que la API, el
+	 * importador y los servicios lo comprueban igual
+	 * @param solicitud Solicitud a guardar
+	 * @return Devuelve la solicitud guardada
+	 */
+	@Override
+	@Transactional
+	public <S extends SolicitudRecurso> S save(S solicitud) {
+		conflictosRecursoService.reservar(solicitud);
+		asignarCenad(solicitud);
+		if (solicitud.getId() == null) {
+			entityManager.persist(solicitud);
+			return solicitud;
+		}
+		return entityManager.merge(solicitud);
+	}
+
+	private void asignarCenad(SolicitudRecurso solicitud) {
+		Recurso recurso = solicitud.getRecurso();
+		if (recurso != null && !Hibernate.isInitialized(recurso)) {
+			// referencia sin cargar, que puede venir de otra sesion ya cerrada
+			recurso = entityManager.find(Recurso.class, recurso.getId());
+			solicitud.setRecurso(recurso);
+		}
+		if (recurso == null) {
+			solicitud.setCenad(null);
+		} else if (recurso.getCenad() != null) {
+			solicitud.setCenad(recurso.getCenad());
+		} else if (recurso.getCategoria() != null) {
+			// recurso aun sin CENAD (anterior a la columna y todavia sin rellenar)
+			solicitud.setCenad(recurso.getCategoria().getCenad());
+		}
+	}
+
+	@Override
+	public List<String> getColumnasExportables() {
+		return new ArrayList<>(getExpresiones().keySet());
+	}
+
+	@Override
+	public Stream<Object[]> streamColumnas(List<String> columnas, FiltroSolicitudes filtro) {
+		Map<String, String> expresiones = getExpresiones();
+		List<String> select = new ArrayList<>();
+		for (String columna : columnas) {
+			String expresion = expresiones.get(columna);
+			if (expresion == null) {
+				throw new IllegalArgumentException("La columna " + columna + " no existe. Columnas: " + expresiones.keySet());
+			}
+			select.add(expresion);
+		}
+		if (select.isEmpty()) {
+			throw new IllegalArgumentException("No se ha indicado ninguna columna");
+		}
+		StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", select)).append(" from SolicitudRecurso s");
+		if (select.stream().anyMatch(e -> e.startsWith(ALIAS_DATOS_ESPECIFICOS + "."))) {
+			jpql.append(" left join s.datosEspecificos ").append(ALIAS_DATOS_ESPECIFICOS);
+		}
+		List<String> condiciones = new ArrayList<>();
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		anadirFiltro(filtro, condiciones, parametros);
+		if (!condiciones.isEmpty()) {
+			jpql.append(" where ").append(String.join(" and ", condiciones));
+		}
+		jpql.append(" order by s.id");
+		TypedQuery<Object[]> consulta = entityManager.createQuery(jpql.toString(), Object[].class)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, FILAS_POR_LECTURA)
+				.setHint(HibernateHints.HINT_READ_ONLY, true);
+		parametros.forEach(consulta::setParameter);
+		return consulta.getResultStream();
+	}
+
+	@Override
+	public List<SolicitudRecurso> getSolicitudesSiguientes(FiltroSolicitudes filtro, Date despuesDeFecha,
+			Long despuesDeId, int tamano) {
+		if (tamano < 1 || tamano > MAX_SIGUIENTES) {
+			throw new IllegalArgumentException("El tamano tiene que estar entre 1 y " + MAX_SIGUIENTES);
+		}
+		List<SolicitudRecurso> solicitudes = new ArrayList<>();
+		// Primero las que tienen fecha de inicio, por fecha e id, y despues las que no la tienen, por id
+		if (despuesDeFecha != null || despuesDeId == null) {
+			List<String> condiciones = new ArrayList<>(List.of("s.fechaHoraInicioRecurso is not null"));
+			Map<String, Object> parametros = new LinkedHashMap<>();
+			if (despuesDeFecha != null) {
+				condiciones.add("(s.fechaHoraInicioRecurso > :despuesDeFecha or "
+						+ "(s.fechaHoraInicioRecurso = :despuesDeFecha and s.id > :despuesDeId))");
+				parametros.put("despuesDeFecha", despuesDeFecha);
+				parametros.put("despuesDeId", despuesDeId == null ? 0L : despuesDeId);
+			}
+			solicitudes.addAll(siguientes(filtro, condiciones, parametros, "s.fechaHoraInicioRecurso, s.id", tamano));
+		}
+		if (solicitudes.size() < tamano) {
+			List<String> condiciones = new ArrayList<>(List.of("s.fechaHoraInicioRecurso is null"));
+			Map<String, Object> parametros = new LinkedHashMap<>();
+			if (despuesDeFecha == null && despuesDeId != null) {
+				condiciones.add("s.id > :despuesDeId");
+				parametros.put("despuesDeId", despuesDeId);
+			}
+			solicitudes.addAll(siguientes(filtro, condiciones, parametros, "s.id", tamano - solicitudes.size()));
+		}
+		return solicitudes;
+	}
+
+	/**
+	 * Lee como mucho el numero de solicitudes indicado que cumplen el filtro y las condiciones, con el grafo de los
+	 * listados
+	 */
+	private List<SolicitudRecurso> siguientes(FiltroSolicitudes filtro, List<String> condiciones,
+			Map<String, Object> parametros, String orden, int tamano) {
+		anadirFiltro(filtro, condiciones, parametros);
+		TypedQuery<SolicitudRecurso> consulta = entityManager.createQuery("select s from SolicitudRecurso s where "
+				+ String.join(" and ", condiciones) + " order by " + orden, SolicitudRecurso.class)
+				.setMaxResults(tamano)
+				.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(SolicitudRecurso.GRAFO_LISTADO));
+		parametros.forEach(consulta::setParameter);
+		return consulta.getResultList();
+	}
+
+	/**
+	 * Anade las condiciones de los criterios del filtro que no son null
+	 */
+	private void anadirFiltro(FiltroSolicitudes filtro, List<String> condiciones, Map<String, Object> parametros) {
+		if (filtro.getIdCenad() != null) {
+			condiciones.add("s.cenad.id = :idCenad");
+			parametros.put("idCenad", filtro.getIdCenad());
+		}
+		if (filtro.getIdRecurso() != null) {
+			condiciones.add("s.recurso.id = :idRecurso");
+			parametros.put("idRecurso", filtro.getIdRecurso());
+		}
+		if (filtro.getEstado() != null) {
+			// sin funciones sobre la columna, para que se usen los indices por estado
+			condiciones.add("s.estado = :estado");
+			parametros.put("estado", EstadoSolicitud.normalizar(filtro.getEstado()));
+		}
+		if (filtro.getDesde() != null) {
+			condiciones.add("s.fechaHoraInicioRecurso >= :desde");
+			parametros.put("desde", filtro.getDesde());
+		}
+		if (filtro.getHasta() != null) {
+			condiciones.add("s.fechaHoraInicioRecurso < :hasta");
+			parametros.put("hasta", filtro.getHasta());
+		}
+	}
+
+	/**
+	 * Recorre los campos de la entidad en el orden en que estan declarados y se queda con los simples y las
+	 * referencias a otra entidad, de las que se exporta el id. Despues van los datos especificos del formulario,
+	 * que estan en otra tabla
+	 */
+	private Map<String, String> getExpresiones() {
+		if (expresiones == null) {
+			Map<String, String> mapa = new LinkedHashMap<>();
+			anadirExpresiones(mapa, SolicitudRecurso.class, "s");
+			anadirExpresiones(mapa, DatosEspecificosSolicitud.class, ALIAS_DATOS_ESPECIFICOS);
+			expresiones = mapa;
+		}
+		return expresiones;
+	}
+
+	private void anadirExpresiones(Map<String, String> mapa, Class<?> clase, String alias) {
+		EntityType<?> entidad = entityManager.getMetamodel().entity(clase);
+		for (Field campo : clase.getDeclaredFields()) {
+			Attribute<?, ?> atributo = entidad.getAttributes().stream()
+					.filter(a -> a.getName().equals(campo.getName())).findFirst().orElse(null);
+			if (atributo == null || mapa.containsKey(campo.getName())) {
+				continue;
+			}
+			if (atributo.getPersistentAttributeType() == PersistentAttributeType.BASIC) {
+				mapa.put(campo.getName(), alias + "." + campo.getName());
+			} else if (atributo.getPersistentAttributeType() == PersistentAttributeType.MANY_TO_ONE) {
+				mapa.put(campo.getName(), alias + "." + campo.getName() + ".id");
+			}
+		}
+	}
+}
@@ -1,22 +1,96 @@
 package es.mde.repositorios;
 
+import java.util.Date;
+import java.util.Objects;
+
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import es.mde.entidades.SolicitudRecurso;
+import es.mde.servicios.ConflictosRecursoService;
+import es.mde.servicios.DisponibilidadRecursosService;
+import es.mde.servicios.EstadisticasService;
 
 @Component
 public class SolicitudRecursoListener {
 
 	private Logger log = LoggerFactory.getLogger(SolicitudRecursoListener.class);
 	
+	private static ConflictosRecursoService conflictosRecursoService;
+	private static DisponibilidadRecursosService disponibilidadRecursosService;
+	private static EstadisticasService estadisticasService;
+	
+	/**
+	 * Metodo que inicia la clase
+	 * @param conflictosRecursoService Servicio estatico que guarda los periodos ocupados de cada recurso
+	 * @param disponibilidadRecursosService Servicio estatico que guarda los dias ocupados de cada recurso
+	 * @param estadisticasService Servicio estatico que guarda los acumulados de las estadisticas
+	 */
+	@Autowired
+	public void init(ConflictosRecursoService conflictosRecursoService,
+			DisponibilidadRecursosService disponibilidadRecursosService, EstadisticasService estadisticasService) {
+		SolicitudRecursoListener.conflictosRecursoService = conflictosRecursoService;
+		SolicitudRecursoListener.disponibilidadRecursosService = disponibilidadRecursosService;
+		SolicitudRecursoListener.estadisticasService = estadisticasService;
+	}
+	
+	@PostLoad
+	public void postLeer(SolicitudRecurso solicitudRecurso) {
+		solicitudRecurso.setFechaUltModSolicitudLeida(solicitudRecurso.getFechaUltModSolicitud());
+	}
+	
+	/**
+	 * Actualiza la fecha de ultima modificacion si no la ha cambiado el cliente, porque de ella
+	 * sale la version de los calendarios ICS. Al crearla no se toca: la version tambien cambia con el numero de
+	 * solicitudes
+	 * @param solicitudRecurso Solicitud modificada
+	 */
+	@PreUpdate
+	public void preModificar(SolicitudRecurso solicitudRecurso) {
+		if (Objects.equals(solicitudRecurso.getFechaUltModSolicitud(), solicitudRecurso.getFechaUltModSolicitudLeida())) {
+			solicitudRecurso.setFechaUltModSolicitud(new Date());
+		}
+		solicitudRecurso.setFechaUltModSolicitudLeida(solicitudRecurso.getFechaUltModSolicitud());
+	}
+	
 	@PostPersist
 	public void postGuardar(SolicitudRecurso solicitudRecurso) {
-		solicitudRecurso.setIdString(solicitudRecurso.getId().toString());
-		System.err.println("Se ha guardado la solicitudRecurso con Id " + solicitudRecurso.getIdString());
+		postModificar(solicitudRecurso);
+		log.debug("Se ha guardado la solicitudRecurso con Id {}", solicitudRecurso.getId());
+	}
+	
+	@PostUpdate
+	public void postModificar(SolicitudRecurso solicitudRecurso) {
+		if (conflictosRecursoService != null) {
+			conflictosRecursoService.actualizarSolicitud(solicitudRecurso);
+		}
+		if (disponibilidadRecursosService != null) {
+			disponibilidadRecursosService.actualizarSolicitud(solicitudRecurso);
+		}
+		if (estadisticasService != null) {
+			estadisticasService.registrarCambioSolicitud(solicitudRecurso.getId());
+		}
+	}
+	
+	@PostRemove
+	public void postBorrar(SolicitudRecurso solicitudRecurso) {
+		if (conflictosRecursoService != null) {
+			conflictosRecursoService.eliminarSolicitud(solicitudRecurso);
+		}
+		if (disponibilidadRecursosService != null) {
+			disponibilidadRecursosService.eliminarSolicitud(solicitudRecurso);
+		}
+		if (estadisticasService != null) {
+			estadisticasService.registrarCambioSolicitud(solicitudRecurso.getId());
+		}
 	}
 	
-}
\ No newline at end of file
+}
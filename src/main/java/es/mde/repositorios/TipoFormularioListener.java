@@ -15,8 +15,7 @@ public class TipoFormularioListener {
 	
 	@PostPersist
 	public void postGuardar(TipoFormulario tipoFormulario) {
-		tipoFormulario.setIdString(tipoFormulario.getId().toString());
-		System.err.println("Se ha guardado el tipoFormulario: " + tipoFormulario.getNombre() + " con Id " + tipoFormulario.getIdString());
+		log.debug("Se ha guardado el tipoFormulario: {} con Id {}", tipoFormulario.getNombre(), tipoFormulario.getId());
 	}
 	
 }
\ No newline at end of file
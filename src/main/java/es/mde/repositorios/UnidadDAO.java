@@ -1,7 +1,11 @@
 package es.mde.repositorios;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import es.mde.entidades.Unidad;
 
 /**
@@ -10,4 +14,13 @@ import es.mde.entidades.Unidad;
  *
  */
 @RepositoryRestResource(path="unidades", collectionResourceRel="unidades", itemResourceRel="unidad") 
-public interface UnidadDAO extends JpaRepository<Unidad, Long> {}
\ No newline at end of file
+public interface UnidadDAO extends JpaRepository<Unidad, Long> {
+	
+	/**
+	 * Devuelve en una sola consulta las unidades con esos ids
+	 * @param ids Ids de las unidades
+	 * @return Devuelve una lista de las unidades que existen
+	 */
+	@RestResource(exported = false)
+	List<Unidad> findByIdIn(Collection<Long> ids);
+}
\ No newline at end of file
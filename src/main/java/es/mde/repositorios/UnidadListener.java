@@ -15,8 +15,7 @@ public class UnidadListener {
 	
 	@PostPersist
 	public void postGuardar(Unidad unidad) {
-		unidad.setIdString(unidad.getId().toString());
-		System.err.println("Se ha guardado la unidad: " + unidad.getNombre() + " con Id " + unidad.getIdString());
+		log.debug("Se ha guardado la unidad: {} con Id {}", unidad.getNombre(), unidad.getId());
 	}
 	
 }
\ No newline at end of file
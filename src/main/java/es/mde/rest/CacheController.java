@@ -0,0 +1,53 @@
+package es.mde.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Controlador que expone las estadisticas de la cache de segundo nivel de Hibernate
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@RestController
+public class CacheController {
+
+	private EntityManagerFactory entityManagerFactory;
+
+	public CacheController(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	/**
+	 * Devuelve, por cada region de la cache de segundo nivel (entidades y resultados de busquedas),
+	 * los aciertos, fallos, inserciones y el porcentaje de aciertos
+	 * @return Mapa con las estadisticas de cada region
+	 */
+	@GetMapping("/api/cache/estadisticas")
+	public Map<String, Map<String, Long>> getEstadisticas() {
+		Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Map<String, Map<String, Long>> regiones = new LinkedHashMap<>();
+		for (String region : estadisticas.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics estadisticasRegion = estadisticas.getCacheRegionStatistics(region);
+			if (estadisticasRegion == null) {
+				continue;
+			}
+			Map<String, Long> datos = new LinkedHashMap<>();
+			datos.put("aciertos", estadisticasRegion.getHitCount());
+			datos.put("fallos", estadisticasRegion.getMissCount());
+			datos.put("inserciones", estadisticasRegion.getPutCount());
+			long consultas = estadisticasRegion.getHitCount() + estadisticasRegion.getMissCount();
+			datos.put("porcentajeAciertos", consultas == 0 ? 0 : estadisticasRegion.getHitCount() * 100 / consultas);
+			regiones.put(region, datos);
+		}
+		return regiones;
+	}
+}
@@ -0,0 +1,121 @@
+package es.mde.rest;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import es.mde.entidades.Fichero;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.security.usuarios.Usuario;
+import es.mde.servicios.CamposService;
+
+/**
+ * Controlador de los listados con solo algunos campos (?fields=campo1,campo2). Solo se leen de la BD las columnas
+ * pedidas y cada fila se devuelve sin enlaces. Sin el parametro fields los listados son los de Spring Data REST
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@RepositoryRestController
+@Configuration
+public class CamposController {
+
+	private static final EmbeddedWrappers WRAPPERS = new EmbeddedWrappers(true);
+
+	private CamposService camposService;
+
+	/**
+	 * Controlador para ejecutar los metodos personalizados
+	 * @param camposService Servicio que lee solo los campos pedidos
+	 */
+	public CamposController(CamposService camposService) {
+		this.camposService = camposService;
+	}
+
+	/**
+	 * Metodo que devuelve una pagina de solicitudes con solo los campos pedidos
+	 * @param fields Campos, separados por comas
+	 * @param pageable Pagina y ordenacion
+	 * @param assembler
+	 * @return Devuelve la pagina de solicitudes
+	 */
+	@GetMapping(path = "/solicitudes", params = "fields")
+	@ResponseBody
+	public PagedModel<EmbeddedWrapper> getSolicitudes(@RequestParam List<String> fields, Pageable pageable,
+			PagedResourcesAssembler<Map<String, Object>> assembler) {
+
+		return campos(SolicitudRecurso.class, "solicitudes", fields, pageable, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve una pagina de recursos con solo los campos pedidos
+	 * @param fields Campos, separados por comas
+	 * @param pageable Pagina y ordenacion
+	 * @param assembler
+	 * @return Devuelve la pagina de recursos
+	 */
+	@GetMapping(path = "/recursos", params = "fields")
+	@ResponseBody
+	public PagedModel<EmbeddedWrapper> getRecursos(@RequestParam List<String> fields, Pageable pageable,
+			PagedResourcesAssembler<Map<String, Object>> assembler) {
+
+		return campos(Recurso.class, "recursos", fields, pageable, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve una pagina de ficheros con solo los campos pedidos
+	 * @param fields Campos, separados por comas
+	 * @param pageable Pagina y ordenacion
+	 * @param assembler
+	 * @return Devuelve la pagina de ficheros
+	 */
+	@GetMapping(path = "/ficheros", params = "fields")
+	@ResponseBody
+	public PagedModel<EmbeddedWrapper> getFicheros(@RequestParam List<String> fields, Pageable pageable,
+			PagedResourcesAssembler<Map<String, Object>> assembler) {
+
+		return campos(Fichero.class, "ficheros", fields, pageable, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve una pagina de usuarios con solo los campos pedidos. El password no se puede pedir
+	 * @param fields Campos, separados por comas
+	 * @param pageable Pagina y ordenacion
+	 * @param assembler
+	 * @return Devuelve la pagina de usuarios
+	 */
+	@GetMapping(path = "/usuarios", params = "fields")
+	@ResponseBody
+	public PagedModel<EmbeddedWrapper> getUsuarios(@RequestParam List<String> fields, Pageable pageable,
+			PagedResourcesAssembler<Map<String, Object>> assembler) {
+
+		return campos(Usuario.class, "usuarios", fields, pageable, assembler);
+	}
+
+	/**
+	 * Lee la pagina y la devuelve con el mismo formato que los listados de Spring Data REST (_embedded, _links y
+	 * page), con cada fila como un objeto con los campos pedidos
+	 */
+	private PagedModel<EmbeddedWrapper> campos(Class<?> entidad, String rel, List<String> fields, Pageable pageable,
+			PagedResourcesAssembler<Map<String, Object>> assembler) {
+
+		Page<Map<String, Object>> pagina = camposService.getCampos(entidad, fields, pageable);
+		PagedModel<?> enlaces = assembler.toModel(pagina);
+		List<EmbeddedWrapper> filas = pagina.getContent().stream()
+				.map(fila -> WRAPPERS.wrap(fila, LinkRelation.of(rel))).toList();
+		return PagedModel.of(filas, enlaces.getMetadata(), enlaces.getLinks());
+	}
+}
@@ -1,19 +1,29 @@
 package es.mde.rest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.rest.webmvc.PersistentEntityResource;
 import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
 import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import es.mde.entidades.Categoria;
-import es.mde.entidades.Recurso;
+import es.mde.models.Disponibilidad;
 import es.mde.repositorios.CategoriaDAO;
+import es.mde.servicios.DisponibilidadRecursosService;
 
 /**
  * Controlador que maneja los metodos personalizados de las categorias
@@ -23,13 +33,16 @@ import es.mde.repositorios.CategoriaDAO;
 @Configuration
 public class CategoriaController {
 	private CategoriaDAO categoriaDAO;
+	private DisponibilidadRecursosService disponibilidadRecursosService;
 
 	/**
 	 * Controlador para ejecutar los metodos personalizados
 	 * @param categoriaDAO DAO de categoria
+	 * @param disponibilidadRecursosService Servicio que guarda los dias ocupados de cada recurso
 	 */
-	public CategoriaController(CategoriaDAO categoriaDAO) {
+	public CategoriaController(CategoriaDAO categoriaDAO, DisponibilidadRecursosService disponibilidadRecursosService) {
 		this.categoriaDAO = categoriaDAO;
+		this.disponibilidadRecursosService = disponibilidadRecursosService;
 	}
 	
 	/**
@@ -51,17 +64,20 @@ public class CategoriaController {
 	/**
 	 * Metodo que agrupa los recursos de las subcategorias de una categoria
 	 * @param id Id de la categoria
+	 * @param pageable Pagina y ordenacion solicitadas, por defecto por id
+	 * @param pagedAssembler
 	 * @param assembler
-	 * @return Lista de los recursos de las subcategorias
+	 * @return Pagina de los recursos de las subcategorias
 	 */
 	@GetMapping("/categorias/{id}/recursosDeSubcategorias")
 	@ResponseBody
-	public CollectionModel<PersistentEntityResource> getRecursosDeSubcategorias(@PathVariable Long id,
-			PersistentEntityResourceAssembler assembler) {
+	public PagedModel<PersistentEntityResource> getRecursosDeSubcategorias(@PathVariable Long id,
+			@PageableDefault(size = 20, sort = "id") Pageable pageable,
+			PagedResourcesAssembler<Object> pagedAssembler, PersistentEntityResourceAssembler assembler) {
 
-		List<Recurso> recursos = categoriaDAO.getRecursosDeSubcategorias(id);
+		Page<Object> recursos = categoriaDAO.getRecursosDeSubcategorias(id, pageable).map(r -> r);
 
-		return assembler.toCollectionModel(recursos);
+		return pagedAssembler.toModel(recursos, assembler);
 	}
 	
 	/**
@@ -77,4 +93,20 @@ public class CategoriaController {
 
 		return assembler.toCollectionModel(categorias);
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Metodo que busca los recursos de una categoria y sus subcategorias libres entre dos dias
+	 * @param id Id de la categoria
+	 * @param desde Primer dia del periodo, en la zona de los calendarios (UTC)
+	 * @param hasta Ultimo dia del periodo (incluido)
+	 * @return Recursos libres todo el periodo y periodos libres de cada recurso, en milisegundos
+	 */
+	@GetMapping("/categorias/{id}/disponibilidad")
+	@ResponseBody
+	public Disponibilidad getDisponibilidadCategoria(@PathVariable Long id,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate desde,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate hasta) {
+
+		return disponibilidadRecursosService.getDisponibilidadCategoria(id, desde, hasta);
+	}
+}
@@ -1,21 +1,51 @@
 package es.mde.rest;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.rest.webmvc.PersistentEntityResource;
 import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
 import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import es.mde.entidades.Categoria;
 import es.mde.entidades.Cenad;
-import es.mde.entidades.Recurso;
 import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.CalendarioCenad;
+import es.mde.models.Disponibilidad;
+import es.mde.models.InformeImportacion;
+import es.mde.models.NodoCategoria;
 import es.mde.repositorios.CenadDAO;
+import es.mde.servicios.ArbolCategoriasService;
+import es.mde.servicios.CalendarioIcsService;
+import es.mde.servicios.DisponibilidadRecursosService;
+import es.mde.servicios.ImportacionService;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Controlador que maneja los metodos personalizados de los CENADS
@@ -25,13 +55,27 @@ import es.mde.repositorios.CenadDAO;
 @Configuration
 public class CenadController {
 	private CenadDAO cenadDAO;
+	private ArbolCategoriasService arbolCategoriasService;
+	private DisponibilidadRecursosService disponibilidadRecursosService;
+	private CalendarioIcsService calendarioIcsService;
+	private ImportacionService importacionService;
 
 	/**
 	 * Controlador para ejecutar los metodos personalizados
 	 * @param cenadDAO DAO de CENAD
+	 * @param arbolCategoriasService Servicio que construye el arbol de categorias de un CENAD
+	 * @param disponibilidadRecursosService Servicio que guarda los dias ocupados de cada recurso
+	 * @param calendarioIcsService Servicio que genera los calendarios ICS
+	 * @param importacionService Servicio de importacion masiva
 	 */
-	public CenadController(CenadDAO cenadDAO) {
+	public CenadController(CenadDAO cenadDAO, ArbolCategoriasService arbolCategoriasService,
+			DisponibilidadRecursosService disponibilidadRecursosService, CalendarioIcsService calendarioIcsService,
+			ImportacionService importacionService) {
 		this.cenadDAO = cenadDAO;
+		this.arbolCategoriasService = arbolCategoriasService;
+		this.disponibilidadRecursosService = disponibilidadRecursosService;
+		this.calendarioIcsService = calendarioIcsService;
+		this.importacionService = importacionService;
 	}
 	
 	/**
@@ -63,51 +107,252 @@ public class CenadController {
 		return assembler.toCollectionModel(categorias);
 	}
 	
+	/**
+	 * Metodo que devuelve el arbol completo de categorias de un CENAD
+	 * @param id Id del CENAD
+	 * @param conRecursos Si se incluye el numero de recursos de cada categoria
+	 * @return Lista de las categorias Padre de un CENAD con sus subcategorias anidadas
+	 */
+	@GetMapping("/cenads/{id}/arbolCategorias")
+	@ResponseBody
+	public List<NodoCategoria> getArbolCategoriasCenad(@PathVariable Long id,
+			@RequestParam(defaultValue = "false") boolean conRecursos) {
+
+		return arbolCategoriasService.getArbolCenad(id, conRecursos);
+	}
+	
+	/**
+	 * Metodo que devuelve en columnas las solicitudes de un CENAD que ocupan algun momento del periodo, con lo
+	 * justo para dibujar el calendario de ocupacion. Admite If-None-Match para no reenviar un calendario sin cambios
+	 * @param id Id del CENAD
+	 * @param desde Inicio del periodo
+	 * @param hasta Fin del periodo
+	 * @param webRequest Peticion, para comprobar el ETag
+	 * @return Calendario de ocupacion del CENAD, o 304 si no ha cambiado
+	 */
+	@GetMapping("/cenads/{id}/calendario")
+	@ResponseBody
+	public ResponseEntity<CalendarioCenad> getCalendarioCenad(@PathVariable Long id,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date desde,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date hasta,
+			WebRequest webRequest) {
+
+		CalendarioCenad calendario = cenadDAO.getCalendarioCenad(id, desde, hasta);
+		// ETag debil: la respuesta puede ir comprimida
+		String etag = "W/\"" + DigestUtils.md5DigestAsHex((calendario.getId().toString() + calendario.getRecursoId()
+				+ calendario.getInicio() + calendario.getFin() + calendario.getEstado() + calendario.getUnidadUsuaria())
+				.getBytes(StandardCharsets.UTF_8)) + "\"";
+		if (webRequest.checkNotModified(etag)) {
+			return null;
+		}
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(calendario);
+	}
+	
+	/**
+	 * Metodo que busca los recursos de un CENAD libres entre dos dias
+	 * @param id Id del CENAD
+	 * @param desde Primer dia del periodo, en la zona de los calendarios (UTC)
+	 * @param hasta Ultimo dia del periodo (incluido)
+	 * @return Recursos libres todo el periodo y periodos libres de cada recurso, en milisegundos
+	 */
+	@GetMapping("/cenads/{id}/disponibilidad")
+	@ResponseBody
+	public Disponibilidad getDisponibilidadCenad(@PathVariable Long id,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate desde,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate hasta) {
+
+		return disponibilidadRecursosService.getDisponibilidadCenad(id, desde, hasta);
+	}
+	
 	/**
 	 * Metodo que agrupa los recursos de un CENAD
 	 * @param id Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas, por defecto por id
+	 * @param pagedAssembler
 	 * @param assembler
-	 * @return Lista de los recursos de un CENAD
+	 * @return Pagina de los recursos de un CENAD
 	 */
 	@GetMapping("/cenads/{id}/recursos")
 	@ResponseBody
-	public CollectionModel<PersistentEntityResource> getRecursosCenad(@PathVariable Long id,
-			PersistentEntityResourceAssembler assembler) {
+	public PagedModel<PersistentEntityResource> getRecursosCenad(@PathVariable Long id,
+			@PageableDefault(size = 20, sort = "id") Pageable pageable,
+			PagedResourcesAssembler<Object> pagedAssembler, PersistentEntityResourceAssembler assembler) {
 
-		List<Recurso> recursos = cenadDAO.getRecursosCenad(id);
+		Page<Object> recursos = cenadDAO.getRecursosCenad(id, pageable).map(r -> r);
 
-		return assembler.toCollectionModel(recursos);
+		return pagedAssembler.toModel(recursos, assembler);
 	}
 	
 	/**
 	 * Metodo que agrupa las solicitudes de un CENAD
 	 * @param id Id del CENAD
+	 * @param pageable Pagina y ordenacion solicitadas, por defecto por id
+	 * @param pagedAssembler
 	 * @param assembler
-	 * @return Lista de las solicitudes de un CENAD
+	 * @return Pagina de las solicitudes de un CENAD
 	 */
 	@GetMapping("/cenads/{id}/solicitudes")
 	@ResponseBody
-	public CollectionModel<PersistentEntityResource> getSolicitudesCenad(@PathVariable Long id,
+	public PagedModel<PersistentEntityResource> getSolicitudesCenad(@PathVariable Long id,
+			@PageableDefault(size = 20, sort = "id") Pageable pageable,
+			PagedResourcesAssembler<Object> pagedAssembler, PersistentEntityResourceAssembler assembler) {
+
+		Page<Object> solicitudes = cenadDAO.getSolicitudesCenad(id, pageable).map(s -> s);
+
+		return pagedAssembler.toModel(solicitudes, assembler);
+	}
+	
+	/**
+	 * Metodo que recorre las solicitudes de un CENAD a partir de la ultima leida, ordenadas por fecha de inicio del
+	 * recurso e id. Cualquier pagina cuesta lo mismo que la primera
+	 * @param id Id del CENAD
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida
+	 * @param despuesDeId Id de la ultima solicitud leida
+	 * @param size Numero maximo de solicitudes
+	 * @param assembler
+	 * @return Lista de las solicitudes siguientes, con el enlace next a las siguientes si las puede haber
+	 */
+	@GetMapping("/cenads/{id}/solicitudes/siguientes")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getSolicitudesCenadSiguientes(@PathVariable Long id,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date despuesDeFecha,
+			@RequestParam(required = false) Long despuesDeId,
+			@RequestParam(defaultValue = PaginaSiguiente.TAMANO_POR_DEFECTO) int size,
 			PersistentEntityResourceAssembler assembler) {
 
-		List<SolicitudRecurso> solicitudes = cenadDAO.getSolicitudesCenad(id);
+		PaginaSiguiente.comprobarTamano(size);
+		List<SolicitudRecurso> solicitudes = cenadDAO.getSolicitudesCenadSiguientes(id, null, despuesDeFecha,
+				despuesDeId, size);
 
-		return assembler.toCollectionModel(solicitudes);
+		return PaginaSiguiente.toModel(solicitudes, size, assembler);
 	}
 	
 	/**
 	 * Metodo que agrupa las solicitudes de un CENAD
 	 * @param id del Cenad y estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas, por defecto por id
+	 * @param pagedAssembler
 	 * @param assembler
-	 * @return Lista de las solicitudes de un CENAD
+	 * @return Pagina de las solicitudes de un CENAD con ese estado
 	 */
 	@GetMapping("/cenads/{id}/solicitudesEstado/{estado}")
 	@ResponseBody
-	public CollectionModel<PersistentEntityResource> getSolicitudesCenadEstado(@PathVariable Long id, @PathVariable String estado,
+	public PagedModel<PersistentEntityResource> getSolicitudesCenadEstado(@PathVariable Long id, @PathVariable String estado,
+			@PageableDefault(size = 20, sort = "id") Pageable pageable,
+			PagedResourcesAssembler<Object> pagedAssembler, PersistentEntityResourceAssembler assembler) {
+
+		Page<Object> solicitudes = cenadDAO.getSolicitudesCenadEstado(id, estado, pageable).map(s -> s);
+
+		return pagedAssembler.toModel(solicitudes, assembler);
+	}
+	
+	/**
+	 * Metodo que recorre las solicitudes de un CENAD con un estado a partir de la ultima leida, ordenadas por fecha
+	 * de inicio del recurso e id. Cualquier pagina cuesta lo mismo que la primera
+	 * @param id Id del CENAD
+	 * @param estado Estado de la solicitud
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida
+	 * @param despuesDeId Id de la ultima solicitud leida
+	 * @param size Numero maximo de solicitudes
+	 * @param assembler
+	 * @return Lista de las solicitudes siguientes, con el enlace next a las siguientes si las puede haber
+	 */
+	@GetMapping("/cenads/{id}/solicitudesEstado/{estado}/siguientes")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getSolicitudesCenadEstadoSiguientes(@PathVariable Long id,
+			@PathVariable String estado,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date despuesDeFecha,
+			@RequestParam(required = false) Long despuesDeId,
+			@RequestParam(defaultValue = PaginaSiguiente.TAMANO_POR_DEFECTO) int size,
 			PersistentEntityResourceAssembler assembler) {
 
-		List<SolicitudRecurso> solicitudes = cenadDAO.getSolicitudesCenadEstado(id, estado);
+		PaginaSiguiente.comprobarTamano(size);
+		List<SolicitudRecurso> solicitudes = cenadDAO.getSolicitudesCenadSiguientes(id, estado, despuesDeFecha,
+				despuesDeId, size);
+
+		return PaginaSiguiente.toModel(solicitudes, size, assembler);
+	}
+	/**
+	 * Metodo que devuelve el calendario iCalendar (ICS) de ocupacion de un CENAD, para suscribirse desde un cliente
+	 * de correo. Los clientes de calendario no envian el JWT, asi que se pide con el token del calendario.
+	 * Admite peticiones condicionales (If-None-Match/If-Modified-Since) para responder 304 sin cambios
+	 * @param id Id del CENAD
+	 * @param token Token del calendario
+	 * @param webRequest Peticion, para comprobar si ha cambiado
+	 * @param response Respuesta en la que se escribe el calendario
+	 * @throws IOException si falla la escritura
+	 */
+	@GetMapping("/cenads/{id}/" + RespuestaCalendarioIcs.CALENDARIO)
+	@ResponseBody
+	public void getCalendarioIcsCenad(@PathVariable Long id, @RequestParam(required = false) String token,
+			WebRequest webRequest, HttpServletResponse response) throws IOException {
+
+		RespuestaCalendarioIcs.escribir(calendarioIcsService.comprobarTokenCenad(id, token),
+				() -> calendarioIcsService.getVersionCalendarioCenad(id), webRequest, response,
+				writer -> calendarioIcsService.escribirCalendarioCenad(id, writer));
+	}
+	/**
+	 * Metodo que devuelve la direccion con token para suscribirse al calendario ICS del CENAD. El token se crea
+	 * la primera vez que se pide
+	 * @param id Id del CENAD
+	 * @return Devuelve {"url": direccion del calendario}
+	 */
+	@GetMapping("/cenads/{id}/suscripcionCalendario")
+	@ResponseBody
+	public Map<String, String> getSuscripcionCalendarioCenad(@PathVariable Long id) {
+
+		return RespuestaCalendarioIcs.suscripcion(calendarioIcsService.getTokenCalendarioCenad(id, false));
+	}
+	/**
+	 * Metodo que renueva el token del calendario ICS del CENAD, con lo que dejan de funcionar las suscripciones
+	 * anteriores, y devuelve la direccion nueva para suscribirse
+	 * @param id Id del CENAD
+	 * @return Devuelve {"url": direccion del calendario con el token nuevo}
+	 */
+	@PostMapping("/cenads/{id}/suscripcionCalendario")
+	@ResponseBody
+	public Map<String, String> renovarSuscripcionCalendarioCenad(@PathVariable Long id) {
+
+		return RespuestaCalendarioIcs.suscripcion(calendarioIcsService.getTokenCalendarioCenad(id, true));
+	}
+	/**
+	 * Metodo que importa de una vez categorias, recursos, ficheros y solicitudes en un CENAD. Se valida todo antes
+	 * de guardar nada y se devuelve el resultado de cada fila. No lleva @ResponseBody para no anunciarse como busqueda
+	 * @param id Id del CENAD
+	 * @param datos Filas de cada tipo: {"categorias": [...], "recursos": [...], "ficheros": [...], "solicitudes": [...]}
+	 * @return Informe de la importacion: 200 si se ha importado todo, 400 si hay errores de validacion y 500 si ha
+	 *         fallado al guardar, en cuyo caso no se ha guardado ninguna fila
+	 */
+	@PostMapping(path = "/cenads/{id}/importar", consumes = "application/json")
+	public ResponseEntity<InformeImportacion> importar(@PathVariable Long id,
+			@RequestBody Map<String, List<Map<String, Object>>> datos) {
+
+		return respuestaImportacion(importacionService.importar(id, datos));
+	}
+
+	/**
+	 * Metodo que importa en un CENAD las filas de un tipo escritas en CSV, con los nombres de los campos en la
+	 * primera linea
+	 * @param id Id del CENAD
+	 * @param tipo Tipo de las filas: categorias, recursos, ficheros o solicitudes
+	 * @param reader Cuerpo de la peticion con el CSV (los convertidores de Spring Data REST no leen text/csv)
+	 * @return Informe de la importacion: 200 si se ha importado todo, 400 si hay errores de validacion y 500 si ha
+	 *         fallado al guardar, en cuyo caso no se ha guardado ninguna fila
+	 * @throws IOException si falla la lectura
+	 */
+	@PostMapping(path = "/cenads/{id}/importar", consumes = "text/csv")
+	public ResponseEntity<InformeImportacion> importarCsv(@PathVariable Long id, @RequestParam String tipo,
+			Reader reader) throws IOException {
+
+		String csv = FileCopyUtils.copyToString(reader);
+		return respuestaImportacion(importacionService.importar(id, Map.of(tipo, importacionService.leerCsv(csv))));
+	}
 
-		return assembler.toCollectionModel(solicitudes);
+	private ResponseEntity<InformeImportacion> respuestaImportacion(InformeImportacion informe) {
+		if (informe.isCompleta()) {
+			return ResponseEntity.ok(informe);
+		}
+		return ResponseEntity.status(informe.isValidada() ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.BAD_REQUEST)
+				.body(informe);
 	}
-}
\ No newline at end of file
+}
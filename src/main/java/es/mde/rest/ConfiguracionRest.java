@@ -28,6 +28,7 @@ import org.springframework.web.filter.CorsFilter;
 import es.mde.entidades.Categoria;
 import es.mde.entidades.Cenad;
 import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
 
 /**
  * Clase de configuracion que recoge la configuración de los controladores y de
@@ -70,6 +71,7 @@ public class ConfiguracionRest {
 		controllersRegistrados.put(Categoria.class, CategoriaController.class);
 		controllersRegistrados.put(Cenad.class, CenadController.class);
 		controllersRegistrados.put(Recurso.class, RecursoController.class);
+		controllersRegistrados.put(SolicitudRecurso.class, SolicitudRecursoController.class);
 		return new RepresentationModelProcessor<RepositorySearchesResource>() {
 
 			@Override
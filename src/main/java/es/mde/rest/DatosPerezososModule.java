@@ -0,0 +1,95 @@
+package es.mde.rest;
+
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import es.mde.entidades.DatoPerezoso;
+import jakarta.persistence.Basic;
+import jakarta.persistence.FetchType;
+
+/**
+ * Modulo de Jackson que no escribe los atributos LAZY (@Basic(fetch = LAZY), como los textos largos) ni las
+ * propiedades que dependen de un atributo LAZY (@DatoPerezoso) mientras no se hayan cargado. Asi los listados, que
+ * no cargan esos atributos, no lanzan una consulta por fila al convertirse a JSON, y el detalle, que los carga, los
+ * sigue devolviendo. Spring Boot lo registra en todos los ObjectMapper, tambien en el de Spring Data
+ * REST
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Component
+public class DatosPerezososModule extends SimpleModule {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Crea el modulo
+	 */
+	public DatosPerezososModule() {
+		super("DatosPerezososModule");
+		setSerializerModifier(new BeanSerializerModifier() {
+			@Override
+			public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+					List<BeanPropertyWriter> propiedades) {
+				for (int i = 0; i < propiedades.size(); i++) {
+					String atributo = atributoPerezoso(beanDesc.getBeanClass(), propiedades.get(i));
+					if (atributo != null) {
+						propiedades.set(i, new SoloSiCargado(propiedades.get(i), atributo));
+					}
+				}
+				return propiedades;
+			}
+		});
+	}
+
+	/**
+	 * Devuelve el atributo LAZY del que depende la propiedad, o null si no depende de ninguno
+	 */
+	private static String atributoPerezoso(Class<?> clase, BeanPropertyWriter propiedad) {
+		DatoPerezoso dato = propiedad.getAnnotation(DatoPerezoso.class);
+		if (dato != null) {
+			return dato.value();
+		}
+		for (Class<?> c = clase; c != null && c != Object.class; c = c.getSuperclass()) {
+			try {
+				Basic basic = c.getDeclaredField(propiedad.getName()).getAnnotation(Basic.class);
+				return basic != null && basic.fetch() == FetchType.LAZY ? propiedad.getName() : null;
+			} catch (NoSuchFieldException e) {
+				// puede estar en la superclase
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Propiedad que solo se escribe si su atributo LAZY ya esta cargado
+	 */
+	private static class SoloSiCargado extends BeanPropertyWriter {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String atributo;
+
+		SoloSiCargado(BeanPropertyWriter propiedad, String atributo) {
+			super(propiedad);
+			this.atributo = atributo;
+		}
+
+		@Override
+		public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+			if (Hibernate.isPropertyInitialized(bean, atributo)) {
+				super.serializeAsField(bean, gen, prov);
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package es.mde.rest;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.mde.models.Estadistica;
+import es.mde.servicios.EstadisticasService;
+
+/**
+ * Controlador que expone las estadisticas de solicitudes de cada CENAD, calculadas a partir de acumulados
+ * mensuales que se mantienen en memoria
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@RestController
+public class EstadisticasController {
+
+	private EstadisticasService estadisticasService;
+
+	public EstadisticasController(EstadisticasService estadisticasService) {
+		this.estadisticasService = estadisticasService;
+	}
+
+	/**
+	 * Devuelve el numero de solicitudes de los recursos de un CENAD por mes, recurso y estado
+	 * @param id Id del CENAD
+	 * @param desde Primer mes (yyyy-MM), opcional
+	 * @param hasta Ultimo mes (yyyy-MM), opcional
+	 * @return Lista de estadisticas con mes, idRecurso, estado y numero
+	 */
+	@GetMapping("/api/estadisticas/cenads/{id}/solicitudes")
+	public List<Estadistica> getSolicitudesPorEstado(@PathVariable Long id,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth desde,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth hasta) {
+		return estadisticasService.getSolicitudesPorEstado(id, desde, hasta);
+	}
+
+	/**
+	 * Devuelve las horas ocupadas por las solicitudes validadas de los recursos de un CENAD por mes y recurso
+	 * @param id Id del CENAD
+	 * @param desde Primer mes (yyyy-MM), opcional
+	 * @param hasta Ultimo mes (yyyy-MM), opcional
+	 * @return Lista de estadisticas con mes, idRecurso, numero de solicitudes y horas
+	 */
+	@GetMapping("/api/estadisticas/cenads/{id}/horasRecursos")
+	public List<Estadistica> getHorasPorRecurso(@PathVariable Long id,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth desde,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth hasta) {
+		return estadisticasService.getHorasPorRecurso(id, desde, hasta);
+	}
+
+	/**
+	 * Devuelve las horas ocupadas por las solicitudes validadas de los recursos de un CENAD por mes y unidad
+	 * @param id Id del CENAD
+	 * @param desde Primer mes (yyyy-MM), opcional
+	 * @param hasta Ultimo mes (yyyy-MM), opcional
+	 * @return Lista de estadisticas con mes, idUnidad, numero de solicitudes y horas
+	 */
+	@GetMapping("/api/estadisticas/cenads/{id}/horasUnidades")
+	public List<Estadistica> getHorasPorUnidad(@PathVariable Long id,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth desde,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth hasta) {
+		return estadisticasService.getHorasPorUnidad(id, desde, hasta);
+	}
+
+	/**
+	 * Devuelve el tiempo medio que tardan los gestores de un CENAD en validar o rechazar las solicitudes, por mes
+	 * @param id Id del CENAD
+	 * @param desde Primer mes (yyyy-MM), opcional
+	 * @param hasta Ultimo mes (yyyy-MM), opcional
+	 * @return Lista de estadisticas con mes, idUsuarioGestor, numero de solicitudes decididas y horas de media
+	 */
+	@GetMapping("/api/estadisticas/cenads/{id}/tiempoDecision")
+	public List<Estadistica> getTiempoDecisionPorGestor(@PathVariable Long id,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth desde,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth hasta) {
+		return estadisticasService.getTiempoDecisionPorGestor(id, desde, hasta);
+	}
+}
@@ -0,0 +1,163 @@
+package es.mde.rest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Fichero;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.Unidad;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.FicheroDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.UnidadDAO;
+import es.mde.security.usuarios.Usuario;
+import es.mde.security.usuarios.UsuarioDAO;
+
+/**
+ * Controlador que devuelve de una vez varias entidades por sus ids, para que el cliente resuelva los enlaces de un
+ * listado con una peticion y una consulta (where id in) en lugar de una por fila
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@RepositoryRestController
+@Configuration
+public class LoteController {
+
+	/** Numero maximo de ids por peticion (SQL Server no admite mas de 2100 parametros) */
+	private static final int MAX_IDS = 1000;
+
+	private RecursoDAO recursoDAO;
+	private UsuarioDAO usuarioDAO;
+	private UnidadDAO unidadDAO;
+	private CategoriaDAO categoriaDAO;
+	private FicheroDAO ficheroDAO;
+
+	/**
+	 * Controlador para ejecutar los metodos personalizados
+	 * @param recursoDAO DAO de recurso
+	 * @param usuarioDAO DAO de usuario
+	 * @param unidadDAO DAO de unidad
+	 * @param categoriaDAO DAO de categoria
+	 * @param ficheroDAO DAO de fichero
+	 */
+	public LoteController(RecursoDAO recursoDAO, UsuarioDAO usuarioDAO, UnidadDAO unidadDAO,
+			CategoriaDAO categoriaDAO, FicheroDAO ficheroDAO) {
+		this.recursoDAO = recursoDAO;
+		this.usuarioDAO = usuarioDAO;
+		this.unidadDAO = unidadDAO;
+		this.categoriaDAO = categoriaDAO;
+		this.ficheroDAO = ficheroDAO;
+	}
+
+	/**
+	 * Metodo que devuelve varios recursos por sus ids
+	 * @param ids Ids de los recursos, separados por comas
+	 * @param assembler
+	 * @return Lista de los recursos que existen, en el orden de los ids
+	 */
+	@GetMapping("/recursos/lote")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getRecursos(@RequestParam List<Long> ids,
+			PersistentEntityResourceAssembler assembler) {
+
+		return lote(ids, recursoDAO::findByIdIn, Recurso::getId, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve varios usuarios por sus ids
+	 * @param ids Ids de los usuarios, separados por comas
+	 * @param assembler
+	 * @return Lista de los usuarios que existen, en el orden de los ids
+	 */
+	@GetMapping("/usuarios/lote")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getUsuarios(@RequestParam List<Long> ids,
+			PersistentEntityResourceAssembler assembler) {
+
+		return lote(ids, usuarioDAO::findByIdIn, Usuario::getId, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve varias unidades por sus ids
+	 * @param ids Ids de las unidades, separados por comas
+	 * @param assembler
+	 * @return Lista de las unidades que existen, en el orden de los ids
+	 */
+	@GetMapping("/unidades/lote")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getUnidades(@RequestParam List<Long> ids,
+			PersistentEntityResourceAssembler assembler) {
+
+		return lote(ids, unidadDAO::findByIdIn, Unidad::getId, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve varias categorias por sus ids
+	 * @param ids Ids de las categorias, separados por comas
+	 * @param assembler
+	 * @return Lista de las categorias que existen, en el orden de los ids
+	 */
+	@GetMapping("/categorias/lote")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getCategorias(@RequestParam List<Long> ids,
+			PersistentEntityResourceAssembler assembler) {
+
+		return lote(ids, categoriaDAO::findByIdIn, Categoria::getId, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve varios ficheros por sus ids
+	 * @param ids Ids de los ficheros, separados por comas
+	 * @param assembler
+	 * @return Lista de los ficheros que existen, en el orden de los ids
+	 */
+	@GetMapping("/ficheros/lote")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getFicheros(@RequestParam List<Long> ids,
+			PersistentEntityResourceAssembler assembler) {
+
+		return lote(ids, ficheroDAO::findByIdIn, Fichero::getId, assembler);
+	}
+
+	/**
+	 * Busca las entidades en una consulta y las devuelve en el orden en que se han pedido, sin repetidas. Los ids
+	 * que no existen se omiten
+	 */
+	private <T> CollectionModel<PersistentEntityResource> lote(List<Long> ids,
+			Function<Collection<Long>, List<T>> buscar, Function<T, Long> id, PersistentEntityResourceAssembler assembler) {
+
+		List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().toList();
+		if (distintos.isEmpty()) {
+			throw new IllegalArgumentException("Hay que indicar los ids");
+		}
+		if (distintos.size() > MAX_IDS) {
+			throw new IllegalArgumentException("No se pueden pedir mas de " + MAX_IDS + " ids a la vez");
+		}
+		Map<Long, T> porId = new HashMap<>();
+		buscar.apply(distintos).forEach(e -> porId.put(id.apply(e), e));
+		List<T> entidades = new ArrayList<>();
+		for (Long i : distintos) {
+			T entidad = porId.get(i);
+			if (entidad != null) {
+				entidades.add(entidad);
+			}
+		}
+		return assembler.toCollectionModel(entidades);
+	}
+}
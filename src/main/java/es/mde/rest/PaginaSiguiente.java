@@ -0,0 +1,75 @@
+package es.mde.rest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.format.datetime.DateFormatter;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import es.mde.entidades.SolicitudRecurso;
+
+/**
+ * Construye la respuesta de los listados de solicitudes que se recorren a partir de la ultima solicitud leida
+ * (despuesDeFecha y despuesDeId) en lugar de por numero de pagina
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+final class PaginaSiguiente {
+
+	/** Tamano de pagina por defecto, el mismo que el de Spring Data REST */
+	static final String TAMANO_POR_DEFECTO = "20";
+	/** Tamano de pagina maximo */
+	static final int TAMANO_MAXIMO = 1000;
+
+	private PaginaSiguiente() {
+	}
+
+	/**
+	 * Comprueba el tamano de pagina antes de consultar. El DAO tambien lo comprueba, pero sus excepciones llegan
+	 * traducidas a excepciones de acceso a datos y no como peticion incorrecta
+	 * @param tamano Tamano de pagina solicitado
+	 * @throws IllegalArgumentException si no esta entre 1 y el maximo
+	 */
+	static void comprobarTamano(int tamano) {
+		if (tamano < 1 || tamano > TAMANO_MAXIMO) {
+			throw new IllegalArgumentException("El tamano tiene que estar entre 1 y " + TAMANO_MAXIMO);
+		}
+	}
+
+	/**
+	 * Devuelve las solicitudes con un enlace next a la pagina siguiente si la pagina esta completa. La fecha va en
+	 * UTC para que el enlace no lleve un + que se leeria como un espacio
+	 * @param solicitudes Solicitudes de la pagina
+	 * @param tamano Tamano de pagina solicitado
+	 * @param assembler
+	 * @return Devuelve las solicitudes y el enlace a las siguientes
+	 */
+	static CollectionModel<PersistentEntityResource> toModel(List<SolicitudRecurso> solicitudes, int tamano,
+			PersistentEntityResourceAssembler assembler) {
+
+		CollectionModel<PersistentEntityResource> modelo = assembler.toCollectionModel(solicitudes);
+		if (solicitudes.size() == tamano) {
+			SolicitudRecurso ultima = solicitudes.get(tamano - 1);
+			UriComponentsBuilder siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+					.replaceQueryParam("despuesDeId", ultima.getId()).replaceQueryParam("despuesDeFecha");
+			if (ultima.getFechaHoraInicioRecurso() != null) {
+				DateFormatter formato = new DateFormatter();
+				formato.setIso(ISO.DATE_TIME);
+				formato.setTimeZone(TimeZone.getTimeZone("UTC"));
+				siguiente.replaceQueryParam("despuesDeFecha",
+						formato.print(ultima.getFechaHoraInicioRecurso(), Locale.ROOT));
+			}
+			modelo.add(Link.of(siguiente.build().toUriString(), IanaLinkRelations.NEXT));
+		}
+		return modelo;
+	}
+}
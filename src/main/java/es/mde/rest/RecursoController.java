@@ -1,18 +1,34 @@
 package es.mde.rest;
 
+import java.io.IOException;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.rest.webmvc.PersistentEntityResource;
 import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
 import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import es.mde.entidades.CategoriaFichero;
 import es.mde.entidades.SolicitudRecurso;
 import es.mde.repositorios.RecursoDAO;
+import es.mde.servicios.CalendarioIcsService;
+import es.mde.servicios.ConflictosRecursoService;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Controlador que maneja los metodos personalizados de los recursos
@@ -22,14 +38,21 @@ import es.mde.repositorios.RecursoDAO;
 @Configuration
 public class RecursoController {
 	private RecursoDAO recursoDAO;
+	private ConflictosRecursoService conflictosRecursoService;
+	private CalendarioIcsService calendarioIcsService;
 
 	/**
 	 * Controlador para ejecutar los metodos personalizados
 	 * 
 	 * @param recursoDAO DAO de recurso
+	 * @param conflictosRecursoService Servicio que guarda los periodos ocupados de cada recurso
+	 * @param calendarioIcsService Servicio que genera los calendarios ICS
 	 */
-	public RecursoController(RecursoDAO recursoDAO) {
+	public RecursoController(RecursoDAO recursoDAO, ConflictosRecursoService conflictosRecursoService,
+			CalendarioIcsService calendarioIcsService) {
 		this.recursoDAO = recursoDAO;
+		this.conflictosRecursoService = conflictosRecursoService;
+		this.calendarioIcsService = calendarioIcsService;
 	}
 
 	/**
@@ -54,17 +77,112 @@ public class RecursoController {
 	 * 
 	 * @param id Id del recurso
 	 * @param estado Estado de la solicitud
+	 * @param pageable Pagina y ordenacion solicitadas, por defecto por id
+	 * @param pagedAssembler
 	 * @param assembler
-	 * @return Lista de las solicitudes de un recurso
+	 * @return Pagina de las solicitudes de un recurso
 	 */
 	@GetMapping("/recursos/{id}/solicitudesEstado/{estado}")
 	@ResponseBody
-	public CollectionModel<PersistentEntityResource> getSolicitudesRecursoEstado(@PathVariable Long id,
+	public PagedModel<PersistentEntityResource> getSolicitudesRecursoEstado(@PathVariable Long id,
+			@PathVariable String estado, @PageableDefault(size = 20, sort = "id") Pageable pageable,
+			PagedResourcesAssembler<Object> pagedAssembler,
+			PersistentEntityResourceAssembler assembler) {
+
+		Page<Object> solicitudes = recursoDAO.getSolicitudesDeRecursoPorEstado(id, estado, pageable).map(s -> s);
+
+		return pagedAssembler.toModel(solicitudes, assembler);
+	}
+
+	/**
+	 * Metodo que recorre las solicitudes de un recurso por estado a partir de la ultima leida, ordenadas por fecha
+	 * de inicio del recurso e id. Cualquier pagina cuesta lo mismo que la primera
+	 * 
+	 * @param id Id del recurso
+	 * @param estado Estado de la solicitud
+	 * @param despuesDeFecha Fecha de inicio de la ultima solicitud leida
+	 * @param despuesDeId Id de la ultima solicitud leida
+	 * @param size Numero maximo de solicitudes
+	 * @param assembler
+	 * @return Lista de las solicitudes siguientes, con el enlace next a las siguientes si las puede haber
+	 */
+	@GetMapping("/recursos/{id}/solicitudesEstado/{estado}/siguientes")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getSolicitudesRecursoEstadoSiguientes(@PathVariable Long id,
 			@PathVariable String estado,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date despuesDeFecha,
+			@RequestParam(required = false) Long despuesDeId,
+			@RequestParam(defaultValue = PaginaSiguiente.TAMANO_POR_DEFECTO) int size,
 			PersistentEntityResourceAssembler assembler) {
 
-		List<SolicitudRecurso> solicitudes = recursoDAO.getSolicitudesDeRecursoPorEstado(id, estado);
+		PaginaSiguiente.comprobarTamano(size);
+		List<SolicitudRecurso> solicitudes = recursoDAO.getSolicitudesDeRecursoPorEstadoSiguientes(id, estado,
+				despuesDeFecha, despuesDeId, size);
+
+		return PaginaSiguiente.toModel(solicitudes, size, assembler);
+	}
+
+	/**
+	 * Metodo que devuelve las solicitudes que ocupan un recurso en algun momento de un periodo
+	 * 
+	 * @param id Id del recurso
+	 * @param desde Inicio del periodo
+	 * @param hasta Fin del periodo
+	 * @param assembler
+	 * @return Lista de las solicitudes que se solapan con el periodo, ordenadas por fecha de inicio
+	 */
+	@GetMapping("/recursos/{id}/conflictos")
+	@ResponseBody
+	public CollectionModel<PersistentEntityResource> getConflictosRecurso(@PathVariable Long id,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date desde,
+			@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date hasta,
+			PersistentEntityResourceAssembler assembler) {
+
+		List<SolicitudRecurso> solicitudes = conflictosRecursoService.getConflictos(id, desde, hasta);
 
 		return assembler.toCollectionModel(solicitudes);
 	}
-}
\ No newline at end of file
+	/**
+	 * Metodo que devuelve el calendario iCalendar (ICS) de ocupacion de un recurso, para suscribirse desde un cliente
+	 * de correo. Los clientes de calendario no envian el JWT, asi que se pide con el token del calendario.
+	 * Admite peticiones condicionales (If-None-Match/If-Modified-Since) para responder 304 sin cambios
+	 * @param id Id del recurso
+	 * @param token Token del calendario
+	 * @param webRequest Peticion, para comprobar si ha cambiado
+	 * @param response Respuesta en la que se escribe el calendario
+	 * @throws IOException si falla la escritura
+	 */
+	@GetMapping("/recursos/{id}/" + RespuestaCalendarioIcs.CALENDARIO)
+	@ResponseBody
+	public void getCalendarioIcsRecurso(@PathVariable Long id, @RequestParam(required = false) String token,
+			WebRequest webRequest, HttpServletResponse response) throws IOException {
+
+		RespuestaCalendarioIcs.escribir(calendarioIcsService.comprobarTokenRecurso(id, token),
+				() -> calendarioIcsService.getVersionCalendarioRecurso(id), webRequest, response,
+				writer -> calendarioIcsService.escribirCalendarioRecurso(id, writer));
+	}
+	/**
+	 * Metodo que devuelve la direccion con token para suscribirse al calendario ICS del recurso. El token se crea
+	 * la primera vez que se pide
+	 * @param id Id del recurso
+	 * @return Devuelve {"url": direccion del calendario}
+	 */
+	@GetMapping("/recursos/{id}/suscripcionCalendario")
+	@ResponseBody
+	public Map<String, String> getSuscripcionCalendarioRecurso(@PathVariable Long id) {
+
+		return RespuestaCalendarioIcs.suscripcion(calendarioIcsService.getTokenCalendarioRecurso(id, false));
+	}
+	/**
+	 * Metodo que renueva el token del calendario ICS del recurso, con lo que dejan de funcionar las suscripciones
+	 * anteriores, y devuelve la direccion nueva para suscribirse
+	 * @param id Id del recurso
+	 * @return Devuelve {"url": direccion del calendario con el token nuevo}
+	 */
+	@PostMapping("/recursos/{id}/suscripcionCalendario")
+	@ResponseBody
+	public Map<String, String> renovarSuscripcionCalendarioRecurso(@PathVariable Long id) {
+
+		return RespuestaCalendarioIcs.suscripcion(calendarioIcsService.getTokenCalendarioRecurso(id, true));
+	}
+}
@@ -0,0 +1,78 @@
+package es.mde.rest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import es.mde.models.VersionCalendario;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Construye las respuestas de los calendarios ICS de CENAD,s y recursos, que se piden sin JWT desde los clientes de
+ * calendario con el token de cada calendario
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+final class RespuestaCalendarioIcs {
+
+	/** Ultimo tramo de la ruta de los calendarios, que no necesitan JWT */
+	static final String CALENDARIO = "calendario.ics";
+
+	/**
+	 * Escribe el calendario de un CENAD o de un recurso
+	 */
+	@FunctionalInterface
+	interface Escritor {
+		void escribir(Writer writer) throws IOException;
+	}
+
+	private RespuestaCalendarioIcs() {
+	}
+
+	/**
+	 * Escribe el calendario si el token es correcto y el cliente no tiene ya la misma version. Si el token no es
+	 * correcto se responde 404, como si no existiera, y si no ha cambiado 304 sin cuerpo
+	 * @param tokenCorrecto Si el token recibido es el del calendario
+	 * @param version Calcula la version actual del calendario
+	 * @param webRequest Peticion, para comprobar si ha cambiado
+	 * @param response Respuesta en la que se escribe el calendario
+	 * @param escritor Escribe el calendario
+	 * @throws IOException si falla la escritura
+	 */
+	static void escribir(boolean tokenCorrecto, Supplier<VersionCalendario> version, WebRequest webRequest,
+			HttpServletResponse response, Escritor escritor) throws IOException {
+		if (!tokenCorrecto) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		VersionCalendario actual = version.get();
+		if (webRequest.checkNotModified(actual.getEtag(), actual.getUltimaModificacion())) {
+			return;
+		}
+		response.setContentType("text/calendar;charset=UTF-8");
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+		escritor.escribir(response.getWriter());
+	}
+
+	/**
+	 * Devuelve la direccion para suscribirse al calendario, con su token. Se pide en la ruta del calendario
+	 * cambiando su ultimo tramo
+	 * @param token Token del calendario
+	 * @return Devuelve {"url": direccion del calendario con el token}
+	 */
+	static Map<String, String> suscripcion(String token) {
+		UriComponentsBuilder actual = ServletUriComponentsBuilder.fromCurrentRequestUri();
+		String ruta = actual.build().getPath();
+		String url = actual.replacePath(ruta.substring(0, ruta.lastIndexOf('/') + 1) + CALENDARIO)
+				.queryParam("token", token).toUriString();
+		return Map.of("url", url);
+	}
+}
@@ -0,0 +1,103 @@
+package es.mde.rest;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import es.mde.models.CambioEstado;
+import es.mde.models.FiltroSolicitudes;
+import es.mde.models.ResultadoCambioEstado;
+import es.mde.servicios.CambioEstadoService;
+import es.mde.servicios.ExportacionSolicitudesService;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Controlador que maneja los metodos personalizados de las solicitudes
+ * 
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@RepositoryRestController
+@Configuration
+public class SolicitudRecursoController {
+	private ExportacionSolicitudesService exportacionSolicitudesService;
+	private CambioEstadoService cambioEstadoService;
+
+	/**
+	 * Controlador para ejecutar los metodos personalizados
+	 * 
+	 * @param exportacionSolicitudesService Servicio que exporta las solicitudes
+	 * @param cambioEstadoService Servicio que cambia el estado de varias solicitudes
+	 */
+	public SolicitudRecursoController(ExportacionSolicitudesService exportacionSolicitudesService,
+			CambioEstadoService cambioEstadoService) {
+		this.exportacionSolicitudesService = exportacionSolicitudesService;
+		this.cambioEstadoService = cambioEstadoService;
+	}
+
+	/**
+	 * Metodo que pasa varias solicitudes a un mismo estado en una transaccion y notifica los cambios con un correo
+	 * por destinatario, enviado despues de responder. Con estadoActual solo cambian las que estan en ese estado
+	 * 
+	 * @param cambio Ids de las solicitudes, estado al que pasan y, opcionalmente, estado en el que tienen que estar
+	 * @return Resumen con las solicitudes cambiadas, el motivo de las que no y el numero de correos en cola
+	 */
+	@PostMapping("/solicitudes/estado")
+	public ResponseEntity<ResultadoCambioEstado> cambiarEstado(@RequestBody CambioEstado cambio) {
+
+		return ResponseEntity.ok(cambioEstadoService.cambiarEstado(cambio));
+	}
+
+	/**
+	 * Metodo que exporta a CSV o XLSX las solicitudes que cumplen los filtros, escribiendolas segun se leen de la
+	 * BD. Todos los filtros son opcionales
+	 * 
+	 * @param idCenad  Id del CENAD de los recursos
+	 * @param idRecurso Id del recurso
+	 * @param estado   Estado de las solicitudes
+	 * @param desde    Fecha minima de inicio del recurso (incluida)
+	 * @param hasta    Fecha maxima de inicio del recurso (excluida)
+	 * @param columnas Columnas a exportar (campos de la solicitud y de sus datos especificos); por defecto todas
+	 * @param formato  csv (por defecto) o xlsx
+	 * @param response Respuesta en la que se escribe el fichero
+	 * @throws IOException si falla la escritura
+	 */
+	@GetMapping("/solicitudes/exportar")
+	@ResponseBody
+	public void exportar(@RequestParam(required = false) Long idCenad, @RequestParam(required = false) Long idRecurso,
+			@RequestParam(required = false) String estado,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date desde,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date hasta,
+			@RequestParam(required = false) List<String> columnas, @RequestParam(defaultValue = "csv") String formato,
+			HttpServletResponse response) throws IOException {
+
+		FiltroSolicitudes filtro = new FiltroSolicitudes(idCenad, idRecurso, estado, desde, hasta);
+		List<String> columnasExportadas = exportacionSolicitudesService.getColumnas(columnas);
+		if ("xlsx".equalsIgnoreCase(formato)) {
+			response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+					ContentDisposition.attachment().filename("solicitudes.xlsx").build().toString());
+			exportacionSolicitudesService.exportarXlsx(columnasExportadas, filtro, response.getOutputStream());
+		} else if ("csv".equalsIgnoreCase(formato)) {
+			response.setContentType("text/csv;charset=UTF-8");
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+					ContentDisposition.attachment().filename("solicitudes.csv").build().toString());
+			exportacionSolicitudesService.exportarCsv(columnasExportadas, filtro, response.getWriter());
+		} else {
+			throw new IllegalArgumentException("El formato " + formato + " no existe. Formatos: csv, xlsx");
+		}
+	}
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -49,6 +50,8 @@ public class ConfiguracionSeguridad {
 //                .requestMatchers("/api/auth/**").permitAll()//permite registro y logging
 						.requestMatchers("/api/auth/register", "/api/auth/login").permitAll()// permite solo register y logging
 						//asi no permito en abierto cambiar los password
+						// los clientes de calendario no envian el JWT: el controlador comprueba el token de cada calendario
+						.requestMatchers(HttpMethod.GET, "/api/cenads/*/calendario.ics", "/api/recursos/*/calendario.ics").permitAll()
 						.anyRequest().authenticated()
 				// .permitAll()
 				)
@@ -5,6 +5,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import es.mde.servicios.ConflictoRecursoException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
     
@@ -15,6 +17,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<ExcepcionResponse>(respuesta, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConflictoRecursoException.class)
+    public ResponseEntity<ExcepcionResponse> handlerConflictoRecursoException(ConflictoRecursoException ex)
+    {
+    	ExcepcionResponse respuesta = new ExcepcionResponse(ex.getMessage(), HttpStatus.CONFLICT);
+        return new ResponseEntity<ExcepcionResponse>(respuesta, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ExcepcionResponse> handlerRuntimeException(RuntimeException ex)
     {
@@ -92,7 +92,8 @@ public class AuthService {
 
 	public AuthResponseChangePassword changePassword(ChangePasswordRequest request) {
 
-		Usuario usuario = usuarioDAO.findByIdString(request.getIdUsuario());
+		Usuario usuario = usuarioDAO.findById(idUsuario(request.getIdUsuario()))
+				.orElseThrow(() -> new IllegalArgumentException("No existe el usuario " + request.getIdUsuario()));
 		usuario.setPassword(passwordEncoder.encode(request.getPassword()));
 		usuarioDAO.save(usuario);
 		
@@ -100,6 +101,14 @@ public class AuthService {
 		return authResponse;
 	}
 
+	private Long idUsuario(String idUsuario) {
+		try {
+			return Long.valueOf(idUsuario == null ? "" : idUsuario.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("El id de usuario " + idUsuario + " no es valido");
+		}
+	}
+
 	public Usuario formarUsuario(Usuario usuario, RegisterRequest request) {
 		usuario.setUsername(request.getUsername());
 		usuario.setPassword(passwordEncoder.encode(request.getPassword()));
@@ -17,18 +17,22 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * Representa los usuarios de la aplicacion
  * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
  *
  */
 @Entity
-@Table(name="USUARIOS", uniqueConstraints = {@UniqueConstraint(columnNames = {"username"})})
+@Table(name="USUARIOS", uniqueConstraints = {@UniqueConstraint(columnNames = {"username"})},
+		indexes = {@Index(name = "IDX_USUARIOS_CENAD_ADMINISTRADO", columnList = "CENAD_ADMINISTRADO")})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "TIPO")
 @DiscriminatorValue("U")
@@ -37,7 +41,6 @@ public class Usuario implements UserDetails {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(unique = true)
 	private Long id;
-	private String idString;
 	@Enumerated(EnumType.STRING)
 	private Rol rol;	
 	private String username;
@@ -76,17 +79,11 @@ public class Usuario implements UserDetails {
 	 * Devuelve el id del usuario
 	 * @return Devuelve el id del usuario
 	 */
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	public String getIdString() {
-		return idString;
+		return id == null ? null : id.toString();
 	}
 	
-	/**
-	 * Guarda el id del usuario
-	 * @param idString Guarda el id del usuario
-	 */
-	public void setIdString(String idString) {
-		this.idString = idString;
-	}
 	
 	/**
 	 * Devuelve el rol del usuario
@@ -128,6 +125,7 @@ public class Usuario implements UserDetails {
 	 * Devuelve el password del usuario
 	 * @return Devuelve el password del usuario
 	 */
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
 	public String getPassword() {
 		return password;
 	}
@@ -13,8 +13,7 @@ public class UsuarioAdministradorListener {
 	
 	@PostPersist
 	public void postGuardar(UsuarioAdministrador usuario) {
-		usuario.setIdString(usuario.getId().toString());
-		System.err.println("Se ha guardado al usuario administrador: " + usuario.getUsername() + " con Id " + usuario.getIdString());
+		log.debug("Se ha guardado al usuario administrador: {} con Id {}", usuario.getUsername(), usuario.getId());
 	}
 	
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package es.mde.security.usuarios;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
 @RepositoryRestResource(path="usuarios", collectionResourceRel="usuarios", itemResourceRel="usuario") 
 public interface UsuarioDAO extends JpaRepository<Usuario, Long> {
 
 	Optional<Usuario> findByUsername(String username);
-	Usuario findByIdString(String idString);
+	// ids de varios usuarios en una sola consulta, para el endpoint /usuarios/lote
+	@RestResource(exported = false)
+	List<Usuario> findByIdIn(Collection<Long> ids);
 }
@@ -14,8 +14,7 @@ public class UsuarioGestorListener {
 	
 	@PostPersist
 	public void postGuardar(UsuarioGestor usuario) {
-		usuario.setIdString(usuario.getId().toString());
-		System.err.println("Se ha guardado al usuario gestor: " + usuario.getUsername() + " con Id " + usuario.getIdString());
+		log.debug("Se ha guardado al usuario gestor: {} con Id {}", usuario.getUsername(), usuario.getId());
 	}
 	
 }
\ No newline at end of file
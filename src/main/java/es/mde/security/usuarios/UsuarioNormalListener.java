@@ -13,8 +13,7 @@ public class UsuarioNormalListener {
 	
 	@PostPersist
 	public void postGuardar(UsuarioNormal usuario) {
-		usuario.setIdString(usuario.getId().toString());
-		System.err.println("Se ha guardado al usuario normal: " + usuario.getUsername() + " con Id " + usuario.getIdString());
+		log.debug("Se ha guardado al usuario normal: {} con Id {}", usuario.getUsername(), usuario.getId());
 	}
 	
 }
\ No newline at end of file
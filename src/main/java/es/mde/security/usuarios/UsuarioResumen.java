@@ -0,0 +1,56 @@
+package es.mde.security.usuarios;
+
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * Proyeccion con los datos de contacto de un usuario que se muestran en los listados, sin el password. Se pide con
+ * ?projection=resumen
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Projection(name = "resumen", types = Usuario.class)
+public interface UsuarioResumen {
+
+	/**
+	 * Devuelve el id del usuario
+	 * @return Devuelve el id del usuario
+	 */
+	Long getId();
+
+	/**
+	 * Devuelve el id del usuario como texto
+	 * @return Devuelve el id del usuario como texto
+	 */
+	String getIdString();
+
+	/**
+	 * Devuelve el nombre de usuario
+	 * @return Devuelve el nombre de usuario
+	 */
+	String getUsername();
+
+	/**
+	 * Devuelve el email del usuario
+	 * @return Devuelve el email del usuario
+	 */
+	String getEmail();
+
+	/**
+	 * Devuelve el telefono del usuario
+	 * @return Devuelve el telefono del usuario
+	 */
+	String getTfno();
+
+	/**
+	 * Devuelve la descripcion del usuario
+	 * @return Devuelve la descripcion del usuario
+	 */
+	String getDescripcion();
+
+	/**
+	 * Devuelve si el usuario admite recibir emails
+	 * @return Devuelve si el usuario admite recibir emails
+	 */
+	boolean isEmailAdmitido();
+}
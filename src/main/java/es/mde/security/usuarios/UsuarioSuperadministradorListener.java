@@ -13,8 +13,7 @@ public class UsuarioSuperadministradorListener {
 	
 	@PostPersist
 	public void postGuardar(UsuarioSuperadministrador usuario) {
-		usuario.setIdString(usuario.getId().toString());
-		System.err.println("Se ha guardado al usuario superadministrador: " + usuario.getUsername() + " con Id " + usuario.getIdString());
+		log.debug("Se ha guardado al usuario superadministrador: {} con Id {}", usuario.getUsername(), usuario.getId());
 	}
 	
 }
\ No newline at end of file
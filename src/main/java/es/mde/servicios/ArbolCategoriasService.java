@@ -0,0 +1,30 @@
+package es.mde.servicios;
+
+import java.util.List;
+
+import es.mde.models.NodoCategoria;
+
+/**
+ * Interfaz del servicio que construye y guarda en cache el árbol de categorías de cada CENAD
+ * 
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface ArbolCategoriasService {
+
+	/**
+	 * Devuelve las categorías raiz de un CENAD con sus subcategorías anidadas
+	 * 
+	 * @param idCenad Id del CENAD
+	 * @param conRecursos Si se incluye el número de recursos de cada categoría
+	 * @return Devuelve las categorías raiz del CENAD con sus subcategorías anidadas
+	 */
+	List<NodoCategoria> getArbolCenad(Long idCenad, boolean conRecursos);
+
+	/**
+	 * Descarta el árbol guardado de un CENAD
+	 * 
+	 * @param idCenad Id del CENAD, o null para descartar los de todos los CENAD,s
+	 */
+	void invalidarCenad(Long idCenad);
+}
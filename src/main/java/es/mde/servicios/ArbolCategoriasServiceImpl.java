@@ -0,0 +1,109 @@
+package es.mde.servicios;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.mde.models.NodoCategoria;
+import es.mde.repositorios.CategoriaDAO;
+
+/**
+ * Crea el servicio que construye el árbol de categorías de un CENAD con una sola consulta y lo guarda en cache
+ * hasta que cambia alguna de sus categorías o recursos
+ * 
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class ArbolCategoriasServiceImpl implements ArbolCategoriasService {
+
+	private final Map<Long, List<NodoCategoria>> arboles = new ConcurrentHashMap<>();
+	private final Map<Long, List<NodoCategoria>> arbolesConRecursos = new ConcurrentHashMap<>();
+	/** Aumenta con cada invalidacion, para no guardar un arbol leido antes de que se descartara */
+	private final AtomicLong generacion = new AtomicLong();
+
+	private CategoriaDAO categoriaDAO;
+
+	/**
+	 * Crea el servicio
+	 * 
+	 * @param categoriaDAO DAO de categoria
+	 */
+	public ArbolCategoriasServiceImpl(CategoriaDAO categoriaDAO) {
+		this.categoriaDAO = categoriaDAO;
+	}
+
+	@Override
+	public List<NodoCategoria> getArbolCenad(Long idCenad, boolean conRecursos) {
+		// no se usa computeIfAbsent: la consulta puede vaciar la sesion, los listeners invalidan el arbol
+		// y eso modificaria el mapa mientras se calcula la entrada
+		Map<Long, List<NodoCategoria>> cache = conRecursos ? arbolesConRecursos : arboles;
+		List<NodoCategoria> arbol = cache.get(idCenad);
+		if (arbol == null) {
+			long generacionLeida = generacion.get();
+			arbol = construirArbol(conRecursos ? categoriaDAO.findNodosCenadConRecursos(idCenad)
+					: categoriaDAO.findNodosCenad(idCenad));
+			if (generacion.get() == generacionLeida) {
+				cache.put(idCenad, arbol);
+				// si se ha invalidado entre la comprobacion y el put, se quita el que se acaba de guardar
+				if (generacion.get() != generacionLeida) {
+					cache.remove(idCenad, arbol);
+				}
+			}
+		}
+		return arbol;
+	}
+
+	@Override
+	public void invalidarCenad(Long idCenad) {
+		descartar(idCenad);
+		// se vuelve a descartar al confirmar la transaccion para no quedarse con un arbol leido antes del commit
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					descartar(idCenad);
+				}
+			});
+		}
+	}
+
+	private void descartar(Long idCenad) {
+		generacion.incrementAndGet();
+		if (idCenad == null) {
+			arboles.clear();
+			arbolesConRecursos.clear();
+		} else {
+			arboles.remove(idCenad);
+			arbolesConRecursos.remove(idCenad);
+		}
+	}
+
+	/**
+	 * Enlaza cada nodo con su categoría Padre recorriendo la lista una sola vez
+	 * 
+	 * @param nodos Categorías del CENAD, sin enlazar
+	 * @return Devuelve las categorías raiz
+	 */
+	private List<NodoCategoria> construirArbol(List<NodoCategoria> nodos) {
+		Map<Long, NodoCategoria> porId = new HashMap<>();
+		nodos.forEach(n -> porId.put(n.getId(), n));
+		List<NodoCategoria> raices = new ArrayList<>();
+		for (NodoCategoria nodo : nodos) {
+			NodoCategoria padre = nodo.getIdCategoriaPadre() == null ? null : porId.get(nodo.getIdCategoriaPadre());
+			if (padre == null) {
+				raices.add(nodo);
+			} else {
+				padre.getSubcategorias().add(nodo);
+			}
+		}
+		return raices;
+	}
+}
@@ -0,0 +1,204 @@
+package es.mde.servicios;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbol de intervalos [inicio, fin) de las solicitudes de un recurso. Es un arbol AVL ordenado por la fecha de
+ * inicio (y el id de la solicitud para desempatar) en el que cada nodo guarda el mayor fin de su subarbol, de
+ * forma que las busquedas de solapes cuestan O(log n + k). No es seguro para varios hilos
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class ArbolIntervalos {
+
+	private static final class Nodo {
+		private final long id;
+		private final long inicio;
+		private final long fin;
+		private long maxFin;
+		private int altura = 1;
+		private Nodo izq;
+		private Nodo der;
+
+		private Nodo(long id, long inicio, long fin) {
+			this.id = id;
+			this.inicio = inicio;
+			this.fin = fin;
+			this.maxFin = fin;
+		}
+	}
+
+	private Nodo raiz;
+	private final Map<Long, Nodo> porId = new HashMap<>();
+
+	/**
+	 * Devuelve el numero de intervalos del arbol
+	 *
+	 * @return Devuelve el numero de intervalos
+	 */
+	int size() {
+		return porId.size();
+	}
+
+	/**
+	 * Anade el intervalo de una solicitud, sustituyendo el que tuviera antes
+	 *
+	 * @param id     Id de la solicitud
+	 * @param inicio Inicio del intervalo en milisegundos
+	 * @param fin    Fin (excluido) del intervalo en milisegundos
+	 */
+	void insertar(long id, long inicio, long fin) {
+		eliminar(id);
+		Nodo nuevo = new Nodo(id, inicio, fin);
+		raiz = insertar(raiz, nuevo);
+		porId.put(id, nuevo);
+	}
+
+	/**
+	 * Quita el intervalo de una solicitud, si lo tiene
+	 *
+	 * @param id Id de la solicitud
+	 */
+	void eliminar(long id) {
+		Nodo nodo = porId.remove(id);
+		if (nodo != null) {
+			raiz = eliminar(raiz, nodo.inicio, nodo.id);
+		}
+	}
+
+	/**
+	 * Devuelve los ids de las solicitudes cuyo intervalo se solapa con [desde, hasta), ordenados por inicio
+	 *
+	 * @param desde Inicio del periodo en milisegundos
+	 * @param hasta Fin (excluido) del periodo en milisegundos
+	 * @return Devuelve los ids de las solicitudes solapadas
+	 */
+	List<Long> solapados(long desde, long hasta) {
+		List<Long> resultado = new ArrayList<>();
+		buscar(raiz, desde, hasta, resultado);
+		return resultado;
+	}
+
+	private void buscar(Nodo nodo, long desde, long hasta, List<Long> resultado) {
+		// si ningun intervalo del subarbol termina despues de "desde" no hay nada que buscar en el
+		if (nodo == null || nodo.maxFin <= desde) {
+			return;
+		}
+		buscar(nodo.izq, desde, hasta, resultado);
+		// los nodos de la derecha empiezan despues que este: si este ya empieza en "hasta" o despues, tambien ellos
+		if (nodo.inicio < hasta) {
+			if (nodo.fin > desde) {
+				resultado.add(nodo.id);
+			}
+			buscar(nodo.der, desde, hasta, resultado);
+		}
+	}
+
+	private static int comparar(long inicio, long id, Nodo nodo) {
+		int c = Long.compare(inicio, nodo.inicio);
+		return c != 0 ? c : Long.compare(id, nodo.id);
+	}
+
+	private static Nodo insertar(Nodo nodo, Nodo nuevo) {
+		if (nodo == null) {
+			return nuevo;
+		}
+		if (comparar(nuevo.inicio, nuevo.id, nodo) < 0) {
+			nodo.izq = insertar(nodo.izq, nuevo);
+		} else {
+			nodo.der = insertar(nodo.der, nuevo);
+		}
+		return equilibrar(nodo);
+	}
+
+	private static Nodo eliminar(Nodo nodo, long inicio, long id) {
+		if (nodo == null) {
+			return null;
+		}
+		int c = comparar(inicio, id, nodo);
+		if (c < 0) {
+			nodo.izq = eliminar(nodo.izq, inicio, id);
+		} else if (c > 0) {
+			nodo.der = eliminar(nodo.der, inicio, id);
+		} else {
+			if (nodo.izq == null) {
+				return nodo.der;
+			}
+			if (nodo.der == null) {
+				return nodo.izq;
+			}
+			Nodo sucesor = nodo.der;
+			while (sucesor.izq != null) {
+				sucesor = sucesor.izq;
+			}
+			sucesor.der = eliminarMinimo(nodo.der);
+			sucesor.izq = nodo.izq;
+			nodo = sucesor;
+		}
+		return equilibrar(nodo);
+	}
+
+	private static Nodo eliminarMinimo(Nodo nodo) {
+		if (nodo.izq == null) {
+			return nodo.der;
+		}
+		nodo.izq = eliminarMinimo(nodo.izq);
+		return equilibrar(nodo);
+	}
+
+	private static int altura(Nodo nodo) {
+		return nodo == null ? 0 : nodo.altura;
+	}
+
+	private static void actualizar(Nodo nodo) {
+		nodo.altura = 1 + Math.max(altura(nodo.izq), altura(nodo.der));
+		long maxFin = nodo.fin;
+		if (nodo.izq != null) {
+			maxFin = Math.max(maxFin, nodo.izq.maxFin);
+		}
+		if (nodo.der != null) {
+			maxFin = Math.max(maxFin, nodo.der.maxFin);
+		}
+		nodo.maxFin = maxFin;
+	}
+
+	private static Nodo equilibrar(Nodo nodo) {
+		actualizar(nodo);
+		int balance = altura(nodo.izq) - altura(nodo.der);
+		if (balance > 1) {
+			if (altura(nodo.izq.izq) < altura(nodo.izq.der)) {
+				nodo.izq = rotarIzquierda(nodo.izq);
+			}
+			return rotarDerecha(nodo);
+		}
+		if (balance < -1) {
+			if (altura(nodo.der.der) < altura(nodo.der.izq)) {
+				nodo.der = rotarDerecha(nodo.der);
+			}
+			return rotarIzquierda(nodo);
+		}
+		return nodo;
+	}
+
+	private static Nodo rotarDerecha(Nodo nodo) {
+		Nodo izq = nodo.izq;
+		nodo.izq = izq.der;
+		izq.der = nodo;
+		actualizar(nodo);
+		actualizar(izq);
+		return izq;
+	}
+
+	private static Nodo rotarIzquierda(Nodo nodo) {
+		Nodo der = nodo.der;
+		nodo.der = der.izq;
+		der.izq = nodo;
+		actualizar(nodo);
+		actualizar(der);
+		return der;
+	}
+}
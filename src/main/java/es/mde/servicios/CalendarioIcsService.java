@@ -0,0 +1,95 @@
+package es.mde.servicios;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import es.mde.models.VersionCalendario;
+
+/**
+ * Interfaz del servicio que genera los calendarios iCalendar (ICS) de ocupacion de CENAD,s y recursos
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface CalendarioIcsService {
+
+	/**
+	 * Zona de las fechas de los calendarios. La disponibilidad de los recursos cuenta los dias en la misma zona, para
+	 * que no dependan de la zona del servidor
+	 */
+	ZoneId ZONA = ZoneOffset.UTC;
+
+	/**
+	 * Devuelve la version del calendario de un CENAD, calculada con sus solicitudes
+	 *
+	 * @param idCenad Id del CENAD
+	 * @return Devuelve la version del calendario del CENAD
+	 */
+	VersionCalendario getVersionCalendarioCenad(Long idCenad);
+
+	/**
+	 * Devuelve la version del calendario de un recurso, calculada con sus solicitudes
+	 *
+	 * @param idRecurso Id del recurso
+	 * @return Devuelve la version del calendario del recurso
+	 */
+	VersionCalendario getVersionCalendarioRecurso(Long idRecurso);
+
+	/**
+	 * Devuelve el token para suscribirse al calendario de un CENAD, creandolo si aun no tiene o si se pide renovarlo.
+	 * Al renovarlo dejan de funcionar las suscripciones con el token anterior
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param renovar Si se crea un token nuevo aunque ya tenga uno
+	 * @return Devuelve el token del calendario del CENAD
+	 */
+	String getTokenCalendarioCenad(Long idCenad, boolean renovar);
+
+	/**
+	 * Devuelve el token para suscribirse al calendario de un recurso, creandolo si aun no tiene o si se pide
+	 * renovarlo. Al renovarlo dejan de funcionar las suscripciones con el token anterior
+	 *
+	 * @param idRecurso Id del recurso
+	 * @param renovar Si se crea un token nuevo aunque ya tenga uno
+	 * @return Devuelve el token del calendario del recurso
+	 */
+	String getTokenCalendarioRecurso(Long idRecurso, boolean renovar);
+
+	/**
+	 * Comprueba el token con el que se pide el calendario de un CENAD
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param token Token recibido
+	 * @return Devuelve si el CENAD existe y el token es el suyo
+	 */
+	boolean comprobarTokenCenad(Long idCenad, String token);
+
+	/**
+	 * Comprueba el token con el que se pide el calendario de un recurso
+	 *
+	 * @param idRecurso Id del recurso
+	 * @param token Token recibido
+	 * @return Devuelve si el recurso existe y el token es el suyo
+	 */
+	boolean comprobarTokenRecurso(Long idRecurso, String token);
+
+	/**
+	 * Escribe el calendario de un CENAD leyendo sus solicitudes con un cursor, sin cargarlas todas en memoria
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param writer Destino del calendario
+	 * @throws IOException si falla la escritura
+	 */
+	void escribirCalendarioCenad(Long idCenad, Writer writer) throws IOException;
+
+	/**
+	 * Escribe el calendario de un recurso leyendo sus solicitudes con un cursor, sin cargarlas todas en memoria
+	 *
+	 * @param idRecurso Id del recurso
+	 * @param writer Destino del calendario
+	 * @throws IOException si falla la escritura
+	 */
+	void escribirCalendarioRecurso(Long idRecurso, Writer writer) throws IOException;
+}
@@ -0,0 +1,204 @@
+package es.mde.servicios;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.mde.entidades.Cenad;
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.entidades.Recurso;
+import es.mde.models.VersionCalendario;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Crea el servicio que escribe los calendarios ICS (RFC 5545) de ocupacion directamente desde un cursor de la BD.
+ * Cada solicitud que ocupa un recurso es un VEVENT. Los clientes de calendario no envian el JWT, asi que cada
+ * CENAD y cada recurso tiene su propio token para suscribirse
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class CalendarioIcsServiceImpl implements CalendarioIcsService {
+
+	private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+			.withZone(ZONA);
+	private static final int OCTETOS_POR_LINEA = 75;
+	private static final int OCTETOS_TOKEN = 32;
+
+	private final SecureRandom aleatorio = new SecureRandom();
+
+	private CenadDAO cenadDAO;
+	private RecursoDAO recursoDAO;
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param cenadDAO DAO de CENAD
+	 * @param recursoDAO DAO de recurso
+	 * @param solicitudRecursoDAO DAO de solicitudes
+	 */
+	public CalendarioIcsServiceImpl(CenadDAO cenadDAO, RecursoDAO recursoDAO, SolicitudRecursoDAO solicitudRecursoDAO) {
+		this.cenadDAO = cenadDAO;
+		this.recursoDAO = recursoDAO;
+		this.solicitudRecursoDAO = solicitudRecursoDAO;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public VersionCalendario getVersionCalendarioCenad(Long idCenad) {
+		return solicitudRecursoDAO.getVersionCalendarioCenad(idCenad);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public VersionCalendario getVersionCalendarioRecurso(Long idRecurso) {
+		return solicitudRecursoDAO.getVersionCalendarioRecurso(idRecurso);
+	}
+
+	@Override
+	@Transactional
+	public String getTokenCalendarioCenad(Long idCenad, boolean renovar) {
+		if (!cenadDAO.existsById(idCenad)) {
+			throw new IllegalArgumentException("No existe el CENAD " + idCenad);
+		}
+		String token = renovar ? null : cenadDAO.findTokenCalendario(idCenad).orElse(null);
+		if (token == null) {
+			token = crearToken();
+			cenadDAO.actualizarTokenCalendario(idCenad, token);
+		}
+		return token;
+	}
+
+	@Override
+	@Transactional
+	public String getTokenCalendarioRecurso(Long idRecurso, boolean renovar) {
+		if (!recursoDAO.existsById(idRecurso)) {
+			throw new IllegalArgumentException("No existe el recurso " + idRecurso);
+		}
+		String token = renovar ? null : recursoDAO.findTokenCalendario(idRecurso).orElse(null);
+		if (token == null) {
+			token = crearToken();
+			recursoDAO.actualizarTokenCalendario(idRecurso, token);
+		}
+		return token;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean comprobarTokenCenad(Long idCenad, String token) {
+		return token != null && cenadDAO.findTokenCalendario(idCenad).map(t -> iguales(t, token)).orElse(false);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean comprobarTokenRecurso(Long idRecurso, String token) {
+		return token != null && recursoDAO.findTokenCalendario(idRecurso).map(t -> iguales(t, token)).orElse(false);
+	}
+
+	private String crearToken() {
+		byte[] octetos = new byte[OCTETOS_TOKEN];
+		aleatorio.nextBytes(octetos);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(octetos);
+	}
+
+	/**
+	 * Compara en tiempo constante para no dar pistas del token con lo que tarda en responder
+	 */
+	private boolean iguales(String token, String recibido) {
+		return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), recibido.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void escribirCalendarioCenad(Long idCenad, Writer writer) throws IOException {
+		Cenad cenad = cenadDAO.findById(idCenad)
+				.orElseThrow(() -> new IllegalArgumentException("No existe el CENAD " + idCenad));
+		try (Stream<Object[]> eventos = solicitudRecursoDAO.streamEventosCenad(idCenad)) {
+			escribirCalendario(cenad.getNombre(), eventos, writer);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void escribirCalendarioRecurso(Long idRecurso, Writer writer) throws IOException {
+		Recurso recurso = recursoDAO.findById(idRecurso)
+				.orElseThrow(() -> new IllegalArgumentException("No existe el recurso " + idRecurso));
+		try (Stream<Object[]> eventos = solicitudRecursoDAO.streamEventosRecurso(idRecurso)) {
+			escribirCalendario(recurso.getNombre(), eventos, writer);
+		}
+	}
+
+	/**
+	 * Cada fila es [id, fechaHoraInicioRecurso, fechaHoraFinRecurso, estado, unidadUsuaria, nombre del recurso,
+	 * fechaUltModSolicitud]
+	 */
+	private void escribirCalendario(String nombre, Stream<Object[]> eventos, Writer writer) throws IOException {
+		escribirLinea(writer, "BEGIN:VCALENDAR");
+		escribirLinea(writer, "VERSION:2.0");
+		escribirLinea(writer, "PRODID:-//SICENAD//Calendario de ocupacion//ES");
+		escribirLinea(writer, "CALSCALE:GREGORIAN");
+		escribirLinea(writer, "X-WR-CALNAME:" + escapar(nombre));
+		String ahora = FORMATO_FECHA.format(new Date().toInstant());
+		Iterator<Object[]> filas = eventos.iterator();
+		while (filas.hasNext()) {
+			Object[] fila = filas.next();
+			Date inicio = (Date) fila[1];
+			Date fin = (Date) fila[2];
+			Date ultimaModificacion = (Date) fila[6];
+			String unidad = (String) fila[4];
+			escribirLinea(writer, "BEGIN:VEVENT");
+			escribirLinea(writer, "UID:solicitud-" + fila[0] + "@sicenad");
+			escribirLinea(writer, "DTSTAMP:" + (ultimaModificacion == null ? ahora : FORMATO_FECHA.format(ultimaModificacion.toInstant())));
+			escribirLinea(writer, "DTSTART:" + FORMATO_FECHA.format(inicio.toInstant()));
+			if (fin != null && fin.after(inicio)) {
+				escribirLinea(writer, "DTEND:" + FORMATO_FECHA.format(fin.toInstant()));
+			}
+			escribirLinea(writer, "SUMMARY:" + escapar(unidad == null ? (String) fila[5] : fila[5] + " - " + unidad));
+			escribirLinea(writer, "STATUS:" + (EstadoSolicitud.Validada.name().equalsIgnoreCase((String) fila[3]) ? "CONFIRMED" : "TENTATIVE"));
+			escribirLinea(writer, "END:VEVENT");
+		}
+		escribirLinea(writer, "END:VCALENDAR");
+		writer.flush();
+	}
+
+	/**
+	 * Escribe una linea terminada en CRLF, partiendola en lineas de 75 octetos como maximo
+	 */
+	private void escribirLinea(Writer writer, String linea) throws IOException {
+		int octetos = 0;
+		for (int i = 0; i < linea.length(); ) {
+			int caracter = linea.codePointAt(i);
+			String texto = new String(Character.toChars(caracter));
+			int longitud = texto.getBytes(StandardCharsets.UTF_8).length;
+			if (octetos + longitud > OCTETOS_POR_LINEA) {
+				writer.write("\r\n ");
+				octetos = 1;
+			}
+			writer.write(texto);
+			octetos += longitud;
+			i += Character.charCount(caracter);
+		}
+		writer.write("\r\n");
+	}
+
+	private String escapar(String texto) {
+		if (texto == null) {
+			return "";
+		}
+		return texto.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\r", "").replace("\n", "\\n");
+	}
+}
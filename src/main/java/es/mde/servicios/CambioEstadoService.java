@@ -0,0 +1,26 @@
+package es.mde.servicios;
+
+import es.mde.models.CambioEstado;
+import es.mde.models.ResultadoCambioEstado;
+
+/**
+ * Interfaz del servicio que cambia de una vez el estado de varias solicitudes y notifica los cambios agrupados por
+ * destinatario
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface CambioEstadoService {
+
+	/**
+	 * Pasa las solicitudes al estado pedido en una sola transaccion, bloqueandolas a ellas y a sus recursos mientras
+	 * se comprueban. No se cambian las que no existen, las que ya estan en ese estado, las que no estan en el estado
+	 * actual indicado y las que pasarian a ocupar un recurso ya ocupado. Al confirmar la transaccion se pone en cola
+	 * un correo por destinatario con todas sus solicitudes cambiadas
+	 *
+	 * @param cambio Ids de las solicitudes, estado al que pasan y, opcionalmente, estado en el que tienen que estar
+	 * @return Devuelve las solicitudes cambiadas, el motivo de las que no y el numero de correos en cola
+	 * @throws IllegalArgumentException si no hay ids, son demasiados o algun estado no existe
+	 */
+	ResultadoCambioEstado cambiarEstado(CambioEstado cambio);
+}
@@ -0,0 +1,181 @@
+package es.mde.servicios;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.CambioEstado;
+import es.mde.models.ResultadoCambioEstado;
+import es.mde.notificaciones.Notificar;
+import es.mde.notificaciones.SolicitudDTO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Crea el servicio que cambia el estado de varias solicitudes en una transaccion. Los correos se envian despues
+ * de confirmarla, de uno en uno desde una cola, para no retener la peticion ni la conexion a la BD
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class CambioEstadoServiceImpl implements CambioEstadoService {
+
+	/** Numero maximo de solicitudes por peticion (SQL Server no admite mas de 2100 parametros) */
+	private static final int MAX_SOLICITUDES = 1000;
+
+	private final Logger log = LoggerFactory.getLogger(CambioEstadoServiceImpl.class);
+	private final ExecutorService colaNotificaciones = Executors.newSingleThreadExecutor();
+
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+	private RecursoDAO recursoDAO;
+	private ConflictosRecursoService conflictosRecursoService;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param solicitudRecursoDAO DAO de solicitudes
+	 * @param recursoDAO DAO de recurso, para bloquear los recursos mientras se comprueban
+	 * @param conflictosRecursoService Servicio que guarda los periodos ocupados de cada recurso
+	 */
+	public CambioEstadoServiceImpl(SolicitudRecursoDAO solicitudRecursoDAO, RecursoDAO recursoDAO,
+			ConflictosRecursoService conflictosRecursoService) {
+		this.solicitudRecursoDAO = solicitudRecursoDAO;
+		this.recursoDAO = recursoDAO;
+		this.conflictosRecursoService = conflictosRecursoService;
+	}
+
+	@Override
+	@Transactional
+	public ResultadoCambioEstado cambiarEstado(CambioEstado cambio) {
+		String estado = comprobarEstado(cambio.getEstado());
+		String estadoActual = cambio.getEstadoActual() == null ? null : comprobarEstado(cambio.getEstadoActual());
+		List<Long> ids = cambio.getIds() == null ? List.of()
+				: cambio.getIds().stream().filter(Objects::nonNull).distinct().toList();
+		if (ids.isEmpty()) {
+			throw new IllegalArgumentException("Hay que indicar los ids de las solicitudes");
+		}
+		if (ids.size() > MAX_SOLICITUDES) {
+			throw new IllegalArgumentException("No se pueden cambiar mas de " + MAX_SOLICITUDES + " solicitudes a la vez");
+		}
+
+		if (EstadoSolicitud.ocupaRecurso(estado)) {
+			// como al crear o modificar una solicitud por la API, se bloquean sus recursos (antes que las solicitudes)
+			// para que nadie les asigne otra solicitud en las mismas fechas mientras se comprueban
+			List<Long> idsRecursos = solicitudRecursoDAO.findIdsRecursoByIds(ids);
+			if (!idsRecursos.isEmpty()) {
+				recursoDAO.findParaReservarByIds(idsRecursos);
+			}
+		}
+		Map<Long, SolicitudRecurso> porId = new HashMap<>();
+		solicitudRecursoDAO.findParaCambiarEstadoByIds(ids).forEach(s -> porId.put(s.getId(), s));
+		ResultadoCambioEstado resultado = new ResultadoCambioEstado(estado);
+		Date ahora = new Date();
+		for (Long id : ids) {
+			String error = cambiar(porId.get(id), estado, estadoActual, ahora);
+			if (error == null) {
+				resultado.getCambiadas().add(id);
+			} else {
+				resultado.getErrores().put(id, error);
+			}
+		}
+		if (!resultado.getCambiadas().isEmpty()) {
+			notificar(resultado);
+		}
+		return resultado;
+	}
+
+	/**
+	 * Cambia el estado de una solicitud si cumple las condiciones. Se actualizan ya los periodos ocupados para que
+	 * las siguientes solicitudes del mismo recurso vean el cambio aunque aun no se haya escrito en la BD
+	 *
+	 * @return Devuelve null si se ha cambiado o el motivo por el que no
+	 */
+	private String cambiar(SolicitudRecurso solicitud, String estado, String estadoActual, Date ahora) {
+		if (solicitud == null) {
+			return "No existe la solicitud";
+		}
+		String anterior = EstadoSolicitud.normalizar(solicitud.getEstado());
+		if (estado.equals(anterior)) {
+			return "La solicitud ya esta en estado " + estado;
+		}
+		if (estadoActual != null && !estadoActual.equals(anterior)) {
+			return "La solicitud esta en estado " + anterior + " y no en " + estadoActual;
+		}
+		solicitud.setEstado(estado);
+		if (!EstadoSolicitud.ocupaRecurso(anterior)) {
+			try {
+				conflictosRecursoService.comprobarConflictos(solicitud);
+			} catch (ConflictoRecursoException e) {
+				solicitud.setEstado(anterior);
+				return e.getMessage();
+			}
+		}
+		solicitud.setFechaUltModSolicitud(ahora);
+		conflictosRecursoService.actualizarSolicitud(solicitud);
+		return null;
+	}
+
+	/**
+	 * Agrupa por destinatario las solicitudes cambiadas y pone los correos en cola al confirmar la transaccion.
+	 * Los DTO se crean aqui porque necesitan las relaciones de la solicitud, que no se pueden leer fuera de ella
+	 */
+	private void notificar(ResultadoCambioEstado resultado) {
+		List<SolicitudDTO> solicitudes = new ArrayList<>();
+		for (SolicitudRecurso solicitud : solicitudRecursoDAO.findParaNotificarByIdIn(resultado.getCambiadas())) {
+			try {
+				solicitudes.add(new SolicitudDTO(solicitud));
+			} catch (RuntimeException e) {
+				log.warn("No se puede notificar la solicitud {}: faltan datos ({})", solicitud.getId(), e.toString());
+			}
+		}
+		Map<String, List<SolicitudDTO>> porDestinatario = Notificar.agruparPorDestinatario(solicitudes);
+		resultado.setNotificaciones(porDestinatario.size());
+		if (porDestinatario.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					colaNotificaciones.execute(() -> Notificar.enviarNotificaciones(porDestinatario));
+				}
+			});
+		} else {
+			colaNotificaciones.execute(() -> Notificar.enviarNotificaciones(porDestinatario));
+		}
+	}
+
+	private String comprobarEstado(String estado) {
+		String normalizado = EstadoSolicitud.normalizar(estado);
+		for (EstadoSolicitud e : EstadoSolicitud.values()) {
+			if (e.name().equals(normalizado)) {
+				return normalizado;
+			}
+		}
+		throw new IllegalArgumentException("El estado " + estado + " no existe");
+	}
+
+	/**
+	 * Termina de enviar los correos pendientes antes de cerrar la aplicacion
+	 */
+	@PreDestroy
+	public void cerrar() {
+		colaNotificaciones.shutdown();
+	}
+}
@@ -0,0 +1,38 @@
+package es.mde.servicios;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Interfaz del servicio que lee de la BD solo algunos campos de una entidad (?fields=), para los listados que no
+ * necesitan la entidad completa
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface CamposService {
+
+	/**
+	 * Devuelve los campos que se pueden pedir de una entidad: los simples y, de las referencias a otra entidad, su
+	 * id. Solo se incluyen los que se envian en el JSON de la entidad
+	 *
+	 * @param entidad Clase de la entidad
+	 * @return Devuelve los nombres de los campos
+	 */
+	List<String> getCamposDisponibles(Class<?> entidad);
+
+	/**
+	 * Lee una pagina con solo los campos pedidos de una entidad, en una consulta con select new map(...). Las fechas
+	 * se devuelven con el mismo formato que en la entidad
+	 *
+	 * @param entidad Clase de la entidad
+	 * @param campos Campos pedidos
+	 * @param pageable Pagina y ordenacion solicitadas; solo se puede ordenar por campos disponibles
+	 * @return Devuelve la pagina con un mapa campo-valor por fila
+	 * @throws IllegalArgumentException si no se pide ningun campo o alguno no existe
+	 */
+	Page<Map<String, Object>> getCampos(Class<?> entidad, List<String> campos, Pageable pageable);
+}
@@ -0,0 +1,195 @@
+package es.mde.servicios;
+
+import java.lang.reflect.Field;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Crea el servicio que lee solo algunos campos de una entidad. La consulta devuelve un mapa por fila (select new
+ * map(...)), por lo que no se cargan entidades en la sesion ni se leen las columnas que no se piden
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+@Transactional(readOnly = true)
+public class CamposServiceImpl implements CamposService {
+
+	private static final String ALIAS = "e";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final ObjectMapper mapper;
+
+	/** Campos disponibles de cada entidad, por nombre */
+	private final Map<Class<?>, Map<String, Campo>> camposPorEntidad = new ConcurrentHashMap<>();
+
+	/**
+	 * Crea el servicio
+	 * @param mapper ObjectMapper con el que se decide que propiedades de las entidades van en el JSON
+	 */
+	public CamposServiceImpl(ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	@Override
+	public List<String> getCamposDisponibles(Class<?> entidad) {
+		return new ArrayList<>(getDisponibles(entidad).keySet());
+	}
+
+	@Override
+	public Page<Map<String, Object>> getCampos(Class<?> entidad, List<String> campos, Pageable pageable) {
+		Map<String, Campo> disponibles = getDisponibles(entidad);
+		List<String> pedidos = campos == null ? List.of()
+				: campos.stream().map(String::trim).filter(c -> !c.isEmpty()).distinct().toList();
+		if (pedidos.isEmpty()) {
+			throw new IllegalArgumentException("No se ha indicado ningun campo");
+		}
+		List<String> select = new ArrayList<>();
+		for (String nombre : pedidos) {
+			select.add(getCampo(disponibles, nombre).expresion + " as " + nombre);
+		}
+		String from = " from " + entityManager.getMetamodel().entity(entidad).getName() + " " + ALIAS;
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		TypedQuery<Map<String, Object>> consulta = (TypedQuery) entityManager.createQuery(
+				"select new map(" + String.join(", ", select) + ")" + from + orden(disponibles, pageable.getSort()),
+				Map.class);
+		if (pageable.isPaged()) {
+			consulta.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+		}
+		List<Map<String, Object>> filas = new ArrayList<>();
+		for (Map<String, Object> fila : consulta.getResultList()) {
+			filas.add(ordenarCampos(disponibles, pedidos, fila));
+		}
+		return PageableExecutionUtils.getPage(filas, pageable,
+				() -> entityManager.createQuery("select count(" + ALIAS + ")" + from, Long.class).getSingleResult());
+	}
+
+	/**
+	 * Ordena por los campos pedidos y, al final, por id para que las paginas no cambien entre peticiones
+	 */
+	private String orden(Map<String, Campo> disponibles, Sort sort) {
+		List<String> orden = new ArrayList<>();
+		for (Sort.Order o : sort) {
+			orden.add(getCampo(disponibles, o.getProperty()).expresion + (o.isAscending() ? " asc" : " desc"));
+		}
+		orden.add(ALIAS + ".id");
+		return " order by " + String.join(", ", orden);
+	}
+
+	private Campo getCampo(Map<String, Campo> disponibles, String nombre) {
+		Campo campo = disponibles.get(nombre);
+		if (campo == null) {
+			throw new IllegalArgumentException("El campo " + nombre + " no existe. Campos: " + disponibles.keySet());
+		}
+		return campo;
+	}
+
+	/**
+	 * Devuelve la fila con los campos en el orden en que se han pedido y las fechas como texto con el @JsonFormat
+	 * del campo de la entidad, si lo tiene
+	 */
+	private Map<String, Object> ordenarCampos(Map<String, Campo> disponibles, List<String> pedidos,
+			Map<String, Object> fila) {
+
+		Map<String, Object> ordenada = new LinkedHashMap<>();
+		for (String nombre : pedidos) {
+			Object valor = fila.get(nombre);
+			JsonFormat formato = disponibles.get(nombre).formato;
+			if (formato != null && valor instanceof Date fecha) {
+				SimpleDateFormat formateador = new SimpleDateFormat(formato.pattern());
+				if (!formato.timezone().equals(JsonFormat.DEFAULT_TIMEZONE)) {
+					formateador.setTimeZone(TimeZone.getTimeZone(formato.timezone()));
+				}
+				valor = formateador.format(fecha);
+			}
+			ordenada.put(nombre, valor);
+		}
+		return ordenada;
+	}
+
+	private Map<String, Campo> getDisponibles(Class<?> entidad) {
+		Map<String, Campo> disponibles = camposPorEntidad.get(entidad);
+		if (disponibles == null) {
+			disponibles = buscarCampos(entidad);
+			Map<String, Campo> anterior = camposPorEntidad.putIfAbsent(entidad, disponibles);
+			if (anterior != null) {
+				disponibles = anterior;
+			}
+		}
+		return disponibles;
+	}
+
+	/**
+	 * Recorre los atributos de la entidad (incluidos los heredados) y se queda con los simples y las referencias a
+	 * otra entidad, de las que se lee el id. Si la entidad tiene getIdString tambien se puede pedir idString. Solo
+	 * se pueden pedir los que Jackson escribe en el JSON de la entidad, para no devolver por aqui lo que el JSON no
+	 * devuelve (@JsonIgnore, como los tokens de los calendarios, o WRITE_ONLY, como el password)
+	 */
+	private Map<String, Campo> buscarCampos(Class<?> entidad) {
+		EntityType<?> tipo = entityManager.getMetamodel().entity(entidad);
+		Set<String> serializables = mapper.getSerializationConfig().introspect(mapper.constructType(entidad))
+				.findProperties().stream().filter(BeanPropertyDefinition::couldSerialize)
+				.map(BeanPropertyDefinition::getInternalName).collect(Collectors.toSet());
+		Map<String, Campo> disponibles = new LinkedHashMap<>();
+		disponibles.put("id", new Campo(ALIAS + ".id", null));
+		if (serializables.contains("idString")) {
+			disponibles.put("idString", new Campo("cast(" + ALIAS + ".id as String)", null));
+		}
+		for (Attribute<?, ?> atributo : tipo.getAttributes()) {
+			String nombre = atributo.getName();
+			if (!serializables.contains(nombre) || disponibles.containsKey(nombre)) {
+				continue;
+			}
+			Field campo = ReflectionUtils.findField(entidad, nombre);
+			JsonFormat formato = campo == null ? null : campo.getAnnotation(JsonFormat.class);
+			if (atributo.getPersistentAttributeType() == PersistentAttributeType.BASIC) {
+				disponibles.put(nombre, new Campo(ALIAS + "." + nombre, formato));
+			} else if (atributo.getPersistentAttributeType() == PersistentAttributeType.MANY_TO_ONE) {
+				disponibles.put(nombre, new Campo(ALIAS + "." + nombre + ".id", null));
+			}
+		}
+		return disponibles;
+	}
+
+	/**
+	 * Expresion JPQL de un campo y el formato de fecha con el que se devuelve
+	 */
+	private static class Campo {
+		private final String expresion;
+		private final JsonFormat formato;
+
+		Campo(String expresion, JsonFormat formato) {
+			this.expresion = expresion;
+			this.formato = formato;
+		}
+	}
+}
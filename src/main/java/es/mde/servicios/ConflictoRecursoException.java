@@ -0,0 +1,22 @@
+package es.mde.servicios;
+
+/**
+ * Excepcion que se lanza al guardar una solicitud que ocupa un recurso en unas fechas en las que ya lo ocupa otra.
+ * La API la devuelve como un 409
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public class ConflictoRecursoException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Crea la excepcion
+	 *
+	 * @param mensaje Mensaje con las solicitudes que ya ocupan el recurso
+	 */
+	public ConflictoRecursoException(String mensaje) {
+		super(mensaje);
+	}
+}
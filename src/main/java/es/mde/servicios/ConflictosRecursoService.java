@@ -0,0 +1,58 @@
+package es.mde.servicios;
+
+import java.util.Date;
+import java.util.List;
+
+import es.mde.entidades.SolicitudRecurso;
+
+/**
+ * Interfaz del servicio que mantiene en memoria los periodos ocupados de cada recurso para detectar solicitudes
+ * que se solapan
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface ConflictosRecursoService {
+
+	/**
+	 * Devuelve las solicitudes de un recurso que lo ocupan en algun momento del periodo [desde, hasta)
+	 *
+	 * @param idRecurso Id del recurso
+	 * @param desde Inicio del periodo
+	 * @param hasta Fin del periodo
+	 * @return Devuelve las solicitudes que se solapan con el periodo, ordenadas por fecha de inicio
+	 */
+	List<SolicitudRecurso> getConflictos(Long idRecurso, Date desde, Date hasta);
+
+	/**
+	 * Comprueba que una solicitud no se solapa con otra que ocupe el mismo recurso
+	 *
+	 * @param solicitud Solicitud que se va a crear o modificar
+	 * @throws ConflictoRecursoException si el recurso ya esta ocupado en esas fechas
+	 */
+	void comprobarConflictos(SolicitudRecurso solicitud);
+
+	/**
+	 * Bloquea el recurso de una solicitud que lo ocupa y comprueba que no se solapa con otra. Se llama en la
+	 * transaccion que guarda la solicitud, para que el bloqueo dure hasta que se confirma y otra transaccion que
+	 * reserve el mismo recurso espere y ya la vea
+	 *
+	 * @param solicitud Solicitud que se va a crear o modificar
+	 * @throws ConflictoRecursoException si el recurso ya esta ocupado en esas fechas
+	 */
+	void reservar(SolicitudRecurso solicitud);
+
+	/**
+	 * Actualiza el periodo ocupado por una solicitud creada o modificada
+	 *
+	 * @param solicitud Solicitud guardada
+	 */
+	void actualizarSolicitud(SolicitudRecurso solicitud);
+
+	/**
+	 * Libera el periodo ocupado por una solicitud borrada
+	 *
+	 * @param solicitud Solicitud borrada
+	 */
+	void eliminarSolicitud(SolicitudRecurso solicitud);
+}
@@ -0,0 +1,195 @@
+package es.mde.servicios;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Crea el servicio que guarda un arbol de intervalos por recurso con las solicitudes que lo ocupan. El arbol de
+ * cada recurso se carga con una sola consulta la primera vez que se usa y despues se mantiene con los cambios de
+ * las solicitudes
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class ConflictosRecursoServiceImpl implements ConflictosRecursoService {
+
+	private final Map<Long, ArbolIntervalos> arboles = new ConcurrentHashMap<>();
+	private final Map<Long, Long> recursoDeSolicitud = new ConcurrentHashMap<>();
+
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+	private RecursoDAO recursoDAO;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param solicitudRecursoDAO DAO de solicitudes
+	 * @param recursoDAO DAO de recurso, para bloquear el recurso mientras se comprueba
+	 */
+	public ConflictosRecursoServiceImpl(SolicitudRecursoDAO solicitudRecursoDAO, RecursoDAO recursoDAO) {
+		this.solicitudRecursoDAO = solicitudRecursoDAO;
+		this.recursoDAO = recursoDAO;
+	}
+
+	@Override
+	public List<SolicitudRecurso> getConflictos(Long idRecurso, Date desde, Date hasta) {
+		if (desde == null || hasta == null || !desde.before(hasta)) {
+			throw new IllegalArgumentException("La fecha desde debe ser anterior a la fecha hasta");
+		}
+		List<Long> ids = solapados(idRecurso, desde.getTime(), hasta.getTime());
+		Map<Long, SolicitudRecurso> porId = new HashMap<>();
+		solicitudRecursoDAO.findAllById(ids).forEach(s -> porId.put(s.getId(), s));
+		List<SolicitudRecurso> solicitudes = new ArrayList<>();
+		ids.stream().map(porId::get).filter(s -> s != null).forEach(solicitudes::add);
+		return solicitudes;
+	}
+
+	@Override
+	public void comprobarConflictos(SolicitudRecurso solicitud) {
+		if (!ocupa(solicitud)) {
+			return;
+		}
+		long inicio = solicitud.getFechaHoraInicioRecurso().getTime();
+		List<Long> solapadas = solapados(solicitud.getRecurso().getId(), inicio, fin(inicio, solicitud.getFechaHoraFinRecurso()));
+		solapadas.remove(solicitud.getId());
+		if (!solapadas.isEmpty()) {
+			throw new ConflictoRecursoException("El recurso ya esta ocupado en esas fechas por las solicitudes " + solapadas);
+		}
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void reservar(SolicitudRecurso solicitud) {
+		if (ocupa(solicitud)) {
+			recursoDAO.findParaReservarByIds(List.of(solicitud.getRecurso().getId()));
+			comprobarConflictos(solicitud);
+		}
+	}
+
+	private static boolean ocupa(SolicitudRecurso solicitud) {
+		return solicitud.getRecurso() != null && solicitud.getRecurso().getId() != null
+				&& solicitud.getFechaHoraInicioRecurso() != null && EstadoSolicitud.ocupaRecurso(solicitud.getEstado());
+	}
+
+	@Override
+	public void actualizarSolicitud(SolicitudRecurso solicitud) {
+		Long idRecurso = solicitud.getRecurso() == null ? null : solicitud.getRecurso().getId();
+		Date inicio = solicitud.getFechaHoraInicioRecurso();
+		boolean ocupa = idRecurso != null && inicio != null && EstadoSolicitud.ocupaRecurso(solicitud.getEstado());
+		registrar(solicitud.getId(), ocupa ? idRecurso : null, ocupa ? inicio.getTime() : 0,
+				ocupa ? fin(inicio.getTime(), solicitud.getFechaHoraFinRecurso()) : 0);
+	}
+
+	@Override
+	public void eliminarSolicitud(SolicitudRecurso solicitud) {
+		registrar(solicitud.getId(), null, 0, 0);
+	}
+
+	/**
+	 * Aplica el cambio ahora, para que lo vean las comprobaciones de la misma transaccion, y otra vez al confirmarla,
+	 * por si entretanto se ha cargado el arbol del recurso sin ver la solicitud. Si se deshace, se descartan los
+	 * arboles afectados para volver a leerlos
+	 */
+	private void registrar(Long idSolicitud, Long idRecurso, long inicio, long fin) {
+		if (idSolicitud == null) {
+			return;
+		}
+		Long idRecursoAnterior = aplicar(idSolicitud, idRecurso, inicio, fin);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						aplicar(idSolicitud, idRecurso, inicio, fin);
+					} else {
+						descartar(idRecursoAnterior);
+						descartar(idRecurso);
+					}
+				}
+			});
+		}
+	}
+
+	private Long aplicar(Long idSolicitud, Long idRecurso, long inicio, long fin) {
+		Long idRecursoAnterior = recursoDeSolicitud.remove(idSolicitud);
+		if (idRecursoAnterior != null) {
+			ArbolIntervalos anterior = arboles.get(idRecursoAnterior);
+			if (anterior != null) {
+				synchronized (anterior) {
+					anterior.eliminar(idSolicitud);
+				}
+			}
+		}
+		if (idRecurso != null) {
+			// si el arbol del recurso no esta cargado, ya leera la solicitud cuando se cargue
+			ArbolIntervalos arbol = arboles.get(idRecurso);
+			if (arbol != null) {
+				synchronized (arbol) {
+					arbol.insertar(idSolicitud, inicio, fin);
+				}
+				recursoDeSolicitud.put(idSolicitud, idRecurso);
+			}
+		}
+		return idRecursoAnterior;
+	}
+
+	private void descartar(Long idRecurso) {
+		if (idRecurso != null) {
+			arboles.remove(idRecurso);
+		}
+	}
+
+	private List<Long> solapados(Long idRecurso, long desde, long hasta) {
+		ArbolIntervalos arbol = getArbol(idRecurso);
+		synchronized (arbol) {
+			return arbol.solapados(desde, hasta);
+		}
+	}
+
+	/**
+	 * Devuelve el arbol de un recurso, cargandolo con una consulta si no lo estaba. No se usa computeIfAbsent
+	 * porque la consulta puede vaciar la sesion y los listeners modificarian el mapa mientras se calcula
+	 */
+	private ArbolIntervalos getArbol(Long idRecurso) {
+		ArbolIntervalos arbol = arboles.get(idRecurso);
+		if (arbol != null) {
+			return arbol;
+		}
+		arbol = new ArbolIntervalos();
+		List<Long> idsSolicitudes = new ArrayList<>();
+		for (Object[] intervalo : solicitudRecursoDAO.findIntervalosRecurso(idRecurso)) {
+			Long idSolicitud = (Long) intervalo[0];
+			long inicio = ((Date) intervalo[1]).getTime();
+			arbol.insertar(idSolicitud, inicio, fin(inicio, (Date) intervalo[2]));
+			idsSolicitudes.add(idSolicitud);
+		}
+		ArbolIntervalos existente = arboles.putIfAbsent(idRecurso, arbol);
+		if (existente != null) {
+			return existente;
+		}
+		idsSolicitudes.forEach(id -> recursoDeSolicitud.put(id, idRecurso));
+		return arbol;
+	}
+
+	/**
+	 * Las solicitudes sin fecha de fin, o con la misma fecha de inicio y fin, ocupan solo su instante de inicio
+	 */
+	private static long fin(long inicio, Date fin) {
+		return fin == null || fin.getTime() <= inicio ? inicio + 1 : fin.getTime();
+	}
+}
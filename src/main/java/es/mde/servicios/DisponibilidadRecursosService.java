@@ -0,0 +1,49 @@
+package es.mde.servicios;
+
+import java.time.LocalDate;
+
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.Disponibilidad;
+
+/**
+ * Interfaz del servicio que mantiene en memoria los dias ocupados de cada recurso para buscar recursos libres
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface DisponibilidadRecursosService {
+
+	/**
+	 * Busca los recursos de un CENAD libres entre dos dias
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param desde Primer dia del periodo
+	 * @param hasta Ultimo dia del periodo (incluido)
+	 * @return Devuelve los recursos libres y los periodos libres de cada uno
+	 */
+	Disponibilidad getDisponibilidadCenad(Long idCenad, LocalDate desde, LocalDate hasta);
+
+	/**
+	 * Busca los recursos de una categoria y sus subcategorias libres entre dos dias
+	 *
+	 * @param idCategoria Id de la categoria
+	 * @param desde Primer dia del periodo
+	 * @param hasta Ultimo dia del periodo (incluido)
+	 * @return Devuelve los recursos libres y los periodos libres de cada uno
+	 */
+	Disponibilidad getDisponibilidadCategoria(Long idCategoria, LocalDate desde, LocalDate hasta);
+
+	/**
+	 * Actualiza los dias ocupados por una solicitud creada o modificada
+	 *
+	 * @param solicitud Solicitud guardada
+	 */
+	void actualizarSolicitud(SolicitudRecurso solicitud);
+
+	/**
+	 * Libera los dias ocupados por una solicitud borrada
+	 *
+	 * @param solicitud Solicitud borrada
+	 */
+	void eliminarSolicitud(SolicitudRecurso solicitud);
+}
@@ -0,0 +1,252 @@
+package es.mde.servicios;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.Disponibilidad;
+import es.mde.models.DisponibilidadRecurso;
+import es.mde.models.Ventana;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Crea el servicio que guarda por recurso los dias que ocupan sus solicitudes, contados en la zona de los
+ * calendarios. Los que faltan se cargan con una consulta por busqueda y despues se mantienen con los cambios de las
+ * solicitudes
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class DisponibilidadRecursosServiceImpl implements DisponibilidadRecursosService {
+
+	/** Numero maximo de ids por consulta (SQL Server no admite mas de 2100 parametros) */
+	private static final int IDS_POR_CONSULTA = 1000;
+
+	private final Map<Long, OcupacionDias> ocupaciones = new ConcurrentHashMap<>();
+	private final Map<Long, Long> recursoDeSolicitud = new ConcurrentHashMap<>();
+
+	private RecursoDAO recursoDAO;
+	private CategoriaDAO categoriaDAO;
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param recursoDAO DAO de recurso
+	 * @param categoriaDAO DAO de categoria
+	 * @param solicitudRecursoDAO DAO de solicitudes
+	 */
+	public DisponibilidadRecursosServiceImpl(RecursoDAO recursoDAO, CategoriaDAO categoriaDAO,
+			SolicitudRecursoDAO solicitudRecursoDAO) {
+		this.recursoDAO = recursoDAO;
+		this.categoriaDAO = categoriaDAO;
+		this.solicitudRecursoDAO = solicitudRecursoDAO;
+	}
+
+	@Override
+	public Disponibilidad getDisponibilidadCenad(Long idCenad, LocalDate desde, LocalDate hasta) {
+		comprobarPeriodo(desde, hasta);
+		return calcular(recursoDAO.findByCenad(idCenad), desde, hasta);
+	}
+
+	@Override
+	public Disponibilidad getDisponibilidadCategoria(Long idCategoria, LocalDate desde, LocalDate hasta) {
+		comprobarPeriodo(desde, hasta);
+		return calcular(categoriaDAO.getRecursosDeSubcategorias(idCategoria), desde, hasta);
+	}
+
+	@Override
+	public void actualizarSolicitud(SolicitudRecurso solicitud) {
+		Long idRecurso = solicitud.getRecurso() == null ? null : solicitud.getRecurso().getId();
+		Date inicio = solicitud.getFechaHoraInicioRecurso();
+		boolean ocupa = idRecurso != null && inicio != null && EstadoSolicitud.ocupaRecurso(solicitud.getEstado());
+		registrar(solicitud.getId(), ocupa ? idRecurso : null, ocupa ? primerDia(inicio) : 0,
+				ocupa ? ultimoDia(inicio, solicitud.getFechaHoraFinRecurso()) : 0);
+	}
+
+	@Override
+	public void eliminarSolicitud(SolicitudRecurso solicitud) {
+		registrar(solicitud.getId(), null, 0, 0);
+	}
+
+	private void comprobarPeriodo(LocalDate desde, LocalDate hasta) {
+		if (desde == null || hasta == null || hasta.isBefore(desde)) {
+			throw new IllegalArgumentException("La fecha desde no puede ser posterior a la fecha hasta");
+		}
+	}
+
+	/**
+	 * Cruza los mapas de bits de los recursos: la interseccion de los dias libres da los periodos en los que estan
+	 * todos libres y la union los periodos en los que hay alguno libre
+	 */
+	private Disponibilidad calcular(List<Recurso> recursos, LocalDate desde, LocalDate hasta) {
+		int primerDia = (int) desde.toEpochDay();
+		int ultimoDia = (int) hasta.toEpochDay();
+		int numDias = ultimoDia - primerDia + 1;
+		cargar(recursos.stream().map(Recurso::getId).toList());
+
+		BitSet todosLibres = new BitSet();
+		if (!recursos.isEmpty()) {
+			todosLibres.set(0, numDias);
+		}
+		BitSet algunoLibre = new BitSet();
+		List<Long> recursosLibres = new ArrayList<>();
+		List<DisponibilidadRecurso> disponibilidades = new ArrayList<>();
+		for (Recurso recurso : recursos) {
+			BitSet libres = ocupados(recurso.getId(), primerDia, ultimoDia);
+			libres.flip(0, numDias);
+			todosLibres.and(libres);
+			algunoLibre.or(libres);
+			boolean libre = libres.cardinality() == numDias;
+			if (libre) {
+				recursosLibres.add(recurso.getId());
+			}
+			disponibilidades.add(new DisponibilidadRecurso(recurso.getId(), recurso.getNombre(), libre,
+					ventanas(libres, primerDia, numDias)));
+		}
+		return new Disponibilidad(inicioDia(primerDia), inicioDia(ultimoDia + 1), recursosLibres,
+				ventanas(todosLibres, primerDia, numDias), ventanas(algunoLibre, primerDia, numDias), disponibilidades);
+	}
+
+	private BitSet ocupados(Long idRecurso, int primerDia, int ultimoDia) {
+		OcupacionDias ocupacion = ocupaciones.get(idRecurso);
+		if (ocupacion == null) {
+			return new BitSet();
+		}
+		synchronized (ocupacion) {
+			return ocupacion.ocupados(primerDia, ultimoDia);
+		}
+	}
+
+	/**
+	 * Convierte cada racha de dias libres en un periodo en milisegundos
+	 */
+	private List<Ventana> ventanas(BitSet libres, int primerDia, int numDias) {
+		List<Ventana> ventanas = new ArrayList<>();
+		int inicio = libres.nextSetBit(0);
+		while (inicio >= 0 && inicio < numDias) {
+			int fin = Math.min(libres.nextClearBit(inicio), numDias);
+			ventanas.add(new Ventana(inicioDia(primerDia + inicio), inicioDia(primerDia + fin)));
+			inicio = libres.nextSetBit(fin);
+		}
+		return ventanas;
+	}
+
+	/**
+	 * Carga con una consulta por cada bloque de ids los dias ocupados de los recursos que aun no estan en memoria.
+	 * No se usa computeIfAbsent porque la consulta puede vaciar la sesion y los listeners modificarian el mapa
+	 */
+	private void cargar(List<Long> idsRecursos) {
+		List<Long> pendientes = idsRecursos.stream().filter(id -> !ocupaciones.containsKey(id)).toList();
+		for (int i = 0; i < pendientes.size(); i += IDS_POR_CONSULTA) {
+			List<Long> bloque = pendientes.subList(i, Math.min(i + IDS_POR_CONSULTA, pendientes.size()));
+			Map<Long, OcupacionDias> nuevas = new HashMap<>();
+			Map<Long, List<Long>> solicitudes = new HashMap<>();
+			bloque.forEach(id -> {
+				nuevas.put(id, new OcupacionDias());
+				solicitudes.put(id, new ArrayList<>());
+			});
+			for (Object[] intervalo : solicitudRecursoDAO.findIntervalosRecursos(bloque)) {
+				Long idRecurso = (Long) intervalo[0];
+				Long idSolicitud = (Long) intervalo[1];
+				Date inicio = (Date) intervalo[2];
+				nuevas.get(idRecurso).insertar(idSolicitud, primerDia(inicio), ultimoDia(inicio, (Date) intervalo[3]));
+				solicitudes.get(idRecurso).add(idSolicitud);
+			}
+			nuevas.forEach((idRecurso, ocupacion) -> {
+				if (ocupaciones.putIfAbsent(idRecurso, ocupacion) == null) {
+					solicitudes.get(idRecurso).forEach(idSolicitud -> recursoDeSolicitud.put(idSolicitud, idRecurso));
+				}
+			});
+		}
+	}
+
+	/**
+	 * Aplica el cambio ahora y otra vez al confirmar la transaccion, por si entretanto se han cargado los dias del
+	 * recurso sin ver la solicitud. Si se deshace, se descartan los recursos afectados para volver a leerlos
+	 */
+	private void registrar(Long idSolicitud, Long idRecurso, int primerDia, int ultimoDia) {
+		if (idSolicitud == null) {
+			return;
+		}
+		Long idRecursoAnterior = aplicar(idSolicitud, idRecurso, primerDia, ultimoDia);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						aplicar(idSolicitud, idRecurso, primerDia, ultimoDia);
+					} else {
+						descartar(idRecursoAnterior);
+						descartar(idRecurso);
+					}
+				}
+			});
+		}
+	}
+
+	private Long aplicar(Long idSolicitud, Long idRecurso, int primerDia, int ultimoDia) {
+		Long idRecursoAnterior = recursoDeSolicitud.remove(idSolicitud);
+		if (idRecursoAnterior != null) {
+			OcupacionDias anterior = ocupaciones.get(idRecursoAnterior);
+			if (anterior != null) {
+				synchronized (anterior) {
+					anterior.eliminar(idSolicitud);
+				}
+			}
+		}
+		if (idRecurso != null) {
+			// si los dias del recurso no estan cargados, ya leera la solicitud cuando se cargue
+			OcupacionDias ocupacion = ocupaciones.get(idRecurso);
+			if (ocupacion != null) {
+				synchronized (ocupacion) {
+					ocupacion.insertar(idSolicitud, primerDia, ultimoDia);
+				}
+				recursoDeSolicitud.put(idSolicitud, idRecurso);
+			}
+		}
+		return idRecursoAnterior;
+	}
+
+	private void descartar(Long idRecurso) {
+		if (idRecurso != null) {
+			ocupaciones.remove(idRecurso);
+		}
+	}
+
+	private int primerDia(Date inicio) {
+		return dia(inicio.getTime());
+	}
+
+	/**
+	 * El fin de la solicitud esta excluido, por lo que el ultimo dia ocupado es el del milisegundo anterior. Las
+	 * solicitudes sin fecha de fin ocupan solo el dia de inicio
+	 */
+	private int ultimoDia(Date inicio, Date fin) {
+		return fin == null || fin.getTime() <= inicio.getTime() ? primerDia(inicio) : dia(fin.getTime() - 1);
+	}
+
+	private int dia(long milisegundos) {
+		return (int) Instant.ofEpochMilli(milisegundos).atZone(CalendarioIcsService.ZONA).toLocalDate().toEpochDay();
+	}
+
+	private long inicioDia(int dia) {
+		return LocalDate.ofEpochDay(dia).atStartOfDay(CalendarioIcsService.ZONA).toInstant().toEpochMilli();
+	}
+}
@@ -0,0 +1,77 @@
+package es.mde.servicios;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import es.mde.models.Estadistica;
+
+/**
+ * Interfaz del servicio que mantiene en memoria los acumulados de solicitudes por CENAD, mes, recurso, unidad y
+ * gestor, para que las estadisticas no tengan que recorrer todas las solicitudes
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface EstadisticasService {
+
+	/**
+	 * Devuelve el numero de solicitudes de un CENAD por mes, recurso y estado
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param desde Primer mes, o null para no limitarlo
+	 * @param hasta Ultimo mes, o null para no limitarlo
+	 * @return Devuelve una estadistica por cada mes, recurso y estado
+	 */
+	List<Estadistica> getSolicitudesPorEstado(Long idCenad, YearMonth desde, YearMonth hasta);
+
+	/**
+	 * Devuelve las horas que ocupan las solicitudes validadas de los recursos de un CENAD por mes y recurso
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param desde Primer mes, o null para no limitarlo
+	 * @param hasta Ultimo mes, o null para no limitarlo
+	 * @return Devuelve una estadistica por cada mes y recurso
+	 */
+	List<Estadistica> getHorasPorRecurso(Long idCenad, YearMonth desde, YearMonth hasta);
+
+	/**
+	 * Devuelve las horas que ocupan las solicitudes validadas de los recursos de un CENAD por mes y unidad
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param desde Primer mes, o null para no limitarlo
+	 * @param hasta Ultimo mes, o null para no limitarlo
+	 * @return Devuelve una estadistica por cada mes y unidad
+	 */
+	List<Estadistica> getHorasPorUnidad(Long idCenad, YearMonth desde, YearMonth hasta);
+
+	/**
+	 * Devuelve el tiempo medio, en horas, que tardan en validarse o rechazarse las solicitudes de los recursos de
+	 * un CENAD por mes y gestor
+	 *
+	 * @param idCenad Id del CENAD
+	 * @param desde Primer mes, o null para no limitarlo
+	 * @param hasta Ultimo mes, o null para no limitarlo
+	 * @return Devuelve una estadistica por cada mes y gestor
+	 */
+	List<Estadistica> getTiempoDecisionPorGestor(Long idCenad, YearMonth desde, YearMonth hasta);
+
+	/**
+	 * Vuelve a calcular todos los acumulados recorriendo las solicitudes
+	 */
+	void reconstruir();
+
+	/**
+	 * Anota que ha cambiado una solicitud para recalcular su aportacion en la siguiente consulta
+	 *
+	 * @param idSolicitud Id de la solicitud creada, modificada o borrada
+	 */
+	void registrarCambioSolicitud(Long idSolicitud);
+
+	/**
+	 * Anota que ha cambiado un recurso (su categoria o su gestor) para recalcular la aportacion de sus solicitudes
+	 * en la siguiente consulta
+	 *
+	 * @param idRecurso Id del recurso modificado
+	 */
+	void registrarCambioRecurso(Long idRecurso);
+}
@@ -0,0 +1,315 @@
+package es.mde.servicios;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.models.Estadistica;
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Crea el servicio que guarda en memoria los acumulados de las estadisticas de solicitudes. Se calculan al arrancar
+ * recorriendo una vez las solicitudes; despues se anotan las solicitudes y recursos que cambian y, en la siguiente
+ * consulta, se resta lo que aportaban y se suma lo que aportan ahora, de forma que cada consulta solo recorre los
+ * acumulados de un CENAD
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class EstadisticasServiceImpl implements EstadisticasService {
+
+	/** Numero maximo de ids por consulta (SQL Server no admite mas de 2100 parametros) */
+	private static final int IDS_POR_CONSULTA = 1000;
+	private static final double MILISEGUNDOS_HORA = 3600000.0;
+
+	private enum Tipo {
+		SOLICITUDES, HORAS_RECURSO, HORAS_UNIDAD, DECISION
+	}
+
+	/** Acumulado al que aporta una solicitud: el id es el del recurso, la unidad o el gestor segun el tipo */
+	private record Clave(Tipo tipo, YearMonth mes, Long id, String estado) {
+	}
+
+	private record Parte(Clave clave, long milisegundos) {
+	}
+
+	/** Lo que suma una solicitud a los acumulados de su CENAD, para poder restarlo cuando cambie */
+	private record Aportacion(Long idCenad, List<Parte> partes) {
+	}
+
+	private static final class Acumulado {
+		private long numero;
+		private long milisegundos;
+	}
+
+	private Logger log = LoggerFactory.getLogger(EstadisticasServiceImpl.class);
+
+	private final Map<Long, Map<Clave, Acumulado>> acumulados = new HashMap<>();
+	private final Map<Long, Aportacion> aportaciones = new HashMap<>();
+	private final Set<Long> solicitudesPendientes = ConcurrentHashMap.newKeySet();
+	private final Set<Long> recursosPendientes = ConcurrentHashMap.newKeySet();
+	private final ZoneId zona = ZoneId.systemDefault();
+	private boolean cargado;
+
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param solicitudRecursoDAO DAO de solicitudes
+	 */
+	public EstadisticasServiceImpl(SolicitudRecursoDAO solicitudRecursoDAO) {
+		this.solicitudRecursoDAO = solicitudRecursoDAO;
+	}
+
+	/**
+	 * Calcula los acumulados al arrancar, despues de rellenar el CENAD de las solicitudes que no lo tenian
+	 * (RecursoEventHandler). Si falla, se vuelve a intentar en la primera consulta
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(3)
+	@Transactional(readOnly = true)
+	public void inicializar() {
+		try {
+			reconstruir();
+			log.info("Estadisticas de solicitudes calculadas");
+		} catch (RuntimeException e) {
+			log.warn("No se han podido calcular las estadisticas de solicitudes", e);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public synchronized void reconstruir() {
+		// los cambios que se confirmen mientras se recorren las solicitudes se vuelven a anotar despues
+		solicitudesPendientes.clear();
+		recursosPendientes.clear();
+		acumulados.clear();
+		aportaciones.clear();
+		cargado = false;
+		try (Stream<Object[]> filas = solicitudRecursoDAO.streamEstadisticas()) {
+			filas.forEach(this::aplicar);
+		}
+		cargado = true;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Estadistica> getSolicitudesPorEstado(Long idCenad, YearMonth desde, YearMonth hasta) {
+		return consultar(idCenad, Tipo.SOLICITUDES, desde, hasta);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Estadistica> getHorasPorRecurso(Long idCenad, YearMonth desde, YearMonth hasta) {
+		return consultar(idCenad, Tipo.HORAS_RECURSO, desde, hasta);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Estadistica> getHorasPorUnidad(Long idCenad, YearMonth desde, YearMonth hasta) {
+		return consultar(idCenad, Tipo.HORAS_UNIDAD, desde, hasta);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Estadistica> getTiempoDecisionPorGestor(Long idCenad, YearMonth desde, YearMonth hasta) {
+		return consultar(idCenad, Tipo.DECISION, desde, hasta);
+	}
+
+	@Override
+	public void registrarCambioSolicitud(Long idSolicitud) {
+		anotar(solicitudesPendientes, idSolicitud);
+	}
+
+	@Override
+	public void registrarCambioRecurso(Long idRecurso) {
+		anotar(recursosPendientes, idRecurso);
+	}
+
+	/**
+	 * Anota el cambio al terminar la transaccion, para que la siguiente consulta lea los datos ya confirmados. Si
+	 * se deshace, recalcular la solicitud no cambia nada
+	 */
+	private void anotar(Set<Long> pendientes, Long id) {
+		if (id == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					pendientes.add(id);
+				}
+			});
+		} else {
+			pendientes.add(id);
+		}
+	}
+
+	private synchronized List<Estadistica> consultar(Long idCenad, Tipo tipo, YearMonth desde, YearMonth hasta) {
+		if (desde != null && hasta != null && hasta.isBefore(desde)) {
+			throw new IllegalArgumentException("El mes desde no puede ser posterior al mes hasta");
+		}
+		ponerAlDia();
+		List<Estadistica> estadisticas = new ArrayList<>();
+		acumulados.getOrDefault(idCenad, Map.of()).forEach((clave, acumulado) -> {
+			if (clave.tipo() == tipo && enPeriodo(clave.mes(), desde, hasta)) {
+				estadisticas.add(estadistica(clave, acumulado));
+			}
+		});
+		estadisticas.sort(Comparator.comparing(Estadistica::getMes, Comparator.nullsFirst(Comparator.naturalOrder()))
+				.thenComparing(e -> Objects.requireNonNullElse(clave(e), Long.MIN_VALUE))
+				.thenComparing(e -> Objects.requireNonNullElse(e.getEstado(), "")));
+		return estadisticas;
+	}
+
+	/**
+	 * Recalcula solo las solicitudes anotadas desde la ultima consulta
+	 */
+	private void ponerAlDia() {
+		if (!cargado) {
+			reconstruir();
+			return;
+		}
+		List<Long> solicitudes = extraer(solicitudesPendientes);
+		for (int i = 0; i < solicitudes.size(); i += IDS_POR_CONSULTA) {
+			List<Long> bloque = solicitudes.subList(i, Math.min(i + IDS_POR_CONSULTA, solicitudes.size()));
+			Set<Long> encontradas = new HashSet<>();
+			for (Object[] fila : solicitudRecursoDAO.findEstadisticasByIds(bloque)) {
+				encontradas.add(aplicar(fila));
+			}
+			// las que ya no se encuentran se han borrado (o no tienen recurso) y dejan de aportar
+			bloque.stream().filter(id -> !encontradas.contains(id)).forEach(id -> restar(aportaciones.remove(id)));
+		}
+		List<Long> recursos = extraer(recursosPendientes);
+		for (int i = 0; i < recursos.size(); i += IDS_POR_CONSULTA) {
+			solicitudRecursoDAO.findEstadisticasByRecursos(recursos.subList(i, Math.min(i + IDS_POR_CONSULTA, recursos.size())))
+					.forEach(this::aplicar);
+		}
+	}
+
+	private List<Long> extraer(Set<Long> pendientes) {
+		List<Long> ids = new ArrayList<>();
+		for (Long id : new ArrayList<>(pendientes)) {
+			if (pendientes.remove(id)) {
+				ids.add(id);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Sustituye lo que aportaba una solicitud por lo que aporta con los datos de la fila
+	 *
+	 * @param fila [id, estado, fechaSolicitud, fechaUltModSolicitud, fechaHoraInicioRecurso, fechaHoraFinRecurso,
+	 *             idRecurso, idCenad, idUsuarioGestor, idUnidad]
+	 * @return Devuelve el id de la solicitud
+	 */
+	private Long aplicar(Object[] fila) {
+		Long id = (Long) fila[0];
+		Aportacion aportacion = aportacion(fila);
+		restar(aportaciones.put(id, aportacion));
+		Map<Clave, Acumulado> delCenad = acumulados.computeIfAbsent(aportacion.idCenad(), k -> new HashMap<>());
+		for (Parte parte : aportacion.partes()) {
+			Acumulado acumulado = delCenad.computeIfAbsent(parte.clave(), k -> new Acumulado());
+			acumulado.numero++;
+			acumulado.milisegundos += parte.milisegundos();
+		}
+		return id;
+	}
+
+	private void restar(Aportacion aportacion) {
+		if (aportacion == null) {
+			return;
+		}
+		Map<Clave, Acumulado> delCenad = acumulados.get(aportacion.idCenad());
+		for (Parte parte : aportacion.partes()) {
+			Acumulado acumulado = delCenad.get(parte.clave());
+			acumulado.numero--;
+			acumulado.milisegundos -= parte.milisegundos();
+			if (acumulado.numero == 0) {
+				delCenad.remove(parte.clave());
+			}
+		}
+	}
+
+	/**
+	 * Cada solicitud cuenta en el mes de su fecha de inicio (o de solicitud, si no la tiene) por su estado. Las
+	 * validadas suman sus horas al recurso y a la unidad, y las validadas o rechazadas suman al gestor el tiempo
+	 * entre la solicitud y su ultima modificacion, que es cuando se decidio
+	 */
+	private Aportacion aportacion(Object[] fila) {
+		String estado = EstadoSolicitud.normalizar((String) fila[1]);
+		Date fechaSolicitud = (Date) fila[2];
+		Date fechaUltMod = (Date) fila[3];
+		Date inicio = (Date) fila[4];
+		Date fin = (Date) fila[5];
+		YearMonth mes = mes(inicio != null ? inicio : fechaSolicitud);
+		List<Parte> partes = new ArrayList<>();
+		partes.add(new Parte(new Clave(Tipo.SOLICITUDES, mes, (Long) fila[6], estado), 0));
+		if (EstadoSolicitud.Validada.name().equals(estado) && inicio != null && fin != null && fin.after(inicio)) {
+			long duracion = fin.getTime() - inicio.getTime();
+			partes.add(new Parte(new Clave(Tipo.HORAS_RECURSO, mes, (Long) fila[6], null), duracion));
+			partes.add(new Parte(new Clave(Tipo.HORAS_UNIDAD, mes, (Long) fila[9], null), duracion));
+		}
+		if ((EstadoSolicitud.Validada.name().equals(estado) || EstadoSolicitud.Rechazada.name().equals(estado))
+				&& fechaSolicitud != null && fechaUltMod != null && !fechaUltMod.before(fechaSolicitud)) {
+			partes.add(new Parte(new Clave(Tipo.DECISION, mes, (Long) fila[8], null),
+					fechaUltMod.getTime() - fechaSolicitud.getTime()));
+		}
+		return new Aportacion((Long) fila[7], partes);
+	}
+
+	private Estadistica estadistica(Clave clave, Acumulado acumulado) {
+		String mes = clave.mes() == null ? null : clave.mes().toString();
+		return switch (clave.tipo()) {
+			case SOLICITUDES -> new Estadistica(mes, clave.id(), null, null, clave.estado(), acumulado.numero, null);
+			case HORAS_RECURSO -> new Estadistica(mes, clave.id(), null, null, null, acumulado.numero,
+					acumulado.milisegundos / MILISEGUNDOS_HORA);
+			case HORAS_UNIDAD -> new Estadistica(mes, null, clave.id(), null, null, acumulado.numero,
+					acumulado.milisegundos / MILISEGUNDOS_HORA);
+			case DECISION -> new Estadistica(mes, null, null, clave.id(), null, acumulado.numero,
+					acumulado.milisegundos / MILISEGUNDOS_HORA / acumulado.numero);
+		};
+	}
+
+	private static Long clave(Estadistica estadistica) {
+		return estadistica.getIdRecurso() != null ? estadistica.getIdRecurso()
+				: estadistica.getIdUnidad() != null ? estadistica.getIdUnidad() : estadistica.getIdUsuarioGestor();
+	}
+
+	private static boolean enPeriodo(YearMonth mes, YearMonth desde, YearMonth hasta) {
+		if (desde == null && hasta == null) {
+			return true;
+		}
+		return mes != null && (desde == null || !mes.isBefore(desde)) && (hasta == null || !mes.isAfter(hasta));
+	}
+
+	private YearMonth mes(Date fecha) {
+		return fecha == null ? null : YearMonth.from(Instant.ofEpochMilli(fecha.getTime()).atZone(zona));
+	}
+}
@@ -0,0 +1,48 @@
+package es.mde.servicios;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+
+import es.mde.models.FiltroSolicitudes;
+
+/**
+ * Interfaz del servicio que exporta solicitudes a CSV o XLSX leyendolas con un cursor, sin cargarlas en memoria
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface ExportacionSolicitudesService {
+
+	/**
+	 * Comprueba las columnas pedidas
+	 *
+	 * @param columnas Columnas pedidas, o null o vacia para exportar todas
+	 * @return Devuelve las columnas que se van a exportar
+	 * @throws IllegalArgumentException si alguna columna no existe
+	 */
+	List<String> getColumnas(List<String> columnas);
+
+	/**
+	 * Escribe en CSV (RFC 4180) las columnas pedidas de las solicitudes que cumplen el filtro, con una fila de
+	 * cabecera
+	 *
+	 * @param columnas Columnas a exportar
+	 * @param filtro Filtro de las solicitudes
+	 * @param writer Destino del CSV
+	 * @throws IOException si falla la escritura
+	 */
+	void exportarCsv(List<String> columnas, FiltroSolicitudes filtro, Writer writer) throws IOException;
+
+	/**
+	 * Escribe en un libro XLSX las columnas pedidas de las solicitudes que cumplen el filtro, con una fila de
+	 * cabecera
+	 *
+	 * @param columnas Columnas a exportar
+	 * @param filtro Filtro de las solicitudes
+	 * @param salida Destino del libro
+	 * @throws IOException si falla la escritura
+	 */
+	void exportarXlsx(List<String> columnas, FiltroSolicitudes filtro, OutputStream salida) throws IOException;
+}
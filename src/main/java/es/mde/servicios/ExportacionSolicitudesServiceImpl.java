@@ -0,0 +1,117 @@
+package es.mde.servicios;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.mde.models.FiltroSolicitudes;
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Crea el servicio que exporta solicitudes escribiendo cada fila en cuanto se lee del cursor, de forma que la
+ * memoria usada no depende del numero de solicitudes
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class ExportacionSolicitudesServiceImpl implements ExportacionSolicitudesService {
+
+	private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+			.withZone(ZoneId.systemDefault());
+
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param solicitudRecursoDAO DAO de solicitudes
+	 */
+	public ExportacionSolicitudesServiceImpl(SolicitudRecursoDAO solicitudRecursoDAO) {
+		this.solicitudRecursoDAO = solicitudRecursoDAO;
+	}
+
+	@Override
+	public List<String> getColumnas(List<String> columnas) {
+		List<String> exportables = solicitudRecursoDAO.getColumnasExportables();
+		if (columnas == null || columnas.isEmpty()) {
+			return exportables;
+		}
+		for (String columna : columnas) {
+			if (!exportables.contains(columna)) {
+				throw new IllegalArgumentException("La columna " + columna + " no existe. Columnas: " + exportables);
+			}
+		}
+		return columnas;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportarCsv(List<String> columnas, FiltroSolicitudes filtro, Writer writer) throws IOException {
+		try (Stream<Object[]> filas = solicitudRecursoDAO.streamColumnas(columnas, filtro)) {
+			escribirCsv(writer, columnas.toArray());
+			Iterator<Object[]> iterador = filas.iterator();
+			while (iterador.hasNext()) {
+				escribirCsv(writer, iterador.next());
+			}
+		}
+		writer.flush();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportarXlsx(List<String> columnas, FiltroSolicitudes filtro, OutputStream salida) throws IOException {
+		try (Stream<Object[]> filas = solicitudRecursoDAO.streamColumnas(columnas, filtro)) {
+			HojaXlsx hoja = new HojaXlsx(salida, "Solicitudes");
+			hoja.fila(columnas.toArray());
+			Iterator<Object[]> iterador = filas.iterator();
+			while (iterador.hasNext()) {
+				Object[] fila = iterador.next();
+				for (int i = 0; i < fila.length; i++) {
+					if (fila[i] instanceof Date) {
+						fila[i] = formatear(fila[i]);
+					}
+				}
+				hoja.fila(fila);
+			}
+			hoja.terminar();
+		}
+	}
+
+	/**
+	 * Escribe una linea terminada en CRLF, entrecomillando los valores que tienen comas, comillas o saltos de linea
+	 */
+	private void escribirCsv(Writer writer, Object[] valores) throws IOException {
+		for (int i = 0; i < valores.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			String texto = formatear(valores[i]);
+			if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+				texto = '"' + texto.replace("\"", "\"\"") + '"';
+			}
+			writer.write(texto);
+		}
+		writer.write("\r\n");
+	}
+
+	private String formatear(Object valor) {
+		if (valor == null) {
+			return "";
+		}
+		if (valor instanceof Date) {
+			return FORMATO_FECHA.format(Instant.ofEpochMilli(((Date) valor).getTime()));
+		}
+		return valor.toString();
+	}
+}
@@ -0,0 +1,120 @@
+package es.mde.servicios;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Escribe un libro XLSX (Office Open XML) de una sola hoja fila a fila directamente en un flujo de salida, sin
+ * guardar las filas en memoria ni en ficheros temporales. Solo usa cadenas en linea, numeros y booleanos, por lo
+ * que no necesita tabla de cadenas compartidas ni estilos. No es seguro para varios hilos
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class HojaXlsx {
+
+	private static final String CABECERA_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+	private static final String RELACIONES = "http://schemas.openxmlformats.org/package/2006/relationships";
+	private static final String TIPO_RELACION = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/";
+
+	private final ZipOutputStream zip;
+	private final Writer writer;
+
+	/**
+	 * Empieza el libro escribiendo las partes fijas y la cabecera de la hoja
+	 *
+	 * @param salida Flujo en el que se escribe el libro, que no se cierra al terminar
+	 * @param nombreHoja Nombre de la hoja
+	 * @throws IOException si falla la escritura
+	 */
+	HojaXlsx(OutputStream salida, String nombreHoja) throws IOException {
+		zip = new ZipOutputStream(salida, StandardCharsets.UTF_8);
+		writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+		parte("[Content_Types].xml", "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+				+ "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+				+ "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+				+ "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+				+ "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+				+ "</Types>");
+		parte("_rels/.rels", "<Relationships xmlns=\"" + RELACIONES + "\"><Relationship Id=\"rId1\" Type=\"" + TIPO_RELACION
+				+ "officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+		parte("xl/workbook.xml", "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+				+ " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets><sheet name=\""
+				+ escapar(nombreHoja) + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+		parte("xl/_rels/workbook.xml.rels", "<Relationships xmlns=\"" + RELACIONES + "\"><Relationship Id=\"rId1\" Type=\""
+				+ TIPO_RELACION + "worksheet\" Target=\"worksheets/sheet1.xml\"/></Relationships>");
+		zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+		writer.write(CABECERA_XML);
+		writer.write("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+	}
+
+	/**
+	 * Escribe una fila. Los numeros y booleanos se guardan como tales y el resto como texto
+	 *
+	 * @param valores Valores de las celdas; las nulas quedan vacias
+	 * @throws IOException si falla la escritura
+	 */
+	void fila(Object... valores) throws IOException {
+		writer.write("<row>");
+		for (Object valor : valores) {
+			if (valor == null) {
+				writer.write("<c/>");
+			} else if (valor instanceof Number) {
+				writer.write("<c><v>" + valor + "</v></c>");
+			} else if (valor instanceof Boolean) {
+				writer.write("<c t=\"b\"><v>" + ((Boolean) valor ? 1 : 0) + "</v></c>");
+			} else {
+				writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">" + escapar(valor.toString()) + "</t></is></c>");
+			}
+		}
+		writer.write("</row>");
+	}
+
+	/**
+	 * Cierra la hoja y el libro, sin cerrar el flujo de salida
+	 *
+	 * @throws IOException si falla la escritura
+	 */
+	void terminar() throws IOException {
+		writer.write("</sheetData></worksheet>");
+		writer.flush();
+		zip.closeEntry();
+		zip.finish();
+		zip.flush();
+	}
+
+	private void parte(String nombre, String contenido) throws IOException {
+		zip.putNextEntry(new ZipEntry(nombre));
+		writer.write(CABECERA_XML);
+		writer.write(contenido);
+		writer.flush();
+		zip.closeEntry();
+	}
+
+	/**
+	 * Escapa los caracteres especiales de XML y quita los de control, que no se pueden representar
+	 */
+	private static String escapar(String texto) {
+		StringBuilder resultado = new StringBuilder(texto.length());
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			switch (c) {
+				case '&' -> resultado.append("&amp;");
+				case '<' -> resultado.append("&lt;");
+				case '>' -> resultado.append("&gt;");
+				case '"' -> resultado.append("&quot;");
+				default -> {
+					if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+						resultado.append(c);
+					}
+				}
+			}
+		}
+		return resultado.toString();
+	}
+}
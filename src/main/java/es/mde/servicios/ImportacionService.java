@@ -0,0 +1,39 @@
+package es.mde.servicios;
+
+import java.util.List;
+import java.util.Map;
+
+import es.mde.models.InformeImportacion;
+
+/**
+ * Interfaz del servicio que importa de una vez las categorias, recursos, ficheros y solicitudes de un CENAD
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface ImportacionService {
+
+	/**
+	 * Valida todas las filas y, si ninguna tiene errores, las guarda todas en una sola transaccion: si falla alguna
+	 * no se guarda ninguna y se puede volver a enviar el mismo fichero. Las
+	 * filas de un tipo pueden hacer referencia a las de otro por su "clave" (categoria, categoriaPadre, recurso)
+	 * o a entidades ya existentes por su id (idCategoria, idCategoriaPadre, idRecurso, idTipoFormulario,
+	 * idUsuarioGestor, idCategoriaFichero, idUsuarioNormal)
+	 *
+	 * @param idCenad Id del CENAD en el que se importa
+	 * @param datos Filas de cada tipo (categorias, recursos, ficheros, solicitudes), con sus campos por nombre
+	 * @return Devuelve el informe con el resultado de cada fila
+	 * @throws IllegalArgumentException si no existe el CENAD o algun tipo
+	 */
+	InformeImportacion importar(Long idCenad, Map<String, List<Map<String, Object>>> datos);
+
+	/**
+	 * Lee un CSV (RFC 4180) cuya primera linea tiene los nombres de los campos. El separador puede ser la coma o,
+	 * si la cabecera no tiene comas, el punto y coma
+	 *
+	 * @param csv Texto del CSV
+	 * @return Devuelve una fila por cada linea, con los campos no vacios por nombre
+	 * @throws IllegalArgumentException si el CSV no tiene cabecera o alguna linea no tiene tantos campos como ella
+	 */
+	List<Map<String, Object>> leerCsv(String csv);
+}
@@ -0,0 +1,580 @@
+package es.mde.servicios;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.EstadoSolicitud;
+import es.mde.entidades.Fichero;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.FilaImportacion;
+import es.mde.models.InformeImportacion;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CategoriaFicheroDAO;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.FicheroDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import es.mde.repositorios.TipoFormularioDAO;
+import es.mde.security.usuarios.UsuarioGestorDAO;
+import es.mde.security.usuarios.UsuarioNormalDAO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Crea el servicio de importacion masiva. Primero se validan todas las filas, consultando una sola vez los ids
+ * existentes, y solo si no hay errores se guardan todas en una transaccion, de modo que se importa todo o nada.
+ * Cada bloque de filas se envia a la BD y se vacia la sesion, para que la memoria no crezca con el numero de filas
+ * y los INSERT se agrupen en lotes JDBC
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class ImportacionServiceImpl implements ImportacionService {
+
+	private static final int FILAS_POR_BLOQUE = 500;
+
+	private static final String CATEGORIAS = "categorias";
+	private static final String RECURSOS = "recursos";
+	private static final String FICHEROS = "ficheros";
+	private static final String SOLICITUDES = "solicitudes";
+	/** Tipos en el orden en que se guardan, para que existan las filas a las que se hace referencia */
+	private static final List<String> TIPOS = List.of(CATEGORIAS, RECURSOS, FICHEROS, SOLICITUDES);
+	private static final Map<String, Set<String>> CAMPOS = Map.of(
+			CATEGORIAS, Set.of("clave", "nombre", "descripcion", "categoriaPadre", "idCategoriaPadre"),
+			RECURSOS, Set.of("clave", "nombre", "descripcion", "otros", "categoria", "idCategoria", "idTipoFormulario",
+					"idUsuarioGestor", "conDatosEspecificosSolicitud"),
+			FICHEROS, Set.of("clave", "nombre", "nombreArchivo", "descripcion", "idCategoriaFichero", "recurso", "idRecurso"),
+			SOLICITUDES, Set.of("clave", "estado", "fechaSolicitud", "fechaHoraInicioRecurso", "fechaHoraFinRecurso",
+					"unidadUsuaria", "observaciones", "recurso", "idRecurso", "idUsuarioNormal"));
+
+	/** Fila leida, con sus valores ya convertidos al tipo de cada campo */
+	private static final class Fila {
+		private final String tipo;
+		private final Map<String, Object> datos = new HashMap<>();
+		private final FilaImportacion resultado;
+		private int profundidad;
+
+		private Fila(String tipo, int numero, Map<String, Object> valores) {
+			this.tipo = tipo;
+			Object clave = valores == null ? null : valores.get("clave");
+			this.resultado = new FilaImportacion(tipo, numero, clave == null ? null : clave.toString());
+		}
+
+		private String texto(String campo) {
+			return (String) datos.get(campo);
+		}
+
+		private Long id(String campo) {
+			return (Long) datos.get(campo);
+		}
+
+		private Date fecha(String campo) {
+			return (Date) datos.get(campo);
+		}
+	}
+
+	private final ZoneId zona = ZoneId.systemDefault();
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private TransactionTemplate transactionTemplate;
+	private CenadDAO cenadDAO;
+	private CategoriaDAO categoriaDAO;
+	private RecursoDAO recursoDAO;
+	private FicheroDAO ficheroDAO;
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+	private TipoFormularioDAO tipoFormularioDAO;
+	private CategoriaFicheroDAO categoriaFicheroDAO;
+	private UsuarioGestorDAO usuarioGestorDAO;
+	private UsuarioNormalDAO usuarioNormalDAO;
+	private ConflictosRecursoService conflictosRecursoService;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param transactionManager Gestor de transacciones, para guardar todas las filas en una
+	 * @param cenadDAO DAO de CENAD
+	 * @param categoriaDAO DAO de categoria
+	 * @param recursoDAO DAO de recurso
+	 * @param ficheroDAO DAO de fichero
+	 * @param solicitudRecursoDAO DAO de solicitudes
+	 * @param tipoFormularioDAO DAO de tipo de formulario
+	 * @param categoriaFicheroDAO DAO de categoria de fichero
+	 * @param usuarioGestorDAO DAO de usuario gestor
+	 * @param usuarioNormalDAO DAO de usuario normal
+	 * @param conflictosRecursoService Servicio que guarda los periodos ocupados de cada recurso
+	 */
+	public ImportacionServiceImpl(PlatformTransactionManager transactionManager, CenadDAO cenadDAO,
+			CategoriaDAO categoriaDAO, RecursoDAO recursoDAO, FicheroDAO ficheroDAO,
+			SolicitudRecursoDAO solicitudRecursoDAO, TipoFormularioDAO tipoFormularioDAO,
+			CategoriaFicheroDAO categoriaFicheroDAO, UsuarioGestorDAO usuarioGestorDAO,
+			UsuarioNormalDAO usuarioNormalDAO, ConflictosRecursoService conflictosRecursoService) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.cenadDAO = cenadDAO;
+		this.categoriaDAO = categoriaDAO;
+		this.recursoDAO = recursoDAO;
+		this.ficheroDAO = ficheroDAO;
+		this.solicitudRecursoDAO = solicitudRecursoDAO;
+		this.tipoFormularioDAO = tipoFormularioDAO;
+		this.categoriaFicheroDAO = categoriaFicheroDAO;
+		this.usuarioGestorDAO = usuarioGestorDAO;
+		this.usuarioNormalDAO = usuarioNormalDAO;
+		this.conflictosRecursoService = conflictosRecursoService;
+	}
+
+	@Override
+	public InformeImportacion importar(Long idCenad, Map<String, List<Map<String, Object>>> datos) {
+		if (idCenad == null || !cenadDAO.existsById(idCenad)) {
+			throw new IllegalArgumentException("No existe el CENAD " + idCenad);
+		}
+		for (String tipo : datos.keySet()) {
+			if (!TIPOS.contains(tipo)) {
+				throw new IllegalArgumentException("El tipo " + tipo + " no existe. Tipos: " + TIPOS);
+			}
+		}
+		InformeImportacion informe = new InformeImportacion();
+		Map<String, List<Fila>> filas = new LinkedHashMap<>();
+		for (String tipo : TIPOS) {
+			List<Fila> delTipo = new ArrayList<>();
+			List<Map<String, Object>> valores = datos.getOrDefault(tipo, List.of());
+			for (int i = 0; i < valores.size(); i++) {
+				Fila fila = new Fila(tipo, i + 1, valores.get(i));
+				convertir(fila, valores.get(i));
+				delTipo.add(fila);
+				informe.getFilas().add(fila.resultado);
+			}
+			filas.put(tipo, delTipo);
+			informe.getCreadas().put(tipo, 0);
+		}
+		validar(idCenad, filas);
+		if (informe.getFilas().stream().anyMatch(f -> !f.getErrores().isEmpty())) {
+			return informe;
+		}
+		informe.setValidada(true);
+		guardar(idCenad, filas, informe);
+		return informe;
+	}
+
+	/**
+	 * Convierte cada valor segun el nombre del campo: los que empiezan por "id" son ids, los que empiezan por
+	 * "fecha" son fechas ISO y conDatosEspecificosSolicitud es booleano. Los vacios se ignoran
+	 */
+	private void convertir(Fila fila, Map<String, Object> valores) {
+		if (valores == null) {
+			fila.resultado.addError("La fila esta vacia");
+			return;
+		}
+		valores.forEach((campo, valor) -> {
+			if (!CAMPOS.get(fila.tipo).contains(campo)) {
+				fila.resultado.addError("El campo " + campo + " no existe. Campos: " + CAMPOS.get(fila.tipo));
+				return;
+			}
+			if (valor == null || valor.toString().isBlank()) {
+				return;
+			}
+			String texto = valor.toString().trim();
+			try {
+				if (campo.startsWith("id")) {
+					fila.datos.put(campo, Long.valueOf(texto));
+				} else if (campo.startsWith("fecha")) {
+					fila.datos.put(campo, valor instanceof Number ? new Date(((Number) valor).longValue()) : fecha(texto));
+				} else if (campo.equals("conDatosEspecificosSolicitud")) {
+					if (!texto.equalsIgnoreCase("true") && !texto.equalsIgnoreCase("false")) {
+						throw new IllegalArgumentException();
+					}
+					fila.datos.put(campo, Boolean.valueOf(texto));
+				} else {
+					fila.datos.put(campo, valor.toString());
+				}
+			} catch (IllegalArgumentException | DateTimeParseException e) {
+				fila.resultado.addError("El valor " + texto + " del campo " + campo + " no es valido");
+			}
+		});
+	}
+
+	private Date fecha(String texto) {
+		try {
+			return Date.from(OffsetDateTime.parse(texto).toInstant());
+		} catch (DateTimeParseException e) {
+			// sin zona horaria se toma la del servidor
+		}
+		try {
+			return Date.from(LocalDateTime.parse(texto).atZone(zona).toInstant());
+		} catch (DateTimeParseException e) {
+			return Date.from(LocalDate.parse(texto).atStartOfDay(zona).toInstant());
+		}
+	}
+
+	private void validar(Long idCenad, Map<String, List<Fila>> filas) {
+		Map<String, Set<String>> claves = new HashMap<>();
+		for (String tipo : TIPOS) {
+			Set<String> delTipo = new HashSet<>();
+			for (Fila fila : filas.get(tipo)) {
+				String clave = fila.texto("clave");
+				if (clave != null && !delTipo.add(clave)) {
+					fila.resultado.addError("La clave " + clave + " esta repetida");
+				}
+			}
+			claves.put(tipo, delTipo);
+		}
+		Set<Long> categoriasCenad = new HashSet<>(categoriaDAO.findIdsByCenad(idCenad));
+		Set<Long> recursosCenad = new HashSet<>(recursoDAO.findIdsByCenad(idCenad));
+		Predicate<Long> tipoFormulario = existe(tipoFormularioDAO);
+		Predicate<Long> usuarioGestor = existe(usuarioGestorDAO);
+		Predicate<Long> categoriaFichero = existe(categoriaFicheroDAO);
+		Predicate<Long> usuarioNormal = existe(usuarioNormalDAO);
+
+		Map<String, Fila> categoriasPorClave = new HashMap<>();
+		filas.get(CATEGORIAS).stream().filter(f -> f.texto("clave") != null).forEach(f -> categoriasPorClave.putIfAbsent(f.texto("clave"), f));
+		for (Fila fila : filas.get(CATEGORIAS)) {
+			obligatorio(fila, "nombre");
+			referencia(fila, "categoriaPadre", claves.get(CATEGORIAS), categoriasCenad::contains, false);
+			fila.profundidad = profundidad(fila, categoriasPorClave);
+		}
+		for (Fila fila : filas.get(RECURSOS)) {
+			obligatorio(fila, "nombre");
+			referencia(fila, "categoria", claves.get(CATEGORIAS), categoriasCenad::contains, true);
+			obligatorio(fila, "idTipoFormulario");
+			existente(fila, "idTipoFormulario", tipoFormulario);
+			existente(fila, "idUsuarioGestor", usuarioGestor);
+		}
+		for (Fila fila : filas.get(FICHEROS)) {
+			obligatorio(fila, "nombre");
+			obligatorio(fila, "idCategoriaFichero");
+			existente(fila, "idCategoriaFichero", categoriaFichero);
+			referencia(fila, "recurso", claves.get(RECURSOS), recursosCenad::contains, false);
+		}
+		Map<String, ArbolIntervalos> ocupaciones = new HashMap<>();
+		for (Fila fila : filas.get(SOLICITUDES)) {
+			referencia(fila, "recurso", claves.get(RECURSOS), recursosCenad::contains, true);
+			existente(fila, "idUsuarioNormal", usuarioNormal);
+			String estado = fila.texto("estado");
+			if (estado != null) {
+				String normalizado = EstadoSolicitud.normalizar(estado);
+				if (Arrays.stream(EstadoSolicitud.values()).noneMatch(e -> e.name().equals(normalizado))) {
+					fila.resultado.addError("El estado " + estado + " no existe");
+				}
+				fila.datos.put("estado", normalizado);
+			}
+			Date inicio = fila.fecha("fechaHoraInicioRecurso");
+			Date fin = fila.fecha("fechaHoraFinRecurso");
+			if (inicio != null && fin != null && fin.before(inicio)) {
+				fila.resultado.addError("La fecha de fin es anterior a la de inicio");
+			}
+			if (fila.resultado.getErrores().isEmpty() && inicio != null && EstadoSolicitud.ocupaRecurso(fila.texto("estado"))) {
+				comprobarConflictos(fila, inicio.getTime(), fin(inicio.getTime(), fin), ocupaciones);
+			}
+		}
+	}
+
+	/**
+	 * Comprueba que la solicitud no se solapa con las ya guardadas del recurso ni con las anteriores del fichero
+	 */
+	private void comprobarConflictos(Fila fila, long inicio, long fin, Map<String, ArbolIntervalos> ocupaciones) {
+		Long idRecurso = fila.id("idRecurso");
+		if (idRecurso != null) {
+			List<Long> solapadas = conflictosRecursoService.getConflictos(idRecurso, new Date(inicio), new Date(fin))
+					.stream().map(SolicitudRecurso::getId).toList();
+			if (!solapadas.isEmpty()) {
+				fila.resultado.addError("El recurso ya esta ocupado en esas fechas por las solicitudes " + solapadas);
+			}
+		}
+		String recurso = idRecurso != null ? "id:" + idRecurso : "clave:" + fila.texto("recurso");
+		ArbolIntervalos ocupacion = ocupaciones.computeIfAbsent(recurso, r -> new ArbolIntervalos());
+		List<Long> solapadas = ocupacion.solapados(inicio, fin);
+		if (!solapadas.isEmpty()) {
+			fila.resultado.addError("Se solapa en el mismo recurso con las solicitudes de las filas " + solapadas);
+		}
+		ocupacion.insertar(fila.resultado.getFila(), inicio, fin);
+	}
+
+	/**
+	 * Las solicitudes sin fecha de fin, o con la misma fecha de inicio y fin, ocupan solo su instante de inicio
+	 */
+	private static long fin(long inicio, Date fin) {
+		return fin == null || fin.getTime() <= inicio ? inicio + 1 : fin.getTime();
+	}
+
+	private void obligatorio(Fila fila, String campo) {
+		if (fila.datos.get(campo) == null) {
+			fila.resultado.addError("Falta el campo " + campo);
+		}
+	}
+
+	private void existente(Fila fila, String campo, Predicate<Long> existe) {
+		Long id = fila.id(campo);
+		if (id != null && !existe.test(id)) {
+			fila.resultado.addError("No existe el " + campo + " " + id);
+		}
+	}
+
+	/**
+	 * Comprueba la referencia a otra entidad, que se puede indicar con la clave de otra fila (campo) o con el id de
+	 * una entidad existente del CENAD (idCampo), pero no con ambos
+	 */
+	private void referencia(Fila fila, String campo, Set<String> claves, Predicate<Long> existe, boolean obligatoria) {
+		String campoId = "id" + Character.toUpperCase(campo.charAt(0)) + campo.substring(1);
+		String clave = fila.texto(campo);
+		Long id = fila.id(campoId);
+		if (clave != null && id != null) {
+			fila.resultado.addError("Se indican a la vez " + campo + " e " + campoId);
+		} else if (clave == null && id == null) {
+			if (obligatoria) {
+				fila.resultado.addError("Falta el campo " + campo + " o " + campoId);
+			}
+		} else if (clave != null && !claves.contains(clave)) {
+			fila.resultado.addError("No hay ninguna fila con la clave " + clave + " para " + campo);
+		} else if (id != null && !existe.test(id)) {
+			fila.resultado.addError("No existe en el CENAD el " + campoId + " " + id);
+		}
+	}
+
+	/**
+	 * Devuelve cuantas categorias del fichero hay por encima de una, para guardar antes las categorias padre
+	 */
+	private int profundidad(Fila fila, Map<String, Fila> categoriasPorClave) {
+		int profundidad = 0;
+		Set<Fila> visitadas = new HashSet<>();
+		for (Fila actual = fila; actual.texto("categoriaPadre") != null; profundidad++) {
+			if (!visitadas.add(actual)) {
+				fila.resultado.addError("La categoria forma parte de un ciclo de categorias padre");
+				return profundidad;
+			}
+			actual = categoriasPorClave.get(actual.texto("categoriaPadre"));
+			if (actual == null) {
+				return profundidad;
+			}
+		}
+		return profundidad;
+	}
+
+	/**
+	 * Comprueba si existe cada id una sola vez, aunque aparezca en muchas filas
+	 */
+	private Predicate<Long> existe(JpaRepository<?, Long> dao) {
+		Map<Long, Boolean> existentes = new HashMap<>();
+		return id -> {
+			Boolean existe = existentes.get(id);
+			if (existe == null) {
+				existe = dao.existsById(id);
+				existentes.put(id, existe);
+			}
+			return existe;
+		};
+	}
+
+	/**
+	 * Guarda todas las filas en una transaccion, enviando a la BD y vaciando la sesion cada bloque de filas. Si
+	 * falla alguna se deshace todo y no se guarda ninguna
+	 */
+	private void guardar(Long idCenad, Map<String, List<Fila>> filas, InformeImportacion informe) {
+		List<Fila> orden = new ArrayList<>(filas.get(CATEGORIAS));
+		orden.sort(Comparator.comparingInt(f -> f.profundidad));
+		orden.addAll(filas.get(RECURSOS));
+		orden.addAll(filas.get(FICHEROS));
+		orden.addAll(filas.get(SOLICITUDES));
+		Map<String, Long> idsCategorias = new HashMap<>();
+		Map<String, Long> idsRecursos = new HashMap<>();
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				for (int i = 0; i < orden.size(); i++) {
+					Fila fila = orden.get(i);
+					fila.resultado.setId(crear(idCenad, fila, idsCategorias, idsRecursos));
+					if ((i + 1) % FILAS_POR_BLOQUE == 0) {
+						entityManager.flush();
+						entityManager.clear();
+					}
+				}
+			});
+		} catch (RuntimeException e) {
+			for (Fila fila : orden) {
+				fila.resultado.setId(null);
+				fila.resultado.addError("No se ha guardado ninguna fila: " + e.getMessage());
+			}
+			return;
+		}
+		orden.forEach(f -> informe.getCreadas().merge(f.tipo, 1, Integer::sum));
+		informe.setCompleta(true);
+	}
+
+	private Long crear(Long idCenad, Fila fila, Map<String, Long> idsCategorias, Map<String, Long> idsRecursos) {
+		switch (fila.tipo) {
+			case CATEGORIAS -> {
+				Categoria categoria = new Categoria();
+				categoria.setNombre(fila.texto("nombre"));
+				categoria.setDescripcion(fila.texto("descripcion"));
+				categoria.setCenad(cenadDAO.getReferenceById(idCenad));
+				Long idPadre = id(fila, "categoriaPadre", idsCategorias);
+				categoria.setCategoriaPadre(idPadre == null ? null : categoriaDAO.getReferenceById(idPadre));
+				categoriaDAO.save(categoria);
+				return guardarClave(fila, categoria.getId(), idsCategorias);
+			}
+			case RECURSOS -> {
+				Recurso recurso = new Recurso();
+				recurso.setNombre(fila.texto("nombre"));
+				recurso.setDescripcion(fila.texto("descripcion"));
+				recurso.setOtros(fila.texto("otros"));
+				recurso.setCategoria(categoriaDAO.getReferenceById(id(fila, "categoria", idsCategorias)));
+				recurso.setTipoFormulario(tipoFormularioDAO.getReferenceById(fila.id("idTipoFormulario")));
+				if (fila.id("idUsuarioGestor") != null) {
+					recurso.setUsuarioGestor(usuarioGestorDAO.getReferenceById(fila.id("idUsuarioGestor")));
+				}
+				if (fila.datos.get("conDatosEspecificosSolicitud") != null) {
+					recurso.setConDatosEspecificosSolicitud((Boolean) fila.datos.get("conDatosEspecificosSolicitud"));
+				}
+				recursoDAO.save(recurso);
+				return guardarClave(fila, recurso.getId(), idsRecursos);
+			}
+			case FICHEROS -> {
+				Fichero fichero = new Fichero();
+				fichero.setNombre(fila.texto("nombre"));
+				fichero.setNombreArchivo(fila.texto("nombreArchivo"));
+				fichero.setDescripcion(fila.texto("descripcion"));
+				fichero.setCategoriaFichero(categoriaFicheroDAO.getReferenceById(fila.id("idCategoriaFichero")));
+				Long idRecurso = id(fila, "recurso", idsRecursos);
+				// sin recurso es un fichero del propio CENAD
+				if (idRecurso != null) {
+					fichero.setRecurso(recursoDAO.getReferenceById(idRecurso));
+				} else {
+					fichero.setCenad(cenadDAO.getReferenceById(idCenad));
+				}
+				ficheroDAO.save(fichero);
+				return fichero.getId();
+			}
+			default -> {
+				SolicitudRecurso solicitud = new SolicitudRecurso();
+				solicitud.setRecurso(recursoDAO.getReferenceById(id(fila, "recurso", idsRecursos)));
+				solicitud.setEstado(fila.texto("estado") == null ? EstadoSolicitud.Solicitada.name() : fila.texto("estado"));
+				solicitud.setFechaSolicitud(fila.fecha("fechaSolicitud") == null ? new Date() : fila.fecha("fechaSolicitud"));
+				solicitud.setFechaHoraInicioRecurso(fila.fecha("fechaHoraInicioRecurso"));
+				solicitud.setFechaHoraFinRecurso(fila.fecha("fechaHoraFinRecurso"));
+				solicitud.setUnidadUsuaria(fila.texto("unidadUsuaria"));
+				solicitud.setObservaciones(fila.texto("observaciones"));
+				if (fila.id("idUsuarioNormal") != null) {
+					solicitud.setUsuarioNormal(usuarioNormalDAO.getReferenceById(fila.id("idUsuarioNormal")));
+				}
+				solicitudRecursoDAO.save(solicitud);
+				return solicitud.getId();
+			}
+		}
+	}
+
+	/**
+	 * Devuelve el id de la entidad a la que hace referencia la fila, por la clave de otra fila ya guardada o por id
+	 */
+	private Long id(Fila fila, String campo, Map<String, Long> idsPorClave) {
+		String clave = fila.texto(campo);
+		return clave != null ? idsPorClave.get(clave) : fila.id("id" + Character.toUpperCase(campo.charAt(0)) + campo.substring(1));
+	}
+
+	private Long guardarClave(Fila fila, Long id, Map<String, Long> idsPorClave) {
+		if (fila.texto("clave") != null) {
+			idsPorClave.put(fila.texto("clave"), id);
+		}
+		return id;
+	}
+
+	@Override
+	public List<Map<String, Object>> leerCsv(String csv) {
+		if (csv == null || csv.isBlank()) {
+			throw new IllegalArgumentException("El CSV no tiene cabecera");
+		}
+		// marca de orden de bytes que anade Excel al guardar en UTF-8
+		if (csv.charAt(0) == '\uFEFF') {
+			csv = csv.substring(1);
+		}
+		String primeraLinea = csv.lines().findFirst().orElse("");
+		char separador = primeraLinea.indexOf(',') < 0 && primeraLinea.indexOf(';') >= 0 ? ';' : ',';
+		List<List<String>> lineas = registrosCsv(csv, separador);
+		List<String> cabecera = lineas.isEmpty() ? List.of() : lineas.get(0).stream().map(String::trim).toList();
+		if (cabecera.stream().allMatch(String::isEmpty)) {
+			throw new IllegalArgumentException("El CSV no tiene cabecera");
+		}
+		List<Map<String, Object>> filas = new ArrayList<>();
+		for (int i = 1; i < lineas.size(); i++) {
+			List<String> linea = lineas.get(i);
+			if (linea.size() == 1 && linea.get(0).isBlank()) {
+				continue;
+			}
+			if (linea.size() != cabecera.size()) {
+				throw new IllegalArgumentException("La linea " + (i + 1) + " del CSV tiene " + linea.size()
+						+ " campos y la cabecera " + cabecera.size());
+			}
+			Map<String, Object> fila = new LinkedHashMap<>();
+			for (int j = 0; j < cabecera.size(); j++) {
+				if (!linea.get(j).isEmpty()) {
+					fila.put(cabecera.get(j), linea.get(j));
+				}
+			}
+			filas.add(fila);
+		}
+		return filas;
+	}
+
+	/**
+	 * Separa el CSV en registros y campos. Los campos entre comillas pueden tener separadores, saltos de linea y
+	 * comillas dobladas
+	 */
+	private List<List<String>> registrosCsv(String csv, char separador) {
+		List<List<String>> registros = new ArrayList<>();
+		List<String> registro = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreComillas = false;
+		for (int i = 0; i < csv.length(); i++) {
+			char c = csv.charAt(i);
+			if (entreComillas) {
+				if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+					campo.append('"');
+					i++;
+				} else if (c == '"') {
+					entreComillas = false;
+				} else {
+					campo.append(c);
+				}
+			} else if (c == '"') {
+				entreComillas = true;
+			} else if (c == separador) {
+				registro.add(campo.toString());
+				campo.setLength(0);
+			} else if (c == '\n' || c == '\r') {
+				if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+					i++;
+				}
+				registro.add(campo.toString());
+				campo.setLength(0);
+				registros.add(registro);
+				registro = new ArrayList<>();
+			} else {
+				campo.append(c);
+			}
+		}
+		if (campo.length() > 0 || !registro.isEmpty()) {
+			registro.add(campo.toString());
+			registros.add(registro);
+		}
+		return registros;
+	}
+}
@@ -0,0 +1,29 @@
+package es.mde.servicios;
+
+import es.mde.entidades.Categoria;
+
+/**
+ * Interfaz del servicio que mantiene los datos que dependen de una categoria cuando se modifica a traves de la API
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+public interface MantenimientoCategoriasService {
+
+	/**
+	 * Comprueba, antes de guardar una categoria, que su nueva categoria Padre no es ella misma ni una de sus
+	 * subcategorias anidadas
+	 *
+	 * @param categoria Categoria modificada, aun con la ruta guardada
+	 * @throws IllegalArgumentException si la categoria Padre es ella misma o una de sus subcategorias anidadas
+	 */
+	void comprobarCategoria(Categoria categoria);
+
+	/**
+	 * Actualiza en una sola transaccion el CENAD de los recursos y solicitudes de una categoria ya guardada, si ha
+	 * cambiado su CENAD. Se llama despues de guardarla, para no tocar otras filas si no se guarda
+	 *
+	 * @param categoria Categoria guardada
+	 */
+	void actualizarCategoria(Categoria categoria);
+}
@@ -0,0 +1,43 @@
+package es.mde.servicios;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.mde.entidades.Categoria;
+import es.mde.repositorios.RecursoDAO;
+
+/**
+ * Crea el servicio que comprueba la categoria Padre de una categoria modificada y mantiene el CENAD de sus recursos
+ * y solicitudes. La ruta de sus subcategorias la mantiene el save de CategoriaDAO
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@Service
+public class MantenimientoCategoriasServiceImpl implements MantenimientoCategoriasService {
+
+	private RecursoDAO recursoDAO;
+
+	/**
+	 * Crea el servicio
+	 *
+	 * @param recursoDAO DAO de recurso
+	 */
+	public MantenimientoCategoriasServiceImpl(RecursoDAO recursoDAO) {
+		this.recursoDAO = recursoDAO;
+	}
+
+	@Override
+	public void comprobarCategoria(Categoria categoria) {
+		// la ruta guardada sigue siendo la anterior, asi que getRutaSubcategorias es el comienzo de su subarbol
+		if (categoria.getRuta() != null && categoria.calcularRuta().startsWith(categoria.getRutaSubcategorias())) {
+			throw new IllegalArgumentException("Una categoria no puede ser subcategoria de si misma ni de sus subcategorias");
+		}
+	}
+
+	@Override
+	@Transactional
+	public void actualizarCategoria(Categoria categoria) {
+		recursoDAO.actualizarCenad(categoria);
+	}
+}
@@ -0,0 +1,94 @@
+package es.mde.servicios;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dias ocupados de un recurso: guarda cuantas solicitudes ocupan cada dia, empezando en el primer dia reservado del
+ * recurso y no en el 1/1/1970, y los dias de cada solicitud para poder liberarlos sin recorrer las demas. No es
+ * seguro para varios hilos
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class OcupacionDias {
+
+	/** Dia que corresponde a la posicion 0 de solicitudesDia */
+	private int primerDiaGuardado;
+	private int[] solicitudesDia = new int[0];
+	private final Map<Long, int[]> diasSolicitud = new HashMap<>();
+
+	/**
+	 * Marca como ocupados los dias de una solicitud, sustituyendo los que tuviera antes
+	 *
+	 * @param id Id de la solicitud
+	 * @param primerDia Primer dia ocupado
+	 * @param ultimoDia Ultimo dia ocupado (incluido)
+	 */
+	void insertar(long id, int primerDia, int ultimoDia) {
+		eliminar(id);
+		ampliar(primerDia, ultimoDia);
+		diasSolicitud.put(id, new int[] { primerDia, ultimoDia });
+		for (int dia = primerDia; dia <= ultimoDia; dia++) {
+			solicitudesDia[dia - primerDiaGuardado]++;
+		}
+	}
+
+	/**
+	 * Libera los dias de una solicitud. Los que ocupa tambien otra solicitud siguen ocupados
+	 *
+	 * @param id Id de la solicitud
+	 */
+	void eliminar(long id) {
+		int[] dias = diasSolicitud.remove(id);
+		if (dias == null) {
+			return;
+		}
+		for (int dia = dias[0]; dia <= dias[1]; dia++) {
+			solicitudesDia[dia - primerDiaGuardado]--;
+		}
+	}
+
+	/**
+	 * Devuelve los dias ocupados de un periodo
+	 *
+	 * @param primerDia Primer dia del periodo
+	 * @param ultimoDia Ultimo dia del periodo (incluido)
+	 * @return Devuelve un mapa de bits en el que el bit 0 es el primer dia del periodo
+	 */
+	BitSet ocupados(int primerDia, int ultimoDia) {
+		BitSet ocupados = new BitSet();
+		int desde = Math.max(primerDia, primerDiaGuardado);
+		int hasta = Math.min(ultimoDia, primerDiaGuardado + solicitudesDia.length - 1);
+		for (int dia = desde; dia <= hasta; dia++) {
+			if (solicitudesDia[dia - primerDiaGuardado] > 0) {
+				ocupados.set(dia - primerDia);
+			}
+		}
+		return ocupados;
+	}
+
+	/**
+	 * Amplia los dias guardados para que incluyan un periodo. Crece al menos al doble por el lado que falta, para no
+	 * copiar los contadores con cada solicitud nueva
+	 */
+	private void ampliar(int primerDia, int ultimoDia) {
+		if (solicitudesDia.length == 0) {
+			primerDiaGuardado = primerDia;
+			solicitudesDia = new int[ultimoDia - primerDia + 1];
+			return;
+		}
+		int finGuardado = primerDiaGuardado + solicitudesDia.length;
+		if (primerDia >= primerDiaGuardado && ultimoDia < finGuardado) {
+			return;
+		}
+		int nuevoPrimerDia = primerDia < primerDiaGuardado
+				? Math.min(primerDia, primerDiaGuardado - solicitudesDia.length) : primerDiaGuardado;
+		int nuevoFin = ultimoDia >= finGuardado ? Math.max(ultimoDia + 1, finGuardado + solicitudesDia.length) : finGuardado;
+		int[] nuevos = new int[nuevoFin - nuevoPrimerDia];
+		System.arraycopy(solicitudesDia, 0, nuevos, primerDiaGuardado - nuevoPrimerDia, solicitudesDia.length);
+		primerDiaGuardado = nuevoPrimerDia;
+		solicitudesDia = nuevos;
+	}
+}
@@ -38,7 +38,7 @@ import jakarta.persistence.EntityManagerFactory;
 @EnableTransactionManagement
 @EnableJpaRepositories({"${misRepositorios}", "${entidadSecurity}"}) // leer valor de propiedades pero solo para las entidades anotadas
 public class ConfiguracionPorJava {
-	
+
 	/**
 	 * Para usar la ruta a escanear entidades desde el application.properties
 	 */
@@ -51,6 +51,12 @@ public class ConfiguracionPorJava {
 	@Value("${entidadSecurity}")
 	String entidadSecurity;
 
+	/**
+	 * Para generar los ids con secuencias (o tablas si la BD no las tiene) en vez de columnas IDENTITY
+	 */
+	@Value("${ids.secuencias:false}")
+	boolean idsSecuencias;
+
 	/**
 	 * Entity manager que sustituye al jpa-config.xml
 	 */
@@ -63,9 +69,15 @@ public class ConfiguracionPorJava {
 		em.setJpaVendorAdapter(vendorAdapter);
 		em.setPackagesToScan(entidades, entidadSecurity); // leer valor de propiedades? pero solo para las entidades anotadas		
 		// em.setMappingResources("jpa/Usuario.orm.xml", "jpa/Cuaderno.orm.xml"); //para escanear archivos xml...
+		if (idsSecuencias) { // sustituye el IDENTITY de las anotaciones para poder agrupar los INSERT en lotes
+			em.setMappingResources("jpa/secuencias.orm.xml");
+		}
 		// leerValorDePropiedades?
 		Properties jpaProperties = new Properties();
-		Arrays.asList("dialect", "show_sql", "hbm2ddl.auto", "enable_lazy_load_no_trans") //  leer valor de	para las entidades anotadas 
+		Arrays.asList("dialect", "show_sql", "hbm2ddl.auto", "enable_lazy_load_no_trans", //  leer valor de	para las entidades anotadas 
+				"cache.use_second_level_cache", "cache.use_query_cache", "cache.region.factory_class",
+				"javax.cache.provider", "javax.cache.uri", "generate_statistics",
+				"jdbc.batch_size", "order_inserts", "order_updates")
 				.stream().map(s -> "hibernate." + s)
 				.map(p -> new AbstractMap.SimpleEntry<String, String>(p, env.getProperty(p)))
 				.filter(e -> e.getValue() != null).forEach(e -> jpaProperties.put(e.getKey(), e.getValue()));
@@ -0,0 +1,49 @@
+-- Indices de claves ajenas y fechas usados por las consultas de solicitudes, recursos y categorias
+-- (los mismos que declaran las anotaciones @Index de las entidades). MySQL 8
+-- Se puede ejecutar varias veces: MySQL no admite CREATE INDEX IF NOT EXISTS, por lo que se
+-- comprueba en information_schema antes de crear o borrar cada indice
+
+DROP PROCEDURE IF EXISTS crear_indice;
+DROP PROCEDURE IF EXISTS borrar_indice;
+
+DELIMITER //
+CREATE PROCEDURE crear_indice(IN tabla VARCHAR(64), IN indice VARCHAR(64), IN columnas VARCHAR(255))
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+			WHERE table_schema = DATABASE() AND table_name = tabla AND index_name = indice) THEN
+		SET @sentencia = CONCAT('CREATE INDEX ', indice, ' ON ', tabla, ' (', columnas, ')');
+		PREPARE sentencia FROM @sentencia;
+		EXECUTE sentencia;
+		DEALLOCATE PREPARE sentencia;
+	END IF;
+END //
+CREATE PROCEDURE borrar_indice(IN tabla VARCHAR(64), IN indice VARCHAR(64))
+BEGIN
+	IF EXISTS (SELECT 1 FROM information_schema.statistics
+			WHERE table_schema = DATABASE() AND table_name = tabla AND index_name = indice) THEN
+		SET @sentencia = CONCAT('DROP INDEX ', indice, ' ON ', tabla);
+		PREPARE sentencia FROM @sentencia;
+		EXECUTE sentencia;
+		DEALLOCATE PREPARE sentencia;
+	END IF;
+END //
+DELIMITER ;
+
+CALL crear_indice('CATEGORIAS', 'IDX_CATEGORIAS_RUTA', 'ruta');
+CALL crear_indice('CATEGORIAS', 'IDX_CATEGORIAS_CENAD', 'CENAD');
+CALL crear_indice('CATEGORIAS', 'IDX_CATEGORIAS_CATEGORIA_PADRE', 'CATEGORIA_PADRE');
+
+CALL crear_indice('RECURSOS', 'IDX_RECURSOS_CATEGORIA', 'CATEGORIA');
+
+CALL crear_indice('USUARIOS', 'IDX_USUARIOS_CENAD_ADMINISTRADO', 'CENAD_ADMINISTRADO');
+
+-- El indice compuesto (estado, fechaHoraInicioRecurso) sustituye al de solo estado
+CALL borrar_indice('SOLICITUDES', 'IDX_SOLICITUDES_ESTADO');
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_ESTADO_FECHA', 'estado, fechaHoraInicioRecurso');
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_RECURSO_FECHA', 'RECURSO, fechaHoraInicioRecurso');
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_USUARIO_NORMAL', 'USUARIO_NORMAL');
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_FECHA_INICIO', 'fechaHoraInicioRecurso');
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_FECHA_SOLICITUD', 'fechaSolicitud');
+
+DROP PROCEDURE crear_indice;
+DROP PROCEDURE borrar_indice;
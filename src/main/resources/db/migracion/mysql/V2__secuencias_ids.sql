@@ -0,0 +1,42 @@
+-- Tablas que hacen de secuencia para generar los ids en bloques de 50 (ids.secuencias=true en
+-- config/gestionBBDD.properties). MySQL no tiene secuencias: Hibernate lee y avanza el valor de next_val
+-- Cada tabla empieza por encima del mayor id de su entidad. Las columnas AUTO_INCREMENT admiten ids explicitos,
+-- por lo que se dejan como estan. Se puede ejecutar varias veces: reajusta los valores al mayor id
+-- Ejecutar con la aplicacion parada, antes de arrancarla con ids.secuencias=true
+
+CREATE TABLE IF NOT EXISTS SEQ_CENADS (next_val BIGINT);
+DELETE FROM SEQ_CENADS;
+INSERT INTO SEQ_CENADS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM CENADS;
+CREATE TABLE IF NOT EXISTS SEQ_CATEGORIAS (next_val BIGINT);
+DELETE FROM SEQ_CATEGORIAS;
+INSERT INTO SEQ_CATEGORIAS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM CATEGORIAS;
+CREATE TABLE IF NOT EXISTS SEQ_RECURSOS (next_val BIGINT);
+DELETE FROM SEQ_RECURSOS;
+INSERT INTO SEQ_RECURSOS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM RECURSOS;
+CREATE TABLE IF NOT EXISTS SEQ_SOLICITUDES (next_val BIGINT);
+DELETE FROM SEQ_SOLICITUDES;
+INSERT INTO SEQ_SOLICITUDES (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM SOLICITUDES;
+CREATE TABLE IF NOT EXISTS SEQ_SOLICITUDES_ARMAS (next_val BIGINT);
+DELETE FROM SEQ_SOLICITUDES_ARMAS;
+INSERT INTO SEQ_SOLICITUDES_ARMAS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM SOLICITUDES_ARMAS;
+CREATE TABLE IF NOT EXISTS SEQ_ARMAS (next_val BIGINT);
+DELETE FROM SEQ_ARMAS;
+INSERT INTO SEQ_ARMAS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM ARMAS;
+CREATE TABLE IF NOT EXISTS SEQ_FICHEROS (next_val BIGINT);
+DELETE FROM SEQ_FICHEROS;
+INSERT INTO SEQ_FICHEROS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM FICHEROS;
+CREATE TABLE IF NOT EXISTS SEQ_CATEGORIAS_FICHERO (next_val BIGINT);
+DELETE FROM SEQ_CATEGORIAS_FICHERO;
+INSERT INTO SEQ_CATEGORIAS_FICHERO (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM CATEGORIAS_FICHERO;
+CREATE TABLE IF NOT EXISTS SEQ_TIPOS_FORMULARIO (next_val BIGINT);
+DELETE FROM SEQ_TIPOS_FORMULARIO;
+INSERT INTO SEQ_TIPOS_FORMULARIO (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM TIPOS_FORMULARIO;
+CREATE TABLE IF NOT EXISTS SEQ_CARTOGRAFIAS (next_val BIGINT);
+DELETE FROM SEQ_CARTOGRAFIAS;
+INSERT INTO SEQ_CARTOGRAFIAS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM CARTOGRAFIAS;
+CREATE TABLE IF NOT EXISTS SEQ_UNIDADES (next_val BIGINT);
+DELETE FROM SEQ_UNIDADES;
+INSERT INTO SEQ_UNIDADES (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM UNIDADES;
+CREATE TABLE IF NOT EXISTS SEQ_USUARIOS (next_val BIGINT);
+DELETE FROM SEQ_USUARIOS;
+INSERT INTO SEQ_USUARIOS (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM USUARIOS;
@@ -0,0 +1,46 @@
+-- CENAD de cada recurso (el de su categoria) y de cada solicitud (el de su recurso), para filtrar por CENAD sin
+-- recorrer recurso y categoria. MySQL 8
+-- La columna CENAD y su clave ajena las crea hbm2ddl al arrancar la aplicacion, que tambien rellena las filas
+-- sin CENAD; este script permite rellenarlas antes con la aplicacion parada. Se puede ejecutar varias veces:
+-- se comprueba en information_schema antes de crear cada columna e indice
+
+DROP PROCEDURE IF EXISTS crear_columna;
+DROP PROCEDURE IF EXISTS crear_indice;
+
+DELIMITER //
+CREATE PROCEDURE crear_columna(IN tabla VARCHAR(64), IN columna VARCHAR(64), IN tipo VARCHAR(64))
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+			WHERE table_schema = DATABASE() AND table_name = tabla AND column_name = columna) THEN
+		SET @sentencia = CONCAT('ALTER TABLE ', tabla, ' ADD COLUMN ', columna, ' ', tipo);
+		PREPARE sentencia FROM @sentencia;
+		EXECUTE sentencia;
+		DEALLOCATE PREPARE sentencia;
+	END IF;
+END //
+CREATE PROCEDURE crear_indice(IN tabla VARCHAR(64), IN indice VARCHAR(64), IN columnas VARCHAR(255))
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+			WHERE table_schema = DATABASE() AND table_name = tabla AND index_name = indice) THEN
+		SET @sentencia = CONCAT('CREATE INDEX ', indice, ' ON ', tabla, ' (', columnas, ')');
+		PREPARE sentencia FROM @sentencia;
+		EXECUTE sentencia;
+		DEALLOCATE PREPARE sentencia;
+	END IF;
+END //
+DELIMITER ;
+
+CALL crear_columna('RECURSOS', 'CENAD', 'BIGINT');
+CALL crear_columna('SOLICITUDES', 'CENAD', 'BIGINT');
+
+UPDATE RECURSOS r JOIN CATEGORIAS c ON c.id = r.CATEGORIA SET r.CENAD = c.CENAD
+	WHERE NOT (r.CENAD <=> c.CENAD);
+UPDATE SOLICITUDES s JOIN RECURSOS r ON r.id = s.RECURSO SET s.CENAD = r.CENAD
+	WHERE NOT (s.CENAD <=> r.CENAD);
+
+CALL crear_indice('RECURSOS', 'IDX_RECURSOS_CENAD', 'CENAD');
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_CENAD_FECHA', 'CENAD, fechaHoraInicioRecurso');
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_CENAD_ESTADO', 'CENAD, estado');
+
+DROP PROCEDURE crear_columna;
+DROP PROCEDURE crear_indice;
@@ -0,0 +1,97 @@
+-- Datos especificos del formulario de cada solicitud, que pasan de SOLICITUDES a su propia tabla con el mismo
+-- id (DatosEspecificosSolicitud). Solo se copian las solicitudes que tienen alguno relleno. MySQL 8
+-- Ejecutar con la aplicacion parada, antes de arrancar la version que ya no tiene estas columnas en SOLICITUDES:
+-- las columnas numericas son NOT NULL y los INSERT de la aplicacion fallarian mientras existan.
+-- Se puede ejecutar varias veces: si las columnas ya no estan en SOLICITUDES no hace nada
+
+CREATE TABLE IF NOT EXISTS SOLICITUDES_DATOS_ESPECIFICOS (
+	SOLICITUD bigint not null,
+	conMunTrazadoraIluminanteFumigena bit,
+	tipoEjercicio varchar(255),
+	armaPral varchar(255),
+	armaPrpalNumDisparosPrev integer not null,
+	armaSecund varchar(255),
+	armaSecundNumDisparosPrev integer not null,
+	numBlancosFijosA integer not null,
+	numBlancosFijosB integer not null,
+	numBlancosFijosC integer not null,
+	numBlancosFijosD integer not null,
+	numBlancosFijosE integer not null,
+	numBlancosMovilesA integer not null,
+	numBlancosMovilesB integer not null,
+	numBlancosMovilesC integer not null,
+	numBlancosMovilesD integer not null,
+	numBlancosMovilesE integer not null,
+	arma1CT varchar(255),
+	arma1CTlongitud integer not null,
+	arma2CT varchar(255),
+	arma2CTlongitud integer not null,
+	explosivo varchar(255),
+	actividad varchar(255),
+	vivac varchar(255),
+	conUsoCocina bit,
+	numPersonasZVB integer not null,
+	numPersonasZE integer not null,
+	numVehCadenas integer not null,
+	numVehRuedas integer not null,
+	fechaHoraMontaje datetime(6),
+	fechaHoraDesmontaje datetime(6),
+	numSimuladores integer not null,
+	usoEstacionSeg varchar(255),
+	otrosDatosEspecificos varchar(255),
+	PRIMARY KEY (SOLICITUD),
+	CONSTRAINT FK_SOLICITUDES_DATOS_ESPECIFICOS FOREIGN KEY (SOLICITUD) REFERENCES SOLICITUDES (id)
+);
+
+DROP PROCEDURE IF EXISTS mover_datos_especificos;
+
+DELIMITER //
+CREATE PROCEDURE mover_datos_especificos()
+BEGIN
+	IF EXISTS (SELECT 1 FROM information_schema.columns
+			WHERE table_schema = DATABASE() AND table_name = 'SOLICITUDES' AND column_name = 'tipoEjercicio') THEN
+		INSERT INTO SOLICITUDES_DATOS_ESPECIFICOS (SOLICITUD,
+			conMunTrazadoraIluminanteFumigena, tipoEjercicio, armaPral, armaPrpalNumDisparosPrev, armaSecund,
+			armaSecundNumDisparosPrev, numBlancosFijosA, numBlancosFijosB, numBlancosFijosC, numBlancosFijosD,
+			numBlancosFijosE, numBlancosMovilesA, numBlancosMovilesB, numBlancosMovilesC, numBlancosMovilesD,
+			numBlancosMovilesE, arma1CT, arma1CTlongitud, arma2CT, arma2CTlongitud, explosivo, actividad, vivac,
+			conUsoCocina, numPersonasZVB, numPersonasZE, numVehCadenas, numVehRuedas, fechaHoraMontaje,
+			fechaHoraDesmontaje, numSimuladores, usoEstacionSeg, otrosDatosEspecificos)
+		SELECT s.id,
+			s.conMunTrazadoraIluminanteFumigena, s.tipoEjercicio, s.armaPral, s.armaPrpalNumDisparosPrev,
+			s.armaSecund, s.armaSecundNumDisparosPrev, s.numBlancosFijosA, s.numBlancosFijosB, s.numBlancosFijosC,
+			s.numBlancosFijosD, s.numBlancosFijosE, s.numBlancosMovilesA, s.numBlancosMovilesB, s.numBlancosMovilesC,
+			s.numBlancosMovilesD, s.numBlancosMovilesE, s.arma1CT, s.arma1CTlongitud, s.arma2CT, s.arma2CTlongitud,
+			s.explosivo, s.actividad, s.vivac, s.conUsoCocina, s.numPersonasZVB, s.numPersonasZE, s.numVehCadenas,
+			s.numVehRuedas, s.fechaHoraMontaje, s.fechaHoraDesmontaje, s.numSimuladores, s.usoEstacionSeg,
+			s.otrosDatosEspecificos
+		FROM SOLICITUDES s
+		WHERE NOT EXISTS (SELECT 1 FROM SOLICITUDES_DATOS_ESPECIFICOS d WHERE d.SOLICITUD = s.id) AND (
+			s.conMunTrazadoraIluminanteFumigena IS NOT NULL OR s.tipoEjercicio IS NOT NULL OR s.armaPral IS NOT NULL OR
+			s.armaPrpalNumDisparosPrev <> 0 OR s.armaSecund IS NOT NULL OR s.armaSecundNumDisparosPrev <> 0 OR
+			s.numBlancosFijosA <> 0 OR s.numBlancosFijosB <> 0 OR s.numBlancosFijosC <> 0 OR s.numBlancosFijosD <> 0 OR
+			s.numBlancosFijosE <> 0 OR s.numBlancosMovilesA <> 0 OR s.numBlancosMovilesB <> 0 OR
+			s.numBlancosMovilesC <> 0 OR s.numBlancosMovilesD <> 0 OR s.numBlancosMovilesE <> 0 OR
+			s.arma1CT IS NOT NULL OR s.arma1CTlongitud <> 0 OR s.arma2CT IS NOT NULL OR s.arma2CTlongitud <> 0 OR
+			s.explosivo IS NOT NULL OR s.actividad IS NOT NULL OR s.vivac IS NOT NULL OR s.conUsoCocina IS NOT NULL OR
+			s.numPersonasZVB <> 0 OR s.numPersonasZE <> 0 OR s.numVehCadenas <> 0 OR s.numVehRuedas <> 0 OR
+			s.fechaHoraMontaje IS NOT NULL OR s.fechaHoraDesmontaje IS NOT NULL OR s.numSimuladores <> 0 OR
+			s.usoEstacionSeg IS NOT NULL OR s.otrosDatosEspecificos IS NOT NULL);
+		ALTER TABLE SOLICITUDES
+			DROP COLUMN conMunTrazadoraIluminanteFumigena, DROP COLUMN tipoEjercicio, DROP COLUMN armaPral,
+			DROP COLUMN armaPrpalNumDisparosPrev, DROP COLUMN armaSecund, DROP COLUMN armaSecundNumDisparosPrev,
+			DROP COLUMN numBlancosFijosA, DROP COLUMN numBlancosFijosB, DROP COLUMN numBlancosFijosC,
+			DROP COLUMN numBlancosFijosD, DROP COLUMN numBlancosFijosE, DROP COLUMN numBlancosMovilesA,
+			DROP COLUMN numBlancosMovilesB, DROP COLUMN numBlancosMovilesC, DROP COLUMN numBlancosMovilesD,
+			DROP COLUMN numBlancosMovilesE, DROP COLUMN arma1CT, DROP COLUMN arma1CTlongitud, DROP COLUMN arma2CT,
+			DROP COLUMN arma2CTlongitud, DROP COLUMN explosivo, DROP COLUMN actividad, DROP COLUMN vivac,
+			DROP COLUMN conUsoCocina, DROP COLUMN numPersonasZVB, DROP COLUMN numPersonasZE,
+			DROP COLUMN numVehCadenas, DROP COLUMN numVehRuedas, DROP COLUMN fechaHoraMontaje,
+			DROP COLUMN fechaHoraDesmontaje, DROP COLUMN numSimuladores, DROP COLUMN usoEstacionSeg,
+			DROP COLUMN otrosDatosEspecificos;
+	END IF;
+END //
+DELIMITER ;
+
+CALL mover_datos_especificos();
+DROP PROCEDURE mover_datos_especificos;
@@ -0,0 +1,24 @@
+-- Token de cada CENAD y de cada recurso para suscribirse a su calendario ICS sin JWT. MySQL 8
+-- Las columnas las crea hbm2ddl al arrancar la aplicacion; el token se crea la primera vez que se pide la
+-- direccion de suscripcion. Se puede ejecutar varias veces: se comprueba en information_schema antes de crear
+-- cada columna
+
+DROP PROCEDURE IF EXISTS crear_columna;
+
+DELIMITER //
+CREATE PROCEDURE crear_columna(IN tabla VARCHAR(64), IN columna VARCHAR(64), IN tipo VARCHAR(64))
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+			WHERE table_schema = DATABASE() AND table_name = tabla AND column_name = columna) THEN
+		SET @sentencia = CONCAT('ALTER TABLE ', tabla, ' ADD COLUMN ', columna, ' ', tipo);
+		PREPARE sentencia FROM @sentencia;
+		EXECUTE sentencia;
+		DEALLOCATE PREPARE sentencia;
+	END IF;
+END //
+DELIMITER ;
+
+CALL crear_columna('CENADS', 'tokenCalendario', 'VARCHAR(64)');
+CALL crear_columna('RECURSOS', 'tokenCalendario', 'VARCHAR(64)');
+
+DROP PROCEDURE crear_columna;
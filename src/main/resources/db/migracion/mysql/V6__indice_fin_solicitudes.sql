@@ -0,0 +1,22 @@
+-- Indice (CENAD, fechaHoraFinRecurso) para el calendario de cada CENAD, que busca las solicitudes que terminan
+-- despues del inicio del periodo. MySQL 8
+-- Se puede ejecutar varias veces: se comprueba en information_schema antes de crear el indice
+
+DROP PROCEDURE IF EXISTS crear_indice;
+
+DELIMITER //
+CREATE PROCEDURE crear_indice(IN tabla VARCHAR(64), IN indice VARCHAR(64), IN columnas VARCHAR(255))
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+			WHERE table_schema = DATABASE() AND table_name = tabla AND index_name = indice) THEN
+		SET @sentencia = CONCAT('CREATE INDEX ', indice, ' ON ', tabla, ' (', columnas, ')');
+		PREPARE sentencia FROM @sentencia;
+		EXECUTE sentencia;
+		DEALLOCATE PREPARE sentencia;
+	END IF;
+END //
+DELIMITER ;
+
+CALL crear_indice('SOLICITUDES', 'IDX_SOLICITUDES_CENAD_FIN', 'CENAD, fechaHoraFinRecurso');
+
+DROP PROCEDURE crear_indice;
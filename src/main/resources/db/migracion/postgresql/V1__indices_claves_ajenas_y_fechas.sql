@@ -0,0 +1,19 @@
+-- Indices de claves ajenas y fechas usados por las consultas de solicitudes, recursos y categorias
+-- (los mismos que declaran las anotaciones @Index de las entidades). PostgreSQL
+-- Se puede ejecutar varias veces: solo crea los indices que no existan
+
+CREATE INDEX IF NOT EXISTS IDX_CATEGORIAS_RUTA ON CATEGORIAS (ruta);
+CREATE INDEX IF NOT EXISTS IDX_CATEGORIAS_CENAD ON CATEGORIAS (CENAD);
+CREATE INDEX IF NOT EXISTS IDX_CATEGORIAS_CATEGORIA_PADRE ON CATEGORIAS (CATEGORIA_PADRE);
+
+CREATE INDEX IF NOT EXISTS IDX_RECURSOS_CATEGORIA ON RECURSOS (CATEGORIA);
+
+CREATE INDEX IF NOT EXISTS IDX_USUARIOS_CENAD_ADMINISTRADO ON USUARIOS (CENAD_ADMINISTRADO);
+
+-- El indice compuesto (estado, fechaHoraInicioRecurso) sustituye al de solo estado
+DROP INDEX IF EXISTS IDX_SOLICITUDES_ESTADO;
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_ESTADO_FECHA ON SOLICITUDES (estado, fechaHoraInicioRecurso);
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_RECURSO_FECHA ON SOLICITUDES (RECURSO, fechaHoraInicioRecurso);
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_USUARIO_NORMAL ON SOLICITUDES (USUARIO_NORMAL);
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_FECHA_INICIO ON SOLICITUDES (fechaHoraInicioRecurso);
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_FECHA_SOLICITUD ON SOLICITUDES (fechaSolicitud);
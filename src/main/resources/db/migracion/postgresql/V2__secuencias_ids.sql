@@ -0,0 +1,29 @@
+-- Secuencias para generar los ids en bloques de 50 (ids.secuencias=true en config/gestionBBDD.properties). PostgreSQL
+-- Cada secuencia empieza por encima del mayor id de su tabla. Las columnas IDENTITY (GENERATED BY DEFAULT) admiten
+-- ids explicitos, por lo que se dejan como estan. Se puede ejecutar varias veces: reajusta las secuencias al mayor id
+-- Ejecutar con la aplicacion parada, antes de arrancarla con ids.secuencias=true
+
+CREATE SEQUENCE IF NOT EXISTS SEQ_CENADS INCREMENT BY 50;
+SELECT setval('SEQ_CENADS', (SELECT COALESCE(MAX(id), 0) + 1 FROM CENADS));
+CREATE SEQUENCE IF NOT EXISTS SEQ_CATEGORIAS INCREMENT BY 50;
+SELECT setval('SEQ_CATEGORIAS', (SELECT COALESCE(MAX(id), 0) + 1 FROM CATEGORIAS));
+CREATE SEQUENCE IF NOT EXISTS SEQ_RECURSOS INCREMENT BY 50;
+SELECT setval('SEQ_RECURSOS', (SELECT COALESCE(MAX(id), 0) + 1 FROM RECURSOS));
+CREATE SEQUENCE IF NOT EXISTS SEQ_SOLICITUDES INCREMENT BY 50;
+SELECT setval('SEQ_SOLICITUDES', (SELECT COALESCE(MAX(id), 0) + 1 FROM SOLICITUDES));
+CREATE SEQUENCE IF NOT EXISTS SEQ_SOLICITUDES_ARMAS INCREMENT BY 50;
+SELECT setval('SEQ_SOLICITUDES_ARMAS', (SELECT COALESCE(MAX(id), 0) + 1 FROM SOLICITUDES_ARMAS));
+CREATE SEQUENCE IF NOT EXISTS SEQ_ARMAS INCREMENT BY 50;
+SELECT setval('SEQ_ARMAS', (SELECT COALESCE(MAX(id), 0) + 1 FROM ARMAS));
+CREATE SEQUENCE IF NOT EXISTS SEQ_FICHEROS INCREMENT BY 50;
+SELECT setval('SEQ_FICHEROS', (SELECT COALESCE(MAX(id), 0) + 1 FROM FICHEROS));
+CREATE SEQUENCE IF NOT EXISTS SEQ_CATEGORIAS_FICHERO INCREMENT BY 50;
+SELECT setval('SEQ_CATEGORIAS_FICHERO', (SELECT COALESCE(MAX(id), 0) + 1 FROM CATEGORIAS_FICHERO));
+CREATE SEQUENCE IF NOT EXISTS SEQ_TIPOS_FORMULARIO INCREMENT BY 50;
+SELECT setval('SEQ_TIPOS_FORMULARIO', (SELECT COALESCE(MAX(id), 0) + 1 FROM TIPOS_FORMULARIO));
+CREATE SEQUENCE IF NOT EXISTS SEQ_CARTOGRAFIAS INCREMENT BY 50;
+SELECT setval('SEQ_CARTOGRAFIAS', (SELECT COALESCE(MAX(id), 0) + 1 FROM CARTOGRAFIAS));
+CREATE SEQUENCE IF NOT EXISTS SEQ_UNIDADES INCREMENT BY 50;
+SELECT setval('SEQ_UNIDADES', (SELECT COALESCE(MAX(id), 0) + 1 FROM UNIDADES));
+CREATE SEQUENCE IF NOT EXISTS SEQ_USUARIOS INCREMENT BY 50;
+SELECT setval('SEQ_USUARIOS', (SELECT COALESCE(MAX(id), 0) + 1 FROM USUARIOS));
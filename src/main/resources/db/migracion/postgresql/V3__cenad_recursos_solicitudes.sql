@@ -0,0 +1,16 @@
+-- CENAD de cada recurso (el de su categoria) y de cada solicitud (el de su recurso), para filtrar por CENAD sin
+-- recorrer recurso y categoria. PostgreSQL
+-- La columna CENAD y su clave ajena las crea hbm2ddl al arrancar la aplicacion, que tambien rellena las filas
+-- sin CENAD; este script permite rellenarlas antes con la aplicacion parada. Se puede ejecutar varias veces
+
+ALTER TABLE RECURSOS ADD COLUMN IF NOT EXISTS CENAD BIGINT;
+ALTER TABLE SOLICITUDES ADD COLUMN IF NOT EXISTS CENAD BIGINT;
+
+UPDATE RECURSOS r SET CENAD = c.CENAD FROM CATEGORIAS c
+	WHERE c.id = r.CATEGORIA AND r.CENAD IS DISTINCT FROM c.CENAD;
+UPDATE SOLICITUDES s SET CENAD = r.CENAD FROM RECURSOS r
+	WHERE r.id = s.RECURSO AND s.CENAD IS DISTINCT FROM r.CENAD;
+
+CREATE INDEX IF NOT EXISTS IDX_RECURSOS_CENAD ON RECURSOS (CENAD);
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_CENAD_FECHA ON SOLICITUDES (CENAD, fechaHoraInicioRecurso);
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_CENAD_ESTADO ON SOLICITUDES (CENAD, estado);
@@ -0,0 +1,6 @@
+-- Token de cada CENAD y de cada recurso para suscribirse a su calendario ICS sin JWT. PostgreSQL
+-- Las columnas las crea hbm2ddl al arrancar la aplicacion; el token se crea la primera vez que se pide la
+-- direccion de suscripcion. Se puede ejecutar varias veces
+
+ALTER TABLE CENADS ADD COLUMN IF NOT EXISTS tokenCalendario VARCHAR(64);
+ALTER TABLE RECURSOS ADD COLUMN IF NOT EXISTS tokenCalendario VARCHAR(64);
@@ -0,0 +1,5 @@
+-- Indice (CENAD, fechaHoraFinRecurso) para el calendario de cada CENAD, que busca las solicitudes que terminan
+-- despues del inicio del periodo. PostgreSQL
+-- Se puede ejecutar varias veces: solo crea el indice si no existe
+
+CREATE INDEX IF NOT EXISTS IDX_SOLICITUDES_CENAD_FIN ON SOLICITUDES (CENAD, fechaHoraFinRecurso);
@@ -0,0 +1,29 @@
+-- Indices de claves ajenas y fechas usados por las consultas de solicitudes, recursos y categorias
+-- (los mismos que declaran las anotaciones @Index de las entidades). SQL Server 2016 o superior
+-- Se puede ejecutar varias veces: solo crea los indices que no existan
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_CATEGORIAS_RUTA' AND object_id = OBJECT_ID('CATEGORIAS'))
+	CREATE INDEX IDX_CATEGORIAS_RUTA ON CATEGORIAS (ruta);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_CATEGORIAS_CENAD' AND object_id = OBJECT_ID('CATEGORIAS'))
+	CREATE INDEX IDX_CATEGORIAS_CENAD ON CATEGORIAS (CENAD);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_CATEGORIAS_CATEGORIA_PADRE' AND object_id = OBJECT_ID('CATEGORIAS'))
+	CREATE INDEX IDX_CATEGORIAS_CATEGORIA_PADRE ON CATEGORIAS (CATEGORIA_PADRE);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_RECURSOS_CATEGORIA' AND object_id = OBJECT_ID('RECURSOS'))
+	CREATE INDEX IDX_RECURSOS_CATEGORIA ON RECURSOS (CATEGORIA);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_USUARIOS_CENAD_ADMINISTRADO' AND object_id = OBJECT_ID('USUARIOS'))
+	CREATE INDEX IDX_USUARIOS_CENAD_ADMINISTRADO ON USUARIOS (CENAD_ADMINISTRADO);
+
+-- El indice compuesto (estado, fechaHoraInicioRecurso) sustituye al de solo estado
+DROP INDEX IF EXISTS IDX_SOLICITUDES_ESTADO ON SOLICITUDES;
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_ESTADO_FECHA' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_ESTADO_FECHA ON SOLICITUDES (estado, fechaHoraInicioRecurso);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_RECURSO_FECHA' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_RECURSO_FECHA ON SOLICITUDES (RECURSO, fechaHoraInicioRecurso);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_USUARIO_NORMAL' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_USUARIO_NORMAL ON SOLICITUDES (USUARIO_NORMAL);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_FECHA_INICIO' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_FECHA_INICIO ON SOLICITUDES (fechaHoraInicioRecurso);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_FECHA_SOLICITUD' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_FECHA_SOLICITUD ON SOLICITUDES (fechaSolicitud);
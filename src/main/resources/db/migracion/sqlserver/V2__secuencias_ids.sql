@@ -0,0 +1,84 @@
+-- Secuencias para generar los ids en bloques de 50 (ids.secuencias=true en config/gestionBBDD.properties).
+-- SQL Server 2016 o superior. Se puede ejecutar varias veces: reajusta las secuencias al mayor id
+-- Ejecutar con la aplicacion parada, antes de arrancarla con ids.secuencias=true
+
+-- SQL Server no admite ids explicitos en una columna IDENTITY ni permite quitarle esa propiedad con ALTER COLUMN:
+-- se borran las claves ajenas que apuntan a la tabla y las restricciones de la columna id, se copia el id en una
+-- columna nueva que la sustituye y se vuelven a crear la clave primaria y las claves ajenas
+CREATE PROCEDURE #QUITAR_IDENTITY @tabla SYSNAME AS
+BEGIN
+	SET NOCOUNT ON;
+	IF COLUMNPROPERTY(OBJECT_ID(@tabla), 'id', 'IsIdentity') = 0
+		RETURN;
+	DECLARE @borrar NVARCHAR(MAX) = N'', @crear NVARCHAR(MAX) = N'', @sql NVARCHAR(MAX);
+	SELECT @borrar += N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N';',
+		@crear += N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' ADD CONSTRAINT ' + QUOTENAME(fk.name)
+			+ N' FOREIGN KEY (' + QUOTENAME(COL_NAME(fkc.parent_object_id, fkc.parent_column_id)) + N') REFERENCES '
+			+ QUOTENAME(@tabla) + N' (id);'
+	FROM sys.foreign_keys fk JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id
+	WHERE fk.referenced_object_id = OBJECT_ID(@tabla);
+	SELECT @borrar += N'ALTER TABLE ' + QUOTENAME(@tabla) + N' DROP CONSTRAINT ' + QUOTENAME(kc.name) + N';'
+	FROM sys.key_constraints kc JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id
+	WHERE kc.parent_object_id = OBJECT_ID(@tabla) AND COL_NAME(ic.object_id, ic.column_id) = 'id';
+	EXEC sp_executesql @borrar;
+	SET @sql = N'ALTER TABLE ' + QUOTENAME(@tabla) + N' ADD id_nuevo BIGINT NULL;';
+	EXEC sp_executesql @sql;
+	SET @sql = N'UPDATE ' + QUOTENAME(@tabla) + N' SET id_nuevo = id;'
+		+ N'ALTER TABLE ' + QUOTENAME(@tabla) + N' DROP COLUMN id;';
+	EXEC sp_executesql @sql;
+	SET @sql = @tabla + N'.id_nuevo';
+	EXEC sp_rename @sql, N'id', N'COLUMN';
+	SET @sql = N'ALTER TABLE ' + QUOTENAME(@tabla) + N' ALTER COLUMN id BIGINT NOT NULL;';
+	EXEC sp_executesql @sql;
+	SET @sql = N'ALTER TABLE ' + QUOTENAME(@tabla) + N' ADD CONSTRAINT ' + QUOTENAME(N'PK_' + @tabla) + N' PRIMARY KEY (id);';
+	EXEC sp_executesql @sql;
+	EXEC sp_executesql @crear;
+END
+GO
+
+-- Crea la secuencia de una tabla, o la reajusta si ya existe, para que empiece por encima del mayor id
+CREATE PROCEDURE #CREAR_SECUENCIA @tabla SYSNAME AS
+BEGIN
+	SET NOCOUNT ON;
+	DECLARE @inicio BIGINT, @sql NVARCHAR(MAX), @secuencia SYSNAME = N'SEQ_' + @tabla;
+	SET @sql = N'SELECT @inicio = COALESCE(MAX(id), 0) + 51 FROM ' + QUOTENAME(@tabla) + N';';
+	EXEC sp_executesql @sql, N'@inicio BIGINT OUTPUT', @inicio OUTPUT;
+	IF OBJECT_ID(@secuencia, 'SO') IS NULL
+		SET @sql = N'CREATE SEQUENCE ' + QUOTENAME(@secuencia) + N' AS BIGINT START WITH ' + CAST(@inicio AS NVARCHAR(20)) + N' INCREMENT BY 50;';
+	ELSE
+		SET @sql = N'ALTER SEQUENCE ' + QUOTENAME(@secuencia) + N' RESTART WITH ' + CAST(@inicio AS NVARCHAR(20)) + N';';
+	EXEC sp_executesql @sql;
+END
+GO
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+EXEC #QUITAR_IDENTITY 'CENADS';
+EXEC #QUITAR_IDENTITY 'CATEGORIAS';
+EXEC #QUITAR_IDENTITY 'RECURSOS';
+EXEC #QUITAR_IDENTITY 'SOLICITUDES';
+EXEC #QUITAR_IDENTITY 'SOLICITUDES_ARMAS';
+EXEC #QUITAR_IDENTITY 'ARMAS';
+EXEC #QUITAR_IDENTITY 'FICHEROS';
+EXEC #QUITAR_IDENTITY 'CATEGORIAS_FICHERO';
+EXEC #QUITAR_IDENTITY 'TIPOS_FORMULARIO';
+EXEC #QUITAR_IDENTITY 'CARTOGRAFIAS';
+EXEC #QUITAR_IDENTITY 'UNIDADES';
+EXEC #QUITAR_IDENTITY 'USUARIOS';
+EXEC #CREAR_SECUENCIA 'CENADS';
+EXEC #CREAR_SECUENCIA 'CATEGORIAS';
+EXEC #CREAR_SECUENCIA 'RECURSOS';
+EXEC #CREAR_SECUENCIA 'SOLICITUDES';
+EXEC #CREAR_SECUENCIA 'SOLICITUDES_ARMAS';
+EXEC #CREAR_SECUENCIA 'ARMAS';
+EXEC #CREAR_SECUENCIA 'FICHEROS';
+EXEC #CREAR_SECUENCIA 'CATEGORIAS_FICHERO';
+EXEC #CREAR_SECUENCIA 'TIPOS_FORMULARIO';
+EXEC #CREAR_SECUENCIA 'CARTOGRAFIAS';
+EXEC #CREAR_SECUENCIA 'UNIDADES';
+EXEC #CREAR_SECUENCIA 'USUARIOS';
+COMMIT;
+GO
+
+DROP PROCEDURE #QUITAR_IDENTITY;
+DROP PROCEDURE #CREAR_SECUENCIA;
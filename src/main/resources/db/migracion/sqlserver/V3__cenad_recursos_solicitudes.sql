@@ -0,0 +1,22 @@
+-- CENAD de cada recurso (el de su categoria) y de cada solicitud (el de su recurso), para filtrar por CENAD sin
+-- recorrer recurso y categoria. SQL Server 2016 o superior
+-- La columna CENAD y su clave ajena las crea hbm2ddl al arrancar la aplicacion, que tambien rellena las filas
+-- sin CENAD; este script permite rellenarlas antes con la aplicacion parada. Se puede ejecutar varias veces
+
+IF COL_LENGTH('RECURSOS', 'CENAD') IS NULL
+	ALTER TABLE RECURSOS ADD CENAD BIGINT;
+IF COL_LENGTH('SOLICITUDES', 'CENAD') IS NULL
+	ALTER TABLE SOLICITUDES ADD CENAD BIGINT;
+GO
+
+UPDATE r SET r.CENAD = c.CENAD FROM RECURSOS r JOIN CATEGORIAS c ON c.id = r.CATEGORIA
+	WHERE r.CENAD IS NULL OR r.CENAD <> c.CENAD;
+UPDATE s SET s.CENAD = r.CENAD FROM SOLICITUDES s JOIN RECURSOS r ON r.id = s.RECURSO
+	WHERE (s.CENAD IS NULL AND r.CENAD IS NOT NULL) OR s.CENAD <> r.CENAD;
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_RECURSOS_CENAD' AND object_id = OBJECT_ID('RECURSOS'))
+	CREATE INDEX IDX_RECURSOS_CENAD ON RECURSOS (CENAD);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_CENAD_FECHA' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_CENAD_FECHA ON SOLICITUDES (CENAD, fechaHoraInicioRecurso);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_CENAD_ESTADO' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_CENAD_ESTADO ON SOLICITUDES (CENAD, estado);
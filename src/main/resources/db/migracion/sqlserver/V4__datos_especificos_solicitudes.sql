@@ -0,0 +1,88 @@
+-- Datos especificos del formulario de cada solicitud, que pasan de SOLICITUDES a su propia tabla con el mismo
+-- id (DatosEspecificosSolicitud). Solo se copian las solicitudes que tienen alguno relleno. SQL Server 2016 o superior
+-- Ejecutar con la aplicacion parada, antes de arrancar la version que ya no tiene estas columnas en SOLICITUDES:
+-- las columnas numericas son NOT NULL y los INSERT de la aplicacion fallarian mientras existan.
+-- Se puede ejecutar varias veces: si las columnas ya no estan en SOLICITUDES no hace nada
+
+IF OBJECT_ID('SOLICITUDES_DATOS_ESPECIFICOS') IS NULL
+	CREATE TABLE SOLICITUDES_DATOS_ESPECIFICOS (
+		SOLICITUD bigint not null,
+		conMunTrazadoraIluminanteFumigena bit,
+		tipoEjercicio varchar(255),
+		armaPral varchar(255),
+		armaPrpalNumDisparosPrev int not null,
+		armaSecund varchar(255),
+		armaSecundNumDisparosPrev int not null,
+		numBlancosFijosA int not null,
+		numBlancosFijosB int not null,
+		numBlancosFijosC int not null,
+		numBlancosFijosD int not null,
+		numBlancosFijosE int not null,
+		numBlancosMovilesA int not null,
+		numBlancosMovilesB int not null,
+		numBlancosMovilesC int not null,
+		numBlancosMovilesD int not null,
+		numBlancosMovilesE int not null,
+		arma1CT varchar(255),
+		arma1CTlongitud int not null,
+		arma2CT varchar(255),
+		arma2CTlongitud int not null,
+		explosivo varchar(255),
+		actividad varchar(255),
+		vivac varchar(255),
+		conUsoCocina bit,
+		numPersonasZVB int not null,
+		numPersonasZE int not null,
+		numVehCadenas int not null,
+		numVehRuedas int not null,
+		fechaHoraMontaje datetime2(6),
+		fechaHoraDesmontaje datetime2(6),
+		numSimuladores int not null,
+		usoEstacionSeg varchar(255),
+		otrosDatosEspecificos varchar(255),
+		PRIMARY KEY (SOLICITUD),
+		CONSTRAINT FK_SOLICITUDES_DATOS_ESPECIFICOS FOREIGN KEY (SOLICITUD) REFERENCES SOLICITUDES (id)
+	);
+GO
+
+-- con EXEC, porque las sentencias se compilan antes de comprobar si existen las columnas
+IF COL_LENGTH('SOLICITUDES', 'tipoEjercicio') IS NOT NULL
+BEGIN
+	BEGIN TRANSACTION;
+	EXEC('INSERT INTO SOLICITUDES_DATOS_ESPECIFICOS (SOLICITUD,
+		conMunTrazadoraIluminanteFumigena, tipoEjercicio, armaPral, armaPrpalNumDisparosPrev, armaSecund,
+		armaSecundNumDisparosPrev, numBlancosFijosA, numBlancosFijosB, numBlancosFijosC, numBlancosFijosD,
+		numBlancosFijosE, numBlancosMovilesA, numBlancosMovilesB, numBlancosMovilesC, numBlancosMovilesD,
+		numBlancosMovilesE, arma1CT, arma1CTlongitud, arma2CT, arma2CTlongitud, explosivo, actividad, vivac,
+		conUsoCocina, numPersonasZVB, numPersonasZE, numVehCadenas, numVehRuedas, fechaHoraMontaje,
+		fechaHoraDesmontaje, numSimuladores, usoEstacionSeg, otrosDatosEspecificos)
+	SELECT s.id,
+		s.conMunTrazadoraIluminanteFumigena, s.tipoEjercicio, s.armaPral, s.armaPrpalNumDisparosPrev, s.armaSecund,
+		s.armaSecundNumDisparosPrev, s.numBlancosFijosA, s.numBlancosFijosB, s.numBlancosFijosC,
+		s.numBlancosFijosD, s.numBlancosFijosE, s.numBlancosMovilesA, s.numBlancosMovilesB, s.numBlancosMovilesC,
+		s.numBlancosMovilesD, s.numBlancosMovilesE, s.arma1CT, s.arma1CTlongitud, s.arma2CT, s.arma2CTlongitud,
+		s.explosivo, s.actividad, s.vivac, s.conUsoCocina, s.numPersonasZVB, s.numPersonasZE, s.numVehCadenas,
+		s.numVehRuedas, s.fechaHoraMontaje, s.fechaHoraDesmontaje, s.numSimuladores, s.usoEstacionSeg,
+		s.otrosDatosEspecificos
+	FROM SOLICITUDES s
+	WHERE NOT EXISTS (SELECT 1 FROM SOLICITUDES_DATOS_ESPECIFICOS d WHERE d.SOLICITUD = s.id) AND (
+		s.conMunTrazadoraIluminanteFumigena IS NOT NULL OR s.tipoEjercicio IS NOT NULL OR s.armaPral IS NOT NULL OR
+		s.armaPrpalNumDisparosPrev <> 0 OR s.armaSecund IS NOT NULL OR s.armaSecundNumDisparosPrev <> 0 OR
+		s.numBlancosFijosA <> 0 OR s.numBlancosFijosB <> 0 OR s.numBlancosFijosC <> 0 OR s.numBlancosFijosD <> 0 OR
+		s.numBlancosFijosE <> 0 OR s.numBlancosMovilesA <> 0 OR s.numBlancosMovilesB <> 0 OR
+		s.numBlancosMovilesC <> 0 OR s.numBlancosMovilesD <> 0 OR s.numBlancosMovilesE <> 0 OR
+		s.arma1CT IS NOT NULL OR s.arma1CTlongitud <> 0 OR s.arma2CT IS NOT NULL OR s.arma2CTlongitud <> 0 OR
+		s.explosivo IS NOT NULL OR s.actividad IS NOT NULL OR s.vivac IS NOT NULL OR s.conUsoCocina IS NOT NULL OR
+		s.numPersonasZVB <> 0 OR s.numPersonasZE <> 0 OR s.numVehCadenas <> 0 OR s.numVehRuedas <> 0 OR
+		s.fechaHoraMontaje IS NOT NULL OR s.fechaHoraDesmontaje IS NOT NULL OR s.numSimuladores <> 0 OR
+		s.usoEstacionSeg IS NOT NULL OR s.otrosDatosEspecificos IS NOT NULL)');
+	EXEC('ALTER TABLE SOLICITUDES DROP COLUMN
+		conMunTrazadoraIluminanteFumigena, tipoEjercicio, armaPral, armaPrpalNumDisparosPrev, armaSecund,
+		armaSecundNumDisparosPrev, numBlancosFijosA, numBlancosFijosB, numBlancosFijosC, numBlancosFijosD,
+		numBlancosFijosE, numBlancosMovilesA, numBlancosMovilesB, numBlancosMovilesC, numBlancosMovilesD,
+		numBlancosMovilesE, arma1CT, arma1CTlongitud, arma2CT, arma2CTlongitud, explosivo, actividad, vivac,
+		conUsoCocina, numPersonasZVB, numPersonasZE, numVehCadenas, numVehRuedas, fechaHoraMontaje,
+		fechaHoraDesmontaje, numSimuladores, usoEstacionSeg, otrosDatosEspecificos');
+	COMMIT;
+END
+GO
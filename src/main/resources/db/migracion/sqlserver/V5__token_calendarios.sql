@@ -0,0 +1,9 @@
+-- Token de cada CENAD y de cada recurso para suscribirse a su calendario ICS sin JWT. SQL Server 2016 o superior
+-- Las columnas las crea hbm2ddl al arrancar la aplicacion; el token se crea la primera vez que se pide la
+-- direccion de suscripcion. Se puede ejecutar varias veces
+
+IF COL_LENGTH('CENADS', 'tokenCalendario') IS NULL
+	ALTER TABLE CENADS ADD tokenCalendario VARCHAR(64);
+IF COL_LENGTH('RECURSOS', 'tokenCalendario') IS NULL
+	ALTER TABLE RECURSOS ADD tokenCalendario VARCHAR(64);
+GO
@@ -0,0 +1,6 @@
+-- Indice (CENAD, fechaHoraFinRecurso) para el calendario de cada CENAD, que busca las solicitudes que terminan
+-- despues del inicio del periodo. SQL Server 2016 o superior
+-- Se puede ejecutar varias veces: solo crea el indice si no existe
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IDX_SOLICITUDES_CENAD_FIN' AND object_id = OBJECT_ID('SOLICITUDES'))
+	CREATE INDEX IDX_SOLICITUDES_CENAD_FIN ON SOLICITUDES (CENAD, fechaHoraFinRecurso);
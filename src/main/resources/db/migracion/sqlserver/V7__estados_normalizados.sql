@@ -0,0 +1,9 @@
+-- Escribe el estado de las solicitudes como en EstadoSolicitud, para que las consultas lo comparen sin lower() y
+-- se usen los indices por estado. SQL Server 2016 o superior
+-- Se puede ejecutar varias veces: solo cambia la forma de escribirlos
+
+UPDATE SOLICITUDES SET estado = 'Borrador' WHERE lower(estado) = 'borrador';
+UPDATE SOLICITUDES SET estado = 'Solicitada' WHERE lower(estado) = 'solicitada';
+UPDATE SOLICITUDES SET estado = 'Rechazada' WHERE lower(estado) = 'rechazada';
+UPDATE SOLICITUDES SET estado = 'Validada' WHERE lower(estado) = 'validada';
+UPDATE SOLICITUDES SET estado = 'Cancelada' WHERE lower(estado) = 'cancelada';
@@ -0,0 +1,45 @@
+package es.mde.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import es.mde.models.NodoCategoria;
+import es.mde.repositorios.CategoriaDAO;
+
+/**
+ * Comprueba que la cache del arbol de categorias no se queda con un arbol leido mientras otra operacion lo invalidaba
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class ArbolCategoriasServiceTest {
+
+	private final CategoriaDAO categoriaDAO = mock(CategoriaDAO.class);
+
+	private final ArbolCategoriasServiceImpl arbolCategoriasService = new ArbolCategoriasServiceImpl(categoriaDAO);
+
+	@Test
+	void unArbolInvalidadoMientrasSeLeeNoSeGuarda() {
+		NodoCategoria antigua = new NodoCategoria(1L, "1", "Antigua", null, null);
+		NodoCategoria nueva = new NodoCategoria(1L, "1", "Nueva", null, null);
+		// la primera lectura ve la categoria antes de que otra transaccion la cambie e invalide el arbol
+		when(categoriaDAO.findNodosCenad(7L)).thenAnswer(invocacion -> {
+			arbolCategoriasService.invalidarCenad(7L);
+			return List.of(antigua);
+		}).thenReturn(List.of(nueva));
+
+		assertEquals("Antigua", arbolCategoriasService.getArbolCenad(7L, false).get(0).getNombre());
+		List<NodoCategoria> arbol = arbolCategoriasService.getArbolCenad(7L, false);
+		assertEquals("Nueva", arbol.get(0).getNombre());
+		assertSame(arbol, arbolCategoriasService.getArbolCenad(7L, false));
+		verify(categoriaDAO, times(2)).findNodosCenad(7L);
+	}
+}
@@ -0,0 +1,114 @@
+package es.mde.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba el arbol de intervalos de las solicitudes de un recurso comparandolo con la busqueda lineal
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class ArbolIntervalosTest {
+
+	@Test
+	void losIntervalosSonSemiabiertos() {
+		ArbolIntervalos arbol = new ArbolIntervalos();
+		arbol.insertar(1, 10, 20);
+		assertEquals(List.of(), arbol.solapados(20, 30));
+		assertEquals(List.of(), arbol.solapados(0, 10));
+		assertEquals(List.of(1L), arbol.solapados(19, 30));
+		assertEquals(List.of(1L), arbol.solapados(0, 11));
+		assertEquals(List.of(1L), arbol.solapados(12, 13));
+		assertEquals(List.of(1L), arbol.solapados(0, 100));
+	}
+
+	@Test
+	void insertarSustituyeElIntervaloDeLaSolicitud() {
+		ArbolIntervalos arbol = new ArbolIntervalos();
+		arbol.insertar(1, 10, 20);
+		arbol.insertar(1, 50, 60);
+		assertEquals(1, arbol.size());
+		assertEquals(List.of(), arbol.solapados(10, 20));
+		assertEquals(List.of(1L), arbol.solapados(55, 56));
+	}
+
+	@Test
+	void losMismosIniciosSeOrdenanPorId() {
+		ArbolIntervalos arbol = new ArbolIntervalos();
+		arbol.insertar(3, 10, 20);
+		arbol.insertar(1, 10, 15);
+		arbol.insertar(2, 5, 40);
+		arbol.insertar(4, 10, 30);
+		assertEquals(List.of(2L, 1L, 3L, 4L), arbol.solapados(12, 13));
+		arbol.eliminar(1);
+		arbol.eliminar(5);
+		assertEquals(List.of(2L, 3L, 4L), arbol.solapados(12, 13));
+		assertEquals(List.of(2L, 4L), arbol.solapados(25, 26));
+	}
+
+	@Test
+	void sigueEquilibradoConLosIniciosOrdenados() {
+		// sin equilibrar seria una lista y la recursion desbordaria la pila
+		ArbolIntervalos arbol = new ArbolIntervalos();
+		int intervalos = 200000;
+		for (int i = 0; i < intervalos; i++) {
+			arbol.insertar(i, i * 10L, i * 10L + 10);
+		}
+		assertEquals(List.of(99999L, 100000L), arbol.solapados(999995, 1000005));
+		for (int i = 0; i < intervalos; i += 2) {
+			arbol.eliminar(i);
+		}
+		assertEquals(intervalos / 2, arbol.size());
+		assertEquals(List.of(99999L), arbol.solapados(999995, 1000005));
+	}
+
+	@Test
+	void encuentraLoMismoQueLaBusquedaLineal() {
+		Random aleatorio = new Random(42);
+		ArbolIntervalos arbol = new ArbolIntervalos();
+		Map<Long, long[]> intervalos = new HashMap<>();
+		for (int paso = 0; paso < 20000; paso++) {
+			long id = aleatorio.nextInt(500);
+			if (aleatorio.nextInt(3) == 0) {
+				arbol.eliminar(id);
+				intervalos.remove(id);
+			} else {
+				long inicio = aleatorio.nextInt(10000);
+				long fin = inicio + 1 + aleatorio.nextInt(aleatorio.nextBoolean() ? 50 : 2000);
+				arbol.insertar(id, inicio, fin);
+				intervalos.put(id, new long[] { inicio, fin });
+			}
+			assertEquals(intervalos.size(), arbol.size());
+			if (paso % 10 == 0) {
+				long desde = aleatorio.nextInt(10000);
+				long hasta = desde + 1 + aleatorio.nextInt(500);
+				assertEquals(solapados(intervalos, desde, hasta), arbol.solapados(desde, hasta));
+			}
+		}
+		assertTrue(arbol.size() > 0);
+	}
+
+	/**
+	 * Busqueda lineal, ordenada como el arbol por inicio e id
+	 */
+	private static List<Long> solapados(Map<Long, long[]> intervalos, long desde, long hasta) {
+		List<Long> ids = new ArrayList<>();
+		intervalos.forEach((id, v) -> {
+			if (v[0] < hasta && v[1] > desde) {
+				ids.add(id);
+			}
+		});
+		ids.sort(Comparator.<Long>comparingLong(id -> intervalos.get(id)[0]).thenComparing(id -> id));
+		return ids;
+	}
+}
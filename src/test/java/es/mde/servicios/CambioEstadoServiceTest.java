@@ -0,0 +1,99 @@
+package es.mde.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.CambioEstado;
+import es.mde.models.ResultadoCambioEstado;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Comprueba que el cambio de estado solo cambia las solicitudes que estan en el estado actual indicado, que bloquea
+ * los recursos antes de leer las solicitudes y que una solicitud que pasaria a ocupar un recurso ocupado se queda
+ * como estaba
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class CambioEstadoServiceTest {
+
+	private final SolicitudRecursoDAO solicitudRecursoDAO = mock(SolicitudRecursoDAO.class);
+	private final RecursoDAO recursoDAO = mock(RecursoDAO.class);
+	private final ConflictosRecursoService conflictosRecursoService = mock(ConflictosRecursoService.class);
+
+	private final CambioEstadoServiceImpl cambioEstadoService = new CambioEstadoServiceImpl(solicitudRecursoDAO,
+			recursoDAO, conflictosRecursoService);
+
+	@Test
+	void soloCambiaLasQueEstanEnElEstadoActual() {
+		SolicitudRecurso solicitada = solicitud(1L, "Solicitada");
+		SolicitudRecurso validada = solicitud(2L, "Validada");
+		when(solicitudRecursoDAO.findParaCambiarEstadoByIds(List.of(1L, 2L, 3L))).thenReturn(List.of(validada, solicitada));
+
+		ResultadoCambioEstado resultado = cambioEstadoService
+				.cambiarEstado(new CambioEstado(List.of(1L, 2L, 3L, 2L), "RECHAZADA", "solicitada"));
+
+		assertEquals(List.of(1L), resultado.getCambiadas());
+		assertEquals("La solicitud esta en estado Validada y no en Solicitada", resultado.getErrores().get(2L));
+		assertEquals("No existe la solicitud", resultado.getErrores().get(3L));
+		assertEquals("Rechazada", solicitada.getEstado());
+		assertEquals("Validada", validada.getEstado());
+		// rechazar no ocupa ningun recurso, asi que no hace falta bloquearlos
+		verify(recursoDAO, never()).findParaReservarByIds(anyCollection());
+		assertThrows(IllegalArgumentException.class,
+				() -> cambioEstadoService.cambiarEstado(new CambioEstado(List.of(1L), "Rechazada", "Pendiente")));
+	}
+
+	@Test
+	void bloqueaLosRecursosAntesQueLasSolicitudes() {
+		SolicitudRecurso cancelada = solicitud(1L, "Cancelada");
+		when(solicitudRecursoDAO.findIdsRecursoByIds(List.of(1L))).thenReturn(List.of(10L));
+		when(solicitudRecursoDAO.findParaCambiarEstadoByIds(List.of(1L))).thenReturn(List.of(cancelada));
+
+		assertEquals(List.of(1L), cambioEstadoService.cambiarEstado(new CambioEstado(List.of(1L), "Validada", null))
+				.getCambiadas());
+
+		InOrder orden = inOrder(solicitudRecursoDAO, recursoDAO, conflictosRecursoService);
+		orden.verify(recursoDAO).findParaReservarByIds(List.of(10L));
+		orden.verify(solicitudRecursoDAO).findParaCambiarEstadoByIds(List.of(1L));
+		orden.verify(conflictosRecursoService).comprobarConflictos(cancelada);
+		orden.verify(conflictosRecursoService).actualizarSolicitud(cancelada);
+	}
+
+	@Test
+	void siElRecursoEstaOcupadoLaSolicitudSeQuedaComoEstaba() {
+		SolicitudRecurso cancelada = solicitud(1L, "Cancelada");
+		when(solicitudRecursoDAO.findIdsRecursoByIds(List.of(1L))).thenReturn(List.of(10L));
+		when(solicitudRecursoDAO.findParaCambiarEstadoByIds(List.of(1L))).thenReturn(List.of(cancelada));
+		doThrow(new ConflictoRecursoException("Ocupado")).when(conflictosRecursoService).comprobarConflictos(any());
+
+		ResultadoCambioEstado resultado = cambioEstadoService.cambiarEstado(new CambioEstado(List.of(1L), "Validada", null));
+
+		assertEquals(List.of(), resultado.getCambiadas());
+		assertEquals("Ocupado", resultado.getErrores().get(1L));
+		assertEquals("Cancelada", cancelada.getEstado());
+		verify(conflictosRecursoService, never()).actualizarSolicitud(any());
+	}
+
+	private static SolicitudRecurso solicitud(Long id, String estado) {
+		SolicitudRecurso solicitud = new SolicitudRecurso();
+		solicitud.setId(id);
+		solicitud.setEstado(estado);
+		return solicitud;
+	}
+}
@@ -0,0 +1,127 @@
+package es.mde.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.models.DisponibilidadRecurso;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Comprueba que los dias ocupados se cuentan en la zona de los calendarios aunque el servidor este en otra, y que un
+ * dia que comparten varias solicitudes sigue ocupado hasta que se libera la ultima
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class DisponibilidadRecursosServiceTest {
+
+	private static final long ID_CENAD = 3L;
+
+	private final TimeZone zonaServidor = TimeZone.getDefault();
+
+	private final RecursoDAO recursoDAO = mock(RecursoDAO.class);
+	private final SolicitudRecursoDAO solicitudRecursoDAO = mock(SolicitudRecursoDAO.class);
+
+	private final DisponibilidadRecursosServiceImpl disponibilidadRecursosService = new DisponibilidadRecursosServiceImpl(
+			recursoDAO, mock(CategoriaDAO.class), solicitudRecursoDAO);
+
+	private final Recurso recurso = new Recurso();
+
+	@AfterEach
+	void restaurarZona() {
+		TimeZone.setDefault(zonaServidor);
+	}
+
+	@Test
+	void losDiasNoDependenDeLaZonaDelServidor() {
+		TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati"));
+		// de las 23:00 UTC del dia 1 a las 00:00 UTC del dia 3: el fin esta excluido, asi que el dia 3 queda libre
+		cargar(new Object[] { 1L, 10L, fecha("2040-03-01T23:00:00Z"), fecha("2040-03-03T00:00:00Z") });
+
+		DisponibilidadRecurso disponibilidad = disponibilidad("2040-02-28", "2040-03-04");
+		assertEquals(List.of(instante("2040-02-28T00:00:00Z"), instante("2040-03-01T00:00:00Z"),
+				instante("2040-03-03T00:00:00Z"), instante("2040-03-05T00:00:00Z")), bordes(disponibilidad));
+	}
+
+	@Test
+	void seAdmitenFechasAnterioresA1970() {
+		cargar(new Object[] { 1L, 10L, fecha("1965-06-10T08:00:00Z"), fecha("1965-06-11T08:00:00Z") });
+		disponibilidad("2040-01-01", "2040-01-02");
+
+		// la solicitud nueva esta muy lejos de la que se cargo, por delante
+		disponibilidadRecursosService.actualizarSolicitud(solicitud(11L, "2090-01-01T10:00:00Z", "2090-01-01T12:00:00Z"));
+		assertFalse(disponibilidad("1965-06-10", "1965-06-11").isLibre());
+		assertTrue(disponibilidad("1965-06-12", "2089-12-31").isLibre());
+		assertFalse(disponibilidad("2090-01-01", "2090-01-01").isLibre());
+	}
+
+	@Test
+	void unDiaCompartidoSeLiberaConLaUltimaSolicitud() {
+		cargar(new Object[] { 1L, 10L, fecha("2040-05-01T08:00:00Z"), fecha("2040-05-03T08:00:00Z") },
+				new Object[] { 1L, 11L, fecha("2040-05-03T10:00:00Z"), fecha("2040-05-04T08:00:00Z") });
+		assertFalse(disponibilidad("2040-05-03", "2040-05-03").isLibre());
+
+		disponibilidadRecursosService.eliminarSolicitud(solicitud(10L, null, null));
+		assertTrue(disponibilidad("2040-05-01", "2040-05-02").isLibre());
+		assertFalse(disponibilidad("2040-05-03", "2040-05-03").isLibre());
+
+		// mover la otra solicitud libera sus dias anteriores
+		disponibilidadRecursosService.actualizarSolicitud(solicitud(11L, "2040-05-20T10:00:00Z", "2040-05-20T12:00:00Z"));
+		assertTrue(disponibilidad("2040-05-01", "2040-05-19").isLibre());
+		assertFalse(disponibilidad("2040-05-20", "2040-05-20").isLibre());
+	}
+
+	private void cargar(Object[]... intervalos) {
+		recurso.setId(1L);
+		recurso.setNombre("Recurso");
+		when(recursoDAO.findByCenad(ID_CENAD)).thenReturn(List.of(recurso));
+		when(solicitudRecursoDAO.findIntervalosRecursos(anyCollection())).thenReturn(List.of(intervalos));
+	}
+
+	private DisponibilidadRecurso disponibilidad(String desde, String hasta) {
+		return disponibilidadRecursosService
+				.getDisponibilidadCenad(ID_CENAD, LocalDate.parse(desde), LocalDate.parse(hasta)).getRecursos().get(0);
+	}
+
+	private SolicitudRecurso solicitud(Long id, String inicio, String fin) {
+		SolicitudRecurso solicitud = new SolicitudRecurso();
+		solicitud.setId(id);
+		solicitud.setRecurso(recurso);
+		solicitud.setEstado("Validada");
+		if (inicio != null) {
+			solicitud.setFechaHoraInicioRecurso(fecha(inicio));
+			solicitud.setFechaHoraFinRecurso(fecha(fin));
+		}
+		return solicitud;
+	}
+
+	private static List<Long> bordes(DisponibilidadRecurso disponibilidad) {
+		return disponibilidad.getVentanasLibres().stream()
+				.flatMap(ventana -> List.of(ventana.getInicio(), ventana.getFin()).stream()).toList();
+	}
+
+	private static Date fecha(String instante) {
+		return Date.from(Instant.parse(instante));
+	}
+
+	private static long instante(String instante) {
+		return Instant.parse(instante).toEpochMilli();
+	}
+}
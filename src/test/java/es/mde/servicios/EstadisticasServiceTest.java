@@ -0,0 +1,107 @@
+package es.mde.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.mde.repositorios.SolicitudRecursoDAO;
+
+/**
+ * Comprueba los casos en los que los acumulados de las estadisticas se ponen al dia sin recorrer todas las
+ * solicitudes: cambios que aun no se han confirmado, solicitudes borradas y recursos que cambian de CENAD
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+class EstadisticasServiceTest {
+
+	private static final Date INICIO = Date.from(Instant.parse("2030-03-15T08:00:00Z"));
+	private static final Date FIN = Date.from(Instant.parse("2030-03-15T12:00:00Z"));
+
+	private final SolicitudRecursoDAO solicitudRecursoDAO = mock(SolicitudRecursoDAO.class);
+
+	private final EstadisticasServiceImpl estadisticasService = new EstadisticasServiceImpl(solicitudRecursoDAO);
+
+	@AfterEach
+	void limpiar() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void unCambioSoloSeLeeCuandoTerminaSuTransaccion() {
+		when(solicitudRecursoDAO.streamEstadisticas()).thenReturn(Stream.<Object[]>of(fila(1L, "Solicitada", 10L, 1L)));
+		assertEquals(List.of("Solicitada 1"), estados(1L));
+
+		TransactionSynchronizationManager.initSynchronization();
+		estadisticasService.registrarCambioSolicitud(1L);
+		// mientras la transaccion sigue abierta no se vuelve a leer la solicitud
+		assertEquals(List.of("Solicitada 1"), estados(1L));
+		verify(solicitudRecursoDAO, never()).findEstadisticasByIds(anyCollection());
+
+		when(solicitudRecursoDAO.findEstadisticasByIds(List.of(1L))).thenReturn(List.<Object[]>of(fila(1L, "Validada", 10L, 1L)));
+		terminar(TransactionSynchronization.STATUS_COMMITTED);
+		assertEquals(List.of("Validada 1"), estados(1L));
+		assertEquals(4.0, estadisticasService.getHorasPorRecurso(1L, null, null).get(0).getHoras());
+	}
+
+	@Test
+	void unaSolicitudBorradaDejaDeContar() {
+		when(solicitudRecursoDAO.streamEstadisticas())
+				.thenReturn(Stream.of(fila(1L, "Validada", 10L, 1L), fila(2L, "Validada", 10L, 1L)));
+		assertEquals(List.of("Validada 2"), estados(1L));
+
+		when(solicitudRecursoDAO.findEstadisticasByIds(anyCollection())).thenReturn(List.of());
+		estadisticasService.registrarCambioSolicitud(1L);
+		estadisticasService.registrarCambioSolicitud(2L);
+		// los acumulados que se quedan a cero desaparecen en lugar de devolverse con numero 0
+		assertEquals(List.of(), estados(1L));
+		assertTrue(estadisticasService.getHorasPorRecurso(1L, null, null).isEmpty());
+	}
+
+	@Test
+	void lasSolicitudesDeUnRecursoQueCambiaDeCenadSeMuevenConEl() {
+		when(solicitudRecursoDAO.streamEstadisticas())
+				.thenReturn(Stream.of(fila(1L, "Validada", 10L, 1L), fila(2L, "Rechazada", 10L, 1L), fila(3L, "Validada", 11L, 1L)));
+		assertEquals(List.of("Rechazada 1", "Validada 1", "Validada 1"), estados(1L));
+
+		when(solicitudRecursoDAO.findEstadisticasByRecursos(List.of(10L)))
+				.thenReturn(List.of(fila(1L, "Validada", 10L, 2L), fila(2L, "Rechazada", 10L, 2L)));
+		estadisticasService.registrarCambioRecurso(10L);
+		assertEquals(List.of("Validada 1"), estados(1L));
+		assertEquals(List.of("Rechazada 1", "Validada 1"), estados(2L));
+	}
+
+	private List<String> estados(Long idCenad) {
+		return estadisticasService.getSolicitudesPorEstado(idCenad, null, null).stream()
+				.map(e -> e.getEstado() + " " + e.getNumero()).toList();
+	}
+
+	private static void terminar(int estado) {
+		List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(estado));
+	}
+
+	/**
+	 * Fila de streamEstadisticas de una solicitud de 4 horas, del usuario gestor 7 y la unidad 100
+	 */
+	private static Object[] fila(Long id, String estado, Long idRecurso, Long idCenad) {
+		return new Object[] { id, estado, INICIO, FIN, INICIO, FIN, idRecurso, idCenad, 7L, 100L };
+	}
+}
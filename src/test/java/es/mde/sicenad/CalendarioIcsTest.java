@@ -0,0 +1,158 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.entidades.TipoFormulario;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import es.mde.repositorios.TipoFormularioDAO;
+import es.mde.servicios.CalendarioIcsService;
+import jakarta.servlet.Filter;
+
+/**
+ * Comprueba que los calendarios ICS se piden sin JWT con el token de cada calendario y que su ETag solo cambia
+ * cuando cambian sus propias solicitudes
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CalendarioIcsTest {
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private CalendarioIcsService calendarioIcsService;
+
+	@Autowired
+	private CenadDAO cenadDAO;
+
+	@Autowired
+	private CategoriaDAO categoriaDAO;
+
+	@Autowired
+	private RecursoDAO recursoDAO;
+
+	@Autowired
+	private TipoFormularioDAO tipoFormularioDAO;
+
+	@Autowired
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	private MockMvc mvc;
+
+	/**
+	 * Con los filtros de seguridad, para comprobar que los calendarios no piden el JWT
+	 */
+	@BeforeEach
+	void crearMockMvc() {
+		mvc = MockMvcBuilders.webAppContextSetup(contexto)
+				.addFilters(contexto.getBean("springSecurityFilterChain", Filter.class)).build();
+	}
+
+	@Test
+	void soloConElTokenDelCalendario() throws Exception {
+		Recurso recurso = crearRecurso("Token");
+		Long idCenad = recurso.getCenad().getId();
+		String token = calendarioIcsService.getTokenCalendarioCenad(idCenad, false);
+		assertEquals(token, calendarioIcsService.getTokenCalendarioCenad(idCenad, false));
+
+		mvc.perform(get("/api/cenads/" + idCenad + "/calendario.ics")).andExpect(status().isNotFound());
+		mvc.perform(get("/api/cenads/" + idCenad + "/calendario.ics").param("token", "otro"))
+				.andExpect(status().isNotFound());
+		mvc.perform(get("/api/recursos/" + recurso.getId() + "/calendario.ics").param("token", token))
+				.andExpect(status().isNotFound());
+		String ics = mvc.perform(get("/api/cenads/" + idCenad + "/calendario.ics").param("token", token))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		assertTrue(ics.startsWith("BEGIN:VCALENDAR"));
+
+		String renovado = calendarioIcsService.getTokenCalendarioCenad(idCenad, true);
+		assertNotEquals(token, renovado);
+		mvc.perform(get("/api/cenads/" + idCenad + "/calendario.ics").param("token", token))
+				.andExpect(status().isNotFound());
+		mvc.perform(get("/api/cenads/" + idCenad + "/calendario.ics").param("token", renovado))
+				.andExpect(status().isOk());
+		// el resto de la API sigue pidiendo el JWT
+		mvc.perform(get("/api/cenads/" + idCenad)).andExpect(status().is4xxClientError());
+	}
+
+	@Test
+	void laVersionEsLaDeCadaCalendario() throws Exception {
+		Recurso recurso = crearRecurso("Version");
+		Recurso otro = crearRecurso("Otro");
+		String url = "/api/recursos/" + recurso.getId() + "/calendario.ics";
+		String token = calendarioIcsService.getTokenCalendarioRecurso(recurso.getId(), false);
+
+		String etag = mvc.perform(get(url).param("token", token)).andExpect(status().isOk()).andReturn()
+				.getResponse().getHeader(HttpHeaders.ETAG);
+		mvc.perform(get(url).param("token", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		// una solicitud de otro recurso no cambia este calendario
+		crearSolicitud(otro);
+		mvc.perform(get(url).param("token", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		SolicitudRecurso solicitud = crearSolicitud(recurso);
+		String nueva = mvc.perform(get(url).param("token", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, nueva);
+
+		// al modificarla se actualiza su fecha de ultima modificacion
+		solicitud.setUnidadUsuaria("BRI");
+		solicitudRecursoDAO.save(solicitud);
+		mvc.perform(get(url).param("token", token).header(HttpHeaders.IF_NONE_MATCH, nueva))
+				.andExpect(status().isOk());
+	}
+
+	private Recurso crearRecurso(String nombre) {
+		Cenad cenad = new Cenad();
+		cenad.setNombre(nombre);
+		cenad = cenadDAO.save(cenad);
+		Categoria categoria = new Categoria();
+		categoria.setNombre(nombre);
+		categoria.setCenad(cenad);
+		categoria = categoriaDAO.save(categoria);
+		TipoFormulario tipoFormulario = new TipoFormulario();
+		tipoFormulario.setNombre(nombre);
+		tipoFormulario = tipoFormularioDAO.save(tipoFormulario);
+		Recurso recurso = new Recurso();
+		recurso.setNombre(nombre);
+		recurso.setCategoria(categoria);
+		recurso.setTipoFormulario(tipoFormulario);
+		return recursoDAO.save(recurso);
+	}
+
+	private SolicitudRecurso crearSolicitud(Recurso recurso) {
+		SolicitudRecurso solicitud = new SolicitudRecurso();
+		solicitud.setRecurso(recurso);
+		solicitud.setEstado("Solicitada");
+		solicitud.setFechaHoraInicioRecurso(new Date(1000000L));
+		solicitud.setFechaHoraFinRecurso(new Date(1500000L));
+		return solicitudRecursoDAO.save(solicitud);
+	}
+}
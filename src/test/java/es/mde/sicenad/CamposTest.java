@@ -0,0 +1,73 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.security.usuarios.Usuario;
+import es.mde.servicios.CamposService;
+
+/**
+ * Comprueba que con ?fields= solo se pueden pedir los campos que van en el JSON de la entidad: ni el token de los
+ * calendarios, que es @JsonIgnore, ni el password, que es WRITE_ONLY
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CamposTest {
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private CamposService camposService;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private MockMvc mvc;
+
+	@BeforeEach
+	void crearMockMvc() {
+		mvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+	}
+
+	@Test
+	void noSePuedenPedirLosCamposQueNoVanEnElJson() throws Exception {
+		mvc.perform(get("/api/recursos").param("fields", "tokenCalendario")).andExpect(status().isBadRequest());
+		mvc.perform(get("/api/recursos").param("fields", "nombre,tokenCalendario")).andExpect(status().isBadRequest());
+		mvc.perform(get("/api/usuarios").param("fields", "password")).andExpect(status().isBadRequest());
+		assertFalse(camposService.getCamposDisponibles(Recurso.class).contains("tokenCalendario"));
+		assertFalse(camposService.getCamposDisponibles(Cenad.class).contains("tokenCalendario"));
+		assertFalse(camposService.getCamposDisponibles(Usuario.class).contains("password"));
+	}
+
+	@Test
+	void seDevuelvenLosCamposQueVanEnElJson() throws Exception {
+		assertTrue(camposService.getCamposDisponibles(Recurso.class).containsAll(List.of("id", "idString",
+				"nombre", "categoria")));
+		JsonNode respuesta = mapper.readTree(mvc.perform(get("/api/recursos").param("fields", "idString,nombre"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+		assertEquals(0, respuesta.get("page").get("number").asInt());
+		assertTrue(camposService.getCamposDisponibles(Usuario.class).contains("username"));
+	}
+}
@@ -0,0 +1,88 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.entidades.TipoFormulario;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import es.mde.repositorios.TipoFormularioDAO;
+
+/**
+ * Comprueba que el CENAD de los recursos y de las solicitudes lo asignan sus DAO al guardar, tambien con referencias
+ * sin cargar de otra sesion, y que al mover un recurso a otro CENAD se mueven sus solicitudes
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CenadRecursosTest {
+
+	@Autowired
+	private CenadDAO cenadDAO;
+
+	@Autowired
+	private CategoriaDAO categoriaDAO;
+
+	@Autowired
+	private RecursoDAO recursoDAO;
+
+	@Autowired
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	@Autowired
+	private TipoFormularioDAO tipoFormularioDAO;
+
+	@Test
+	void elCenadSeAsignaAlGuardarYSeMueveConElRecurso() {
+		Categoria origen = categoria("Origen");
+		Categoria destino = categoria("Destino");
+		TipoFormulario tipoFormulario = new TipoFormulario();
+		tipoFormulario.setNombre("CenadRecursos");
+		tipoFormulario = tipoFormularioDAO.save(tipoFormulario);
+
+		// las referencias de getReferenceById fuera de una transaccion ya no se pueden cargar
+		Recurso recurso = new Recurso();
+		recurso.setNombre("Recurso");
+		recurso.setCategoria(categoriaDAO.getReferenceById(origen.getId()));
+		recurso.setTipoFormulario(tipoFormulario);
+		recurso = recursoDAO.save(recurso);
+		assertEquals(origen.getCenad().getId(), recurso.getCenad().getId());
+
+		SolicitudRecurso solicitud = new SolicitudRecurso();
+		solicitud.setRecurso(recursoDAO.getReferenceById(recurso.getId()));
+		solicitud.setEstado("Solicitada");
+		solicitud.setFechaHoraInicioRecurso(new Date());
+		solicitud = solicitudRecursoDAO.save(solicitud);
+		assertEquals(origen.getCenad().getId(), solicitud.getCenad().getId());
+
+		recurso.setCategoria(destino);
+		recurso = recursoDAO.save(recurso);
+		assertEquals(destino.getCenad().getId(), recurso.getCenad().getId());
+		assertEquals(0, cenadDAO.getSolicitudesCenad(origen.getCenad().getId(), PageRequest.of(0, 10)).getTotalElements());
+		assertEquals(1, cenadDAO.getSolicitudesCenad(destino.getCenad().getId(), PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	private Categoria categoria(String nombre) {
+		Cenad cenad = new Cenad();
+		cenad.setNombre(nombre);
+		Categoria categoria = new Categoria();
+		categoria.setNombre(nombre);
+		categoria.setCenad(cenadDAO.save(cenad));
+		return categoriaDAO.save(categoria);
+	}
+}
@@ -0,0 +1,224 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.entidades.TipoFormulario;
+import es.mde.models.CambioEstado;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import es.mde.repositorios.TipoFormularioDAO;
+import es.mde.servicios.CambioEstadoService;
+import es.mde.servicios.ConflictoRecursoException;
+
+/**
+ * Comprueba que, cuando a la vez se crean o se validan varias solicitudes del mismo recurso que se solapan, solo
+ * se guarda o se valida una y las demas se rechazan por estar ocupado. Usa su propio contexto porque los listeners de las entidades
+ * guardan los servicios del ultimo contexto creado, y los periodos ocupados tienen que ser los de este
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = ClassMode.BEFORE_CLASS)
+class ConflictosConcurrentesTest {
+
+	private static final int PETICIONES = 4;
+	private static final int RONDAS = 5;
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private CenadDAO cenadDAO;
+
+	@Autowired
+	private CategoriaDAO categoriaDAO;
+
+	@Autowired
+	private RecursoDAO recursoDAO;
+
+	@Autowired
+	private TipoFormularioDAO tipoFormularioDAO;
+
+	@Autowired
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	@Autowired
+	private CambioEstadoService cambioEstadoService;
+
+	private MockMvc mvc;
+	private ExecutorService hilos;
+
+	@BeforeEach
+	void crearMockMvc() {
+		mvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+		hilos = Executors.newFixedThreadPool(PETICIONES);
+	}
+
+	@AfterEach
+	void cerrar() {
+		hilos.shutdownNow();
+	}
+
+	@Test
+	void soloSeGuardaUnaSolicitudPorPeriodo() throws Exception {
+		Long idRecurso = crearRecurso("Concurrente");
+		for (int ronda = 0; ronda < RONDAS; ronda++) {
+			// cada peticion empieza una hora despues que la anterior, pero todas se solapan
+			Instant inicio = Instant.parse("2040-01-01T00:00:00Z").plusSeconds(86400L * ronda);
+			CountDownLatch salida = new CountDownLatch(1);
+			List<Future<Integer>> respuestas = new ArrayList<>();
+			for (int i = 0; i < PETICIONES; i++) {
+				String json = "{\"estado\":\"Solicitada\",\"recurso\":\"http://localhost/api/recursos/" + idRecurso
+						+ "\",\"fechaHoraInicioRecurso\":\"" + inicio.plusSeconds(3600L * i)
+						+ "\",\"fechaHoraFinRecurso\":\"" + inicio.plusSeconds(3600L * (PETICIONES + i)) + "\"}";
+				respuestas.add(hilos.submit(peticion(salida, json)));
+			}
+			salida.countDown();
+			int creadas = 0;
+			int rechazadas = 0;
+			for (Future<Integer> respuesta : respuestas) {
+				int estado = respuesta.get();
+				if (estado == 201) {
+					creadas++;
+				} else if (estado == 409) {
+					rechazadas++;
+				}
+			}
+			assertEquals(1, creadas, "ronda " + ronda);
+			assertEquals(PETICIONES - 1, rechazadas, "ronda " + ronda);
+		}
+	}
+
+	@Test
+	void soloSeValidaOSeGuardaUnaSolicitudPorPeriodo() throws Exception {
+		Long idRecurso = crearRecurso("Validacion");
+		for (int ronda = 0; ronda < RONDAS; ronda++) {
+			// la mitad valida solicitudes canceladas, que no ocupan el recurso, y la otra mitad crea solicitudes nuevas
+			Instant inicio = Instant.parse("2041-01-01T00:00:00Z").plusSeconds(86400L * ronda);
+			CountDownLatch salida = new CountDownLatch(1);
+			List<Future<Integer>> cambiadas = new ArrayList<>();
+			List<Future<Integer>> respuestas = new ArrayList<>();
+			for (int i = 0; i < PETICIONES; i++) {
+				Instant desde = inicio.plusSeconds(3600L * i);
+				Instant hasta = inicio.plusSeconds(3600L * (PETICIONES + i));
+				if (i % 2 == 0) {
+					Long id = guardar(idRecurso, "Cancelada", desde, hasta);
+					cambiadas.add(hilos.submit(() -> {
+						salida.await();
+						return cambioEstadoService.cambiarEstado(new CambioEstado(List.of(id), "Validada", null))
+								.getCambiadas().size();
+					}));
+				} else {
+					String json = "{\"estado\":\"Solicitada\",\"recurso\":\"http://localhost/api/recursos/" + idRecurso
+							+ "\",\"fechaHoraInicioRecurso\":\"" + desde + "\",\"fechaHoraFinRecurso\":\"" + hasta + "\"}";
+					respuestas.add(hilos.submit(peticion(salida, json)));
+				}
+			}
+			salida.countDown();
+			int ocupan = 0;
+			for (Future<Integer> cambiada : cambiadas) {
+				ocupan += cambiada.get();
+			}
+			for (Future<Integer> respuesta : respuestas) {
+				ocupan += respuesta.get() == 201 ? 1 : 0;
+			}
+			assertEquals(1, ocupan, "ronda " + ronda);
+		}
+	}
+
+	@Test
+	void todasLasFormasDeGuardarCompruebanElRecurso() throws Exception {
+		Long idRecurso = crearRecurso("Formas");
+		Long idOtroRecurso = crearRecurso("OtroRecurso");
+		Instant inicio = Instant.parse("2042-01-01T10:00:00Z");
+		guardar(idRecurso, "Validada", inicio, inicio.plusSeconds(7200));
+
+		// el DAO, que usan el importador y los servicios
+		assertThrows(ConflictoRecursoException.class,
+				() -> guardar(idRecurso, "Solicitada", inicio.plusSeconds(3600), inicio.plusSeconds(10800)));
+		// cambiar las fechas de una solicitud existente
+		Long id = guardar(idRecurso, "Solicitada", inicio.plusSeconds(7200), inicio.plusSeconds(10800));
+		mvc.perform(patch("/api/solicitudes/" + id).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"fechaHoraInicioRecurso\":\"" + inicio.plusSeconds(3600) + "\"}"))
+				.andExpect(status().isConflict()).andExpect(jsonPath("$.mensaje").isNotEmpty());
+		// cambiar solo el recurso, que llega por la asociacion y no por el cuerpo de la solicitud
+		Long idOtra = guardar(idOtroRecurso, "Solicitada", inicio, inicio.plusSeconds(3600));
+		mvc.perform(put("/api/solicitudes/" + idOtra + "/recurso").contentType("text/uri-list")
+				.content("http://localhost/api/recursos/" + idRecurso)).andExpect(status().isConflict());
+		assertEquals(idOtroRecurso, solicitudRecursoDAO.findIdsRecursoByIds(List.of(idOtra)).get(0));
+		// las canceladas no ocupan el recurso
+		guardar(idRecurso, "Cancelada", inicio, inicio.plusSeconds(7200));
+	}
+
+	private Long guardar(Long idRecurso, String estado, Instant desde, Instant hasta) {
+		SolicitudRecurso solicitud = new SolicitudRecurso();
+		solicitud.setRecurso(recursoDAO.getReferenceById(idRecurso));
+		solicitud.setEstado(estado);
+		solicitud.setFechaHoraInicioRecurso(Date.from(desde));
+		solicitud.setFechaHoraFinRecurso(Date.from(hasta));
+		return solicitudRecursoDAO.save(solicitud).getId();
+	}
+
+	private Callable<Integer> peticion(CountDownLatch salida, String json) {
+		return () -> {
+			salida.await();
+			return mvc.perform(post("/api/solicitudes").contentType(MediaType.APPLICATION_JSON).content(json))
+					.andReturn().getResponse().getStatus();
+		};
+	}
+
+	private Long crearRecurso(String nombre) {
+		Cenad cenad = new Cenad();
+		cenad.setNombre(nombre);
+		cenad = cenadDAO.save(cenad);
+		Categoria categoria = new Categoria();
+		categoria.setNombre(nombre);
+		categoria.setCenad(cenad);
+		categoria = categoriaDAO.save(categoria);
+		TipoFormulario tipoFormulario = new TipoFormulario();
+		tipoFormulario.setNombre(nombre);
+		tipoFormulario = tipoFormularioDAO.save(tipoFormulario);
+		Recurso recurso = new Recurso();
+		recurso.setNombre(nombre);
+		recurso.setCategoria(categoria);
+		recurso.setTipoFormulario(tipoFormulario);
+		return recursoDAO.save(recurso).getId();
+	}
+}
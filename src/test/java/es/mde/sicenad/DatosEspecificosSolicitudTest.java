@@ -0,0 +1,133 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.repositorios.DatosEspecificosSolicitudDAO;
+
+/**
+ * Comprueba que los datos especificos se envian y se leen en el JSON de la solicitud aunque esten en su propia
+ * tabla, y que solo tienen fila las solicitudes que los envian
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DatosEspecificosSolicitudTest {
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private DatosEspecificosSolicitudDAO datosEspecificosSolicitudDAO;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private MockMvc mvc;
+
+	/**
+	 * Sin los filtros de seguridad
+	 */
+	@BeforeEach
+	void crearMockMvc() {
+		mvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+	}
+
+	@Test
+	void mejoraDeBytecodeActiva() {
+		// sin ella la relacion LAZY con los datos especificos se cargaria con cada solicitud
+		assertTrue(PersistentAttributeInterceptable.class.isAssignableFrom(SolicitudRecurso.class));
+	}
+
+	@Test
+	void crearModificarYLeer() throws Exception {
+		Long id = crear("{\"estado\":\"Borrador\",\"datosEspecificos\":{\"tipoEjercicio\":\"Tiro\",\"numBlancosFijosA\":3,"
+				+ "\"fechaHoraMontaje\":\"2030-01-01T10:00:00Z\",\"conUsoCocina\":true}}");
+
+		JsonNode datos = leer("/api/solicitudes/" + id).get("datosEspecificos");
+		assertEquals("Tiro", datos.get("tipoEjercicio").asText());
+		assertEquals(3, datos.get("numBlancosFijosA").asInt());
+		assertEquals("2030-01-01T10:00:00Z", datos.get("fechaHoraMontaje").asText());
+		assertFalse(datos.has("id") || datos.has("solicitud"));
+		assertTrue(datosEspecificosSolicitudDAO.findById(id).orElseThrow().isConUsoCocina());
+
+		// el PATCH mezcla el objeto anidado con el guardado sin borrar lo que no se envia
+		modificar(id, "{\"datosEspecificos\":{\"armaPral\":\"Carro\",\"numBlancosFijosA\":4}}");
+		datos = leer("/api/solicitudes/" + id).get("datosEspecificos");
+		assertEquals("Carro", datos.get("armaPral").asText());
+		assertEquals(4, datos.get("numBlancosFijosA").asInt());
+		assertEquals("Tiro", datos.get("tipoEjercicio").asText());
+		assertEquals("2030-01-01T10:00:00Z", datos.get("fechaHoraMontaje").asText());
+	}
+
+	@Test
+	void sinDatosEspecificosNoSeCreaSuFila() throws Exception {
+		Long id = crear("{\"estado\":\"Borrador\",\"unidadUsuaria\":\"Unidad\"}");
+		assertFalse(datosEspecificosSolicitudDAO.existsById(id));
+		modificar(id, "{\"unidadUsuaria\":\"Otra\"}");
+		assertFalse(datosEspecificosSolicitudDAO.existsById(id));
+		JsonNode solicitud = leer("/api/solicitudes/" + id);
+		assertEquals("Otra", solicitud.get("unidadUsuaria").asText());
+		assertFalse(solicitud.has("datosEspecificos"));
+
+		// el primer PATCH con datos especificos crea la fila y los siguientes la modifican
+		modificar(id, "{\"datosEspecificos\":{\"vivac\":\"Norte\"}}");
+		assertEquals("Norte", datosEspecificosSolicitudDAO.findById(id).orElseThrow().getVivac());
+		modificar(id, "{\"datosEspecificos\":{\"numPersonasZE\":12}}");
+		JsonNode datos = leer("/api/solicitudes/" + id).get("datosEspecificos");
+		assertEquals("Norte", datos.get("vivac").asText());
+		assertEquals(12, datos.get("numPersonasZE").asInt());
+	}
+
+	@Test
+	void losListadosNoCarganLosDatosEspecificosNiLosTextosLargos() throws Exception {
+		Long id = crear("{\"estado\":\"Borrador\",\"datosEspecificos\":{\"tipoEjercicio\":\"Tiro\"},"
+				+ "\"observaciones\":\"Texto largo\"}");
+		JsonNode solicitudes = leer("/api/solicitudes").get("_embedded").get("solicitudes");
+		assertTrue(solicitudes.size() > 0);
+		for (JsonNode solicitud : solicitudes) {
+			assertFalse(solicitud.has("datosEspecificos"));
+			assertFalse(solicitud.has("observaciones"));
+		}
+		JsonNode solicitud = leer("/api/solicitudes/" + id);
+		assertEquals("Tiro", solicitud.get("datosEspecificos").get("tipoEjercicio").asText());
+		assertEquals("Texto largo", solicitud.get("observaciones").asText());
+	}
+
+	private Long crear(String json) throws Exception {
+		String ubicacion = mvc.perform(post("/api/solicitudes").contentType(MediaType.APPLICATION_JSON).content(json))
+				.andExpect(status().isCreated()).andReturn().getResponse().getHeader("Location");
+		return Long.valueOf(ubicacion.substring(ubicacion.lastIndexOf('/') + 1));
+	}
+
+	private void modificar(Long id, String json) throws Exception {
+		mvc.perform(patch("/api/solicitudes/" + id).contentType(MediaType.APPLICATION_JSON).content(json))
+				.andExpect(status().is2xxSuccessful());
+	}
+
+	private JsonNode leer(String url) throws Exception {
+		return mapper.readTree(mvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString());
+	}
+}
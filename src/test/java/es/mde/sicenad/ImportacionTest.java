@@ -0,0 +1,135 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.TipoFormulario;
+import es.mde.models.FilaImportacion;
+import es.mde.models.InformeImportacion;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.TipoFormularioDAO;
+import es.mde.servicios.ConflictosRecursoService;
+import es.mde.servicios.ImportacionService;
+
+/**
+ * Comprueba que la importacion es de todo o nada aunque el fallo llegue al guardar, cuando las filas ya han pasado
+ * la validacion, y como se leen los CSV que genera Excel
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacionTest {
+
+	private static final String INICIO = "2045-06-01T08:00:00Z";
+	private static final String FIN = "2045-06-01T12:00:00Z";
+
+	@Autowired
+	private ImportacionService importacionService;
+
+	@Autowired
+	private ConflictosRecursoService conflictosRecursoService;
+
+	@Autowired
+	private CenadDAO cenadDAO;
+
+	@Autowired
+	private CategoriaDAO categoriaDAO;
+
+	@Autowired
+	private RecursoDAO recursoDAO;
+
+	@Autowired
+	private TipoFormularioDAO tipoFormularioDAO;
+
+	private Cenad cenad;
+	private Recurso recurso;
+
+	@BeforeEach
+	void preparar() {
+		cenad = new Cenad();
+		cenad.setNombre("Importacion");
+		cenad = cenadDAO.save(cenad);
+		Categoria categoria = new Categoria();
+		categoria.setNombre("Existente");
+		categoria.setCenad(cenad);
+		categoria = categoriaDAO.save(categoria);
+		TipoFormulario tipoFormulario = new TipoFormulario();
+		tipoFormulario.setNombre("Importacion");
+		tipoFormulario = tipoFormularioDAO.save(tipoFormulario);
+		recurso = new Recurso();
+		recurso.setNombre("Existente");
+		recurso.setCategoria(categoria);
+		recurso.setTipoFormulario(tipoFormulario);
+		recurso = recursoDAO.save(recurso);
+	}
+
+	@Test
+	void siFallaUnaFilaAlGuardarSeDeshaceTodo() {
+		long categorias = categoriaDAO.count();
+		long recursos = recursoDAO.count();
+		// la unidad usuaria no cabe en su columna: la validacion no lo ve y el INSERT falla despues de guardar el resto
+		InformeImportacion informe = importacionService.importar(cenad.getId(), Map.of(
+				"categorias", List.of(Map.of("clave", "c1", "nombre", "Nueva")),
+				"recursos", List.of(Map.of("clave", "r1", "nombre", "Nuevo", "categoria", "c1",
+						"idTipoFormulario", recurso.getTipoFormulario().getId())),
+				"solicitudes", List.of(
+						Map.of("idRecurso", recurso.getId(), "estado", "Validada", "fechaHoraInicioRecurso", INICIO,
+								"fechaHoraFinRecurso", FIN),
+						Map.of("recurso", "r1", "unidadUsuaria", "U".repeat(300)))));
+
+		assertTrue(informe.isValidada());
+		assertFalse(informe.isCompleta());
+		for (FilaImportacion fila : informe.getFilas()) {
+			assertNull(fila.getId());
+			assertFalse(fila.getErrores().isEmpty());
+		}
+		assertEquals(categorias, categoriaDAO.count());
+		assertEquals(recursos, recursoDAO.count());
+		// la solicitud deshecha tampoco puede quedarse ocupando el recurso en memoria
+		assertTrue(conflictosRecursoService.getConflictos(recurso.getId(), fecha(INICIO), fecha(FIN)).isEmpty());
+
+		// corregido el fichero, se puede volver a enviar entero
+		informe = importacionService.importar(cenad.getId(), Map.of("solicitudes", List.of(Map.of("idRecurso",
+				recurso.getId(), "estado", "Validada", "fechaHoraInicioRecurso", INICIO, "fechaHoraFinRecurso", FIN))));
+		assertTrue(informe.isCompleta());
+		assertEquals(1, conflictosRecursoService.getConflictos(recurso.getId(), fecha(INICIO), fecha(FIN)).size());
+	}
+
+	@Test
+	void seLeeElCsvDeExcel() {
+		// marca de orden de bytes, punto y coma, CRLF y un campo entre comillas con separador, salto y comillas
+		String csv = "\uFEFFclave;nombre;descripcion\r\n" + "c1;Zona norte;\"Incluye; \"\"la pista\"\"\r\ny el puente\"\r\n"
+				+ "\r\n" + "c2;;\r\n";
+		List<Map<String, Object>> filas = importacionService.leerCsv(csv);
+
+		assertEquals(List.of(Map.of("clave", "c1", "nombre", "Zona norte", "descripcion",
+				"Incluye; \"la pista\"\r\ny el puente"), Map.of("clave", "c2")), filas);
+		assertThrows(IllegalArgumentException.class, () -> importacionService.leerCsv("clave,nombre\nc1\n"));
+		assertThrows(IllegalArgumentException.class, () -> importacionService.leerCsv("\uFEFF\r\nc1,Zona\n"));
+	}
+
+	private static Date fecha(String instante) {
+		return Date.from(Instant.parse(instante));
+	}
+}
@@ -0,0 +1,177 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.entidades.TipoFormulario;
+import es.mde.models.FiltroSolicitudes;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import es.mde.repositorios.TipoFormularioDAO;
+import es.mde.security.usuarios.UsuarioNormal;
+import es.mde.security.usuarios.UsuarioNormalDAO;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Comprueba que los listados de solicitudes cargan el recurso, su categoria y el usuario normal en la misma consulta
+ * que la pagina: se pueden recorrer fuera de la transaccion sin LazyInitializationException y sin mas sentencias
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ListadoSolicitudesTest {
+
+	private static final int SOLICITUDES = 12;
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CenadDAO cenadDAO;
+
+	@Autowired
+	private CategoriaDAO categoriaDAO;
+
+	@Autowired
+	private RecursoDAO recursoDAO;
+
+	@Autowired
+	private TipoFormularioDAO tipoFormularioDAO;
+
+	@Autowired
+	private UsuarioNormalDAO usuarioNormalDAO;
+
+	@Autowired
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private Statistics estadisticas;
+
+	private MockMvc mvc;
+
+	@BeforeEach
+	void preparar() {
+		estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.setStatisticsEnabled(true);
+		mvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+	}
+
+	@Test
+	void losListadosTraenElRecursoLaCategoriaYElUsuario() {
+		Recurso recurso = crearSolicitudes("Listado");
+		Long idCenad = recurso.getCenad().getId();
+		PageRequest pagina = PageRequest.of(0, SOLICITUDES);
+
+		recorrer(() -> solicitudRecursoDAO.findByCenad(idCenad, pagina).getContent());
+		recorrer(() -> solicitudRecursoDAO.findByCenadAndEstado(idCenad, "Solicitada", pagina).getContent());
+		recorrer(() -> solicitudRecursoDAO.findByRecursoIdAndEstado(recurso.getId(), "Solicitada", pagina)
+				.getContent());
+		recorrer(() -> solicitudRecursoDAO.findByCenad(idCenad));
+		recorrer(() -> solicitudRecursoDAO.getSolicitudesSiguientes(
+				new FiltroSolicitudes(idCenad, null, null, null, null), null, null, SOLICITUDES));
+	}
+
+	@Test
+	void laProyeccionListadoNoPideCadaRecurso() throws Exception {
+		crearSolicitudes("Proyeccion");
+		estadisticas.clear();
+		JsonNode solicitudes = mapper.readTree(mvc.perform(get("/api/solicitudes").param("projection", "listado")
+				.param("size", String.valueOf(SOLICITUDES)).param("sort", "id,desc")).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString()).get("_embedded").get("solicitudes");
+		// la pagina y su total
+		assertTrue(estadisticas.getPrepareStatementCount() <= 2,
+				estadisticas.getPrepareStatementCount() + " sentencias para una pagina");
+		assertEquals(SOLICITUDES, solicitudes.size());
+		for (JsonNode solicitud : solicitudes) {
+			assertEquals("Proyeccion", solicitud.get("recurso").get("nombre").asText());
+			assertEquals("Proyeccion", solicitud.get("recurso").get("nombreCategoria").asText());
+			assertEquals("Proyeccion", solicitud.get("usuarioNormal").get("username").asText());
+		}
+	}
+
+	/**
+	 * Lee el listado fuera de una transaccion, comprueba que lo hace como mucho con la consulta de la pagina y la de
+	 * su total y que despues se recorren el recurso, la categoria y el usuario sin volver a la BD
+	 */
+	private void recorrer(Supplier<List<SolicitudRecurso>> listado) {
+		estadisticas.clear();
+		List<SolicitudRecurso> solicitudes = listado.get();
+		long sentencias = estadisticas.getPrepareStatementCount();
+		assertTrue(sentencias <= 2, sentencias + " sentencias para un listado");
+		assertEquals(SOLICITUDES, solicitudes.size());
+		for (SolicitudRecurso solicitud : solicitudes) {
+			assertEquals("Listado", solicitud.getRecurso().getNombre());
+			assertEquals("Listado", solicitud.getRecurso().getCategoria().getNombre());
+			assertEquals("Listado", solicitud.getUsuarioNormal().getUsername());
+		}
+		assertEquals(sentencias, estadisticas.getPrepareStatementCount());
+	}
+
+	/**
+	 * Crea un CENAD con un recurso y un usuario normal y las solicitudes del usuario para ese recurso
+	 * @return Devuelve el recurso
+	 */
+	private Recurso crearSolicitudes(String nombre) {
+		Cenad cenad = new Cenad();
+		cenad.setNombre(nombre);
+		cenad = cenadDAO.save(cenad);
+		Categoria categoria = new Categoria();
+		categoria.setNombre(nombre);
+		categoria.setCenad(cenad);
+		categoria = categoriaDAO.save(categoria);
+		TipoFormulario tipoFormulario = new TipoFormulario();
+		tipoFormulario.setNombre(nombre);
+		tipoFormulario = tipoFormularioDAO.save(tipoFormulario);
+		Recurso recurso = new Recurso();
+		recurso.setNombre(nombre);
+		recurso.setCategoria(categoria);
+		recurso.setTipoFormulario(tipoFormulario);
+		recurso = recursoDAO.save(recurso);
+		UsuarioNormal usuario = new UsuarioNormal();
+		usuario.setUsername(nombre);
+		usuario = usuarioNormalDAO.save(usuario);
+		for (int i = 0; i < SOLICITUDES; i++) {
+			SolicitudRecurso solicitud = new SolicitudRecurso();
+			solicitud.setRecurso(recurso);
+			solicitud.setUsuarioNormal(usuario);
+			solicitud.setEstado("Solicitada");
+			solicitud.setFechaHoraInicioRecurso(new Date(1000000L * i));
+			solicitud.setFechaHoraFinRecurso(new Date(1000000L * i + 500000L));
+			solicitudRecursoDAO.save(solicitud);
+		}
+		return recurso;
+	}
+}
@@ -0,0 +1,158 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.models.NodoCategoria;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CenadDAO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Comprueba que la ruta de las categorias se escribe en el mismo INSERT y que al mover una categoria con el DAO, sin
+ * pasar por la API, tambien se mueven sus subcategorias anidadas
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RutaCategoriasTest {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private CenadDAO cenadDAO;
+
+	@Autowired
+	private CategoriaDAO categoriaDAO;
+
+	private Statistics estadisticas;
+
+	private Cenad cenad;
+
+	@BeforeEach
+	void preparar() {
+		estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.setStatisticsEnabled(true);
+		cenad = new Cenad();
+		cenad.setNombre("Rutas");
+		cenad = cenadDAO.save(cenad);
+	}
+
+	@Test
+	void crearUnaCategoriaNoGeneraUnUpdate() {
+		Categoria raiz = guardar("Raiz", null);
+		estadisticas.clear();
+		Categoria hija = guardar("Hija", raiz);
+		assertEquals(1, estadisticas.getEntityInsertCount());
+		assertEquals(0, estadisticas.getEntityUpdateCount());
+		assertEquals("/", categoriaDAO.findRutaById(raiz.getId()));
+		assertEquals("/" + raiz.getId() + "/", categoriaDAO.findRutaById(hija.getId()));
+	}
+
+	@Test
+	void moverConElDaoMueveTodoElSubarbol() {
+		Categoria a = guardar("A", null);
+		Categoria b = guardar("B", a);
+		Categoria c = guardar("C", b);
+		Categoria d = guardar("D", c);
+		Categoria destino = guardar("Destino", null);
+
+		mover(b.getId(), destino.getId());
+
+		String rutaB = "/" + destino.getId() + "/";
+		assertEquals(rutaB, categoriaDAO.findRutaById(b.getId()));
+		assertEquals(rutaB + b.getId() + "/", categoriaDAO.findRutaById(c.getId()));
+		assertEquals(rutaB + b.getId() + "/" + c.getId() + "/", categoriaDAO.findRutaById(d.getId()));
+		assertEquals(List.of(b.getId(), c.getId(), d.getId()),
+				categoriaDAO.getSubcategoriasAnidadas(destino.getId()).stream().map(Categoria::getId).toList());
+		assertEquals(List.of(), categoriaDAO.getSubcategoriasAnidadas(a.getId()));
+	}
+
+	@Test
+	void noSePuedeMoverDebajoDeUnaSubcategoria() {
+		Categoria a = guardar("A", null);
+		Categoria b = guardar("B", a);
+		Categoria c = guardar("C", b);
+
+		RuntimeException error = assertThrows(RuntimeException.class, () -> mover(a.getId(), c.getId()));
+		assertInstanceOf(IllegalArgumentException.class, error.getCause());
+		// la transaccion se deshace y no queda ninguna ruta a medias
+		assertEquals(null, categoriaDAO.findById(a.getId()).get().getCategoriaPadre());
+		assertEquals("/" + a.getId() + "/" + b.getId() + "/", categoriaDAO.findRutaById(c.getId()));
+	}
+
+	@Test
+	void elArbolSaleConCadaPadreAntesQueSusHijas() {
+		Categoria primera = guardar("Primera", null);
+		Categoria segunda = guardar("Segunda", null);
+		Categoria hijaSegunda = guardar("HijaSegunda", segunda);
+		Categoria hijaPrimera = guardar("HijaPrimera", primera);
+		Categoria nieta = guardar("Nieta", hijaPrimera);
+
+		assertEquals(List.of(primera.getId(), hijaPrimera.getId(), nieta.getId(), segunda.getId(), hijaSegunda.getId()),
+				categoriaDAO.findNodosCenad(cenad.getId()).stream().map(NodoCategoria::getId).toList());
+	}
+
+	@Test
+	void reconstruirPasaLasRutasAlFormatoSinElPropioId() {
+		Categoria a = guardar("A", null);
+		Categoria b = guardar("B", a);
+		// como se guardaban antes: con el id de la propia categoria al final
+		transactionTemplate.executeWithoutResult(estado -> {
+			rutaAntigua(a.getId(), "/" + a.getId() + "/");
+			rutaAntigua(b.getId(), "/" + a.getId() + "/" + b.getId() + "/");
+		});
+		categoriaDAO.reconstruirRutas();
+		assertEquals("/", categoriaDAO.findRutaById(a.getId()));
+		assertEquals("/" + a.getId() + "/", categoriaDAO.findRutaById(b.getId()));
+	}
+
+	private void rutaAntigua(Long id, String ruta) {
+		entityManager.createQuery("update Categoria c set c.ruta = :ruta where c.id = :id").setParameter("ruta", ruta)
+				.setParameter("id", id).executeUpdate();
+	}
+
+	private Categoria guardar(String nombre, Categoria padre) {
+		Categoria categoria = new Categoria();
+		categoria.setNombre(nombre);
+		categoria.setCenad(cenad);
+		categoria.setCategoriaPadre(padre);
+		return categoriaDAO.save(categoria);
+	}
+
+	/**
+	 * Cambia la categoria Padre como lo haria un servicio: leyendo la categoria y guardandola en una transaccion
+	 */
+	private void mover(Long id, Long idPadre) {
+		transactionTemplate.executeWithoutResult(estado -> {
+			Categoria categoria = categoriaDAO.findById(id).get();
+			categoria.setCategoriaPadre(categoriaDAO.findById(idPadre).get());
+			categoriaDAO.save(categoria);
+		});
+	}
+}
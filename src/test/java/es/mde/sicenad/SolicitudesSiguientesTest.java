@@ -0,0 +1,209 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.entidades.TipoFormulario;
+import es.mde.repositorios.CategoriaDAO;
+import es.mde.repositorios.CenadDAO;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import es.mde.repositorios.TipoFormularioDAO;
+
+/**
+ * Recorre los listados de solicitudes siguiendo el enlace next, como un cliente: cada solicitud sale una vez y en
+ * orden aunque varias compartan la fecha de inicio con milisegundos o no la tengan, y lo que se crea por delante de
+ * la ultima leida no desplaza las paginas siguientes
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SolicitudesSiguientesTest {
+
+	private static final String MISMA_FECHA = "2031-05-04T10:15:30.123Z";
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private CenadDAO cenadDAO;
+
+	@Autowired
+	private CategoriaDAO categoriaDAO;
+
+	@Autowired
+	private RecursoDAO recursoDAO;
+
+	@Autowired
+	private TipoFormularioDAO tipoFormularioDAO;
+
+	@Autowired
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private MockMvc mvc;
+
+	private Recurso recurso;
+
+	@BeforeEach
+	void preparar() {
+		mvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+		recurso = crearRecurso("Siguientes");
+	}
+
+	@Test
+	void cadaSolicitudSaleUnaVezYEnOrden() throws Exception {
+		// creadas desordenadas: tres con la misma fecha, con milisegundos, y dos sin fecha. Canceladas o rechazadas
+		// para que puedan coincidir en el recurso
+		Long sinFecha1 = solicitud(null, "Cancelada");
+		Long empate2 = solicitud(MISMA_FECHA, "Cancelada");
+		Long despues = solicitud("2031-05-04T10:15:30.124Z", "Rechazada");
+		Long empate1 = solicitud(MISMA_FECHA, "Rechazada");
+		Long sinFecha2 = solicitud(null, "Rechazada");
+		Long antes = solicitud("2031-05-04T10:15:30.122Z", "Cancelada");
+		Long empate3 = solicitud(MISMA_FECHA, "Cancelada");
+		Long primera = solicitud("1969-12-31T23:59:59Z", "Cancelada");
+		// de otro CENAD: no sale
+		Recurso otro = recurso;
+		recurso = crearRecurso("OtroCenad");
+		solicitud(MISMA_FECHA, "Cancelada");
+		recurso = otro;
+
+		// los empates, por id, que es el orden en que se han creado
+		List<Long> esperadas = List.of(primera, antes, empate2, empate1, empate3, despues, sinFecha1, sinFecha2);
+		String listado = "/api/cenads/" + recurso.getCenad().getId() + "/solicitudes/siguientes?size=";
+		for (int tamano = 1; tamano <= esperadas.size() + 1; tamano++) {
+			assertEquals(esperadas, recorrer(listado + tamano), "paginas de " + tamano);
+		}
+	}
+
+	@Test
+	void elEstadoSeFiltraSinDistinguirMayusculas() throws Exception {
+		Long sinFecha = solicitud(null, "Solicitada");
+		Long segunda = solicitud("2032-01-01T00:00:00Z", "Solicitada");
+		solicitud("2031-01-01T00:00:00Z", "Rechazada");
+		Long primera = solicitud("2030-01-01T00:00:00Z", "Solicitada");
+
+		assertEquals(List.of(primera, segunda, sinFecha), recorrer(
+				"/api/cenads/" + recurso.getCenad().getId() + "/solicitudesEstado/solicitada/siguientes?size=2"));
+		assertEquals(List.of(primera, segunda, sinFecha),
+				recorrer("/api/recursos/" + recurso.getId() + "/solicitudesEstado/SOLICITADA/siguientes?size=1"));
+	}
+
+	@Test
+	void loCreadoAntesDeLaUltimaLeidaNoRepiteNiSaltaSolicitudes() throws Exception {
+		Long primera = solicitud("2030-01-01T00:00:00Z", "Solicitada");
+		Long segunda = solicitud("2030-01-02T00:00:00Z", "Solicitada");
+		Long tercera = solicitud("2030-01-03T00:00:00Z", "Solicitada");
+		JsonNode pagina = leer("/api/cenads/" + recurso.getCenad().getId() + "/solicitudes/siguientes?size=2");
+		assertEquals(List.of(primera, segunda), ids(pagina));
+
+		// con paginas por numero, esta desplazaria la tercera a la pagina que ya se ha leido
+		solicitud("2029-12-31T00:00:00Z", "Solicitada");
+		Long cuarta = solicitud("2030-01-04T00:00:00Z", "Solicitada");
+		pagina = leer(siguiente(pagina));
+		assertEquals(List.of(tercera, cuarta), ids(pagina));
+		// la pagina estaba completa, asi que hay enlace, pero ya no quedan mas
+		pagina = leer(siguiente(pagina));
+		assertEquals(List.of(), ids(pagina));
+		assertFalse(pagina.path("_links").has("next"));
+	}
+
+	@Test
+	void elTamanoTieneQueEstarEntreUnoYElMaximo() throws Exception {
+		String listado = "/api/cenads/" + recurso.getCenad().getId() + "/solicitudes/siguientes?size=";
+		mvc.perform(get(listado + 0)).andExpect(status().isBadRequest());
+		mvc.perform(get(listado + 1001)).andExpect(status().isBadRequest());
+		mvc.perform(get(listado + 1000)).andExpect(status().isOk());
+	}
+
+	/**
+	 * Lee todas las paginas siguiendo los enlaces next tal como llegan
+	 * @return Devuelve los ids en el orden en que han salido
+	 */
+	private List<Long> recorrer(String url) throws Exception {
+		List<Long> leidas = new ArrayList<>();
+		for (int paginas = 0; url != null; paginas++) {
+			assertTrue(paginas < 100, "el recorrido no termina");
+			JsonNode pagina = leer(url);
+			leidas.addAll(ids(pagina));
+			url = pagina.path("_links").has("next") ? siguiente(pagina) : null;
+		}
+		return leidas;
+	}
+
+	private JsonNode leer(String url) throws Exception {
+		return mapper.readTree(mvc.perform(get(URI.create(url))).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString());
+	}
+
+	private static String siguiente(JsonNode pagina) {
+		String enlace = pagina.get("_links").get("next").get("href").asText();
+		// en UTC: un + en el enlace se leeria como un espacio
+		assertFalse(enlace.contains("+"), enlace);
+		return enlace;
+	}
+
+	private static List<Long> ids(JsonNode pagina) {
+		List<Long> ids = new ArrayList<>();
+		pagina.path("_embedded").path("solicitudes").forEach(s -> ids.add(s.get("idString").asLong()));
+		return ids;
+	}
+
+	private Long solicitud(String inicio, String estado) {
+		SolicitudRecurso solicitud = new SolicitudRecurso();
+		solicitud.setRecurso(recurso);
+		solicitud.setEstado(estado);
+		if (inicio != null) {
+			solicitud.setFechaHoraInicioRecurso(Date.from(Instant.parse(inicio)));
+			solicitud.setFechaHoraFinRecurso(Date.from(Instant.parse(inicio).plusSeconds(3600)));
+		}
+		return solicitudRecursoDAO.save(solicitud).getId();
+	}
+
+	/**
+	 * Crea un recurso en un CENAD nuevo, para que cada prueba recorra solo sus solicitudes
+	 */
+	private Recurso crearRecurso(String nombre) {
+		Cenad cenad = new Cenad();
+		cenad.setNombre(nombre);
+		Categoria categoria = new Categoria();
+		categoria.setNombre(nombre);
+		categoria.setCenad(cenadDAO.save(cenad));
+		TipoFormulario tipoFormulario = new TipoFormulario();
+		tipoFormulario.setNombre(nombre);
+		Recurso recurso = new Recurso();
+		recurso.setNombre(nombre);
+		recurso.setCategoria(categoriaDAO.save(categoria));
+		recurso.setTipoFormulario(tipoFormularioDAO.save(tipoFormulario));
+		return recursoDAO.save(recurso);
+	}
+}
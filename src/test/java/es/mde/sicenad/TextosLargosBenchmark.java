@@ -0,0 +1,185 @@
+package es.mde.sicenad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.mde.entidades.Categoria;
+import es.mde.entidades.Cenad;
+import es.mde.entidades.Recurso;
+import es.mde.entidades.SolicitudRecurso;
+import es.mde.entidades.TipoFormulario;
+import es.mde.repositorios.RecursoDAO;
+import es.mde.repositorios.SolicitudRecursoDAO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Mide con los metodos de los DAO lo que cuesta una pagina de solicitudes y de recursos, que no carga sus textos
+ * largos (@Lob LAZY), frente a leer tambien los textos de cada fila, como hacia el JSON de los listados antes. El
+ * detalle (findById) los carga en la misma consulta. Usa la BD en memoria del perfil test y no se lanza con el
+ * resto de pruebas: gradlew benchmark
+ *
+ * @author JOSE LUIS PUENTES ALAMOS - MIGUEL PRADA MUNOZ
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Tag("benchmark")
+class TextosLargosBenchmark {
+
+	private static final int TAMANO_PAGINA = 20;
+	private static final int TAMANO_TEXTO = 8000;
+	private static final int REPETICIONES = 50;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private SolicitudRecursoDAO solicitudRecursoDAO;
+
+	@Autowired
+	private RecursoDAO recursoDAO;
+
+	@Test
+	void paginaSolicitudes() {
+		Long idCenad = crearDatos();
+		Pageable pagina = PageRequest.of(0, TAMANO_PAGINA, Sort.by(Sort.Direction.DESC, "id"));
+		medir("findAll", () -> solicitudRecursoDAO.findAll(pagina).getContent(), SolicitudRecurso::getId,
+				id -> solicitudRecursoDAO.findById(id).orElseThrow(), "observaciones", "observacionesCenad");
+		medir("findByCenad", () -> solicitudRecursoDAO.findByCenad(idCenad, pagina).getContent(),
+				SolicitudRecurso::getId, id -> solicitudRecursoDAO.findById(id).orElseThrow(), "observaciones",
+				"observacionesCenad");
+	}
+
+	@Test
+	void paginaRecursos() {
+		Long idCenad = crearDatos();
+		Pageable pagina = PageRequest.of(0, TAMANO_PAGINA, Sort.by(Sort.Direction.DESC, "id"));
+		medir("findAll", () -> recursoDAO.findAll(pagina).getContent(), Recurso::getId,
+				id -> recursoDAO.findById(id).orElseThrow(), "descripcion", "otros");
+		medir("findByCenad", () -> recursoDAO.findByCenad(idCenad, pagina).getContent(), Recurso::getId,
+				id -> recursoDAO.findById(id).orElseThrow(), "descripcion", "otros");
+	}
+
+	/**
+	 * Carga la pagina con el metodo del DAO y comprueba que no lee los textos. Muestra las sentencias y la memoria
+	 * de la pagina sola y de la pagina leyendo ademas los textos de cada fila, y comprueba que el detalle carga los
+	 * textos con una sola sentencia
+	 */
+	private <T> void medir(String metodo, Supplier<List<T>> pagina, Function<T, Long> id, Function<Long, T> detalle,
+			String... textos) {
+		Statistics estadisticas = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estadisticas.setStatisticsEnabled(true);
+
+		entityManager.clear();
+		estadisticas.clear();
+		List<T> entidades = pagina.get();
+		long sentenciasPagina = estadisticas.getPrepareStatementCount();
+		assertEquals(TAMANO_PAGINA, entidades.size());
+		String clase = Hibernate.getClass(entidades.get(0)).getSimpleName();
+		for (T entidad : entidades) {
+			for (String texto : textos) {
+				assertFalse(Hibernate.isPropertyInitialized(entidad, texto), texto + " deberia ser LAZY");
+			}
+		}
+		estadisticas.clear();
+		long bytes = 0;
+		for (T entidad : entidades) {
+			bytes += leerTextos(entidad);
+		}
+		long sentenciasTextos = estadisticas.getPrepareStatementCount();
+
+		entityManager.clear();
+		estadisticas.clear();
+		T uno = detalle.apply(id.apply(entidades.get(0)));
+		assertEquals(1, estadisticas.getPrepareStatementCount(), "el detalle deberia ser una sola consulta");
+		for (String texto : textos) {
+			assertTrue(Hibernate.isPropertyInitialized(uno, texto), texto + " deberia cargarse en el detalle");
+		}
+
+		long memoriaPagina = memoria(() -> pagina.get());
+		long memoriaConTextos = memoria(() -> pagina.get().forEach(this::leerTextos));
+		System.out.printf("%s.%s: pagina de %d en %d sentencias y %d KB; leyendo %d bytes de texto, %d sentencias mas"
+				+ " y %d KB%n", clase, metodo, TAMANO_PAGINA, sentenciasPagina, memoriaPagina / 1024, bytes,
+				sentenciasTextos, memoriaConTextos / 1024);
+	}
+
+	/**
+	 * Memoria media reservada por el hilo en cada repeticion, empezando cada vez con la sesion vacia
+	 */
+	private long memoria(Runnable carga) {
+		com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long hilo = Thread.currentThread().getId();
+		entityManager.clear();
+		carga.run();
+		long antes = hilos.getThreadAllocatedBytes(hilo);
+		for (int i = 0; i < REPETICIONES; i++) {
+			entityManager.clear();
+			carga.run();
+		}
+		return (hilos.getThreadAllocatedBytes(hilo) - antes) / REPETICIONES;
+	}
+
+	private long leerTextos(Object entidad) {
+		if (entidad instanceof SolicitudRecurso solicitud) {
+			return solicitud.getObservaciones().length() + solicitud.getObservacionesCenad().length();
+		}
+		Recurso recurso = (Recurso) entidad;
+		return recurso.getDescripcion().length() + recurso.getOtros().length();
+	}
+
+	/**
+	 * Crea un CENAD con una pagina de recursos y de solicitudes con textos largos. Se deshace al terminar la prueba
+	 * @return Devuelve el id del CENAD
+	 */
+	private Long crearDatos() {
+		String texto = "x".repeat(TAMANO_TEXTO);
+		Cenad cenad = new Cenad();
+		cenad.setNombre("CENAD BENCHMARK");
+		entityManager.persist(cenad);
+		Categoria categoria = new Categoria();
+		categoria.setNombre("CATEGORIA BENCHMARK");
+		categoria.setCenad(cenad);
+		entityManager.persist(categoria);
+		TipoFormulario tipoFormulario = new TipoFormulario();
+		tipoFormulario.setNombre("FORMULARIO BENCHMARK");
+		entityManager.persist(tipoFormulario);
+		for (int i = 0; i < TAMANO_PAGINA; i++) {
+			Recurso recurso = new Recurso();
+			recurso.setNombre("RECURSO BENCHMARK " + i);
+			recurso.setDescripcion(texto);
+			recurso.setOtros(texto);
+			recurso.setCategoria(categoria);
+			recurso.setTipoFormulario(tipoFormulario);
+			entityManager.persist(recurso);
+			SolicitudRecurso solicitud = new SolicitudRecurso();
+			solicitud.setRecurso(recurso);
+			solicitud.setEstado("Cancelada");
+			solicitud.setObservaciones(texto);
+			solicitud.setObservacionesCenad(texto);
+			entityManager.persist(solicitud);
+		}
+		entityManager.flush();
+		return cenad.getId();
+	}
+}